@@ -0,0 +1,25 @@
+package com.example.config;
+
+import com.example.controller.LiveSessionSocketHandler;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final LiveSessionSocketHandler liveSessionSocketHandler;
+
+    public WebSocketConfig(LiveSessionSocketHandler liveSessionSocketHandler) {
+        this.liveSessionSocketHandler = liveSessionSocketHandler;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // Handshakes are authenticated by the JWT filter like any other request
+        registry.addHandler(liveSessionSocketHandler, "/ws/live-sessions")
+                .setAllowedOrigins("*");
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.controller;
+
+import com.example.dto.ApiResponse;
+import com.example.dto.LiveQuestionTallyDTO;
+import com.example.dto.LiveSessionDTO;
+import com.example.model.User;
+import com.example.repository.UserRepository;
+import com.example.service.LiveSessionCoordinator;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/live-sessions")
+@Tag(name = "Live Quiz Sessions", description = "API endpoints for running in-class live quizzes. " +
+        "Students connect to /ws/live-sessions?sessionId={id} to receive questions and answer them.")
+public class LiveSessionController {
+
+    @Autowired
+    private LiveSessionCoordinator liveSessionCoordinator;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Operation(
+        summary = "Start a live session", 
+        description = "Open a live quiz session over the questions of a quiz bank, or a random selection of questionCount of them. " +
+                      "No question is shown until the teacher advances to the first one."
+    )
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+        description = "Quiz bank ID and optional number of questions",
+        required = true,
+        content = @Content(
+            mediaType = "application/json",
+            schema = @Schema(
+                requiredProperties = {"quizBankId"},
+                example = "{\"quizBankId\": 123, \"questionCount\": 10}"
+            )
+        )
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "201", 
+            description = "Live session started successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400", 
+            description = "Quiz bank not found or has no questions"
+        )
+    })
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @PostMapping
+    public ResponseEntity<ApiResponse<LiveSessionDTO>> createSession(@RequestBody Map<String, Object> request) {
+        try {
+            if (!(request.get("quizBankId") instanceof Number quizBankId)) {
+                throw new IllegalArgumentException("Quiz bank ID must be provided");
+            }
+            Integer questionCount = request.get("questionCount") instanceof Number count ? count.intValue() : null;
+            LiveSessionDTO session = liveSessionCoordinator.createSession(getCurrentUserId(), quizBankId.longValue(), questionCount);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Live session started successfully", session), HttpStatus.CREATED);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(summary = "Get a live session", description = "Retrieve the state of a running live session")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Live session retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Live session not found")
+    })
+    @GetMapping("/{id}")
+    public ResponseEntity<ApiResponse<LiveSessionDTO>> getSession(
+            @Parameter(description = "ID of the live session") @PathVariable Long id) {
+        try {
+            LiveSessionDTO session = liveSessionCoordinator.getSession(id);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Live session retrieved successfully", session), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Operation(summary = "Show the next question", description = "Close the open question, if any, and broadcast the next one to every connected student")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Next question broadcast"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "No more questions or session not controlled by the user")
+    })
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @PostMapping("/{id}/next")
+    public ResponseEntity<ApiResponse<LiveSessionDTO>> nextQuestion(
+            @Parameter(description = "ID of the live session") @PathVariable Long id) {
+        try {
+            LiveSessionDTO session = liveSessionCoordinator.nextQuestion(id, getCurrentUserId());
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Next question broadcast", session), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(summary = "Close the open question", description = "Stop accepting answers and broadcast the answer counts and the correct answer")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Question closed"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "No question is open")
+    })
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @PostMapping("/{id}/close")
+    public ResponseEntity<ApiResponse<LiveQuestionTallyDTO>> closeQuestion(
+            @Parameter(description = "ID of the live session") @PathVariable Long id) {
+        try {
+            LiveQuestionTallyDTO tally = liveSessionCoordinator.closeQuestion(id, getCurrentUserId());
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Question closed", tally), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(summary = "Get question answer counts", description = "Retrieve the answer counts and correct answer of a question once it has been closed")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Answer counts retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Live session or question not found, or question still open")
+    })
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @GetMapping("/{id}/questions/{questionIndex}/tally")
+    public ResponseEntity<ApiResponse<LiveQuestionTallyDTO>> getTally(
+            @Parameter(description = "ID of the live session") @PathVariable Long id,
+            @Parameter(description = "Zero-based position of the question in the session") @PathVariable int questionIndex) {
+        try {
+            LiveQuestionTallyDTO tally = liveSessionCoordinator.getTally(id, questionIndex);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Answer counts retrieved successfully", tally), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Operation(
+        summary = "End a live session", 
+        description = "End the session, store a completed quiz attempt with its responses for every student who answered, " +
+                      "and send each student their score"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Live session ended"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Session already ended or not controlled by the user")
+    })
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @PostMapping("/{id}/end")
+    public ResponseEntity<ApiResponse<LiveSessionDTO>> endSession(
+            @Parameter(description = "ID of the live session") @PathVariable Long id) {
+        try {
+            LiveSessionDTO session = liveSessionCoordinator.endSession(id, getCurrentUserId());
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Live session ended", session), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private Long getCurrentUserId() {
+        String username = SecurityContextHolder.getContext().getAuthentication().getName();
+        User user = userRepository.findByUsername(username);
+        if (user == null) {
+            throw new IllegalArgumentException("Authenticated user not found");
+        }
+        return user.getId();
+    }
+}
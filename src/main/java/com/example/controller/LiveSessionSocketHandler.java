@@ -0,0 +1,95 @@
+package com.example.controller;
+
+import com.example.dto.LiveSessionEventDTO;
+import com.example.model.User;
+import com.example.repository.UserRepository;
+import com.example.service.LiveSessionCoordinator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.security.Principal;
+
+/**
+ * WebSocket endpoint of live quiz sessions: {@code /ws/live-sessions?sessionId=<id>}.
+ * <p>
+ * Students send {@code {"type": "ANSWER", "questionId": 1, "selectedAnswer": "B"}} and receive
+ * QUESTION, QUESTION_CLOSED, ANSWER_ACCEPTED, ERROR and SESSION_ENDED messages.
+ */
+@Component
+public class LiveSessionSocketHandler extends TextWebSocketHandler {
+
+    private static final String SESSION_ID_ATTRIBUTE = "liveSessionId";
+    private static final String STUDENT_ID_ATTRIBUTE = "liveSessionStudentId";
+
+    private final LiveSessionCoordinator liveSessionCoordinator;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    public LiveSessionSocketHandler(LiveSessionCoordinator liveSessionCoordinator, UserRepository userRepository,
+                                    ObjectMapper objectMapper) {
+        this.liveSessionCoordinator = liveSessionCoordinator;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws IOException {
+        Principal principal = session.getPrincipal();
+        User student = principal != null ? userRepository.findByUsername(principal.getName()) : null;
+        if (student == null) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("Authenticated user not found"));
+            return;
+        }
+        try {
+            String sessionIdParameter = UriComponentsBuilder.fromUri(session.getUri()).build()
+                    .getQueryParams().getFirst("sessionId");
+            if (sessionIdParameter == null) {
+                throw new IllegalArgumentException("Live session ID must be provided");
+            }
+            Long sessionId = Long.valueOf(sessionIdParameter);
+            session.getAttributes().put(SESSION_ID_ATTRIBUTE, sessionId);
+            session.getAttributes().put(STUDENT_ID_ATTRIBUTE, student.getId());
+            liveSessionCoordinator.connect(sessionId, student.getId(), session);
+        } catch (IllegalArgumentException e) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason(e.getMessage()));
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        Long sessionId = (Long) session.getAttributes().get(SESSION_ID_ATTRIBUTE);
+        Long studentId = (Long) session.getAttributes().get(STUDENT_ID_ATTRIBUTE);
+        try {
+            JsonNode request = objectMapper.readTree(message.getPayload());
+            if (!"ANSWER".equals(request.path("type").asText())) {
+                throw new IllegalArgumentException("Unsupported message type");
+            }
+            JsonNode questionId = request.path("questionId");
+            if (!questionId.canConvertToLong()) {
+                throw new IllegalArgumentException("Question ID must be provided");
+            }
+            liveSessionCoordinator.answer(sessionId, studentId, questionId.asLong(),
+                    request.path("selectedAnswer").asText(null));
+            liveSessionCoordinator.reply(session, LiveSessionEventDTO.answerAccepted(sessionId, questionId.asLong()));
+        } catch (IOException e) {
+            liveSessionCoordinator.reply(session, LiveSessionEventDTO.error(sessionId, "Malformed message"));
+        } catch (IllegalArgumentException e) {
+            liveSessionCoordinator.reply(session, LiveSessionEventDTO.error(sessionId, e.getMessage()));
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Long sessionId = (Long) session.getAttributes().get(SESSION_ID_ATTRIBUTE);
+        if (sessionId != null) {
+            liveSessionCoordinator.disconnect(sessionId, session);
+        }
+    }
+}
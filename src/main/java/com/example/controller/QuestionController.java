@@ -3,8 +3,14 @@ package com.example.controller;
 import com.example.dto.ApiResponse;
 import com.example.dto.QuestionCreateDTO;
 import com.example.dto.QuestionDTO;
+import com.example.dto.QuestionImportResultDTO;
 import com.example.dto.QuestionUpdateDTO;
+import com.example.dto.RegradeJobDTO;
+import com.example.dto.SimilarQuestionDTO;
+import com.example.service.QuestionFileFormat;
+import com.example.service.QuestionImportService;
 import com.example.service.QuestionService;
+import com.example.service.RegradeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,8 +19,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -26,6 +35,12 @@ public class QuestionController {
     @Autowired
     private QuestionService questionService;
 
+    @Autowired
+    private RegradeService regradeService;
+
+    @Autowired
+    private QuestionImportService questionImportService;
+
     @Operation(summary = "Create a new question", description = "Create a new question for a quiz bank")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Question created successfully"),
@@ -41,6 +56,92 @@ public class QuestionController {
         }
     }
 
+    @Operation(
+        summary = "Import questions", 
+        description = "Bulk import questions into a quiz bank from a CSV file (header: questionText,questionType,options,correctAnswer, " +
+                      "optionally difficulty,tags; options and tags separated by |) or a JSON Lines file (one question object per line). " +
+                      "Valid rows are imported; invalid rows are skipped and reported with their row number."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Questions imported",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Quiz bank not found or unreadable file")
+    })
+    @PostMapping(value = "/quiz-bank/{quizBankId}/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ApiResponse<QuestionImportResultDTO>> importQuestions(
+            @Parameter(description = "ID of the quiz bank to import into") @PathVariable Long quizBankId,
+            @Parameter(description = "CSV or JSON Lines file") @RequestParam("file") MultipartFile file,
+            @Parameter(description = "CSV or JSONL; inferred from the file name when omitted") @RequestParam(required = false) String format) {
+        try {
+            QuestionFileFormat fileFormat = QuestionFileFormat.resolve(format, file.getOriginalFilename());
+            QuestionImportResultDTO result = questionImportService.importQuestions(quizBankId, file.getInputStream(), fileFormat);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Questions imported", result), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(
+        summary = "Search questions", 
+        description = "Search question text across all quiz banks, or within one quiz bank. Every word of the query must appear, " +
+                      "possibly inside a longer word; questions containing the exact words rank first."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Questions retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Empty query")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<List<QuestionDTO>>> searchQuestions(
+            @Parameter(description = "Words to search for") @RequestParam("q") String query,
+            @Parameter(description = "Optional quiz bank to search in") @RequestParam(required = false) Long quizBankId,
+            @Parameter(description = "Maximum number of results (default: 20, at most 100)") @RequestParam(defaultValue = "20") Integer limit) {
+        try {
+            List<QuestionDTO> questions = questionService.searchQuestions(query, quizBankId, limit);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Questions retrieved successfully", questions), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(summary = "Find questions similar to a text", description = "Find existing questions in any quiz bank whose text is nearly the same, e.g. before creating a question")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Similar questions retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Empty text or invalid similarity")
+    })
+    @GetMapping("/similar")
+    public ResponseEntity<ApiResponse<List<SimilarQuestionDTO>>> findSimilarToText(
+            @Parameter(description = "Question text to compare") @RequestParam String text,
+            @Parameter(description = "Maximum number of results (default: 10, at most 100)") @RequestParam(defaultValue = "10") Integer limit,
+            @Parameter(description = "Minimum estimated similarity from 0 to 1 (default: 0.5)") @RequestParam(required = false) Double minSimilarity) {
+        try {
+            List<SimilarQuestionDTO> questions = questionService.findSimilarToText(text, limit, minSimilarity);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Similar questions retrieved successfully", questions), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(summary = "Find near-duplicates of a question", description = "Find questions in any quiz bank whose text is nearly the same as the given question")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Similar questions retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Question not found")
+    })
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<ApiResponse<List<SimilarQuestionDTO>>> findSimilarQuestions(
+            @Parameter(description = "ID of the question to compare") @PathVariable Long id,
+            @Parameter(description = "Maximum number of results (default: 10, at most 100)") @RequestParam(defaultValue = "10") Integer limit,
+            @Parameter(description = "Minimum estimated similarity from 0 to 1 (default: 0.5)") @RequestParam(required = false) Double minSimilarity) {
+        try {
+            List<SimilarQuestionDTO> questions = questionService.findSimilarQuestions(id, limit, minSimilarity);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Similar questions retrieved successfully", questions), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
+        }
+    }
+
     @Operation(summary = "Get a question by ID", description = "Retrieve question details by its ID")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Question retrieved successfully"),
@@ -81,9 +182,12 @@ public class QuestionController {
     @GetMapping("/quiz-bank/{quizBankId}/random")
     public ResponseEntity<ApiResponse<List<QuestionDTO>>> getRandomQuestionsByQuizBankId(
             @Parameter(description = "ID of the quiz bank") @PathVariable Long quizBankId,
-            @Parameter(description = "Number of random questions to retrieve (default: 10)") @RequestParam(defaultValue = "10") Integer count) {
+            @Parameter(description = "Number of random questions to retrieve (default: 10)") @RequestParam(defaultValue = "10") Integer count,
+            @Parameter(description = "Optional seed; the same seed returns the same questions while the bank is unchanged") @RequestParam(required = false) Long seed) {
         try {
-            List<QuestionDTO> questions = questionService.getRandomQuestionsByQuizBankId(quizBankId, count);
+            List<QuestionDTO> questions = seed != null
+                    ? questionService.getRandomQuestionsByQuizBankId(quizBankId, count, seed)
+                    : questionService.getRandomQuestionsByQuizBankId(quizBankId, count);
             return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Random questions retrieved successfully", questions), HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
@@ -122,4 +226,55 @@ public class QuestionController {
             return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
         }
     }
+
+    @Operation(summary = "Regrade a question", description = "Start a background job that regrades every stored response to the question against its current correct answer")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Regrade job started"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Question not found")
+    })
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @PostMapping("/{id}/regrade")
+    public ResponseEntity<ApiResponse<RegradeJobDTO>> startRegrade(
+            @Parameter(description = "ID of the question to regrade") @PathVariable Long id) {
+        try {
+            RegradeJobDTO job = regradeService.startRegrade(id);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Regrade job started", job), HttpStatus.ACCEPTED);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Operation(summary = "Get the latest regrade of a question", description = "Retrieve the progress of the most recent regrade job for the question")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Regrade job retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "No regrade job found")
+    })
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @GetMapping("/{id}/regrade")
+    public ResponseEntity<ApiResponse<RegradeJobDTO>> getLatestRegrade(
+            @Parameter(description = "ID of the question") @PathVariable Long id) {
+        try {
+            RegradeJobDTO job = regradeService.getLatestJobForQuestion(id);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Regrade job retrieved successfully", job), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Operation(summary = "Get regrade job progress", description = "Retrieve the progress of a regrade job by its ID")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Regrade job retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Regrade job not found")
+    })
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @GetMapping("/regrade-jobs/{jobId}")
+    public ResponseEntity<ApiResponse<RegradeJobDTO>> getRegradeJob(
+            @Parameter(description = "ID of the regrade job") @PathVariable Long jobId) {
+        try {
+            RegradeJobDTO job = regradeService.getJob(jobId);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Regrade job retrieved successfully", job), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
+        }
+    }
 } 
\ No newline at end of file
@@ -2,10 +2,14 @@ package com.example.controller;
 
 import com.example.dto.ApiResponse;
 import com.example.dto.LearningItemDto;
+import com.example.dto.QuizBankAnalyticsDTO;
 import com.example.dto.QuizBankDTO;
 import com.example.dto.QuizBankCreateDTO;
 import com.example.dto.QuizBankUpdateDTO;
 import com.example.dto.QuizBankLearningItemAssociationDto;
+import com.example.service.ItemAnalyticsService;
+import com.example.service.QuestionExportService;
+import com.example.service.QuestionFileFormat;
 import com.example.service.QuizBankService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,9 +19,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -29,6 +38,12 @@ public class QuizBankController {
     @Autowired
     private QuizBankService quizBankService;
 
+    @Autowired
+    private ItemAnalyticsService itemAnalyticsService;
+
+    @Autowired
+    private QuestionExportService questionExportService;
+
     @Operation(summary = "Create a new quiz bank", description = "Create a new quiz bank with the provided information")
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "201", description = "Quiz bank created successfully"),
@@ -158,4 +173,72 @@ public class QuizBankController {
             return new ResponseEntity<>(new ApiResponse<>("ERROR", "An unexpected error occurred: " + e.getMessage(), null), HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-} 
\ No newline at end of file
+
+    @Operation(summary = "Get quiz bank item analytics", description = "Retrieve difficulty, discrimination and answer frequencies for every question in a quiz bank")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Analytics retrieved successfully"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Quiz bank not found")
+    })
+    @GetMapping("/{id}/analytics")
+    public ResponseEntity<ApiResponse<QuizBankAnalyticsDTO>> getQuizBankAnalytics(
+            @Parameter(description = "ID of the quiz bank") @PathVariable Long id) {
+        try {
+            QuizBankAnalyticsDTO analytics = itemAnalyticsService.getAnalytics(id);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Analytics retrieved successfully", analytics), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Operation(summary = "Rebuild quiz bank item analytics", description = "Start a background job that rebuilds the item analytics of a quiz bank from all stored responses")
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "202", description = "Backfill started"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Quiz bank not found")
+    })
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @PostMapping("/{id}/analytics/backfill")
+    public ResponseEntity<ApiResponse<Void>> backfillQuizBankAnalytics(
+            @Parameter(description = "ID of the quiz bank") @PathVariable Long id) {
+        try {
+            itemAnalyticsService.startBackfill(id);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Analytics backfill started", null), HttpStatus.ACCEPTED);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Operation(
+        summary = "Export a quiz bank", 
+        description = "Download the questions of a quiz bank as JSON Lines or CSV, in the format accepted by the question import. " +
+                      "The file is streamed from the database, optionally gzip-compressed."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Export streamed"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Unsupported format"),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Quiz bank not found")
+    })
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportQuizBank(
+            @Parameter(description = "ID of the quiz bank") @PathVariable Long id,
+            @Parameter(description = "JSONL or CSV") @RequestParam(defaultValue = "JSONL") String format,
+            @Parameter(description = "Compress the file with gzip") @RequestParam(defaultValue = "false") boolean gzip) {
+        QuestionFileFormat fileFormat;
+        try {
+            fileFormat = QuestionFileFormat.resolve(format, null);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            questionExportService.checkExportable(id);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+
+        String fileName = "quiz-bank-" + id + fileFormat.extension() + (gzip ? ".gz" : "");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(gzip ? "application/gzip" : fileFormat.contentType() + ";charset=UTF-8"));
+        headers.setContentDisposition(ContentDisposition.attachment().filename(fileName).build());
+        StreamingResponseBody body = out -> questionExportService.export(id, fileFormat, gzip, out);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.controller;
 
 import com.example.dto.ApiResponse;
+import com.example.dto.BlueprintSectionDTO;
+import com.example.dto.LeaderboardDTO;
+import com.example.dto.PagedResponseDto;
+import com.example.dto.PaperPoolDTO;
 import com.example.dto.QuizAttemptDTO;
+import com.example.dto.QuizAttemptSummaryDTO;
 import com.example.dto.StudentResponseDTO;
 import com.example.dto.QuizResultDTO;
 import com.example.dto.QuizAttemptWithQuestionsDTO;
 import com.example.model.User;
 import com.example.repository.UserRepository;
 import com.example.service.QuizAttemptService;
+import com.example.service.QuizBlueprintService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -17,10 +23,13 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -36,6 +45,9 @@ public class QuizController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private QuizBlueprintService quizBlueprintService;
+
     @Operation(
         summary = "Start a quiz attempt", 
         description = "Initiate a new quiz attempt for a specific learning item. The student ID is automatically retrieved from the authenticated user. Returns the created quiz attempt with its unique ID and randomized questions for the quiz."
@@ -243,6 +255,38 @@ public class QuizController {
         }
     }
 
+    @Operation(
+        summary = "Resume a quiz attempt", 
+        description = "Retrieve the questions served when the quiz attempt was started, in their original order, " +
+                      "so an in-progress quiz can be resumed after a page reload"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Quiz attempt retrieved successfully with its questions",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404", 
+            description = "Quiz attempt not found or it has no recorded questions"
+        )
+    })
+    @GetMapping("/attempt/{quizAttemptId}/paper")
+    public ResponseEntity<ApiResponse<QuizAttemptWithQuestionsDTO>> resumeQuizAttempt(
+            @Parameter(
+                description = "ID of the quiz attempt to resume",
+                required = true,
+                example = "42"
+            ) 
+            @PathVariable Long quizAttemptId) {
+        try {
+            QuizAttemptWithQuestionsDTO quizAttempt = quizAttemptService.resumeQuizAttempt(quizAttemptId);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Quiz attempt retrieved successfully", quizAttempt), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
+        }
+    }
+
     @Operation(
         summary = "Get quiz results", 
         description = "Retrieve detailed results of a completed quiz attempt including total score, percentage, " +
@@ -276,6 +320,38 @@ public class QuizController {
         }
     }
 
+    @Operation(
+        summary = "Get quiz attempt score summary", 
+        description = "Retrieve the running score of a quiz attempt (questions answered, correct answers and points earned). " +
+                      "Works for both in-progress and completed attempts and does not include individual responses."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Quiz attempt summary retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404", 
+            description = "Quiz attempt not found"
+        )
+    })
+    @GetMapping("/attempt/{quizAttemptId}/summary")
+    public ResponseEntity<ApiResponse<QuizAttemptSummaryDTO>> getQuizAttemptSummary(
+            @Parameter(
+                description = "ID of the quiz attempt",
+                required = true,
+                example = "42"
+            ) 
+            @PathVariable Long quizAttemptId) {
+        try {
+            QuizAttemptSummaryDTO summary = quizAttemptService.getQuizAttemptSummary(quizAttemptId);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Quiz attempt summary retrieved successfully", summary), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
+        }
+    }
+
     @Operation(
         summary = "Get student's quiz attempts", 
         description = "Retrieve all quiz attempts (both in-progress and completed) for a specific student. " +
@@ -312,12 +388,12 @@ public class QuizController {
         summary = "Get student's quiz history", 
         description = "Retrieve the complete quiz history (completed attempts only) for a specific student and learning item. " +
                       "This can be used to show a student's performance over time on a particular quiz. " +
-                      "Results are ordered by attempt date with the most recent first."
+                      "Results are ordered by attempt date with the most recent first and returned one page at a time."
     )
     @ApiResponses(value = {
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
             responseCode = "200", 
-            description = "Student's quiz history retrieved successfully. Returns list of completed quiz results.",
+            description = "Student's quiz history retrieved successfully. Returns a page of completed quiz results.",
             content = @Content(schema = @Schema(implementation = ApiResponse.class))
         ),
         @io.swagger.v3.oas.annotations.responses.ApiResponse(
@@ -326,7 +402,7 @@ public class QuizController {
         )
     })
     @GetMapping("/student/{studentId}/history")
-    public ResponseEntity<ApiResponse<List<QuizResultDTO>>> getStudentQuizHistory(
+    public ResponseEntity<ApiResponse<PagedResponseDto<QuizResultDTO>>> getStudentQuizHistory(
             @Parameter(
                 description = "ID of the student",
                 required = true,
@@ -338,9 +414,16 @@ public class QuizController {
                 required = true,
                 example = "123"
             ) 
-            @RequestParam Long learningItemId) {
+            @RequestParam Long learningItemId,
+            @Parameter(description = "Page number (0-based)") 
+            @RequestParam(required = false) Integer page,
+            @Parameter(description = "Page size") 
+            @RequestParam(required = false) Integer size) {
         try {
-            List<QuizResultDTO> history = quizAttemptService.getStudentQuizHistory(studentId, learningItemId);
+            page = page == null ? 0 : page;
+            size = size == null ? 10 : size;
+            
+            PagedResponseDto<QuizResultDTO> history = quizAttemptService.getStudentQuizHistory(studentId, learningItemId, page, size);
             return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Student's quiz history retrieved successfully", history), HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
@@ -381,4 +464,204 @@ public class QuizController {
             return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.BAD_REQUEST);
         }
     }
-} 
\ No newline at end of file
+
+    @Operation(
+        summary = "Get quiz leaderboard", 
+        description = "Retrieve the best scores of a quiz learning item, one entry per student, highest first"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Leaderboard retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        )
+    })
+    @GetMapping("/learning-item/{learningItemId}/leaderboard")
+    public ResponseEntity<ApiResponse<LeaderboardDTO>> getLeaderboard(
+            @Parameter(description = "ID of the quiz learning item", required = true, example = "123") 
+            @PathVariable Long learningItemId) {
+        try {
+            LeaderboardDTO leaderboard = quizAttemptService.getLeaderboard(learningItemId);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Leaderboard retrieved successfully", leaderboard), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(
+        summary = "Monitor a quiz", 
+        description = "Open a Server-Sent Events stream of ATTEMPT_STARTED, ANSWER_SUBMITTED and ATTEMPT_COMPLETED events " +
+                      "for a quiz learning item. Proctors that cannot keep up with the stream are disconnected and may reconnect."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Event stream opened"
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404", 
+            description = "Learning item not found or not a quiz"
+        )
+    })
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @GetMapping(value = "/learning-item/{learningItemId}/monitor", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> monitorQuiz(
+            @Parameter(description = "ID of the quiz learning item", required = true, example = "123") 
+            @PathVariable Long learningItemId) {
+        try {
+            return new ResponseEntity<>(quizAttemptService.monitorLearningItem(learningItemId), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Operation(
+        summary = "Generate a paper pool", 
+        description = "Pre-generate randomized quiz papers for a quiz learning item ahead of a scheduled exam. " +
+                      "Attempts started with the same question count are served from the pool until it runs out; " +
+                      "any change to the quiz bank discards the pool."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "201", 
+            description = "Paper pool generated successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400", 
+            description = "Invalid counts or the learning item is not a quiz"
+        )
+    })
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @PostMapping("/learning-item/{learningItemId}/paper-pool")
+    public ResponseEntity<ApiResponse<PaperPoolDTO>> generatePaperPool(
+            @Parameter(description = "ID of the quiz learning item", required = true, example = "123") 
+            @PathVariable Long learningItemId,
+            @Parameter(description = "Number of papers to generate (default: 500)") 
+            @RequestParam(defaultValue = "500") Integer paperCount,
+            @Parameter(description = "Number of questions per paper (default: 10)") 
+            @RequestParam(defaultValue = "10") Integer questionCount) {
+        try {
+            PaperPoolDTO paperPool = quizAttemptService.generatePaperPool(learningItemId, questionCount, paperCount);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Paper pool generated successfully", paperPool), HttpStatus.CREATED);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(
+        summary = "Get paper pool status", 
+        description = "Retrieve how many pre-generated papers remain for a quiz learning item"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Paper pool retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404", 
+            description = "No current paper pool for this learning item"
+        )
+    })
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @GetMapping("/learning-item/{learningItemId}/paper-pool")
+    public ResponseEntity<ApiResponse<PaperPoolDTO>> getPaperPool(
+            @Parameter(description = "ID of the quiz learning item", required = true, example = "123") 
+            @PathVariable Long learningItemId) {
+        try {
+            PaperPoolDTO paperPool = quizAttemptService.getPaperPool(learningItemId);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Paper pool retrieved successfully", paperPool), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Operation(
+        summary = "Discard a paper pool", 
+        description = "Discard the remaining pre-generated papers of a quiz learning item; attempts are then sampled on demand"
+    )
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @DeleteMapping("/learning-item/{learningItemId}/paper-pool")
+    public ResponseEntity<ApiResponse<Void>> clearPaperPool(
+            @Parameter(description = "ID of the quiz learning item", required = true, example = "123") 
+            @PathVariable Long learningItemId) {
+        quizAttemptService.clearPaperPool(learningItemId);
+        return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Paper pool discarded successfully", null), HttpStatus.OK);
+    }
+
+    @Operation(
+        summary = "Set a quiz blueprint", 
+        description = "Define how many questions of each difficulty and tag a quiz learning item draws, e.g. 5 EASY, 10 MEDIUM and 5 HARD " +
+                      "questions tagged algebra or geometry. Attempts then follow the blueprint instead of the requested question count. " +
+                      "Any pre-generated paper pool is discarded."
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Blueprint saved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "400", 
+            description = "Invalid blueprint, not enough matching questions or the learning item is not a quiz"
+        )
+    })
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @PutMapping("/learning-item/{learningItemId}/blueprint")
+    public ResponseEntity<ApiResponse<List<BlueprintSectionDTO>>> setBlueprint(
+            @Parameter(description = "ID of the quiz learning item", required = true, example = "123") 
+            @PathVariable Long learningItemId,
+            @RequestBody List<BlueprintSectionDTO> sections) {
+        try {
+            List<BlueprintSectionDTO> blueprint = quizBlueprintService.setBlueprint(learningItemId, sections);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Blueprint saved successfully", blueprint), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    @Operation(
+        summary = "Get a quiz blueprint", 
+        description = "Retrieve the blueprint sections of a quiz learning item"
+    )
+    @ApiResponses(value = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "200", 
+            description = "Blueprint retrieved successfully",
+            content = @Content(schema = @Schema(implementation = ApiResponse.class))
+        ),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(
+            responseCode = "404", 
+            description = "No blueprint for this learning item"
+        )
+    })
+    @GetMapping("/learning-item/{learningItemId}/blueprint")
+    public ResponseEntity<ApiResponse<List<BlueprintSectionDTO>>> getBlueprint(
+            @Parameter(description = "ID of the quiz learning item", required = true, example = "123") 
+            @PathVariable Long learningItemId) {
+        try {
+            List<BlueprintSectionDTO> blueprint = quizBlueprintService.getBlueprint(learningItemId);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Blueprint retrieved successfully", blueprint), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @Operation(
+        summary = "Remove a quiz blueprint", 
+        description = "Remove the blueprint of a quiz learning item; attempts then draw the requested number of questions uniformly"
+    )
+    @PreAuthorize("hasAnyRole('TEACHER', 'ADMIN')")
+    @DeleteMapping("/learning-item/{learningItemId}/blueprint")
+    public ResponseEntity<ApiResponse<Void>> clearBlueprint(
+            @Parameter(description = "ID of the quiz learning item", required = true, example = "123") 
+            @PathVariable Long learningItemId) {
+        try {
+            quizBlueprintService.clearBlueprint(learningItemId);
+            return new ResponseEntity<>(new ApiResponse<>("SUCCESS", "Blueprint removed successfully", null), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(new ApiResponse<>("ERROR", e.getMessage(), null), HttpStatus.NOT_FOUND);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.dto;
+
+import com.example.model.QuestionDifficulty;
+import java.util.List;
+
+/**
+ * One section of a quiz blueprint: {@code count} questions of the given difficulty carrying any of
+ * the given tags. A null difficulty or empty tags match every question.
+ */
+public record BlueprintSectionDTO(
+    QuestionDifficulty difficulty,
+    List<String> tags,
+    Integer count
+) {
+    public BlueprintSectionDTO {
+        if (count == null || count <= 0) {
+            throw new IllegalArgumentException("Blueprint section count must be positive");
+        }
+        tags = tags != null ? List.copyOf(tags) : List.of();
+    }
+}
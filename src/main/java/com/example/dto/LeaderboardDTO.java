@@ -0,0 +1,20 @@
+package com.example.dto;
+
+import java.util.List;
+
+/**
+ * Best scores of a quiz learning item, one entry per student, highest first
+ */
+public record LeaderboardDTO(
+    Long learningItemId,
+    List<LeaderboardEntryDTO> entries
+) {
+    public LeaderboardDTO {
+        if (learningItemId == null) {
+            throw new IllegalArgumentException("Learning item ID must be specified");
+        }
+        if (entries == null) {
+            entries = List.of();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * A student's best completed attempt on a quiz leaderboard
+ */
+public record LeaderboardEntryDTO(
+    Integer rank,
+    Long studentId,
+    String studentName,
+    Long quizAttemptId,
+    Integer totalScore,
+    Integer maxPossibleScore,
+    LocalDateTime completedAt
+) {
+}
@@ -0,0 +1,24 @@
+package com.example.dto;
+
+import java.util.Map;
+
+/**
+ * Answers given to one question of a live quiz session, counted per option
+ */
+public record LiveQuestionTallyDTO(
+    Long questionId,
+    Integer questionIndex,
+    String correctAnswer,
+    Map<String, Long> answerCounts,
+    Long answeredCount,
+    Long correctCount
+) {
+    public LiveQuestionTallyDTO {
+        if (questionId == null) {
+            throw new IllegalArgumentException("Question ID must be specified");
+        }
+        if (answerCounts == null) {
+            answerCounts = Map.of();
+        }
+    }
+}
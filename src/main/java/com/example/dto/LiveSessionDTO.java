@@ -0,0 +1,28 @@
+package com.example.dto;
+
+import com.example.model.LiveSessionStatus;
+import java.time.LocalDateTime;
+
+/**
+ * State of a live quiz session run by a teacher
+ */
+public record LiveSessionDTO(
+    Long id,
+    Long quizBankId,
+    String quizBankTitle,
+    LiveSessionStatus status,
+    Integer currentQuestionIndex,
+    Integer questionCount,
+    Integer participantCount,
+    Integer connectionCount,
+    LocalDateTime startedAt
+) {
+    public LiveSessionDTO {
+        if (id == null) {
+            throw new IllegalArgumentException("Live session ID must be specified");
+        }
+        if (status == null) {
+            throw new IllegalArgumentException("Live session status must be specified");
+        }
+    }
+}
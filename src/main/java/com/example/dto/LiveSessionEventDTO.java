@@ -0,0 +1,60 @@
+package com.example.dto;
+
+import com.example.model.QuestionType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * Message exchanged with students over the live session WebSocket.
+ * Fields that do not apply to the message type are omitted.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record LiveSessionEventDTO(
+    String type,
+    Long sessionId,
+    Integer questionIndex,
+    Long questionId,
+    String questionText,
+    QuestionType questionType,
+    List<String> options,
+    LiveQuestionTallyDTO tally,
+    Integer score,
+    Integer maxPossibleScore,
+    String message
+) {
+    public static final String QUESTION = "QUESTION";
+    public static final String QUESTION_CLOSED = "QUESTION_CLOSED";
+    public static final String ANSWER_ACCEPTED = "ANSWER_ACCEPTED";
+    public static final String SESSION_ENDED = "SESSION_ENDED";
+    public static final String ERROR = "ERROR";
+
+    public LiveSessionEventDTO {
+        if (type == null) {
+            throw new IllegalArgumentException("Message type must be specified");
+        }
+    }
+
+    public static LiveSessionEventDTO question(Long sessionId, int questionIndex, QuestionDTO question) {
+        // The correct answer is only revealed when the question closes
+        return new LiveSessionEventDTO(QUESTION, sessionId, questionIndex, question.id(), question.questionText(),
+                question.questionType(), question.options(), null, null, null, null);
+    }
+
+    public static LiveSessionEventDTO questionClosed(Long sessionId, LiveQuestionTallyDTO tally) {
+        return new LiveSessionEventDTO(QUESTION_CLOSED, sessionId, tally.questionIndex(), tally.questionId(), null,
+                null, null, tally, null, null, null);
+    }
+
+    public static LiveSessionEventDTO answerAccepted(Long sessionId, Long questionId) {
+        return new LiveSessionEventDTO(ANSWER_ACCEPTED, sessionId, null, questionId, null, null, null, null, null, null, null);
+    }
+
+    public static LiveSessionEventDTO sessionEnded(Long sessionId, Integer score, Integer maxPossibleScore) {
+        return new LiveSessionEventDTO(SESSION_ENDED, sessionId, null, null, null, null, null, null, score,
+                maxPossibleScore, null);
+    }
+
+    public static LiveSessionEventDTO error(Long sessionId, String message) {
+        return new LiveSessionEventDTO(ERROR, sessionId, null, null, null, null, null, null, null, null, message);
+    }
+}
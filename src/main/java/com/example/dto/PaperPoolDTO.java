@@ -0,0 +1,21 @@
+package com.example.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of the pre-generated paper pool of a quiz learning item
+ */
+public record PaperPoolDTO(
+    Long learningItemId,
+    Long quizBankId,
+    Integer questionCount,
+    Integer generatedPapers,
+    Integer remainingPapers,
+    LocalDateTime generatedAt
+) {
+    public PaperPoolDTO {
+        if (learningItemId == null) {
+            throw new IllegalArgumentException("Learning item ID must be specified");
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.dto;
+
+import java.util.Map;
+
+/**
+ * Item statistics of one question.
+ * Difficulty is the share of correct responses (p-value); discrimination is the point-biserial
+ * correlation between answering the question correctly and the attempt's score, over completed attempts.
+ */
+public record QuestionAnalyticsDTO(
+    Long questionId,
+    String questionText,
+    Long responseCount,
+    Long correctCount,
+    Double difficulty,
+    Long scoredAttemptCount,
+    Double discrimination,
+    Map<String, Long> answerFrequencies
+) {
+    public QuestionAnalyticsDTO {
+        if (questionId == null) {
+            throw new IllegalArgumentException("Question ID must be specified");
+        }
+        if (answerFrequencies == null) {
+            answerFrequencies = Map.of();
+        }
+    }
+}
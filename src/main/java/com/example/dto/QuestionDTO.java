@@ -1,5 +1,6 @@
 package com.example.dto;
 
+import com.example.model.QuestionDifficulty;
 import com.example.model.QuestionType;
 import java.util.List;
 
@@ -9,7 +10,9 @@ public record QuestionDTO(
     String questionText,
     QuestionType questionType,
     List<String> options,
-    String correctAnswer
+    String correctAnswer,
+    QuestionDifficulty difficulty,
+    List<String> tags
 ) {
     public QuestionDTO {
         if (questionText == null || questionText.isBlank()) {
@@ -18,9 +21,12 @@ public record QuestionDTO(
         if (questionType == null) {
             throw new IllegalArgumentException("Question type must be specified");
         }
-        if (options == null || options.isEmpty()) {
+        if (questionType.usesOptions() && (options == null || options.isEmpty())) {
             throw new IllegalArgumentException("Question must have at least one option");
         }
+        if (options == null) {
+            options = List.of();
+        }
         if (correctAnswer == null || correctAnswer.isBlank()) {
             throw new IllegalArgumentException("Correct answer must be specified");
         }
@@ -0,0 +1,10 @@
+package com.example.dto;
+
+/**
+ * A row of a question import that was rejected; {@code row} counts data rows from 1
+ */
+public record QuestionImportErrorDTO(
+    long row,
+    String message
+) {
+}
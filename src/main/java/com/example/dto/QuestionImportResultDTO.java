@@ -0,0 +1,23 @@
+package com.example.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk question import. At most a bounded number of errors is listed;
+ * {@code failedCount} counts all rejected rows.
+ */
+public record QuestionImportResultDTO(
+    Long quizBankId,
+    long importedCount,
+    long failedCount,
+    List<QuestionImportErrorDTO> errors
+) {
+    public QuestionImportResultDTO {
+        if (quizBankId == null) {
+            throw new IllegalArgumentException("Quiz bank ID must be specified");
+        }
+        if (errors == null) {
+            errors = List.of();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.dto;
+
+import com.example.model.QuizAttemptStatus;
+
+/**
+ * Score summary of a quiz attempt, built from the attempt's running counters
+ */
+public record QuizAttemptSummaryDTO(
+    Long quizAttemptId,
+    QuizAttemptStatus status,
+    Integer answeredCount,
+    Integer correctCount,
+    Integer earnedPoints,
+    Integer maxPossibleScore,
+    Double percentageScore
+) {
+    public QuizAttemptSummaryDTO {
+        if (quizAttemptId == null) {
+            throw new IllegalArgumentException("Quiz attempt ID must be specified");
+        }
+        if (percentageScore == null && earnedPoints != null) {
+            // In-progress attempts are scored against the questions answered so far
+            Integer denominator = maxPossibleScore != null ? maxPossibleScore : answeredCount;
+            if (denominator != null && denominator > 0) {
+                percentageScore = (double) earnedPoints / denominator * 100;
+            }
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.dto;
+
+import java.util.List;
+
+/**
+ * Item statistics of every question in a quiz bank
+ */
+public record QuizBankAnalyticsDTO(
+    Long quizBankId,
+    List<QuestionAnalyticsDTO> questions
+) {
+    public QuizBankAnalyticsDTO {
+        if (quizBankId == null) {
+            throw new IllegalArgumentException("Quiz bank ID must be specified");
+        }
+        if (questions == null) {
+            questions = List.of();
+        }
+    }
+}
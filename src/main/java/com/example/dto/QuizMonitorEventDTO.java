@@ -0,0 +1,34 @@
+package com.example.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Live event pushed to proctors monitoring a quiz learning item.
+ * Fields that do not apply to the event type are null.
+ */
+public record QuizMonitorEventDTO(
+    String type,
+    Long learningItemId,
+    Long quizAttemptId,
+    Long studentId,
+    String studentName,
+    Long questionId,
+    Boolean correct,
+    Integer totalScore,
+    Integer maxPossibleScore,
+    LocalDateTime occurredAt
+) {
+    public static final String ATTEMPT_STARTED = "ATTEMPT_STARTED";
+    public static final String ANSWER_SUBMITTED = "ANSWER_SUBMITTED";
+    public static final String ATTEMPT_COMPLETED = "ATTEMPT_COMPLETED";
+    public static final String HEARTBEAT = "HEARTBEAT";
+
+    public QuizMonitorEventDTO {
+        if (type == null) {
+            throw new IllegalArgumentException("Event type must be specified");
+        }
+        if (occurredAt == null) {
+            occurredAt = LocalDateTime.now();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Attempt-level fields of a quiz result, read by projection without loading the attempt entity
+ */
+public record QuizResultHeaderDTO(
+    Long quizAttemptId,
+    String quizTitle,
+    LocalDateTime startTime,
+    LocalDateTime endTime,
+    Integer totalScore,
+    Integer maxPossibleScore
+) {
+}
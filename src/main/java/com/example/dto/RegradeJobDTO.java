@@ -0,0 +1,27 @@
+package com.example.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a bulk regrade of the responses to one question
+ */
+public record RegradeJobDTO(
+    Long jobId,
+    Long questionId,
+    String status,
+    Long processedResponses,
+    Long changedResponses,
+    LocalDateTime queuedAt,
+    LocalDateTime startedAt,
+    LocalDateTime finishedAt,
+    String error
+) {
+    public RegradeJobDTO {
+        if (jobId == null) {
+            throw new IllegalArgumentException("Job ID must be specified");
+        }
+        if (questionId == null) {
+            throw new IllegalArgumentException("Question ID must be specified");
+        }
+    }
+}
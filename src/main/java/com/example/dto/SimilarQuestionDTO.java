@@ -0,0 +1,11 @@
+package com.example.dto;
+
+/**
+ * A question that looks like a near-duplicate; {@code similarity} is the estimated share of shared
+ * text, from 0 to 1
+ */
+public record SimilarQuestionDTO(
+    QuestionDTO question,
+    double similarity
+) {
+}
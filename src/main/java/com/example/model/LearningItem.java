@@ -13,7 +13,8 @@ import lombok.*;
 public class LearningItem {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "learning_items_seq")
+    @SequenceGenerator(name = "learning_items_seq", sequenceName = "learning_items_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -34,4 +35,7 @@ public class LearningItem {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "quiz_bank_id")
     private QuizBank quizBank;
+    
+    @Column(columnDefinition = "TEXT")
+    private String blueprint; // JSON array of blueprint sections; null draws questions uniformly
 }
\ No newline at end of file
@@ -0,0 +1,5 @@
+package com.example.model;
+
+public enum LiveSessionStatus {
+    WAITING, QUESTION_OPEN, QUESTION_CLOSED, ENDED
+}
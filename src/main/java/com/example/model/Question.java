@@ -13,7 +13,8 @@ import lombok.*;
 public class Question {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "questions_seq")
+    @SequenceGenerator(name = "questions_seq", sequenceName = "questions_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -30,4 +31,10 @@ public class Question {
     private String options; // JSON array of options
     
     private String correctAnswer;
+    
+    @Enumerated(EnumType.STRING)
+    private QuestionDifficulty difficulty;
+    
+    @Column(columnDefinition = "TEXT")
+    private String tags; // Comma-separated, see QuestionTags
 } 
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.example.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Stores an ordered list of question IDs as zig-zag varint deltas between consecutive IDs.
+ * IDs of one quiz bank are close together, so most entries take one or two bytes instead of eight,
+ * and the original order is kept.
+ */
+@Converter
+public class QuestionIdListConverter implements AttributeConverter<long[], byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(long[] questionIds) {
+        if (questionIds == null) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(questionIds.length * 2);
+        long previous = 0;
+        for (long questionId : questionIds) {
+            long delta = questionId - previous;
+            long zigZag = (delta << 1) ^ (delta >> 63);
+            while ((zigZag & ~0x7FL) != 0) {
+                out.write((int) ((zigZag & 0x7F) | 0x80));
+                zigZag >>>= 7;
+            }
+            out.write((int) zigZag);
+            previous = questionId;
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    public long[] convertToEntityAttribute(byte[] encoded) {
+        if (encoded == null) {
+            return null;
+        }
+        long[] questionIds = new long[encoded.length];
+        int count = 0;
+        long previous = 0;
+        int position = 0;
+        while (position < encoded.length) {
+            long zigZag = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = encoded[position++];
+                zigZag |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            previous += (zigZag >>> 1) ^ -(zigZag & 1);
+            questionIds[count++] = previous;
+        }
+        return Arrays.copyOf(questionIds, count);
+    }
+}
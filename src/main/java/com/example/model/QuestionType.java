@@ -1,6 +1,22 @@
 package com.example.model;
 
 public enum QuestionType {
-    MULTIPLE_CHOICE
-    // Can be extended in the future with other types like TRUE_FALSE, SHORT_ANSWER, etc.
-} 
\ No newline at end of file
+    MULTIPLE_CHOICE(true),
+    TRUE_FALSE(false),
+    MULTI_SELECT(true),
+    NUMERIC(false),
+    SHORT_ANSWER(false);
+
+    private final boolean usesOptions;
+
+    QuestionType(boolean usesOptions) {
+        this.usesOptions = usesOptions;
+    }
+
+    /**
+     * Whether answers are picked from the question's options, which must then be given
+     */
+    public boolean usesOptions() {
+        return usesOptions;
+    }
+}
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class QuizAttempt {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quiz_attempts_seq")
+    @SequenceGenerator(name = "quiz_attempts_seq", sequenceName = "quiz_attempts_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -33,10 +34,39 @@ public class QuizAttempt {
     
     private LocalDateTime endTime;
     
+    /**
+     * When the attempt is auto-completed; null for quizzes without a time limit
+     */
+    private LocalDateTime deadline;
+    
     private Integer totalScore;
     
     private Integer maxPossibleScore;
     
     @Enumerated(EnumType.STRING)
     private QuizAttemptStatus status;
+    
+    /**
+     * Running counters, incremented atomically with every graded submission.
+     * Null for attempts started before the counters existed.
+     */
+    @Builder.Default
+    private Integer answeredCount = 0;
+    
+    @Builder.Default
+    private Integer correctCount = 0;
+    
+    @Builder.Default
+    private Integer earnedPoints = 0;
+    
+    /**
+     * Seed the attempt's questions were sampled with, so the paper can be reproduced
+     */
+    private Long paperSeed;
+
+    /**
+     * Questions served to the student, in paper order. Null for attempts started without a paper.
+     */
+    @Convert(converter = QuestionIdListConverter.class)
+    private long[] servedQuestionIds;
 } 
\ No newline at end of file
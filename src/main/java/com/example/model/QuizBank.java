@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class QuizBank {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "quiz_banks_seq")
+    @SequenceGenerator(name = "quiz_banks_seq", sequenceName = "quiz_banks_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -3,6 +3,10 @@ package com.example.model;
 import jakarta.persistence.*;
 import lombok.*;
 
+/**
+ * A question may be answered once per attempt: (quiz_attempt_id, question_id) is covered by the
+ * unique index uk_student_responses_attempt_question, created by db/student-responses-unique.sql.
+ */
 @Getter
 @Setter
 @Entity
@@ -13,7 +17,8 @@ import lombok.*;
 public class StudentResponse {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_responses_seq")
+    @SequenceGenerator(name = "student_responses_seq", sequenceName = "student_responses_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -15,7 +15,8 @@ import java.util.List;
 public class Week {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "weeks_seq")
+    @SequenceGenerator(name = "weeks_seq", sequenceName = "weeks_seq", allocationSize = 50)
     private Long id;
 
     private String title;
@@ -0,0 +1,73 @@
+package com.example.repository;
+
+import com.example.model.Question;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts many questions of one quiz bank with a single multi-row statement.
+ * Runs on the connection of the surrounding transaction.
+ */
+@Repository
+public class QuestionJdbcRepository {
+
+    // Ids come straight from the sequence, as in StudentResponseJdbcRepository
+    private static final String INSERT_ALL =
+            "INSERT INTO questions (id, quiz_bank_id, question_text, question_type, options, correct_answer, difficulty, tags) " +
+            "SELECT nextval('questions_seq'), ?, q.question_text, q.question_type, q.options, q.correct_answer, q.difficulty, q.tags " +
+            "FROM unnest(?::text[], ?::varchar[], ?::text[], ?::varchar[], ?::varchar[], ?::text[]) " +
+            "AS q(question_text, question_type, options, correct_answer, difficulty, tags) " +
+            "RETURNING id, question_text";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public QuestionJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the text of each inserted question by its new ID
+     */
+    public Map<Long, String> insertAll(Long quizBankId, List<Question> questions) {
+        Map<Long, String> inserted = new LinkedHashMap<>();
+        if (questions.isEmpty()) {
+            return inserted;
+        }
+
+        int size = questions.size();
+        String[] questionTexts = new String[size];
+        String[] questionTypes = new String[size];
+        String[] options = new String[size];
+        String[] correctAnswers = new String[size];
+        String[] difficulties = new String[size];
+        String[] tags = new String[size];
+        for (int i = 0; i < size; i++) {
+            Question question = questions.get(i);
+            questionTexts[i] = question.getQuestionText();
+            questionTypes[i] = question.getQuestionType().name();
+            options[i] = question.getOptions();
+            correctAnswers[i] = question.getCorrectAnswer();
+            difficulties[i] = question.getDifficulty() != null ? question.getDifficulty().name() : null;
+            tags[i] = question.getTags();
+        }
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_ALL);
+            statement.setLong(1, quizBankId);
+            statement.setArray(2, connection.createArrayOf("text", questionTexts));
+            statement.setArray(3, connection.createArrayOf("varchar", questionTypes));
+            statement.setArray(4, connection.createArrayOf("text", options));
+            statement.setArray(5, connection.createArrayOf("varchar", correctAnswers));
+            statement.setArray(6, connection.createArrayOf("varchar", difficulties));
+            statement.setArray(7, connection.createArrayOf("text", tags));
+            return statement;
+        }, (RowCallbackHandler) resultSet -> inserted.put(resultSet.getLong(1), resultSet.getString(2)));
+        return inserted;
+    }
+}
@@ -2,10 +2,14 @@ package com.example.repository;
 
 import com.example.model.Question;
 import com.example.model.QuizBank;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface QuestionRepository extends JpaRepository<Question, Long> {
@@ -15,8 +19,18 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
     @Query("SELECT q FROM Question q WHERE q.quizBank.id = :quizBankId ORDER BY q.id")
     List<Question> findByQuizBankId(Long quizBankId);
     
-    @Query("SELECT q FROM Question q WHERE q.quizBank.id = :quizBankId ORDER BY FUNCTION('RANDOM')")
-    List<Question> findRandomQuestionsByQuizBankId(Long quizBankId);
+    /**
+     * Reads the bank's questions through a database cursor; must be consumed and closed inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT q FROM Question q WHERE q.quizBank.id = :quizBankId ORDER BY q.id")
+    Stream<Question> streamByQuizBankId(Long quizBankId);
+    
+    @Query("SELECT q.id, q.correctAnswer, q.questionText, q.difficulty, q.tags, q.questionType, q.options FROM Question q WHERE q.quizBank.id = :quizBankId ORDER BY q.id")
+    List<Object[]> findAnswerKeyRowsByQuizBankId(Long quizBankId);
     
     @Query("SELECT COUNT(q) FROM Question q WHERE q.quizBank.id = :quizBankId")
     Long countByQuizBankId(Long quizBankId);
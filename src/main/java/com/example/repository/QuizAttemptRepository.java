@@ -1,10 +1,15 @@
 package com.example.repository;
 
+import com.example.dto.QuizAttemptDTO;
+import com.example.dto.QuizResultHeaderDTO;
 import com.example.model.QuizAttempt;
 import com.example.model.User;
 import com.example.model.LearningItem;
 import com.example.model.QuizAttemptStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
@@ -21,4 +26,72 @@ public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long>
     List<QuizAttempt> findByStudentIdAndLearningItemId(Long studentId, Long learningItemId);
     
     Optional<QuizAttempt> findByStudentAndLearningItemAndStatus(User student, LearningItem learningItem, QuizAttemptStatus status);
-} 
\ No newline at end of file
+    
+    boolean existsByIdAndStatus(Long id, QuizAttemptStatus status);
+    
+    // (attemptId, studentId, studentName, totalScore, maxPossibleScore, endTime) of each student's best
+    // completed attempt at the learning item, best first; ties go to the earlier attempt
+    @Query("SELECT qa.id, s.id, s.name, qa.totalScore, qa.maxPossibleScore, qa.endTime " +
+           "FROM QuizAttempt qa JOIN qa.student s " +
+           "WHERE qa.learningItem.id = :learningItemId AND qa.status = com.example.model.QuizAttemptStatus.COMPLETED " +
+           "AND qa.totalScore IS NOT NULL AND NOT EXISTS (SELECT 1 FROM QuizAttempt better " +
+           "WHERE better.student = qa.student AND better.learningItem = qa.learningItem " +
+           "AND better.status = com.example.model.QuizAttemptStatus.COMPLETED AND (better.totalScore > qa.totalScore " +
+           "OR (better.totalScore = qa.totalScore AND (better.endTime < qa.endTime " +
+           "OR (better.endTime = qa.endTime AND better.id < qa.id))))) " +
+           "ORDER BY qa.totalScore DESC, qa.endTime ASC, qa.id ASC")
+    List<Object[]> findLeaderboardRows(Long learningItemId, Pageable pageable);
+    
+    // (id, deadline) of every timed in-progress attempt, read through the partial deadline index
+    @Query("SELECT qa.id, qa.deadline FROM QuizAttempt qa " +
+           "WHERE qa.status = com.example.model.QuizAttemptStatus.IN_PROGRESS AND qa.deadline IS NOT NULL " +
+           "ORDER BY qa.deadline")
+    List<Object[]> findPendingDeadlines();
+    
+    @Query("SELECT new com.example.dto.QuizAttemptDTO(qa.id, s.id, s.name, qb.id, qb.title, li.id, " +
+           "qa.startTime, qa.endTime, qa.totalScore, qa.maxPossibleScore, qa.status) " +
+           "FROM QuizAttempt qa JOIN qa.student s JOIN qa.quizBank qb JOIN qa.learningItem li " +
+           "WHERE s.id = :studentId ORDER BY qa.startTime DESC, qa.id DESC")
+    List<QuizAttemptDTO> findDTOsByStudentId(Long studentId);
+    
+    @Query("SELECT new com.example.dto.QuizAttemptDTO(qa.id, s.id, s.name, qb.id, qb.title, li.id, " +
+           "qa.startTime, qa.endTime, qa.totalScore, qa.maxPossibleScore, qa.status) " +
+           "FROM QuizAttempt qa JOIN qa.student s JOIN qa.quizBank qb JOIN qa.learningItem li " +
+           "WHERE qa.id = :quizAttemptId")
+    Optional<QuizAttemptDTO> findDTOById(Long quizAttemptId);
+    
+    @Query("SELECT new com.example.dto.QuizResultHeaderDTO(qa.id, qb.title, qa.startTime, qa.endTime, qa.totalScore, qa.maxPossibleScore) " +
+           "FROM QuizAttempt qa JOIN qa.quizBank qb WHERE qa.id = :quizAttemptId")
+    Optional<QuizResultHeaderDTO> findResultHeaderById(Long quizAttemptId);
+    
+    @Query(value = "SELECT new com.example.dto.QuizResultHeaderDTO(qa.id, qb.title, qa.startTime, qa.endTime, qa.totalScore, qa.maxPossibleScore) " +
+           "FROM QuizAttempt qa JOIN qa.quizBank qb " +
+           "WHERE qa.student.id = :studentId AND qa.learningItem.id = :learningItemId " +
+           "AND qa.status = com.example.model.QuizAttemptStatus.COMPLETED ORDER BY qa.startTime DESC, qa.id DESC",
+           countQuery = "SELECT COUNT(qa) FROM QuizAttempt qa " +
+           "WHERE qa.student.id = :studentId AND qa.learningItem.id = :learningItemId " +
+           "AND qa.status = com.example.model.QuizAttemptStatus.COMPLETED")
+    Page<QuizResultHeaderDTO> findCompletedResultHeaders(Long studentId, Long learningItemId, Pageable pageable);
+    
+    // Counters left NULL by attempts predating them stay NULL, so they are never half-counted.
+    // A loaded attempt keeps its old counters; callers that read them afterwards refresh it.
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE QuizAttempt qa SET qa.answeredCount = qa.answeredCount + :answered, " +
+           "qa.correctCount = qa.correctCount + :correct, qa.earnedPoints = qa.earnedPoints + :points " +
+           "WHERE qa.id = :quizAttemptId")
+    int incrementCounters(Long quizAttemptId, int answered, int correct, int points);
+    
+    // Rewrites the counters of completed attempts that disagree with their STUDENT_RESPONSES rows
+    @Modifying
+    @Query(value = "UPDATE quiz_attempts qa SET answered_count = s.answered, correct_count = s.correct, " +
+           "earned_points = s.points, total_score = s.points " +
+           "FROM (SELECT a.id, COUNT(r.id) AS answered, COUNT(r.id) FILTER (WHERE r.is_correct) AS correct, " +
+           "COALESCE(SUM(r.points_earned), 0) AS points " +
+           "FROM quiz_attempts a LEFT JOIN student_responses r ON r.quiz_attempt_id = a.id " +
+           "WHERE a.status = 'COMPLETED' GROUP BY a.id) s " +
+           "WHERE qa.id = s.id AND (qa.answered_count IS DISTINCT FROM s.answered " +
+           "OR qa.correct_count IS DISTINCT FROM s.correct OR qa.earned_points IS DISTINCT FROM s.points " +
+           "OR qa.total_score IS DISTINCT FROM s.points)",
+           nativeQuery = true)
+    int reconcileCompletedCounters();
+}
\ No newline at end of file
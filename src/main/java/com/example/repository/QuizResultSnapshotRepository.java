@@ -0,0 +1,116 @@
+package com.example.repository;
+
+import com.example.dto.QuizResultDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Stores the result of each completed attempt once, as gzip-compressed JSON, so it can be served
+ * without re-reading the attempt's responses. Runs on the connection of the surrounding transaction.
+ */
+@Repository
+public class QuizResultSnapshotRepository {
+
+    private static final String INSERT_IF_ABSENT =
+            "INSERT INTO quiz_result_snapshots (quiz_attempt_id, total_score, payload, created_at) " +
+            "VALUES (?, ?, ?, LOCALTIMESTAMP) ON CONFLICT (quiz_attempt_id) DO NOTHING";
+
+    // Snapshots taken before the attempt's score was changed in place
+    private static final String DELETE_STALE =
+            "DELETE FROM quiz_result_snapshots s USING quiz_attempts a " +
+            "WHERE s.quiz_attempt_id = a.id AND s.total_score IS DISTINCT FROM a.total_score";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public QuizResultSnapshotRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public Optional<QuizResultDTO> findById(Long quizAttemptId) {
+        List<byte[]> payloads = jdbcTemplate.query(
+                "SELECT payload FROM quiz_result_snapshots WHERE quiz_attempt_id = ?",
+                (resultSet, rowNum) -> resultSet.getBytes(1), quizAttemptId);
+        return payloads.stream().findFirst().map(this::decode);
+    }
+
+    public Map<Long, QuizResultDTO> findAllById(Collection<Long> quizAttemptIds) {
+        Map<Long, QuizResultDTO> snapshots = new HashMap<>();
+        if (quizAttemptIds.isEmpty()) {
+            return snapshots;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "SELECT quiz_attempt_id, payload FROM quiz_result_snapshots WHERE quiz_attempt_id = ANY (?)");
+            statement.setArray(1, connection.createArrayOf("bigint", quizAttemptIds.toArray()));
+            return statement;
+        }, (RowCallbackHandler) resultSet -> snapshots.put(resultSet.getLong(1), decode(resultSet.getBytes(2))));
+        return snapshots;
+    }
+
+    /**
+     * Stores the snapshots of several attempts in one batch, skipping those that exist already.
+     */
+    public void insertAllIfAbsent(List<QuizResultDTO> results) {
+        if (results.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, results, results.size(), (statement, result) -> {
+            statement.setLong(1, result.quizAttemptId());
+            statement.setObject(2, result.totalScore());
+            statement.setBytes(3, encode(result));
+        });
+    }
+
+    public int deleteByQuizAttemptIds(Collection<Long> quizAttemptIds) {
+        if (quizAttemptIds.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM quiz_result_snapshots WHERE quiz_attempt_id = ANY (?)");
+            statement.setArray(1, connection.createArrayOf("bigint", quizAttemptIds.toArray()));
+            return statement;
+        });
+    }
+
+    public int deleteStale() {
+        return jdbcTemplate.update(DELETE_STALE);
+    }
+
+    private byte[] encode(QuizResultDTO result) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error writing quiz result snapshot", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private QuizResultDTO decode(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, QuizResultDTO.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error reading quiz result snapshot", e);
+        }
+    }
+}
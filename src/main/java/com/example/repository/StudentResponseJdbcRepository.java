@@ -0,0 +1,122 @@
+package com.example.repository;
+
+import com.example.model.StudentResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts student responses with a single upsert-style statement that relies on the unique index
+ * over (quiz_attempt_id, question_id) instead of reading the attempt's responses first.
+ * Runs on the connection of the surrounding JPA transaction.
+ */
+@Repository
+public class StudentResponseJdbcRepository {
+
+    // Ids come straight from the sequence; each nextval owns a whole pooled block, so they never
+    // collide with ids handed out by Hibernate's pooled optimizer
+    private static final String INSERT_IGNORING_ANSWERED =
+            "INSERT INTO student_responses (id, quiz_attempt_id, question_id, selected_answer, is_correct, points_earned) " +
+            "SELECT nextval('student_responses_seq'), ?, r.question_id, r.selected_answer, r.is_correct, r.points_earned " +
+            "FROM unnest(?::bigint[], ?::varchar[], ?::boolean[], ?::integer[]) " +
+            "AS r(question_id, selected_answer, is_correct, points_earned) " +
+            "ON CONFLICT (quiz_attempt_id, question_id) DO NOTHING " +
+            "RETURNING question_id, id";
+
+    // Same statement over many attempts at once; used when all responses are known up front
+    private static final String INSERT_BATCH =
+            "INSERT INTO student_responses (id, quiz_attempt_id, question_id, selected_answer, is_correct, points_earned) " +
+            "SELECT nextval('student_responses_seq'), r.quiz_attempt_id, r.question_id, r.selected_answer, r.is_correct, r.points_earned " +
+            "FROM unnest(?::bigint[], ?::bigint[], ?::varchar[], ?::boolean[], ?::integer[]) " +
+            "AS r(quiz_attempt_id, question_id, selected_answer, is_correct, points_earned) " +
+            "ON CONFLICT (quiz_attempt_id, question_id) DO NOTHING";
+
+    private static final int BATCH_ROWS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StudentResponseJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the responses of one attempt, skipping questions the attempt has already answered.
+     * Also skips a question repeated within {@code responses}, keeping its first occurrence.
+     *
+     * @return generated response ids by question id, for the rows that were inserted
+     */
+    public Map<Long, Long> insertIgnoringAnswered(Long quizAttemptId, List<StudentResponse> responses) {
+        Map<Long, Long> insertedIds = new HashMap<>();
+        if (responses.isEmpty()) {
+            return insertedIds;
+        }
+
+        int size = responses.size();
+        Long[] questionIds = new Long[size];
+        String[] selectedAnswers = new String[size];
+        Boolean[] correct = new Boolean[size];
+        Integer[] pointsEarned = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            StudentResponse response = responses.get(i);
+            questionIds[i] = response.getQuestion().getId();
+            selectedAnswers[i] = response.getSelectedAnswer();
+            correct[i] = response.getIsCorrect();
+            pointsEarned[i] = response.getPointsEarned();
+        }
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(INSERT_IGNORING_ANSWERED);
+            statement.setLong(1, quizAttemptId);
+            statement.setArray(2, connection.createArrayOf("bigint", questionIds));
+            statement.setArray(3, connection.createArrayOf("varchar", selectedAnswers));
+            statement.setArray(4, connection.createArrayOf("boolean", correct));
+            statement.setArray(5, connection.createArrayOf("integer", pointsEarned));
+            return statement;
+        }, resultSet -> {
+            insertedIds.put(resultSet.getLong(1), resultSet.getLong(2));
+        });
+        return insertedIds;
+    }
+
+    /**
+     * Inserts the responses of any number of attempts, {@value #BATCH_ROWS} rows per statement,
+     * skipping questions an attempt has already answered.
+     *
+     * @return the number of rows inserted
+     */
+    public int insertBatch(List<StudentResponse> responses) {
+        int inserted = 0;
+        for (int from = 0; from < responses.size(); from += BATCH_ROWS) {
+            List<StudentResponse> chunk = responses.subList(from, Math.min(from + BATCH_ROWS, responses.size()));
+            int size = chunk.size();
+            Long[] quizAttemptIds = new Long[size];
+            Long[] questionIds = new Long[size];
+            String[] selectedAnswers = new String[size];
+            Boolean[] correct = new Boolean[size];
+            Integer[] pointsEarned = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                StudentResponse response = chunk.get(i);
+                quizAttemptIds[i] = response.getQuizAttempt().getId();
+                questionIds[i] = response.getQuestion().getId();
+                selectedAnswers[i] = response.getSelectedAnswer();
+                correct[i] = response.getIsCorrect();
+                pointsEarned[i] = response.getPointsEarned();
+            }
+
+            inserted += jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(INSERT_BATCH);
+                statement.setArray(1, connection.createArrayOf("bigint", quizAttemptIds));
+                statement.setArray(2, connection.createArrayOf("bigint", questionIds));
+                statement.setArray(3, connection.createArrayOf("varchar", selectedAnswers));
+                statement.setArray(4, connection.createArrayOf("boolean", correct));
+                statement.setArray(5, connection.createArrayOf("integer", pointsEarned));
+                return statement;
+            });
+        }
+        return inserted;
+    }
+}
@@ -1,11 +1,14 @@
 package com.example.repository;
 
+import com.example.dto.StudentResponseDTO;
 import com.example.model.StudentResponse;
 import com.example.model.QuizAttempt;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface StudentResponseRepository extends JpaRepository<StudentResponse, Long> {
@@ -15,6 +18,24 @@ public interface StudentResponseRepository extends JpaRepository<StudentResponse
     @Query("SELECT sr FROM StudentResponse sr WHERE sr.quizAttempt.id = :quizAttemptId ORDER BY sr.id")
     List<StudentResponse> findByQuizAttemptId(Long quizAttemptId);
     
+    @Query("SELECT new com.example.dto.StudentResponseDTO(sr.id, sr.quizAttempt.id, q.id, q.questionText, " +
+           "sr.selectedAnswer, q.correctAnswer, sr.isCorrect, sr.pointsEarned) " +
+           "FROM StudentResponse sr JOIN sr.question q " +
+           "WHERE sr.quizAttempt.id IN :quizAttemptIds ORDER BY sr.quizAttempt.id, sr.id")
+    List<StudentResponseDTO> findResponseDTOsByQuizAttemptIds(Collection<Long> quizAttemptIds);
+    
+    @Query("SELECT new com.example.dto.StudentResponseDTO(sr.id, sr.quizAttempt.id, q.id, q.questionText, " +
+           "sr.selectedAnswer, q.correctAnswer, sr.isCorrect, sr.pointsEarned) " +
+           "FROM StudentResponse sr JOIN sr.question q " +
+           "WHERE sr.quizAttempt.id = :quizAttemptId ORDER BY sr.id")
+    List<StudentResponseDTO> findResponseDTOsByQuizAttemptId(Long quizAttemptId);
+    
+    @Query("SELECT sr.question.id FROM StudentResponse sr WHERE sr.quizAttempt.id = :quizAttemptId")
+    Set<Long> findAnsweredQuestionIdsByQuizAttemptId(Long quizAttemptId);
+    
+    @Query("SELECT COUNT(sr) FROM StudentResponse sr WHERE sr.quizAttempt.id = :quizAttemptId")
+    Long countByQuizAttemptId(Long quizAttemptId);
+    
     @Query("SELECT COUNT(sr) FROM StudentResponse sr WHERE sr.quizAttempt.id = :quizAttemptId AND sr.isCorrect = true")
     Long countCorrectAnswersByQuizAttemptId(Long quizAttemptId);
     
@@ -97,7 +97,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 			if (Objects.nonNull(header) && header.startsWith(SecurityConstants.TOKEN_PREFIX)) {
 				authToken = header.replace(SecurityConstants.TOKEN_PREFIX, Strings.EMPTY);
+			} else if (requestURI.startsWith("/ws/")) {
+				// Browsers cannot set headers on a WebSocket handshake
+				authToken = request.getParameter("access_token");
+			}
 
+			if (Objects.nonNull(authToken)) {
 				try {
 					username = jwtTokenManager.getUsernameFromToken(authToken);
 				} catch (Exception e) {
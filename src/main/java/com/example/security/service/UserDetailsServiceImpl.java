@@ -41,7 +41,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 		final String authenticatedUsername = authenticatedUser.getUsername();
 		final String authenticatedPassword = authenticatedUser.getPassword();
 		final UserRole userRole = authenticatedUser.getUserRole();
-		final SimpleGrantedAuthority grantedAuthority = new SimpleGrantedAuthority(userRole.name());
+		// Prefixed so that @PreAuthorize("hasRole(...)") matches the role
+		final SimpleGrantedAuthority grantedAuthority = new SimpleGrantedAuthority("ROLE_" + userRole.name());
 
 		return new User(authenticatedUsername, authenticatedPassword, Collections.singletonList(grantedAuthority));
 	}
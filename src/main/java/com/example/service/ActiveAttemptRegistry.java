@@ -0,0 +1,117 @@
+package com.example.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-progress quiz attempt of each (student, learning item) pair known to this node.
+ * <p>
+ * Starting an attempt first claims its pair with a single atomic map operation, so two concurrent
+ * starts on one node cannot both proceed and the common case needs no database lookup. The claim
+ * becomes the attempt's id when the starting transaction commits and is dropped if it rolls back.
+ * Attempts started on other nodes or before a restart are unknown here; the partial unique index
+ * on IN_PROGRESS attempts rejects those starts instead.
+ */
+@Component
+public class ActiveAttemptRegistry {
+
+    /**
+     * Placeholder held by a pair while its attempt is being started.
+     */
+    public static final long STARTING = 0L;
+
+    private final Map<Key, Long> active = new ConcurrentHashMap<>();
+
+    /**
+     * Claims the pair if no attempt is registered for it.
+     */
+    public Optional<Reservation> reserve(Long studentId, Long learningItemId) {
+        Key key = new Key(studentId, learningItemId);
+        if (active.putIfAbsent(key, STARTING) != null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Reservation(key));
+    }
+
+    /**
+     * Claims the pair in place of an attempt that turned out to be no longer in progress.
+     */
+    public Optional<Reservation> reserveReplacing(Long studentId, Long learningItemId, Long staleAttemptId) {
+        Key key = new Key(studentId, learningItemId);
+        if (!active.replace(key, staleAttemptId, STARTING)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Reservation(key));
+    }
+
+    /**
+     * @return the registered attempt id, {@link #STARTING}, or null if the pair is free on this node
+     */
+    public Long get(Long studentId, Long learningItemId) {
+        return active.get(new Key(studentId, learningItemId));
+    }
+
+    /**
+     * Frees the pair once the completing transaction commits.
+     */
+    public void release(Long studentId, Long learningItemId, Long quizAttemptId) {
+        Key key = new Key(studentId, learningItemId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    active.remove(key, quizAttemptId);
+                }
+            });
+        } else {
+            active.remove(key, quizAttemptId);
+        }
+    }
+
+    public int size() {
+        return active.size();
+    }
+
+    /**
+     * A claimed pair whose attempt is being created.
+     */
+    public final class Reservation {
+
+        private final Key key;
+        private volatile Long quizAttemptId;
+
+        private Reservation(Key key) {
+            this.key = key;
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        if (status == STATUS_COMMITTED && quizAttemptId != null) {
+                            active.replace(key, STARTING, quizAttemptId);
+                        } else {
+                            active.remove(key, STARTING);
+                        }
+                    }
+                });
+            }
+        }
+
+        /**
+         * Records the created attempt; outside a transaction it is registered immediately.
+         */
+        public void bind(Long quizAttemptId) {
+            this.quizAttemptId = quizAttemptId;
+            if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+                active.replace(key, STARTING, quizAttemptId);
+            }
+        }
+    }
+
+    private record Key(Long studentId, Long learningItemId) {
+    }
+}
@@ -0,0 +1,358 @@
+package com.example.service;
+
+import com.example.model.QuestionDifficulty;
+import com.example.model.QuestionType;
+import com.example.repository.QuestionRepository;
+import com.example.service.grading.AnswerGrader;
+import com.example.service.grading.GradingEngine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory answer key per quiz bank, used to grade submissions without reading Question rows.
+ * Entries are evicted least-recently-used once more than {@code quiz.answer-key-cache.max-banks}
+ * banks are cached, and must be invalidated whenever a question of the bank changes.
+ */
+@Component
+public class AnswerKeyCache {
+
+    private final QuestionRepository questionRepository;
+    private final GradingEngine gradingEngine;
+    private final int maxBanks;
+    private final Map<Long, CachedKey> keys = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> bankVersions = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+
+    public AnswerKeyCache(QuestionRepository questionRepository,
+                          GradingEngine gradingEngine,
+                          MeterRegistry meterRegistry,
+                          @Value("${quiz.answer-key-cache.max-banks:256}") int maxBanks) {
+        this.questionRepository = questionRepository;
+        this.gradingEngine = gradingEngine;
+        this.maxBanks = maxBanks;
+        this.hits = Counter.builder("quiz.answer_key.cache")
+                .tag("result", "hit")
+                .description("Answer key lookups served from memory")
+                .register(meterRegistry);
+        this.misses = Counter.builder("quiz.answer_key.cache")
+                .tag("result", "miss")
+                .description("Answer key lookups that loaded the bank from the database")
+                .register(meterRegistry);
+        meterRegistry.gauge("quiz.answer_key.cache.size", this, AnswerKeyCache::size);
+    }
+
+    /**
+     * Returns the bank's answer key, loading it on a miss. Concurrent misses of the same bank wait
+     * for a single load instead of each reading the bank.
+     */
+    public AnswerKey get(Long quizBankId) {
+        CachedKey cached = keys.get(quizBankId);
+        if (cached == null) {
+            CachedKey created = new CachedKey(version(quizBankId));
+            cached = keys.putIfAbsent(quizBankId, created);
+            if (cached == null) {
+                misses.increment();
+                return load(quizBankId, created);
+            }
+        }
+        hits.increment();
+        cached.lastUsed = System.nanoTime();
+        try {
+            return cached.key.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Drops the answer key of a quiz bank. When called inside a transaction the key is dropped
+     * again after commit, so a concurrent reload cannot cache the pre-commit answers.
+     */
+    public void invalidate(Long quizBankId) {
+        if (quizBankId == null) {
+            return;
+        }
+        evict(quizBankId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(quizBankId);
+                }
+            });
+        }
+    }
+
+    /**
+     * Number of times the bank has been invalidated. Anything derived from a bank's questions can
+     * record this and compare it later to detect that the bank changed.
+     */
+    public long version(Long quizBankId) {
+        AtomicLong version = bankVersions.get(quizBankId);
+        return version != null ? version.get() : 0;
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    private AnswerKey load(Long quizBankId, CachedKey created) {
+        AnswerKey key;
+        try {
+            key = AnswerKey.of(questionRepository.findAnswerKeyRowsByQuizBankId(quizBankId), gradingEngine);
+        } catch (RuntimeException e) {
+            keys.remove(quizBankId, created);
+            created.key.completeExceptionally(e);
+            throw e;
+        }
+        created.key.complete(key);
+        // Not kept if this bank was invalidated while it was being loaded; other banks are unaffected
+        if (version(quizBankId) != created.version) {
+            keys.remove(quizBankId, created);
+        } else if (keys.size() > maxBanks) {
+            evictLeastRecentlyUsed();
+        }
+        return key;
+    }
+
+    private void evict(Long quizBankId) {
+        // Versioned first, so a load that started before cannot be kept after the removal
+        bankVersions.computeIfAbsent(quizBankId, id -> new AtomicLong()).incrementAndGet();
+        keys.remove(quizBankId);
+    }
+
+    private void evictLeastRecentlyUsed() {
+        keys.entrySet().stream()
+                .filter(entry -> entry.getValue().key.isDone())
+                .min(Comparator.comparingLong(entry -> entry.getValue().lastUsed))
+                .ifPresent(eldest -> keys.remove(eldest.getKey(), eldest.getValue()));
+    }
+
+    /**
+     * A bank's answer key, complete once loaded, with the bank version it was loaded at.
+     */
+    private static final class CachedKey {
+
+        private final CompletableFuture<AnswerKey> key = new CompletableFuture<>();
+        private final long version;
+        private volatile long lastUsed = System.nanoTime();
+
+        private CachedKey(long version) {
+            this.version = version;
+        }
+    }
+
+    /**
+     * Immutable answer table of one quiz bank: question IDs are kept sorted in a primitive array
+     * and looked up by binary search, with the answers, texts, types, options and compiled graders in
+     * parallel arrays.
+     * <p>
+     * Questions are also grouped into strata by difficulty and tag, each an ascending array of slots,
+     * so a blueprint section finds its candidates without scanning the bank.
+     */
+    public static final class AnswerKey {
+
+        private static final int[] NO_SLOTS = new int[0];
+
+        private final long[] questionIds;
+        private final String[] correctAnswers;
+        private final String[] questionTexts;
+        private final QuestionType[] questionTypes;
+        // Trimmed options of option-based questions, null for the other types
+        private final Set<String>[] options;
+        private final AnswerGrader[] graders;
+        private final Map<String, int[]> strata;
+        private final int[] allSlots;
+
+        private AnswerKey(long[] questionIds, String[] correctAnswers, String[] questionTexts,
+                          QuestionType[] questionTypes, Set<String>[] options, AnswerGrader[] graders,
+                          Map<String, int[]> strata) {
+            this.questionIds = questionIds;
+            this.correctAnswers = correctAnswers;
+            this.questionTexts = questionTexts;
+            this.questionTypes = questionTypes;
+            this.options = options;
+            this.graders = graders;
+            this.strata = strata;
+            this.allSlots = new int[questionIds.length];
+            for (int i = 0; i < allSlots.length; i++) {
+                allSlots[i] = i;
+            }
+        }
+
+        /**
+         * Builds a key from rows of (id, correctAnswer, questionText, difficulty, tags, questionType, options)
+         * ordered by id, compiling the grader of every question.
+         */
+        @SuppressWarnings("unchecked")
+        static AnswerKey of(List<Object[]> rows, GradingEngine gradingEngine) {
+            int size = rows.size();
+            long[] questionIds = new long[size];
+            String[] correctAnswers = new String[size];
+            String[] questionTexts = new String[size];
+            QuestionType[] questionTypes = new QuestionType[size];
+            Set<String>[] options = new Set[size];
+            AnswerGrader[] graders = new AnswerGrader[size];
+            Map<String, SlotList> strata = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                Object[] row = rows.get(i);
+                questionIds[i] = ((Number) row[0]).longValue();
+                correctAnswers[i] = (String) row[1];
+                questionTexts[i] = (String) row[2];
+                questionTypes[i] = (QuestionType) row[5];
+                List<String> questionOptions = gradingEngine.parseStoredOptions(questionTypes[i], (String) row[6]);
+                if (questionTypes[i] != null && questionTypes[i].usesOptions()) {
+                    options[i] = trimmedSet(questionOptions);
+                }
+                graders[i] = gradingEngine.compileStored(questionTypes[i], correctAnswers[i], questionOptions);
+
+                // Slots are added in ascending order, so every stratum stays sorted
+                QuestionDifficulty difficulty = (QuestionDifficulty) row[3];
+                List<String> tags = QuestionTags.split((String) row[4]);
+                if (difficulty != null) {
+                    strata.computeIfAbsent(stratumKey(difficulty, null), key -> new SlotList()).add(i);
+                }
+                for (String tag : tags) {
+                    strata.computeIfAbsent(stratumKey(null, tag), key -> new SlotList()).add(i);
+                    if (difficulty != null) {
+                        strata.computeIfAbsent(stratumKey(difficulty, tag), key -> new SlotList()).add(i);
+                    }
+                }
+            }
+
+            Map<String, int[]> strataSlots = new HashMap<>(strata.size() * 2);
+            strata.forEach((key, slots) -> strataSlots.put(key, slots.toArray()));
+            return new AnswerKey(questionIds, correctAnswers, questionTexts, questionTypes, options, graders, strataSlots);
+        }
+
+        private static Set<String> trimmedSet(List<String> options) {
+            Set<String> trimmed = new HashSet<>(options.size() * 2);
+            for (String option : options) {
+                if (option != null) {
+                    trimmed.add(option.trim());
+                }
+            }
+            return Set.copyOf(trimmed);
+        }
+
+        /**
+         * @return the slot of the question in this key, or -1 if it is not part of the bank
+         */
+        public int indexOf(long questionId) {
+            int index = Arrays.binarySearch(questionIds, questionId);
+            return index >= 0 ? index : -1;
+        }
+
+        public long questionIdAt(int index) {
+            return questionIds[index];
+        }
+
+        public String correctAnswerAt(int index) {
+            return correctAnswers[index];
+        }
+
+        public String questionTextAt(int index) {
+            return questionTexts[index];
+        }
+
+        public QuestionType questionTypeAt(int index) {
+            return questionTypes[index];
+        }
+
+        /**
+         * @return the trimmed options of an option-based question, or null for a free-text question
+         */
+        public Set<String> optionsAt(int index) {
+            return options[index];
+        }
+
+        public AnswerGrader graderAt(int index) {
+            return graders[index];
+        }
+
+        public int size() {
+            return questionIds.length;
+        }
+
+        /**
+         * Slots of the questions with the given difficulty and any of the given normalized tags, in
+         * ascending order. A null difficulty or empty tags match every question. The returned array
+         * may be shared and must not be modified.
+         */
+        public int[] slotsMatching(QuestionDifficulty difficulty, List<String> tags) {
+            if (tags.isEmpty()) {
+                return difficulty == null ? allSlots : strata.getOrDefault(stratumKey(difficulty, null), NO_SLOTS);
+            }
+            if (tags.size() == 1) {
+                return strata.getOrDefault(stratumKey(difficulty, tags.get(0)), NO_SLOTS);
+            }
+            // Union of the tag strata, merged pairwise
+            int[] union = NO_SLOTS;
+            for (String tag : tags) {
+                union = mergeUnion(union, strata.getOrDefault(stratumKey(difficulty, tag), NO_SLOTS));
+            }
+            return union;
+        }
+
+        private static String stratumKey(QuestionDifficulty difficulty, String tag) {
+            return (difficulty != null ? difficulty.name() : "*") + "|" + (tag != null ? tag : "*");
+        }
+
+        private static int[] mergeUnion(int[] left, int[] right) {
+            int[] merged = new int[left.length + right.length];
+            int i = 0;
+            int j = 0;
+            int size = 0;
+            while (i < left.length || j < right.length) {
+                int next;
+                if (j == right.length || (i < left.length && left[i] < right[j])) {
+                    next = left[i++];
+                } else if (i == left.length || right[j] < left[i]) {
+                    next = right[j++];
+                } else {
+                    next = left[i++];
+                    j++;
+                }
+                merged[size++] = next;
+            }
+            return size == merged.length ? merged : Arrays.copyOf(merged, size);
+        }
+    }
+
+    /**
+     * Growable int array used while grouping slots into strata.
+     */
+    private static final class SlotList {
+
+        private int[] slots = new int[8];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(slots, size);
+        }
+    }
+}
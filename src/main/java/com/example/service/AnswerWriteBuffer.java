@@ -0,0 +1,376 @@
+package com.example.service;
+
+import com.example.model.StudentResponse;
+import com.example.repository.QuestionRepository;
+import com.example.repository.QuizAttemptRepository;
+import com.example.repository.StudentResponseJdbcRepository;
+import com.example.repository.StudentResponseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional write-behind buffer for answers of in-progress quiz attempts ({@code quiz.write-behind.enabled}).
+ * <p>
+ * Graded answers are kept in a bounded per-attempt buffer and written to STUDENT_RESPONSES by a
+ * background flusher every {@code quiz.write-behind.flush-interval-ms}, coalescing all pending attempts
+ * into one transaction with a single multi-row insert per attempt. An attempt is flushed synchronously
+ * once it holds {@code quiz.write-behind.max-pending-per-attempt} answers, and always before it is
+ * completed. Every flush is its own transaction: a flush drains answers acknowledged to several
+ * requests, so it must not roll back with the request that triggered it. Answers queued by a request
+ * whose transaction rolls back are withdrawn if they are still pending.
+ * <p>
+ * Crash recovery: answers acknowledged to the client but not yet flushed live only in memory. If the
+ * node dies they are lost; at most one flush interval (or one full buffer) of answers per attempt is
+ * at risk. Nothing partial is written: after a restart the attempt is rebuilt from the rows that were
+ * flushed, so the lost questions count as unanswered and the student can submit them again.
+ * A graceful shutdown flushes everything. Rows that fail to flush are dropped and logged, and
+ * their questions are likewise released for resubmission.
+ */
+@Component
+public class AnswerWriteBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnswerWriteBuffer.class);
+
+    private final StudentResponseRepository studentResponseRepository;
+    private final StudentResponseJdbcRepository studentResponseJdbcRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuestionRepository questionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxPendingPerAttempt;
+    private final long idleEvictionMillis;
+    private final Map<Long, AttemptBuffer> buffers = new ConcurrentHashMap<>();
+
+    public AnswerWriteBuffer(StudentResponseRepository studentResponseRepository,
+                             StudentResponseJdbcRepository studentResponseJdbcRepository,
+                             QuizAttemptRepository quizAttemptRepository,
+                             QuestionRepository questionRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${quiz.write-behind.enabled:false}") boolean enabled,
+                             @Value("${quiz.write-behind.max-pending-per-attempt:200}") int maxPendingPerAttempt,
+                             @Value("${quiz.write-behind.idle-eviction-ms:600000}") long idleEvictionMillis) {
+        this.studentResponseRepository = studentResponseRepository;
+        this.studentResponseJdbcRepository = studentResponseJdbcRepository;
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.questionRepository = questionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.maxPendingPerAttempt = maxPendingPerAttempt;
+        this.idleEvictionMillis = idleEvictionMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * @return IDs of the questions already answered in the attempt, flushed or still pending
+     */
+    public Set<Long> answeredQuestionIds(Long quizAttemptId) {
+        AttemptBuffer buffer = bufferFor(quizAttemptId);
+        synchronized (buffer) {
+            return new HashSet<>(buffer.answeredQuestionIds);
+        }
+    }
+
+    /**
+     * Queues graded answers of an attempt. The duplicate check is repeated atomically here, so two
+     * concurrent submissions of the same question cannot both be queued, and a question may appear
+     * only once per call.
+     */
+    public void submit(Long quizAttemptId, List<PendingAnswer> answers) {
+        boolean flushNow;
+        while (true) {
+            AttemptBuffer buffer = bufferFor(quizAttemptId);
+            synchronized (buffer) {
+                if (buffer.evicted) {
+                    continue;
+                }
+                if (buffer.completed) {
+                    throw new IllegalArgumentException("This quiz attempt is already completed");
+                }
+                Set<Long> submitted = new HashSet<>();
+                for (PendingAnswer answer : answers) {
+                    if (buffer.answeredQuestionIds.contains(answer.questionId()) || !submitted.add(answer.questionId())) {
+                        throw new IllegalArgumentException("Question " + answer.questionId() + " already answered");
+                    }
+                }
+                for (PendingAnswer answer : answers) {
+                    buffer.answeredQuestionIds.add(answer.questionId());
+                    buffer.pending.add(answer);
+                }
+                buffer.lastAccess = System.currentTimeMillis();
+                flushNow = buffer.pending.size() >= maxPendingPerAttempt;
+            }
+            break;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        withdraw(quizAttemptId, answers);
+                    }
+                }
+            });
+        }
+        if (flushNow) {
+            flush(quizAttemptId);
+        }
+    }
+
+    /**
+     * Writes the pending answers of one attempt in a new transaction, so the caller must not hold a
+     * lock on the attempt's row. Waits for an in-flight background flush of the attempt, so its rows
+     * are visible afterwards.
+     */
+    public void flush(Long quizAttemptId) {
+        AttemptBuffer buffer = buffers.get(quizAttemptId);
+        if (buffer == null) {
+            return;
+        }
+        buffer.flushLock.lock();
+        List<PendingAnswer> drained = Collections.emptyList();
+        try {
+            drained = buffer.drain();
+            write(drained);
+        } catch (RuntimeException e) {
+            release(quizAttemptId, drained);
+            throw e;
+        } finally {
+            buffer.flushLock.unlock();
+        }
+    }
+
+    /**
+     * Force-flushes an attempt that is being completed and stops accepting answers for it.
+     * The buffer is released once the completing transaction ends.
+     */
+    public void complete(Long quizAttemptId) {
+        AttemptBuffer buffer = buffers.get(quizAttemptId);
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            buffer.completed = true;
+        }
+        flush(quizAttemptId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    buffers.remove(quizAttemptId, buffer);
+                }
+            });
+        } else {
+            buffers.remove(quizAttemptId, buffer);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.write-behind.flush-interval-ms:1000}")
+    public void flushAll() {
+        if (!enabled) {
+            return;
+        }
+        List<AttemptBuffer> locked = new ArrayList<>();
+        Map<Long, List<PendingAnswer>> drained = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<Long, AttemptBuffer> entry : buffers.entrySet()) {
+                AttemptBuffer buffer = entry.getValue();
+                // An attempt being flushed by a request thread is picked up on the next run
+                if (!buffer.flushLock.tryLock()) {
+                    continue;
+                }
+                locked.add(buffer);
+                List<PendingAnswer> pending = buffer.drain();
+                if (!pending.isEmpty()) {
+                    drained.put(entry.getKey(), pending);
+                }
+            }
+            if (!drained.isEmpty()) {
+                writeCoalesced(drained);
+            }
+        } finally {
+            for (AttemptBuffer buffer : locked) {
+                buffer.flushLock.unlock();
+            }
+        }
+        evictIdleBuffers();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushAll();
+    }
+
+    private void writeCoalesced(Map<Long, List<PendingAnswer>> drained) {
+        List<PendingAnswer> batch = new ArrayList<>();
+        drained.values().forEach(batch::addAll);
+        try {
+            write(batch);
+            return;
+        } catch (RuntimeException e) {
+            logger.warn("Coalesced flush of {} answers failed, retrying per attempt", batch.size(), e);
+        }
+
+        // Retry attempt by attempt so one broken attempt does not drop the answers of the others
+        for (Map.Entry<Long, List<PendingAnswer>> entry : drained.entrySet()) {
+            try {
+                write(entry.getValue());
+            } catch (RuntimeException e) {
+                logger.error("Dropping {} buffered answers of quiz attempt {}", entry.getValue().size(), entry.getKey(), e);
+                release(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void write(List<PendingAnswer> answers) {
+        if (answers.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> groupByAttempt(answers).forEach((quizAttemptId, responses) -> {
+            // Rows answered meanwhile through another node are skipped by the unique index
+            Map<Long, Long> insertedIds = studentResponseJdbcRepository.insertIgnoringAnswered(quizAttemptId, responses);
+            
+            // Counters move in the same transaction as the rows they count
+            int answered = 0;
+            int correct = 0;
+            int points = 0;
+            Set<Long> counted = new HashSet<>();
+            for (StudentResponse response : responses) {
+                Long questionId = response.getQuestion().getId();
+                if (insertedIds.containsKey(questionId) && counted.add(questionId)) {
+                    answered++;
+                    correct += Boolean.TRUE.equals(response.getIsCorrect()) ? 1 : 0;
+                    points += response.getPointsEarned();
+                }
+            }
+            if (answered < responses.size()) {
+                logger.warn("Skipped {} buffered answers of quiz attempt {} that were already stored", responses.size() - answered, quizAttemptId);
+            }
+            if (answered > 0) {
+                quizAttemptRepository.incrementCounters(quizAttemptId, answered, correct, points);
+            }
+        }));
+    }
+
+    private Map<Long, List<StudentResponse>> groupByAttempt(List<PendingAnswer> answers) {
+        Map<Long, List<StudentResponse>> responsesByAttempt = new LinkedHashMap<>();
+        for (PendingAnswer answer : answers) {
+            responsesByAttempt.computeIfAbsent(answer.quizAttemptId(), id -> new ArrayList<>())
+                    .add(StudentResponse.builder()
+                            .quizAttempt(quizAttemptRepository.getReferenceById(answer.quizAttemptId()))
+                            .question(questionRepository.getReferenceById(answer.questionId()))
+                            .selectedAnswer(answer.selectedAnswer())
+                            .isCorrect(answer.correct())
+                            .pointsEarned(answer.pointsEarned())
+                            .build());
+        }
+        return responsesByAttempt;
+    }
+
+    private void release(Long quizAttemptId, List<PendingAnswer> answers) {
+        AttemptBuffer buffer = buffers.get(quizAttemptId);
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            for (PendingAnswer answer : answers) {
+                buffer.answeredQuestionIds.remove(answer.questionId());
+            }
+        }
+    }
+
+    /**
+     * Takes back the answers of a rolled-back request that were not flushed yet; flushed answers
+     * stay written and answered.
+     */
+    private void withdraw(Long quizAttemptId, List<PendingAnswer> answers) {
+        AttemptBuffer buffer = buffers.get(quizAttemptId);
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            for (PendingAnswer answer : answers) {
+                if (buffer.pending.remove(answer)) {
+                    buffer.answeredQuestionIds.remove(answer.questionId());
+                }
+            }
+        }
+    }
+
+    private void evictIdleBuffers() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Long, AttemptBuffer> entry : buffers.entrySet()) {
+            AttemptBuffer buffer = entry.getValue();
+            synchronized (buffer) {
+                if (!buffer.completed && buffer.pending.isEmpty() && now - buffer.lastAccess > idleEvictionMillis) {
+                    buffer.evicted = true;
+                    buffers.remove(entry.getKey(), buffer);
+                }
+            }
+        }
+    }
+
+    private AttemptBuffer bufferFor(Long quizAttemptId) {
+        AttemptBuffer buffer = buffers.get(quizAttemptId);
+        if (buffer != null) {
+            return buffer;
+        }
+        // Loaded outside the map so the database read does not block other attempts
+        Set<Long> persisted = studentResponseRepository.findAnsweredQuestionIdsByQuizAttemptId(quizAttemptId);
+        AttemptBuffer created = new AttemptBuffer(persisted);
+        AttemptBuffer existing = buffers.putIfAbsent(quizAttemptId, created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * A graded answer waiting to be written as a StudentResponse row.
+     */
+    public record PendingAnswer(Long quizAttemptId, Long questionId, String selectedAnswer, boolean correct, int pointsEarned) {
+    }
+
+    private static final class AttemptBuffer {
+
+        private final Set<Long> answeredQuestionIds;
+        private final ReentrantLock flushLock = new ReentrantLock();
+        private List<PendingAnswer> pending = new ArrayList<>();
+        private long lastAccess = System.currentTimeMillis();
+        private boolean completed;
+        private boolean evicted;
+
+        private AttemptBuffer(Set<Long> answeredQuestionIds) {
+            this.answeredQuestionIds = new HashSet<>(answeredQuestionIds);
+        }
+
+        private synchronized List<PendingAnswer> drain() {
+            if (pending.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<PendingAnswer> drained = pending;
+            pending = new ArrayList<>();
+            return drained;
+        }
+    }
+}
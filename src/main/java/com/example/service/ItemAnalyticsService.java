@@ -0,0 +1,557 @@
+package com.example.service;
+
+import com.example.dto.QuestionAnalyticsDTO;
+import com.example.dto.QuizBankAnalyticsDTO;
+import com.example.model.QuestionType;
+import com.example.repository.QuizBankRepository;
+import com.example.service.AnswerKeyCache.AnswerKey;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Per-question item analytics (difficulty, discrimination and answer frequencies) kept as running
+ * sums, so a bank's analytics are read without scanning STUDENT_RESPONSES.
+ * <p>
+ * Graded responses and completed attempts are added in memory once their transaction commits.
+ * The increments are written to QUESTION_STATISTICS periodically as additive upserts, so several
+ * nodes can write to the same rows; a node's in-memory view holds what it loaded plus its own
+ * increments. A bank is loaded from the table on first use, and a backfill rebuilds it from the
+ * historical responses.
+ * <p>
+ * The outcome of every answer of an in-progress attempt is also kept in memory, for up to
+ * {@code quiz.analytics.max-open-attempts} attempts, so completing the attempt adds its score to
+ * the discrimination sums without reading its responses back. An attempt whose answers were graded
+ * on another node or before a restart only contributes the answers this node saw until a backfill.
+ * <p>
+ * Answer frequencies count the chosen options of option-based questions and at most
+ * {@value #MAX_FREE_TEXT_ANSWERS} distinct answers of a free-text question; any other answer is
+ * counted as {@value #OTHER_ANSWERS}.
+ */
+@Service
+public class ItemAnalyticsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ItemAnalyticsService.class);
+
+    private static final TypeReference<Map<String, Long>> ANSWER_COUNTS_TYPE = new TypeReference<>() {};
+
+    static final String OTHER_ANSWERS = "OTHER";
+    static final int MAX_FREE_TEXT_ANSWERS = 20;
+
+    private static final String UPSERT_INCREMENTS =
+            "INSERT INTO question_statistics (question_id, quiz_bank_id, response_count, correct_count, scored_count, " +
+            "scored_correct_count, sum_score, sum_score_squared, sum_correct_score, answer_counts, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb, LOCALTIMESTAMP) " +
+            "ON CONFLICT (question_id) DO UPDATE SET " +
+            "response_count = question_statistics.response_count + EXCLUDED.response_count, " +
+            "correct_count = question_statistics.correct_count + EXCLUDED.correct_count, " +
+            "scored_count = question_statistics.scored_count + EXCLUDED.scored_count, " +
+            "scored_correct_count = question_statistics.scored_correct_count + EXCLUDED.scored_correct_count, " +
+            "sum_score = question_statistics.sum_score + EXCLUDED.sum_score, " +
+            "sum_score_squared = question_statistics.sum_score_squared + EXCLUDED.sum_score_squared, " +
+            "sum_correct_score = question_statistics.sum_correct_score + EXCLUDED.sum_correct_score, " +
+            "answer_counts = question_statistics.answer_counts || COALESCE((" +
+            "SELECT jsonb_object_agg(d.key, COALESCE((question_statistics.answer_counts ->> d.key)::bigint, 0) + d.value::bigint) " +
+            "FROM jsonb_each_text(EXCLUDED.answer_counts) d), '{}'::jsonb), " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private static final String SELECT_BANK =
+            "SELECT question_id, response_count, correct_count, scored_count, scored_correct_count, sum_score, " +
+            "sum_score_squared, sum_correct_score, answer_counts::text FROM question_statistics WHERE quiz_bank_id = ?";
+
+    private static final String SCAN_RESPONSES =
+            "SELECT r.question_id, r.selected_answer, r.is_correct, a.status, a.total_score, a.max_possible_score " +
+            "FROM student_responses r JOIN questions q ON q.id = r.question_id " +
+            "JOIN quiz_attempts a ON a.id = r.quiz_attempt_id WHERE q.quiz_bank_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final QuizBankRepository quizBankRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<Long, BankStatistics> banks = new ConcurrentHashMap<>();
+    // Outcomes of in-progress attempts by attempt id, oldest dropped first once over the limit
+    private final Map<Long, AttemptOutcomes> openAttempts;
+    // Keeps a backfill's rewrite of a bank from interleaving with a flush of its increments
+    private final Object writeLock = new Object();
+    private final ExecutorService backfillRunner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "item-analytics-backfill");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ItemAnalyticsService(JdbcTemplate jdbcTemplate,
+                                QuizBankRepository quizBankRepository,
+                                AnswerKeyCache answerKeyCache,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${quiz.analytics.max-open-attempts:100000}") int maxOpenAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(1000);
+        this.quizBankRepository = quizBankRepository;
+        this.answerKeyCache = answerKeyCache;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.openAttempts = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, AttemptOutcomes> eldest) {
+                return size() > maxOpenAttempts;
+            }
+        };
+    }
+
+    /**
+     * Counts graded responses of an in-progress attempt once the surrounding transaction commits,
+     * and remembers their outcomes until the attempt completes.
+     */
+    public void recordResponses(Long quizBankId, Long quizAttemptId, List<GradedAnswer> answers) {
+        if (answers.isEmpty()) {
+            return;
+        }
+        runAfterCommit(() -> {
+            addResponses(quizBankId, answers);
+            synchronized (openAttempts) {
+                openAttempts.computeIfAbsent(quizAttemptId, id -> new AttemptOutcomes()).add(answers);
+            }
+        });
+    }
+
+    /**
+     * Adds a completed attempt's score to the discrimination sums of the questions it answered,
+     * using the outcomes remembered by {@link #recordResponses}.
+     */
+    public void recordCompletion(Long quizBankId, Long quizAttemptId, int totalScore, int maxPossibleScore) {
+        runAfterCommit(() -> {
+            AttemptOutcomes outcomes;
+            synchronized (openAttempts) {
+                outcomes = openAttempts.remove(quizAttemptId);
+            }
+            if (outcomes == null || maxPossibleScore <= 0) {
+                return;
+            }
+            double score = (double) totalScore / maxPossibleScore;
+            BankStatistics bank = bank(quizBankId);
+            synchronized (bank) {
+                for (int i = 0; i < outcomes.size; i++) {
+                    bank.addScored(outcomes.questionIds[i], outcomes.correct[i], score);
+                }
+            }
+        });
+    }
+
+    /**
+     * Counts the responses and completions of attempts that were graded and completed together,
+     * such as those of a live session, once the surrounding transaction commits.
+     */
+    public void recordCompletedAttempts(Long quizBankId, List<CompletedAttempt> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+        runAfterCommit(() -> {
+            for (CompletedAttempt attempt : attempts) {
+                addResponses(quizBankId, attempt.answers());
+            }
+            BankStatistics bank = bank(quizBankId);
+            synchronized (bank) {
+                for (CompletedAttempt attempt : attempts) {
+                    if (attempt.maxPossibleScore() <= 0) {
+                        continue;
+                    }
+                    double score = (double) attempt.totalScore() / attempt.maxPossibleScore();
+                    for (GradedAnswer answer : attempt.answers()) {
+                        bank.addScored(answer.questionId(), answer.correct(), score);
+                    }
+                }
+            }
+        });
+    }
+
+    public QuizBankAnalyticsDTO getAnalytics(Long quizBankId) {
+        if (!quizBankRepository.existsById(quizBankId)) {
+            throw new IllegalArgumentException("Quiz bank not found");
+        }
+        AnswerKey answerKey = answerKeyCache.get(quizBankId);
+        BankStatistics bank = bank(quizBankId);
+
+        List<QuestionAnalyticsDTO> questions = new ArrayList<>(answerKey.size());
+        synchronized (bank) {
+            for (int i = 0; i < answerKey.size(); i++) {
+                long questionId = answerKey.questionIdAt(i);
+                QuestionStatistics statistics = bank.totals.getOrDefault(questionId, QuestionStatistics.EMPTY);
+                questions.add(statistics.toDTO(questionId, answerKey.questionTextAt(i)));
+            }
+        }
+        return new QuizBankAnalyticsDTO(quizBankId, questions);
+    }
+
+    /**
+     * Rebuilds a bank's statistics from its historical responses in the background.
+     * Responses graded while the backfill runs may be missed or counted twice.
+     */
+    public void startBackfill(Long quizBankId) {
+        if (!quizBankRepository.existsById(quizBankId)) {
+            throw new IllegalArgumentException("Quiz bank not found");
+        }
+        backfillRunner.execute(() -> backfill(quizBankId));
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.analytics.flush-interval-ms:30000}")
+    public void flush() {
+        synchronized (writeLock) {
+            for (Map.Entry<Long, BankStatistics> entry : banks.entrySet()) {
+                BankStatistics bank = entry.getValue();
+                Map<Long, QuestionStatistics> pending;
+                synchronized (bank) {
+                    if (bank.pending.isEmpty()) {
+                        continue;
+                    }
+                    pending = bank.pending;
+                    bank.pending = new HashMap<>();
+                }
+                try {
+                    writeIncrements(entry.getKey(), pending);
+                } catch (RuntimeException e) {
+                    logger.error("Failed to write item statistics of quiz bank {}, retrying on the next flush", entry.getKey(), e);
+                    synchronized (bank) {
+                        pending.forEach((questionId, statistics) -> bank.pendingOf(questionId).add(statistics));
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillRunner.shutdownNow();
+        flush();
+    }
+
+    private void backfill(Long quizBankId) {
+        try {
+            AnswerKey answerKey = answerKeyCache.get(quizBankId);
+            Map<Long, QuestionStatistics> rebuilt = new HashMap<>();
+            // Streamed with a cursor, which PostgreSQL only uses inside a transaction
+            transactionTemplate.executeWithoutResult(status -> streamingJdbcTemplate.query(SCAN_RESPONSES, (RowCallbackHandler) resultSet -> {
+                long questionId = resultSet.getLong(1);
+                QuestionStatistics statistics = rebuilt.computeIfAbsent(questionId, id -> new QuestionStatistics());
+                boolean correct = resultSet.getBoolean(3);
+                statistics.addResponse(correct);
+                for (String answer : answerKeys(answerKey, questionId, resultSet.getString(2), statistics.answerCounts)) {
+                    statistics.countAnswer(answer);
+                }
+                int maxPossibleScore = resultSet.getInt(6);
+                if ("COMPLETED".equals(resultSet.getString(4)) && maxPossibleScore > 0) {
+                    statistics.addScored(correct, (double) resultSet.getInt(5) / maxPossibleScore);
+                }
+            }, quizBankId));
+
+            BankStatistics bank = bank(quizBankId);
+            synchronized (writeLock) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update("DELETE FROM question_statistics WHERE quiz_bank_id = ?", quizBankId);
+                    writeIncrements(quizBankId, rebuilt);
+                });
+                synchronized (bank) {
+                    bank.totals.clear();
+                    bank.totals.putAll(rebuilt);
+                    bank.pending.clear();
+                }
+            }
+            logger.info("Rebuilt item statistics of {} questions in quiz bank {}", rebuilt.size(), quizBankId);
+        } catch (RuntimeException e) {
+            logger.error("Failed to rebuild item statistics of quiz bank {}", quizBankId, e);
+        }
+    }
+
+    private void addResponses(Long quizBankId, List<GradedAnswer> answers) {
+        AnswerKey answerKey = answerKeyCache.get(quizBankId);
+        BankStatistics bank = bank(quizBankId);
+        synchronized (bank) {
+            for (GradedAnswer answer : answers) {
+                bank.addResponse(answerKey, answer.questionId(), answer.selectedAnswer(), answer.correct());
+            }
+        }
+    }
+
+    /**
+     * Keys an answer is counted under: the chosen options of an option-based question, or the
+     * answer itself for a free-text question until {@value #MAX_FREE_TEXT_ANSWERS} distinct answers
+     * are counted. Anything else, including answers to questions no longer in the bank, is
+     * {@value #OTHER_ANSWERS}.
+     */
+    static List<String> answerKeys(AnswerKey answerKey, long questionId, String selectedAnswer,
+                                   Map<String, Long> counted) {
+        if (selectedAnswer == null) {
+            return List.of();
+        }
+        int slot = answerKey.indexOf(questionId);
+        if (slot < 0) {
+            return List.of(OTHER_ANSWERS);
+        }
+        Set<String> options = answerKey.optionsAt(slot);
+        if (options == null) {
+            boolean counting = counted.containsKey(selectedAnswer) || counted.size() < MAX_FREE_TEXT_ANSWERS;
+            return List.of(counting ? selectedAnswer : OTHER_ANSWERS);
+        }
+        String trimmed = selectedAnswer.trim();
+        if (options.contains(trimmed)) {
+            return List.of(trimmed);
+        }
+        if (answerKey.questionTypeAt(slot) != QuestionType.MULTI_SELECT) {
+            return List.of(OTHER_ANSWERS);
+        }
+        // Each chosen option is counted once per response
+        Set<String> chosen = new LinkedHashSet<>();
+        for (String part : trimmed.split("\\|")) {
+            String option = part.trim();
+            if (!option.isEmpty()) {
+                chosen.add(options.contains(option) ? option : OTHER_ANSWERS);
+            }
+        }
+        return List.copyOf(chosen);
+    }
+
+    private BankStatistics bank(Long quizBankId) {
+        BankStatistics bank = banks.get(quizBankId);
+        if (bank != null) {
+            return bank;
+        }
+        // Loaded outside the map so a slow query does not block other banks; a concurrent load of the
+        // same bank is discarded
+        BankStatistics loaded = load(quizBankId);
+        BankStatistics existing = banks.putIfAbsent(quizBankId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private BankStatistics load(Long quizBankId) {
+        BankStatistics bank = new BankStatistics();
+        jdbcTemplate.query(SELECT_BANK, (RowCallbackHandler) resultSet -> {
+            QuestionStatistics statistics = new QuestionStatistics();
+            statistics.responseCount = resultSet.getLong(2);
+            statistics.correctCount = resultSet.getLong(3);
+            statistics.scoredCount = resultSet.getLong(4);
+            statistics.scoredCorrectCount = resultSet.getLong(5);
+            statistics.sumScore = resultSet.getDouble(6);
+            statistics.sumScoreSquared = resultSet.getDouble(7);
+            statistics.sumCorrectScore = resultSet.getDouble(8);
+            statistics.answerCounts.putAll(readAnswerCounts(resultSet.getString(9)));
+            bank.totals.put(resultSet.getLong(1), statistics);
+        }, quizBankId);
+        return bank;
+    }
+
+    private void writeIncrements(Long quizBankId, Map<Long, QuestionStatistics> increments) {
+        List<Map.Entry<Long, QuestionStatistics>> rows = new ArrayList<>(increments.entrySet());
+        jdbcTemplate.batchUpdate(UPSERT_INCREMENTS, rows, rows.size(), (statement, row) -> {
+            QuestionStatistics statistics = row.getValue();
+            statement.setLong(1, row.getKey());
+            statement.setLong(2, quizBankId);
+            statement.setLong(3, statistics.responseCount);
+            statement.setLong(4, statistics.correctCount);
+            statement.setLong(5, statistics.scoredCount);
+            statement.setLong(6, statistics.scoredCorrectCount);
+            statement.setDouble(7, statistics.sumScore);
+            statement.setDouble(8, statistics.sumScoreSquared);
+            statement.setDouble(9, statistics.sumCorrectScore);
+            statement.setString(10, writeAnswerCounts(statistics.answerCounts));
+        });
+    }
+
+    private Map<String, Long> readAnswerCounts(String json) {
+        try {
+            return objectMapper.readValue(json, ANSWER_COUNTS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid answer counts: " + e.getMessage(), e);
+        }
+    }
+
+    private String writeAnswerCounts(Map<String, Long> answerCounts) {
+        try {
+            return objectMapper.writeValueAsString(answerCounts);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error writing answer counts: " + e.getMessage(), e);
+        }
+    }
+
+    private void runAfterCommit(Runnable update) {
+        // Analytics must never fail the request that was graded
+        Runnable guarded = () -> {
+            try {
+                update.run();
+            } catch (RuntimeException e) {
+                logger.error("Failed to update item statistics", e);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guarded.run();
+                }
+            });
+        } else {
+            guarded.run();
+        }
+    }
+
+    /**
+     * A graded answer to count.
+     */
+    public record GradedAnswer(long questionId, String selectedAnswer, boolean correct) {
+    }
+
+    /**
+     * The graded answers and score of an attempt completed together with its grading.
+     */
+    public record CompletedAttempt(List<GradedAnswer> answers, int totalScore, int maxPossibleScore) {
+    }
+
+    /**
+     * Question ids and correctness of the answers of one in-progress attempt; all access is
+     * synchronized on {@link #openAttempts}.
+     */
+    private static final class AttemptOutcomes {
+
+        private long[] questionIds = new long[8];
+        private boolean[] correct = new boolean[8];
+        private int size;
+
+        void add(List<GradedAnswer> answers) {
+            if (size + answers.size() > questionIds.length) {
+                int capacity = Math.max(questionIds.length * 2, size + answers.size());
+                questionIds = Arrays.copyOf(questionIds, capacity);
+                correct = Arrays.copyOf(correct, capacity);
+            }
+            for (GradedAnswer answer : answers) {
+                questionIds[size] = answer.questionId();
+                correct[size] = answer.correct();
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Statistics of one bank; all access is synchronized on the instance.
+     */
+    private static final class BankStatistics {
+
+        private final Map<Long, QuestionStatistics> totals = new HashMap<>();
+        private Map<Long, QuestionStatistics> pending = new HashMap<>();
+
+        void addResponse(AnswerKey answerKey, long questionId, String selectedAnswer, boolean correct) {
+            QuestionStatistics total = totals.computeIfAbsent(questionId, id -> new QuestionStatistics());
+            QuestionStatistics increment = pendingOf(questionId);
+            total.addResponse(correct);
+            increment.addResponse(correct);
+            for (String answer : answerKeys(answerKey, questionId, selectedAnswer, total.answerCounts)) {
+                total.countAnswer(answer);
+                increment.countAnswer(answer);
+            }
+        }
+
+        void addScored(long questionId, boolean correct, double score) {
+            totals.computeIfAbsent(questionId, id -> new QuestionStatistics()).addScored(correct, score);
+            pendingOf(questionId).addScored(correct, score);
+        }
+
+        QuestionStatistics pendingOf(long questionId) {
+            return pending.computeIfAbsent(questionId, id -> new QuestionStatistics());
+        }
+    }
+
+    /**
+     * Running sums of one question. Discrimination uses x = answered correctly (0/1) and
+     * y = the completed attempt's score fraction.
+     */
+    private static final class QuestionStatistics {
+
+        static final QuestionStatistics EMPTY = new QuestionStatistics();
+
+        long responseCount;
+        long correctCount;
+        long scoredCount;
+        long scoredCorrectCount;
+        double sumScore;
+        double sumScoreSquared;
+        double sumCorrectScore;
+        final Map<String, Long> answerCounts = new HashMap<>();
+
+        void addResponse(boolean correct) {
+            responseCount++;
+            if (correct) {
+                correctCount++;
+            }
+        }
+
+        void countAnswer(String answer) {
+            answerCounts.merge(answer, 1L, Long::sum);
+        }
+
+        void addScored(boolean correct, double score) {
+            scoredCount++;
+            sumScore += score;
+            sumScoreSquared += score * score;
+            if (correct) {
+                scoredCorrectCount++;
+                sumCorrectScore += score;
+            }
+        }
+
+        void add(QuestionStatistics other) {
+            responseCount += other.responseCount;
+            correctCount += other.correctCount;
+            scoredCount += other.scoredCount;
+            scoredCorrectCount += other.scoredCorrectCount;
+            sumScore += other.sumScore;
+            sumScoreSquared += other.sumScoreSquared;
+            sumCorrectScore += other.sumCorrectScore;
+            other.answerCounts.forEach((answer, count) -> answerCounts.merge(answer, count, Long::sum));
+        }
+
+        QuestionAnalyticsDTO toDTO(Long questionId, String questionText) {
+            Double difficulty = responseCount > 0 ? (double) correctCount / responseCount : null;
+            return new QuestionAnalyticsDTO(questionId, questionText, responseCount, correctCount, difficulty,
+                    scoredCount, discrimination(), Map.copyOf(answerCounts));
+        }
+
+        private Double discrimination() {
+            if (scoredCount < 2) {
+                return null;
+            }
+            double n = scoredCount;
+            double covariance = n * sumCorrectScore - scoredCorrectCount * sumScore;
+            double variance = (n * scoredCorrectCount - (double) scoredCorrectCount * scoredCorrectCount)
+                    * (n * sumScoreSquared - sumScore * sumScore);
+            if (variance <= 0) {
+                return null;
+            }
+            return covariance / Math.sqrt(variance);
+        }
+    }
+}
@@ -0,0 +1,536 @@
+package com.example.service;
+
+import com.example.dto.LiveQuestionTallyDTO;
+import com.example.dto.LiveSessionDTO;
+import com.example.dto.LiveSessionEventDTO;
+import com.example.dto.QuestionDTO;
+import com.example.model.LiveSessionStatus;
+import com.example.model.QuizAttempt;
+import com.example.model.QuizAttemptStatus;
+import com.example.model.QuizBank;
+import com.example.model.StudentResponse;
+import com.example.repository.QuestionRepository;
+import com.example.repository.QuizAttemptRepository;
+import com.example.repository.QuizBankRepository;
+import com.example.repository.StudentResponseJdbcRepository;
+import com.example.repository.UserRepository;
+import com.example.service.ItemAnalyticsService.CompletedAttempt;
+import com.example.service.ItemAnalyticsService.GradedAnswer;
+import com.example.service.grading.AnswerGrader;
+import com.example.service.grading.GradingEngine;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs in-class live quizzes: the teacher advances through the questions of a quiz bank and every
+ * connected student answers the open question over a WebSocket.
+ * <p>
+ * Sessions live in memory only. Answers are recorded without locks: each participant claims its
+ * answer slot with a compare-and-set and the per-option counters are {@link LongAdder}s, so thousands
+ * of simultaneous answers do not contend. Nothing is written until the session ends, when every
+ * participant's attempt and responses are persisted in one batch. Teacher actions are rare and are
+ * serialized per session.
+ * <p>
+ * Messages are serialized once per broadcast and sent by {@code quiz.live-session.sender-threads}
+ * threads, each connection always on the same thread so it receives messages in order. A connection
+ * that stays blocked longer than {@code send-time-limit-ms} or buffers more than
+ * {@code send-buffer-size-limit} bytes is closed.
+ */
+@Service
+public class LiveSessionCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveSessionCoordinator.class);
+
+    private static final String CONNECTION_ATTRIBUTE = "liveSessionConnection";
+
+    private final QuizBankRepository quizBankRepository;
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuestionRepository questionRepository;
+    private final UserRepository userRepository;
+    private final StudentResponseJdbcRepository studentResponseJdbcRepository;
+    private final QuestionService questionService;
+    private final ItemAnalyticsService itemAnalyticsService;
+    private final GradingEngine gradingEngine;
+    private final ObjectMapper objectMapper;
+    private final int maxSessions;
+    private final int sendTimeLimitMillis;
+    private final int sendBufferSizeLimit;
+    private final ExecutorService[] senders;
+    private final AtomicLong sessionIds = new AtomicLong();
+    private final Map<Long, LiveSession> sessions = new ConcurrentHashMap<>();
+
+    public LiveSessionCoordinator(QuizBankRepository quizBankRepository,
+                                  QuizAttemptRepository quizAttemptRepository,
+                                  QuestionRepository questionRepository,
+                                  UserRepository userRepository,
+                                  StudentResponseJdbcRepository studentResponseJdbcRepository,
+                                  QuestionService questionService,
+                                  ItemAnalyticsService itemAnalyticsService,
+                                  GradingEngine gradingEngine,
+                                  ObjectMapper objectMapper,
+                                  @Value("${quiz.live-session.max-sessions:100}") int maxSessions,
+                                  @Value("${quiz.live-session.sender-threads:8}") int senderThreads,
+                                  @Value("${quiz.live-session.send-time-limit-ms:5000}") int sendTimeLimitMillis,
+                                  @Value("${quiz.live-session.send-buffer-size-limit:65536}") int sendBufferSizeLimit) {
+        this.quizBankRepository = quizBankRepository;
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.questionRepository = questionRepository;
+        this.userRepository = userRepository;
+        this.studentResponseJdbcRepository = studentResponseJdbcRepository;
+        this.questionService = questionService;
+        this.itemAnalyticsService = itemAnalyticsService;
+        this.gradingEngine = gradingEngine;
+        this.objectMapper = objectMapper;
+        this.maxSessions = maxSessions;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.senders = new ExecutorService[senderThreads];
+        for (int i = 0; i < senderThreads; i++) {
+            String name = "live-session-sender-" + (i + 1);
+            senders[i] = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Opens a live session over the questions of a quiz bank, or a random selection of
+     * {@code questionCount} of them.
+     */
+    @Transactional(readOnly = true)
+    public LiveSessionDTO createSession(Long teacherId, Long quizBankId, Integer questionCount) {
+        if (sessions.size() >= maxSessions) {
+            throw new IllegalArgumentException("Too many live sessions are running");
+        }
+        QuizBank quizBank = quizBankRepository.findById(quizBankId)
+                .orElseThrow(() -> new IllegalArgumentException("Quiz bank not found"));
+        List<QuestionDTO> questions = questionCount != null
+                ? questionService.getRandomQuestionsByQuizBankId(quizBankId, questionCount)
+                : questionService.getQuestionsByQuizBankId(quizBankId);
+        if (questions.isEmpty()) {
+            throw new IllegalArgumentException("Quiz bank has no questions");
+        }
+
+        // Compiled once, so grading a burst of answers to the open question does no parsing
+        AnswerGrader[] graders = new AnswerGrader[questions.size()];
+        for (int i = 0; i < graders.length; i++) {
+            QuestionDTO question = questions.get(i);
+            graders[i] = gradingEngine.compileStored(question.questionType(), question.correctAnswer(), question.options());
+        }
+
+        LiveSession session = new LiveSession(sessionIds.incrementAndGet(), quizBankId, quizBank.getTitle(), teacherId,
+                List.copyOf(questions), graders, LocalDateTime.now());
+        sessions.put(session.id, session);
+        return toDTO(session);
+    }
+
+    public LiveSessionDTO getSession(Long sessionId) {
+        return toDTO(getLiveSession(sessionId));
+    }
+
+    /**
+     * Closes the open question, if any, and broadcasts the next one.
+     */
+    public LiveSessionDTO nextQuestion(Long sessionId, Long teacherId) {
+        LiveSession session = getOwnedSession(sessionId, teacherId);
+        synchronized (session) {
+            checkNotEnded(session);
+            int nextIndex = session.currentIndex + 1;
+            if (nextIndex >= session.questions.size()) {
+                throw new IllegalArgumentException("No more questions in this live session");
+            }
+            closeOpenQuestion(session);
+            session.currentIndex = nextIndex;
+            session.status = LiveSessionStatus.QUESTION_OPEN;
+            broadcast(session, LiveSessionEventDTO.question(session.id, nextIndex, session.questions.get(nextIndex)));
+            return toDTO(session);
+        }
+    }
+
+    /**
+     * Stops accepting answers to the open question and broadcasts its tally and correct answer.
+     */
+    public LiveQuestionTallyDTO closeQuestion(Long sessionId, Long teacherId) {
+        LiveSession session = getOwnedSession(sessionId, teacherId);
+        synchronized (session) {
+            checkNotEnded(session);
+            if (session.status != LiveSessionStatus.QUESTION_OPEN) {
+                throw new IllegalArgumentException("No question is open in this live session");
+            }
+            return closeOpenQuestion(session);
+        }
+    }
+
+    /**
+     * Tally of a question that has been asked and closed. The tally carries the correct answer, so
+     * the open question is refused until the teacher closes it.
+     */
+    public LiveQuestionTallyDTO getTally(Long sessionId, int questionIndex) {
+        LiveSession session = getLiveSession(sessionId);
+        synchronized (session) {
+            if (questionIndex < 0 || questionIndex > session.currentIndex) {
+                throw new IllegalArgumentException("Question has not been asked in this live session");
+            }
+            if (questionIndex == session.currentIndex && session.status == LiveSessionStatus.QUESTION_OPEN) {
+                throw new IllegalArgumentException("Question is still open in this live session");
+            }
+            return session.tallies[questionIndex].toDTO(session.questions.get(questionIndex), questionIndex);
+        }
+    }
+
+    /**
+     * Ends the session and persists a completed attempt with its responses for every student who
+     * answered, scored out of the questions asked. Students are sent their score once the
+     * responses are committed.
+     */
+    @Transactional
+    public LiveSessionDTO endSession(Long sessionId, Long teacherId) {
+        LiveSession session = getOwnedSession(sessionId, teacherId);
+        synchronized (session) {
+            checkNotEnded(session);
+            closeOpenQuestion(session);
+            // No answer is accepted from here on
+            session.status = LiveSessionStatus.ENDED;
+        }
+
+        int askedCount = session.currentIndex + 1;
+        long[] askedQuestionIds = new long[askedCount];
+        for (int i = 0; i < askedCount; i++) {
+            askedQuestionIds[i] = session.questions.get(i).id();
+        }
+
+        QuizBank quizBank = quizBankRepository.getReferenceById(session.quizBankId);
+        LocalDateTime endTime = LocalDateTime.now();
+        List<QuizAttempt> attempts = new ArrayList<>();
+        List<StudentResponse> responses = new ArrayList<>();
+        List<CompletedAttempt> completedAttempts = new ArrayList<>();
+        Map<Long, Integer> scores = new HashMap<>();
+        for (Participant participant : session.participants.values()) {
+            List<GradedAnswer> gradedAnswers = new ArrayList<>();
+            QuizAttempt attempt = QuizAttempt.builder()
+                    .student(userRepository.getReferenceById(participant.studentId))
+                    .quizBank(quizBank)
+                    .startTime(session.startedAt)
+                    .endTime(endTime)
+                    .status(QuizAttemptStatus.COMPLETED)
+                    .servedQuestionIds(askedQuestionIds)
+                    .maxPossibleScore(askedCount)
+                    .build();
+            int answered = 0;
+            int correct = 0;
+            for (int i = 0; i < askedCount; i++) {
+                String selectedAnswer = participant.answers.get(i);
+                if (selectedAnswer == null) {
+                    continue;
+                }
+                QuestionDTO question = session.questions.get(i);
+                boolean isCorrect = session.graders[i].isCorrect(selectedAnswer);
+                responses.add(StudentResponse.builder()
+                        .quizAttempt(attempt)
+                        .question(questionRepository.getReferenceById(question.id()))
+                        .selectedAnswer(selectedAnswer)
+                        .isCorrect(isCorrect)
+                        .pointsEarned(isCorrect ? 1 : 0)
+                        .build());
+                gradedAnswers.add(new GradedAnswer(question.id(), selectedAnswer, isCorrect));
+                answered++;
+                if (isCorrect) {
+                    correct++;
+                }
+            }
+            if (answered == 0) {
+                continue;
+            }
+            attempt.setAnsweredCount(answered);
+            attempt.setCorrectCount(correct);
+            attempt.setEarnedPoints(correct);
+            attempt.setTotalScore(correct);
+            attempts.add(attempt);
+            completedAttempts.add(new CompletedAttempt(gradedAnswers, correct, askedCount));
+            scores.put(participant.studentId, correct);
+        }
+
+        // Attempts first so the responses can reference their ids
+        quizAttemptRepository.saveAll(attempts);
+        quizAttemptRepository.flush();
+        studentResponseJdbcRepository.insertBatch(responses);
+
+        itemAnalyticsService.recordCompletedAttempts(session.quizBankId, completedAttempts);
+
+        Runnable finish = () -> {
+            sessions.remove(session.id);
+            for (Connection connection : session.connections.values()) {
+                Integer score = scores.get(connection.studentId);
+                send(connection, serialize(LiveSessionEventDTO.sessionEnded(session.id, score, askedCount)), true);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        finish.run();
+                    } else {
+                        // Keep the answers so the teacher can end the session again
+                        session.status = LiveSessionStatus.QUESTION_CLOSED;
+                    }
+                }
+            });
+        } else {
+            finish.run();
+        }
+        logger.info("Live session {} ended: persisted {} attempts with {} responses", session.id, attempts.size(),
+                responses.size());
+        return toDTO(session);
+    }
+
+    /**
+     * Registers a student's WebSocket connection and sends the open question, if any.
+     */
+    public void connect(Long sessionId, Long studentId, WebSocketSession webSocketSession) {
+        LiveSession session = getLiveSession(sessionId);
+        checkNotEnded(session);
+        Connection connection = new Connection(studentId,
+                new ConcurrentWebSocketSessionDecorator(webSocketSession, sendTimeLimitMillis, sendBufferSizeLimit),
+                senders[Math.floorMod(webSocketSession.getId().hashCode(), senders.length)]);
+        webSocketSession.getAttributes().put(CONNECTION_ATTRIBUTE, connection);
+        session.connections.put(webSocketSession.getId(), connection);
+        session.participants.computeIfAbsent(studentId, id -> new Participant(id, session.questions.size()));
+
+        int index = session.currentIndex;
+        if (session.status == LiveSessionStatus.QUESTION_OPEN) {
+            send(connection, serialize(LiveSessionEventDTO.question(session.id, index, session.questions.get(index))), false);
+        }
+    }
+
+    public void disconnect(Long sessionId, WebSocketSession webSocketSession) {
+        LiveSession session = sessions.get(sessionId);
+        if (session != null) {
+            session.connections.remove(webSocketSession.getId());
+        }
+    }
+
+    /**
+     * Records a student's answer to the open question. Only the first answer counts.
+     */
+    public void answer(Long sessionId, Long studentId, Long questionId, String selectedAnswer) {
+        LiveSession session = getLiveSession(sessionId);
+        int index = session.currentIndex;
+        if (session.status != LiveSessionStatus.QUESTION_OPEN || index < 0
+                || !session.questions.get(index).id().equals(questionId)) {
+            throw new IllegalArgumentException("Question is not open for answers");
+        }
+        if (selectedAnswer == null || selectedAnswer.isBlank()) {
+            throw new IllegalArgumentException("Selected answer must be provided");
+        }
+        Participant participant = session.participants.computeIfAbsent(studentId,
+                id -> new Participant(id, session.questions.size()));
+        if (!participant.answers.compareAndSet(index, null, selectedAnswer)) {
+            throw new IllegalArgumentException("Question already answered");
+        }
+        session.tallies[index].record(selectedAnswer, session.graders[index].isCorrect(selectedAnswer));
+    }
+
+    /**
+     * Sends a message to one connection, in order with the broadcasts it receives.
+     */
+    public void reply(WebSocketSession webSocketSession, LiveSessionEventDTO event) {
+        Connection connection = (Connection) webSocketSession.getAttributes().get(CONNECTION_ATTRIBUTE);
+        if (connection != null) {
+            send(connection, serialize(event), false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService sender : senders) {
+            sender.shutdownNow();
+        }
+    }
+
+    private LiveQuestionTallyDTO closeOpenQuestion(LiveSession session) {
+        if (session.status != LiveSessionStatus.QUESTION_OPEN) {
+            return null;
+        }
+        session.status = LiveSessionStatus.QUESTION_CLOSED;
+        int index = session.currentIndex;
+        LiveQuestionTallyDTO tally = session.tallies[index].toDTO(session.questions.get(index), index);
+        broadcast(session, LiveSessionEventDTO.questionClosed(session.id, tally));
+        return tally;
+    }
+
+    private void broadcast(LiveSession session, LiveSessionEventDTO event) {
+        // Serialized once for every recipient
+        TextMessage message = serialize(event);
+        for (Connection connection : session.connections.values()) {
+            send(connection, message, false);
+        }
+    }
+
+    private void send(Connection connection, TextMessage message, boolean close) {
+        connection.sender.execute(() -> {
+            WebSocketSession webSocketSession = connection.webSocketSession;
+            try {
+                if (webSocketSession.isOpen()) {
+                    webSocketSession.sendMessage(message);
+                }
+                if (close) {
+                    webSocketSession.close(CloseStatus.NORMAL);
+                }
+            } catch (IOException | RuntimeException e) {
+                // Closed by the decorator when the client could not keep up
+                logger.debug("Failed to send to live session connection {}: {}", webSocketSession.getId(), e.getMessage());
+            }
+        });
+    }
+
+    private TextMessage serialize(LiveSessionEventDTO event) {
+        try {
+            return new TextMessage(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error writing live session message", e);
+        }
+    }
+
+    private LiveSession getLiveSession(Long sessionId) {
+        LiveSession session = sessions.get(sessionId);
+        if (session == null) {
+            throw new IllegalArgumentException("Live session not found");
+        }
+        return session;
+    }
+
+    private LiveSession getOwnedSession(Long sessionId, Long teacherId) {
+        LiveSession session = getLiveSession(sessionId);
+        if (!session.teacherId.equals(teacherId)) {
+            throw new IllegalArgumentException("Only the teacher running this live session can control it");
+        }
+        return session;
+    }
+
+    private void checkNotEnded(LiveSession session) {
+        if (session.status == LiveSessionStatus.ENDED) {
+            throw new IllegalArgumentException("This live session has already ended");
+        }
+    }
+
+    private LiveSessionDTO toDTO(LiveSession session) {
+        return new LiveSessionDTO(session.id, session.quizBankId, session.quizBankTitle, session.status,
+                session.currentIndex >= 0 ? session.currentIndex : null, session.questions.size(),
+                session.participants.size(), session.connections.size(), session.startedAt);
+    }
+
+    private static final class LiveSession {
+
+        final Long id;
+        final Long quizBankId;
+        final String quizBankTitle;
+        final Long teacherId;
+        final List<QuestionDTO> questions;
+        final AnswerGrader[] graders;
+        final LocalDateTime startedAt;
+        final QuestionTally[] tallies;
+        final Map<Long, Participant> participants = new ConcurrentHashMap<>();
+        final Map<String, Connection> connections = new ConcurrentHashMap<>();
+        volatile LiveSessionStatus status = LiveSessionStatus.WAITING;
+        volatile int currentIndex = -1;
+
+        LiveSession(Long id, Long quizBankId, String quizBankTitle, Long teacherId, List<QuestionDTO> questions,
+                    AnswerGrader[] graders, LocalDateTime startedAt) {
+            this.id = id;
+            this.quizBankId = quizBankId;
+            this.quizBankTitle = quizBankTitle;
+            this.teacherId = teacherId;
+            this.questions = questions;
+            this.graders = graders;
+            this.startedAt = startedAt;
+            this.tallies = new QuestionTally[questions.size()];
+            for (int i = 0; i < tallies.length; i++) {
+                tallies[i] = new QuestionTally(questions.get(i).options());
+            }
+        }
+    }
+
+    /**
+     * One answer slot per question; the first answer wins.
+     */
+    private static final class Participant {
+
+        final Long studentId;
+        final AtomicReferenceArray<String> answers;
+
+        Participant(Long studentId, int questionCount) {
+            this.studentId = studentId;
+            this.answers = new AtomicReferenceArray<>(questionCount);
+        }
+    }
+
+    private static final class QuestionTally {
+
+        // Keys are fixed at creation, so lookups need no synchronization
+        final Map<String, LongAdder> optionCounts;
+        final LongAdder otherCount = new LongAdder();
+        final LongAdder answeredCount = new LongAdder();
+        final LongAdder correctCount = new LongAdder();
+
+        QuestionTally(List<String> options) {
+            Map<String, LongAdder> counts = new LinkedHashMap<>();
+            for (String option : options) {
+                counts.put(option, new LongAdder());
+            }
+            this.optionCounts = Collections.unmodifiableMap(counts);
+        }
+
+        void record(String selectedAnswer, boolean correct) {
+            LongAdder optionCount = optionCounts.get(selectedAnswer);
+            (optionCount != null ? optionCount : otherCount).increment();
+            answeredCount.increment();
+            if (correct) {
+                correctCount.increment();
+            }
+        }
+
+        LiveQuestionTallyDTO toDTO(QuestionDTO question, int questionIndex) {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            optionCounts.forEach((option, count) -> counts.put(option, count.sum()));
+            long other = otherCount.sum();
+            if (other > 0) {
+                counts.put("OTHER", other);
+            }
+            return new LiveQuestionTallyDTO(question.id(), questionIndex, question.correctAnswer(), counts,
+                    answeredCount.sum(), correctCount.sum());
+        }
+    }
+
+    private record Connection(Long studentId, WebSocketSession webSocketSession, ExecutorService sender) {
+    }
+}
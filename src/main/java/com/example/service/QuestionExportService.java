@@ -0,0 +1,162 @@
+package com.example.service;
+
+import com.example.model.Question;
+import com.example.repository.QuestionRepository;
+import com.example.repository.QuizBankRepository;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the questions of a quiz bank as CSV or JSON Lines, in the layout accepted by
+ * {@link QuestionImportService}.
+ * <p>
+ * Questions are read through a database cursor and detached once written, so a bank of any size
+ * is exported with a constant memory footprint.
+ */
+@Service
+public class QuestionExportService {
+
+    private static final TypeReference<List<String>> OPTIONS_TYPE = new TypeReference<>() {};
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final QuizBankRepository quizBankRepository;
+    private final QuestionRepository questionRepository;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public QuestionExportService(QuizBankRepository quizBankRepository, QuestionRepository questionRepository,
+                                 ObjectMapper objectMapper) {
+        this.quizBankRepository = quizBankRepository;
+        this.questionRepository = questionRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public void checkExportable(Long quizBankId) {
+        if (!quizBankRepository.existsById(quizBankId)) {
+            throw new IllegalArgumentException("Quiz bank not found");
+        }
+    }
+
+    /**
+     * Streams the bank's questions to {@code out}, gzip-compressed if requested.
+     * Does not close {@code out}.
+     *
+     * @return the number of questions written
+     */
+    @Transactional(readOnly = true)
+    public long export(Long quizBankId, QuestionFileFormat format, boolean gzip, OutputStream out) throws IOException {
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip ? gzipOut : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        long count;
+        try (Stream<Question> questions = questionRepository.streamByQuizBankId(quizBankId)) {
+            count = format == QuestionFileFormat.CSV
+                    ? writeCsv(questions.iterator(), writer)
+                    : writeJsonLines(questions.iterator(), writer);
+        }
+        writer.flush();
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+        return count;
+    }
+
+    private long writeJsonLines(Iterator<Question> questions, Writer writer) throws IOException {
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            // One object per line instead of space-separated root values
+            generator.setRootValueSeparator(null);
+            while (questions.hasNext()) {
+                Question question = questions.next();
+                generator.writeStartObject();
+                generator.writeNumberField("id", question.getId());
+                generator.writeStringField("questionText", question.getQuestionText());
+                generator.writeStringField("questionType", question.getQuestionType() != null ? question.getQuestionType().name() : null);
+                // Stored as a JSON array already
+                generator.writeFieldName("options");
+                if (question.getOptions() != null) {
+                    generator.writeRawValue(question.getOptions());
+                } else {
+                    generator.writeNull();
+                }
+                generator.writeStringField("correctAnswer", question.getCorrectAnswer());
+                generator.writeStringField("difficulty", question.getDifficulty() != null ? question.getDifficulty().name() : null);
+                generator.writeArrayFieldStart("tags");
+                for (String tag : QuestionTags.split(question.getTags())) {
+                    generator.writeString(tag);
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+                entityManager.detach(question);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<Question> questions, Writer writer) throws IOException {
+        CsvSchema schema = csvMapper.schemaFor(CsvRow.class).withHeader();
+        long count = 0;
+        try (SequenceWriter rows = csvMapper.writer(schema)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .writeValues(writer)) {
+            while (questions.hasNext()) {
+                Question question = questions.next();
+                rows.write(new CsvRow(question.getId(), question.getQuestionText(),
+                        question.getQuestionType() != null ? question.getQuestionType().name() : null,
+                        toCsvOptions(question.getOptions()), question.getCorrectAnswer(),
+                        question.getDifficulty() != null ? question.getDifficulty().name() : null,
+                        question.getTags() != null ? question.getTags().replace(',', '|') : null));
+                entityManager.detach(question);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Options joined with {@code |}, or kept as a JSON array when an option contains {@code |} itself.
+     */
+    private String toCsvOptions(String optionsJson) throws IOException {
+        if (optionsJson == null) {
+            return null;
+        }
+        List<String> options = objectMapper.readValue(optionsJson, OPTIONS_TYPE);
+        for (String option : options) {
+            if (option.contains("|")) {
+                return optionsJson;
+            }
+        }
+        return String.join("|", options);
+    }
+
+    @JsonPropertyOrder({"id", "questionText", "questionType", "options", "correctAnswer", "difficulty", "tags"})
+    record CsvRow(Long id, String questionText, String questionType, String options, String correctAnswer,
+                  String difficulty, String tags) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.service;
+
+import java.util.Locale;
+
+/**
+ * File formats for importing and exporting the questions of a quiz bank.
+ * <p>
+ * CSV files have a header row with the columns {@code questionText}, {@code questionType},
+ * {@code options} and {@code correctAnswer}; options are separated by {@code |}. JSON Lines files
+ * hold one question object per line with the same fields and {@code options} as an array.
+ */
+public enum QuestionFileFormat {
+    CSV("text/csv", ".csv"),
+    JSONL("application/x-ndjson", ".jsonl");
+
+    private final String contentType;
+    private final String extension;
+
+    QuestionFileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * Resolves an explicit format name, falling back to the extension of the file name.
+     */
+    public static QuestionFileFormat resolve(String format, String fileName) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported file format: " + format);
+            }
+        }
+        if (fileName != null) {
+            String lowerCaseName = fileName.toLowerCase(Locale.ROOT);
+            if (lowerCaseName.endsWith(".csv")) {
+                return CSV;
+            }
+            if (lowerCaseName.endsWith(".jsonl") || lowerCaseName.endsWith(".ndjson")) {
+                return JSONL;
+            }
+        }
+        throw new IllegalArgumentException("File format must be CSV or JSONL");
+    }
+}
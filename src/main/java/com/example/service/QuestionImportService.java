@@ -0,0 +1,310 @@
+package com.example.service;
+
+import com.example.dto.QuestionCreateDTO;
+import com.example.dto.QuestionImportErrorDTO;
+import com.example.dto.QuestionImportResultDTO;
+import com.example.model.Question;
+import com.example.model.QuestionDifficulty;
+import com.example.model.QuestionType;
+import com.example.repository.QuestionJdbcRepository;
+import com.example.repository.QuizBankRepository;
+import com.example.service.grading.GradingEngine;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Imports the questions of a quiz bank from a CSV or JSON Lines upload.
+ * <p>
+ * The upload is parsed one row at a time and valid rows are inserted in chunks of
+ * {@code quiz.question-import.chunk-size}, each chunk with one statement in its own transaction, so
+ * memory stays flat however large the file is. Invalid rows are skipped and reported with their row
+ * number; at most {@code quiz.question-import.max-reported-errors} of them are listed. A file that
+ * cannot be parsed any further stops the import, keeping the chunks already committed.
+ */
+@Service
+public class QuestionImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuestionImportService.class);
+
+    private static final TypeReference<List<String>> OPTIONS_TYPE = new TypeReference<>() {};
+
+    private final QuizBankRepository quizBankRepository;
+    private final QuestionJdbcRepository questionJdbcRepository;
+    private final AnswerKeyCache answerKeyCache;
+    private final QuestionTextIndex questionTextIndex;
+    private final GradingEngine gradingEngine;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper = new CsvMapper();
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public QuestionImportService(QuizBankRepository quizBankRepository,
+                                 QuestionJdbcRepository questionJdbcRepository,
+                                 AnswerKeyCache answerKeyCache,
+                                 QuestionTextIndex questionTextIndex,
+                                 GradingEngine gradingEngine,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${quiz.question-import.chunk-size:1000}") int chunkSize,
+                                 @Value("${quiz.question-import.max-reported-errors:100}") int maxReportedErrors) {
+        this.quizBankRepository = quizBankRepository;
+        this.questionJdbcRepository = questionJdbcRepository;
+        this.answerKeyCache = answerKeyCache;
+        this.questionTextIndex = questionTextIndex;
+        this.gradingEngine = gradingEngine;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public QuestionImportResultDTO importQuestions(Long quizBankId, InputStream input, QuestionFileFormat format)
+            throws IOException {
+        if (!quizBankRepository.existsById(quizBankId)) {
+            throw new IllegalArgumentException("Quiz bank not found");
+        }
+
+        List<Question> chunk = new ArrayList<>(chunkSize);
+        List<QuestionImportErrorDTO> errors = new ArrayList<>();
+        long importedCount = 0;
+        long failedCount = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            RowSource rows = format == QuestionFileFormat.CSV ? csvRows(reader) : jsonLinesRows(reader);
+            ImportRow row;
+            while ((row = nextRow(rows, importedCount)) != null) {
+                try {
+                    chunk.add(toQuestion(quizBankId, row));
+                } catch (IllegalArgumentException e) {
+                    failedCount++;
+                    if (errors.size() < maxReportedErrors) {
+                        errors.add(new QuestionImportErrorDTO(row.row(), e.getMessage()));
+                    }
+                    continue;
+                }
+                if (chunk.size() == chunkSize) {
+                    importedCount += insertChunk(quizBankId, chunk);
+                }
+            }
+            importedCount += insertChunk(quizBankId, chunk);
+        } finally {
+            if (importedCount > 0) {
+                answerKeyCache.invalidate(quizBankId);
+            }
+        }
+
+        logger.info("Imported {} questions into quiz bank {}, {} rows rejected", importedCount, quizBankId, failedCount);
+        return new QuestionImportResultDTO(quizBankId, importedCount, failedCount, errors);
+    }
+
+    private ImportRow nextRow(RowSource rows, long importedCount) {
+        try {
+            return rows.next();
+        } catch (IOException | RuntimeException e) {
+            // The rest of the file cannot be read reliably
+            throw new IllegalArgumentException("Unreadable file after row " + rows.lastRow() + " (" + importedCount
+                    + " questions already imported): " + e.getMessage(), e);
+        }
+    }
+
+    private int insertChunk(Long quizBankId, List<Question> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        Map<Long, String> inserted = transactionTemplate.execute(status -> questionJdbcRepository.insertAll(quizBankId, chunk));
+        chunk.clear();
+        if (inserted == null) {
+            return 0;
+        }
+        // The chunk has committed
+        inserted.forEach((questionId, questionText) -> questionTextIndex.index(questionId, quizBankId, questionText));
+        return inserted.size();
+    }
+
+    private Question toQuestion(Long quizBankId, ImportRow row) {
+        if (row.error() != null) {
+            throw new IllegalArgumentException(row.error());
+        }
+        QuestionType questionType = null;
+        if (row.questionType() != null && !row.questionType().isBlank()) {
+            try {
+                questionType = QuestionType.valueOf(row.questionType().trim());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown question type: " + row.questionType());
+            }
+        }
+        QuestionDifficulty difficulty = null;
+        if (row.difficulty() != null && !row.difficulty().isBlank()) {
+            try {
+                difficulty = QuestionDifficulty.valueOf(row.difficulty().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown difficulty: " + row.difficulty());
+            }
+        }
+        // Same validation as a single question created through the API
+        QuestionCreateDTO question = new QuestionCreateDTO(quizBankId, row.questionText(), questionType, row.options(),
+                row.correctAnswer(), difficulty, row.tags());
+        gradingEngine.compile(question.questionType(), question.correctAnswer(), question.options());
+
+        String optionsJson;
+        try {
+            optionsJson = objectMapper.writeValueAsString(question.options());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Error parsing options: " + e.getMessage());
+        }
+        return Question.builder()
+                .questionText(question.questionText())
+                .questionType(question.questionType())
+                .options(optionsJson)
+                .correctAnswer(question.correctAnswer())
+                .difficulty(question.difficulty())
+                .tags(QuestionTags.join(question.tags()))
+                .build();
+    }
+
+    private RowSource csvRows(BufferedReader reader) throws IOException {
+        MappingIterator<Map<String, String>> records = csvMapper.readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(reader);
+        return new RowSource() {
+            private long row;
+
+            @Override
+            public ImportRow next() throws IOException {
+                if (!records.hasNextValue()) {
+                    return null;
+                }
+                Map<String, String> record = records.nextValue();
+                row++;
+                try {
+                    return new ImportRow(row, record.get("questionText"), record.get("questionType"),
+                            parseCsvOptions(record.get("options")), record.get("correctAnswer"),
+                            record.get("difficulty"), parseCsvTags(record.get("tags")), null);
+                } catch (IllegalArgumentException e) {
+                    return ImportRow.invalid(row, e.getMessage());
+                }
+            }
+
+            @Override
+            public long lastRow() {
+                return row;
+            }
+        };
+    }
+
+    private List<String> parseCsvOptions(String options) {
+        if (options == null || options.isBlank()) {
+            return null;
+        }
+        String trimmed = options.trim();
+        if (trimmed.startsWith("[")) {
+            try {
+                return objectMapper.readValue(trimmed, OPTIONS_TYPE);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Options are not a valid JSON array");
+            }
+        }
+        return Arrays.stream(trimmed.split("\\|")).map(String::trim).toList();
+    }
+
+    private static List<String> parseCsvTags(String tags) {
+        if (tags == null || tags.isBlank()) {
+            return null;
+        }
+        return Arrays.stream(tags.split("\\|")).map(String::trim).toList();
+    }
+
+    private RowSource jsonLinesRows(BufferedReader reader) {
+        return new RowSource() {
+            private long row;
+
+            @Override
+            public ImportRow next() throws IOException {
+                String line;
+                do {
+                    line = reader.readLine();
+                    if (line == null) {
+                        return null;
+                    }
+                    row++;
+                } while (line.isBlank());
+
+                // A malformed line only rejects that row
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(line);
+                } catch (JsonProcessingException e) {
+                    return ImportRow.invalid(row, "Malformed JSON: " + e.getOriginalMessage());
+                }
+                if (!node.isObject()) {
+                    return ImportRow.invalid(row, "Row must be a JSON object");
+                }
+                JsonNode options = node.get("options");
+                if (options != null && !options.isNull() && !options.isArray()) {
+                    return ImportRow.invalid(row, "Options must be a JSON array");
+                }
+                JsonNode tags = node.get("tags");
+                if (tags != null && !tags.isNull() && !tags.isArray()) {
+                    return ImportRow.invalid(row, "Tags must be a JSON array");
+                }
+                return new ImportRow(row, textOf(node, "questionText"), textOf(node, "questionType"),
+                        options == null || options.isNull() ? null : objectMapper.convertValue(options, OPTIONS_TYPE),
+                        textOf(node, "correctAnswer"), textOf(node, "difficulty"),
+                        tags == null || tags.isNull() ? null : objectMapper.convertValue(tags, OPTIONS_TYPE), null);
+            }
+
+            @Override
+            public long lastRow() {
+                return row;
+            }
+        };
+    }
+
+    private static String textOf(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private interface RowSource {
+
+        /**
+         * @return the next row, or null at the end of the file
+         */
+        ImportRow next() throws IOException;
+
+        long lastRow();
+    }
+
+    /**
+     * One data row of the upload; {@code error} is set when the row could not be parsed.
+     */
+    private record ImportRow(long row, String questionText, String questionType, List<String> options,
+                             String correctAnswer, String difficulty, List<String> tags, String error) {
+
+        static ImportRow invalid(long row, String error) {
+            return new ImportRow(row, null, null, null, null, null, null, error);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches the parsed option list of each question as an immutable list.
+ * An entry is only reused while the question's stored options JSON is unchanged, so an edited
+ * question is re-parsed even if an invalidation was missed.
+ */
+@Component
+public class QuestionOptionsCache {
+
+    private static final TypeReference<List<String>> OPTIONS_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final Map<Long, ParsedOptions> entries;
+
+    public QuestionOptionsCache(ObjectMapper objectMapper,
+                                @Value("${quiz.options-cache.max-entries:50000}") int maxEntries) {
+        this.objectMapper = objectMapper;
+        this.entries = new LinkedHashMap<>(1024, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ParsedOptions> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return the parsed options, or an empty list if the JSON cannot be parsed
+     */
+    public List<String> get(Long questionId, String optionsJson) {
+        if (questionId == null) {
+            return parse(optionsJson);
+        }
+        ParsedOptions cached;
+        synchronized (entries) {
+            cached = entries.get(questionId);
+        }
+        if (cached != null && cached.json().equals(optionsJson)) {
+            return cached.options();
+        }
+
+        List<String> options = parse(optionsJson);
+        if (optionsJson != null) {
+            synchronized (entries) {
+                entries.put(questionId, new ParsedOptions(optionsJson, options));
+            }
+        }
+        return options;
+    }
+
+    public void invalidate(Long questionId) {
+        synchronized (entries) {
+            entries.remove(questionId);
+        }
+    }
+
+    private List<String> parse(String optionsJson) {
+        if (optionsJson == null) {
+            return List.of();
+        }
+        try {
+            return Collections.unmodifiableList(objectMapper.readValue(optionsJson, OPTIONS_TYPE));
+        } catch (JsonProcessingException e) {
+            return List.of();
+        }
+    }
+
+    private record ParsedOptions(String json, List<String> options) {
+    }
+}
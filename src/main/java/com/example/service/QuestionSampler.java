@@ -0,0 +1,96 @@
+package com.example.service;
+
+import com.example.dto.BlueprintSectionDTO;
+import com.example.service.AnswerKeyCache.AnswerKey;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Draws random question IDs from a quiz bank without sorting the bank in the database.
+ * The bank's ID array comes from {@link AnswerKeyCache}, so it shares its eviction and invalidation.
+ * Sampling is a partial Fisher-Yates shuffle over array positions: the same seed over the same bank
+ * always yields the same IDs in the same order.
+ */
+@Component
+public class QuestionSampler {
+
+    private final AnswerKeyCache answerKeyCache;
+
+    public QuestionSampler(AnswerKeyCache answerKeyCache) {
+        this.answerKeyCache = answerKeyCache;
+    }
+
+    public long[] sample(Long quizBankId, int count, long seed) {
+        return sample(answerKeyCache.get(quizBankId), count, seed);
+    }
+
+    public long[] sample(Long quizBankId, List<BlueprintSectionDTO> blueprint, long seed) {
+        return sample(answerKeyCache.get(quizBankId), blueprint, seed);
+    }
+
+    static long[] sample(AnswerKey answerKey, int count, long seed) {
+        int size = answerKey.size();
+        int actualCount = Math.max(0, Math.min(count, size));
+        long[] sampledIds = new long[actualCount];
+        SplittableRandom random = new SplittableRandom(seed);
+
+        // Only positions that were swapped are tracked, so a small paper from a large bank stays O(count)
+        Map<Integer, Integer> swapped = new HashMap<>();
+        for (int i = 0; i < actualCount; i++) {
+            int j = i + random.nextInt(size - i);
+            int atJ = swapped.getOrDefault(j, j);
+            int atI = swapped.getOrDefault(i, i);
+            swapped.put(j, atI);
+            sampledIds[i] = answerKey.questionIdAt(atJ);
+        }
+        return sampledIds;
+    }
+
+    /**
+     * Draws each blueprint section from its stratum of the bank, in section order. A question is used
+     * at most once per paper, and a section that runs out of unused questions is served short.
+     */
+    static long[] sample(AnswerKey answerKey, List<BlueprintSectionDTO> blueprint, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Long> sampledIds = new ArrayList<>();
+        Set<Integer> usedSlots = new HashSet<>();
+        for (BlueprintSectionDTO section : blueprint) {
+            int[] candidates = answerKey.slotsMatching(section.difficulty(), QuestionTags.normalize(section.tags()));
+            int size = candidates.length;
+            int drawn = 0;
+            Map<Integer, Integer> swapped = new HashMap<>();
+            for (int i = 0; i < size && drawn < section.count(); i++) {
+                int j = i + random.nextInt(size - i);
+                int atJ = swapped.getOrDefault(j, j);
+                int atI = swapped.getOrDefault(i, i);
+                swapped.put(j, atI);
+                // Sections can overlap, e.g. a tag section and a difficulty section
+                if (usedSlots.add(candidates[atJ])) {
+                    sampledIds.add(answerKey.questionIdAt(candidates[atJ]));
+                    drawn++;
+                }
+            }
+        }
+        return sampledIds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * @return how many questions of the bank match each section, ignoring overlap between sections
+     */
+    public int[] available(Long quizBankId, List<BlueprintSectionDTO> blueprint) {
+        AnswerKey answerKey = answerKeyCache.get(quizBankId);
+        int[] available = new int[blueprint.size()];
+        for (int i = 0; i < available.length; i++) {
+            BlueprintSectionDTO section = blueprint.get(i);
+            available[i] = answerKey.slotsMatching(section.difficulty(), QuestionTags.normalize(section.tags())).length;
+        }
+        return available;
+    }
+}
@@ -1,26 +1,36 @@
 package com.example.service;
 
+import com.example.dto.BlueprintSectionDTO;
 import com.example.dto.QuestionCreateDTO;
 import com.example.dto.QuestionDTO;
 import com.example.dto.QuestionUpdateDTO;
+import com.example.dto.SimilarQuestionDTO;
 import com.example.model.Question;
 import com.example.model.QuizBank;
 import com.example.repository.QuestionRepository;
 import com.example.repository.QuizBankRepository;
+import com.example.service.grading.GradingEngine;
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Service
 public class QuestionService {
 
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
+    private static final double DEFAULT_MIN_SIMILARITY = 0.5;
+
     @Autowired
     private QuestionRepository questionRepository;
     
@@ -29,12 +39,33 @@ public class QuestionService {
     
     @Autowired
     private ObjectMapper objectMapper;
+    
+    @Autowired
+    private AnswerKeyCache answerKeyCache;
+    
+    @Autowired
+    private QuestionSampler questionSampler;
+    
+    @Autowired
+    private QuestionOptionsCache questionOptionsCache;
+    
+    @Autowired
+    private RegradeService regradeService;
+    
+    @Autowired
+    private QuestionTextIndex questionTextIndex;
+    
+    @Autowired
+    private GradingEngine gradingEngine;
 
     @Transactional
     public QuestionDTO createQuestion(QuestionCreateDTO questionCreateDTO) {
         QuizBank quizBank = quizBankRepository.findById(questionCreateDTO.quizBankId())
                 .orElseThrow(() -> new IllegalArgumentException("Quiz bank not found"));
         
+        // Rejects a correct answer the question type cannot grade
+        gradingEngine.compile(questionCreateDTO.questionType(), questionCreateDTO.correctAnswer(), questionCreateDTO.options());
+        
         String optionsJson;
         try {
             optionsJson = objectMapper.writeValueAsString(questionCreateDTO.options());
@@ -48,9 +79,13 @@ public class QuestionService {
                 .questionType(questionCreateDTO.questionType())
                 .options(optionsJson)
                 .correctAnswer(questionCreateDTO.correctAnswer())
+                .difficulty(questionCreateDTO.difficulty())
+                .tags(QuestionTags.join(questionCreateDTO.tags()))
                 .build();
         
         Question savedQuestion = questionRepository.save(question);
+        answerKeyCache.invalidate(quizBank.getId());
+        questionTextIndex.indexAfterCommit(savedQuestion.getId(), quizBank.getId(), savedQuestion.getQuestionText());
         
         return mapToDTO(savedQuestion);
     }
@@ -71,14 +106,54 @@ public class QuestionService {
     }
 
     public List<QuestionDTO> getRandomQuestionsByQuizBankId(Long quizBankId, Integer count) {
-        List<Question> allQuestions = questionRepository.findRandomQuestionsByQuizBankId(quizBankId);
+        return getRandomQuestionsByQuizBankId(quizBankId, count, ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Draws {@code count} random questions from the bank. The same seed reproduces the same paper
+     * as long as the bank's questions have not changed.
+     */
+    public List<QuestionDTO> getRandomQuestionsByQuizBankId(Long quizBankId, Integer count, long seed) {
+        if (count == null) {
+            throw new IllegalArgumentException("Question count must be specified");
+        }
+        long[] sampledIds = questionSampler.sample(quizBankId, count, seed);
         
-        int actualCount = Math.min(count, allQuestions.size());
-        List<Question> randomQuestions = allQuestions.subList(0, actualCount);
+        return getQuestionsByIds(sampledIds);
+    }
+
+    /**
+     * Draws a paper following a quiz blueprint: each section's questions are sampled from the bank's
+     * in-memory strata and the whole paper is fetched with one query, section by section.
+     */
+    public List<QuestionDTO> getBlueprintQuestions(Long quizBankId, List<BlueprintSectionDTO> blueprint, long seed) {
+        long[] sampledIds = questionSampler.sample(quizBankId, blueprint, seed);
         
-        return randomQuestions.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return getQuestionsByIds(sampledIds);
+    }
+
+    /**
+     * Fetches the given questions with a single IN query and returns them in the order of the IDs.
+     */
+    public List<QuestionDTO> getQuestionsByIds(long[] questionIds) {
+        List<Long> ids = new ArrayList<>(questionIds.length);
+        for (long questionId : questionIds) {
+            ids.add(questionId);
+        }
+        
+        Map<Long, Question> questionsById = new HashMap<>();
+        for (Question question : questionRepository.findAllById(ids)) {
+            questionsById.put(question.getId(), question);
+        }
+        
+        List<QuestionDTO> questions = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Question question = questionsById.get(id);
+            if (question != null) {
+                questions.add(mapToDTO(question));
+            }
+        }
+        return questions;
     }
 
     @Transactional
@@ -86,6 +161,9 @@ public class QuestionService {
         Question question = questionRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Question not found"));
         
+        // Rejects a correct answer the question type cannot grade
+        gradingEngine.compile(questionUpdateDTO.questionType(), questionUpdateDTO.correctAnswer(), questionUpdateDTO.options());
+        
         String optionsJson;
         try {
             optionsJson = objectMapper.writeValueAsString(questionUpdateDTO.options());
@@ -93,36 +171,127 @@ public class QuestionService {
             throw new IllegalArgumentException("Error parsing options: " + e.getMessage());
         }
         
+        // The type and, for option-based types, the options decide how answers are graded too
+        boolean answerKeyChanged = !Objects.equals(question.getCorrectAnswer(), questionUpdateDTO.correctAnswer())
+                || question.getQuestionType() != questionUpdateDTO.questionType()
+                || (questionUpdateDTO.questionType().usesOptions() && !Objects.equals(question.getOptions(), optionsJson));
+        boolean textChanged = !Objects.equals(question.getQuestionText(), questionUpdateDTO.questionText());
+        
         question.setQuestionText(questionUpdateDTO.questionText());
         question.setQuestionType(questionUpdateDTO.questionType());
         question.setOptions(optionsJson);
         question.setCorrectAnswer(questionUpdateDTO.correctAnswer());
+        question.setDifficulty(questionUpdateDTO.difficulty());
+        question.setTags(QuestionTags.join(questionUpdateDTO.tags()));
         
         Question updatedQuestion = questionRepository.save(question);
+        invalidateAnswerKey(updatedQuestion);
+        questionOptionsCache.invalidate(id);
+        if (textChanged) {
+            questionTextIndex.indexAfterCommit(id, updatedQuestion.getQuizBank().getId(), updatedQuestion.getQuestionText());
+        }
+        if (answerKeyChanged) {
+            // Existing responses were graded against the old answer; the job starts after commit
+            regradeService.startRegrade(id);
+        }
         
         return mapToDTO(updatedQuestion);
     }
 
     @Transactional
     public void deleteQuestion(Long id) {
-        questionRepository.deleteById(id);
+        questionRepository.findById(id).ifPresent(question -> {
+            questionRepository.delete(question);
+            invalidateAnswerKey(question);
+            questionOptionsCache.invalidate(id);
+            questionTextIndex.removeAfterCommit(id);
+        });
+    }
+
+    /**
+     * Searches question text across all quiz banks, or within one when {@code quizBankId} is given.
+     * Every word of the query must appear, possibly inside a longer word.
+     */
+    public List<QuestionDTO> searchQuestions(String query, Long quizBankId, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        List<Long> questionIds = questionTextIndex.search(query, quizBankId, clampLimit(limit));
+        
+        return getQuestionsByIds(questionIds.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * Finds likely duplicates of an existing question, in any quiz bank.
+     */
+    public List<SimilarQuestionDTO> findSimilarQuestions(Long id, Integer limit, Double minSimilarity) {
+        Question question = questionRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Question not found"));
+        
+        return findSimilar(question.getQuestionText(), id, limit, minSimilarity);
+    }
+
+    /**
+     * Finds existing questions similar to a text, e.g. before creating a new question.
+     */
+    public List<SimilarQuestionDTO> findSimilarToText(String questionText, Integer limit, Double minSimilarity) {
+        if (questionText == null || questionText.isBlank()) {
+            throw new IllegalArgumentException("Question text must not be empty");
+        }
+        
+        return findSimilar(questionText, null, limit, minSimilarity);
     }
     
-    private QuestionDTO mapToDTO(Question question) {
-        List<String> options;
-        try {
-            options = objectMapper.readValue(question.getOptions(), new TypeReference<List<String>>() {});
-        } catch (JsonProcessingException e) {
-            options = new ArrayList<>();
+    private List<SimilarQuestionDTO> findSimilar(String questionText, Long excludeQuestionId, Integer limit,
+                                                 Double minSimilarity) {
+        double threshold = minSimilarity != null ? minSimilarity : DEFAULT_MIN_SIMILARITY;
+        if (threshold < 0 || threshold > 1) {
+            throw new IllegalArgumentException("Minimum similarity must be between 0 and 1");
+        }
+        List<QuestionTextIndex.SimilarQuestion> matches =
+                questionTextIndex.findSimilar(questionText, excludeQuestionId, threshold, clampLimit(limit));
+        
+        long[] questionIds = matches.stream().mapToLong(QuestionTextIndex.SimilarQuestion::questionId).toArray();
+        Map<Long, QuestionDTO> questionsById = new HashMap<>();
+        for (QuestionDTO question : getQuestionsByIds(questionIds)) {
+            questionsById.put(question.id(), question);
         }
         
+        List<SimilarQuestionDTO> similar = new ArrayList<>(matches.size());
+        for (QuestionTextIndex.SimilarQuestion match : matches) {
+            QuestionDTO question = questionsById.get(match.questionId());
+            if (question != null) {
+                similar.add(new SimilarQuestionDTO(question, match.similarity()));
+            }
+        }
+        return similar;
+    }
+    
+    private static int clampLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_SEARCH_LIMIT;
+        }
+        return Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+    }
+    
+    private void invalidateAnswerKey(Question question) {
+        if (question.getQuizBank() != null) {
+            answerKeyCache.invalidate(question.getQuizBank().getId());
+        }
+    }
+    
+    private QuestionDTO mapToDTO(Question question) {
+        List<String> options = questionOptionsCache.get(question.getId(), question.getOptions());
+        
         return new QuestionDTO(
                 question.getId(),
                 question.getQuizBank().getId(),
                 question.getQuestionText(),
                 question.getQuestionType(),
                 options,
-                question.getCorrectAnswer()
+                question.getCorrectAnswer(),
+                question.getDifficulty(),
+                QuestionTags.split(question.getTags())
         );
     }
 } 
\ No newline at end of file
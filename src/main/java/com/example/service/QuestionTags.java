@@ -0,0 +1,54 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Question tags are stored as one comma-separated column, trimmed, lower-cased and without duplicates,
+ * so the answer key can read them without parsing JSON.
+ */
+public final class QuestionTags {
+
+    private QuestionTags() {
+    }
+
+    /**
+     * @return the normalized tags, empty when there are none
+     */
+    public static List<String> normalize(List<String> tags) {
+        if (tags == null) {
+            return List.of();
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            if (tag == null || tag.isBlank()) {
+                continue;
+            }
+            // Separators of the column and of CSV imports
+            if (tag.indexOf(',') >= 0 || tag.indexOf('|') >= 0) {
+                throw new IllegalArgumentException("Tags cannot contain , or |: " + tag);
+            }
+            normalized.add(tag.trim().toLowerCase(Locale.ROOT));
+        }
+        return new ArrayList<>(normalized);
+    }
+
+    /**
+     * @return the column value for the tags, or null when there are none
+     */
+    public static String join(List<String> tags) {
+        List<String> normalized = normalize(tags);
+        return normalized.isEmpty() ? null : String.join(",", normalized);
+    }
+
+    public static List<String> split(String column) {
+        if (column == null || column.isEmpty()) {
+            return List.of();
+        }
+        return Arrays.asList(column.split(","));
+    }
+}
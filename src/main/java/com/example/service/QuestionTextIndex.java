@@ -0,0 +1,619 @@
+package com.example.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index over question text, for searching across quiz banks and for finding
+ * near-duplicate questions.
+ * <p>
+ * Text is lower-cased, stripped of diacritics and split into tokens. Each token, and each character
+ * trigram of a token, has a posting list of document numbers kept in ascending order in a growable
+ * int array, so a search intersects a few sorted arrays. Each question also gets a MinHash signature
+ * over character shingles of its text: 8 bits of each of {@value #HASHES} hashes to estimate Jaccard
+ * similarity, and {@value #BANDS} bands of hashes chained through int arrays to find candidates.
+ * <p>
+ * Documents are only ever appended: a changed question gets a new document number and the old one
+ * is marked deleted, and postings are compacted once enough documents are deleted. The index is
+ * built from QUESTIONS on startup and rebuilt nightly; changes made during a rebuild are replayed
+ * onto the new index before it replaces the old one. Queries share a read lock, while changes take
+ * the write lock briefly.
+ */
+@Component
+public class QuestionTextIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuestionTextIndex.class);
+
+    private static final String SCAN_QUESTIONS = "SELECT id, quiz_bank_id, question_text FROM questions";
+
+    static final int HASHES = 32;
+    static final int BANDS = 8;
+    private static final int ROWS = HASHES / BANDS;
+    private static final int NGRAM = 3;
+    private static final int SHINGLE = 4;
+    private static final long NO_BANK = Long.MIN_VALUE;
+    private static final int[] SEEDS = new int[HASHES];
+
+    static {
+        // Fixed so signatures are comparable across restarts
+        SplittableRandom random = new SplittableRandom(0x51A1L);
+        for (int i = 0; i < HASHES; i++) {
+            SEEDS[i] = random.nextInt();
+        }
+    }
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ExecutorService rebuildRunner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "question-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Guarded by lock
+    private Index index = new Index();
+    // Guarded by lock; collects changes while a rebuild is running
+    private List<Consumer<Index>> pendingChanges;
+
+    public QuestionTextIndex(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.streamingJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.streamingJdbcTemplate.setFetchSize(1000);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuildRunner.execute(this::rebuild);
+    }
+
+    @Scheduled(cron = "${quiz.question-index.rebuild-cron:0 0 4 * * *}")
+    public void scheduleRebuild() {
+        rebuildRunner.execute(this::rebuild);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildRunner.shutdownNow();
+    }
+
+    /**
+     * Adds or replaces a question once the surrounding transaction commits.
+     */
+    public void indexAfterCommit(Long questionId, Long quizBankId, String questionText) {
+        afterCommit(() -> index(questionId, quizBankId, questionText));
+    }
+
+    public void removeAfterCommit(Long questionId) {
+        afterCommit(() -> remove(questionId));
+    }
+
+    public void index(Long questionId, Long quizBankId, String questionText) {
+        apply(target -> target.add(questionId, quizBankId, questionText));
+    }
+
+    public void remove(Long questionId) {
+        apply(target -> target.remove(questionId));
+    }
+
+    /**
+     * Finds questions containing every word of the query, where a word of three or more characters
+     * may also match inside a longer word. Questions containing the words exactly rank first, then
+     * shorter questions.
+     *
+     * @param quizBankId restricts the search to one bank; null searches all banks
+     * @return IDs of the best matches, best first
+     */
+    public List<Long> search(String query, Long quizBankId, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.search(query, quizBankId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds questions whose text is estimated to be at least {@code minSimilarity} similar to
+     * {@code questionText}, as Jaccard similarity of their character shingles.
+     *
+     * @param excludeQuestionId a question to leave out of the results, usually the one compared; may be null
+     * @return matches, most similar first
+     */
+    public List<SimilarQuestion> findSimilar(String questionText, Long excludeQuestionId, double minSimilarity, int limit) {
+        lock.readLock().lock();
+        try {
+            return index.findSimilar(questionText, excludeQuestionId, minSimilarity, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void rebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Index rebuilt = new Index();
+        try {
+            // Streamed with a cursor, which PostgreSQL only uses inside a transaction
+            transactionTemplate.executeWithoutResult(status -> streamingJdbcTemplate.query(SCAN_QUESTIONS,
+                    (RowCallbackHandler) resultSet -> rebuilt.add(resultSet.getLong(1),
+                            resultSet.getObject(2, Long.class), resultSet.getString(3))));
+        } catch (RuntimeException e) {
+            logger.error("Failed to rebuild the question text index", e);
+            lock.writeLock().lock();
+            try {
+                pendingChanges = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Changes that committed before the scan are already included; replaying them is harmless
+            pendingChanges.forEach(change -> change.accept(rebuilt));
+            pendingChanges = null;
+            index = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Indexed the text of {} questions", rebuilt.documents.size());
+    }
+
+    private void apply(Consumer<Index> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Lower-cases, strips diacritics and splits on anything that is not a letter or digit.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (c == 'đ') {
+                // Has no decomposition
+                c = 'd';
+            }
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (!token.isEmpty()) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (!token.isEmpty()) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * Minimum of each seeded hash over the character shingles of the normalized text.
+     */
+    static int[] minHashes(List<String> tokens) {
+        String text = String.join(" ", tokens);
+        int[] minHashes = new int[HASHES];
+        Arrays.fill(minHashes, Integer.MAX_VALUE);
+        int shingleCount = Math.max(1, text.length() - SHINGLE + 1);
+        for (int start = 0; start < shingleCount; start++) {
+            int shingle = 0;
+            for (int i = start; i < Math.min(start + SHINGLE, text.length()); i++) {
+                shingle = 31 * shingle + text.charAt(i);
+            }
+            for (int i = 0; i < HASHES; i++) {
+                int hash = mix(shingle ^ SEEDS[i]);
+                if (hash < minHashes[i]) {
+                    minHashes[i] = hash;
+                }
+            }
+        }
+        return minHashes;
+    }
+
+    private static int bandHash(int[] minHashes, int band) {
+        int hash = band;
+        for (int row = 0; row < ROWS; row++) {
+            hash = 31 * hash + minHashes[band * ROWS + row];
+        }
+        return mix(hash);
+    }
+
+    // MurmurHash3 finalizer
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    /**
+     * A question estimated to be similar to the compared text
+     */
+    public record SimilarQuestion(long questionId, double similarity) {
+    }
+
+    private static final class Index {
+
+        private final Map<String, IntPostings> tokenPostings = new HashMap<>();
+        private final Map<String, IntPostings> ngramPostings = new HashMap<>();
+        private final Map<Long, Integer> documents = new HashMap<>();
+        private final BitSet deleted = new BitSet();
+        private long[] questionIds = new long[1024];
+        private long[] quizBankIds = new long[1024];
+        private int[] tokenCounts = new int[1024];
+        private byte[] signatures = new byte[1024 * HASHES];
+        private int[] bandHashes = new int[1024 * BANDS];
+        private int[] bandNext = new int[1024 * BANDS];
+        private int[] bandHeads;
+        private int bandMask;
+        private int documentCount;
+        private int deletedCount;
+        private int deletedAtLastCompaction;
+
+        Index() {
+            resizeBands(1024);
+        }
+
+        void add(long questionId, Long quizBankId, String questionText) {
+            remove(questionId);
+            List<String> tokens = tokenize(questionText);
+            if (tokens.isEmpty()) {
+                return;
+            }
+
+            int document = documentCount++;
+            ensureCapacity(documentCount);
+            documents.put(questionId, document);
+            questionIds[document] = questionId;
+            quizBankIds[document] = quizBankId != null ? quizBankId : NO_BANK;
+            tokenCounts[document] = tokens.size();
+
+            // Postings stay sorted because a new document always has the highest number
+            for (String token : tokens) {
+                tokenPostings.computeIfAbsent(token, key -> new IntPostings()).add(document);
+                for (int i = 0; i + NGRAM <= token.length(); i++) {
+                    ngramPostings.computeIfAbsent(token.substring(i, i + NGRAM), key -> new IntPostings()).add(document);
+                }
+            }
+
+            int[] minHashes = minHashes(tokens);
+            for (int i = 0; i < HASHES; i++) {
+                signatures[document * HASHES + i] = (byte) minHashes[i];
+            }
+            for (int band = 0; band < BANDS; band++) {
+                bandHashes[document * BANDS + band] = bandHash(minHashes, band);
+                link(document, band);
+            }
+            if (documentCount > (bandMask + 1) / 4 * 3) {
+                resizeBands((bandMask + 1) * 2);
+            }
+        }
+
+        void remove(long questionId) {
+            Integer document = documents.remove(questionId);
+            if (document == null) {
+                return;
+            }
+            deleted.set(document);
+            deletedCount++;
+            if (deletedCount - deletedAtLastCompaction > Math.max(1024, documentCount / 4)) {
+                compact();
+            }
+        }
+
+        List<Long> search(String query, Long quizBankId, int limit) {
+            Set<String> terms = new LinkedHashSet<>(tokenize(query));
+            if (terms.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+
+            // A term matches its exact token or, from three characters, any token containing all its trigrams
+            List<IntPostings> required = new ArrayList<>();
+            for (String term : terms) {
+                if (term.length() < NGRAM) {
+                    IntPostings postings = tokenPostings.get(term);
+                    if (postings == null) {
+                        return List.of();
+                    }
+                    required.add(postings);
+                    continue;
+                }
+                for (int i = 0; i + NGRAM <= term.length(); i++) {
+                    IntPostings postings = ngramPostings.get(term.substring(i, i + NGRAM));
+                    if (postings == null) {
+                        return List.of();
+                    }
+                    required.add(postings);
+                }
+            }
+            required.sort(Comparator.comparingInt(postings -> postings.size));
+
+            // Intersect from the shortest list, in place
+            IntPostings shortest = required.get(0);
+            int[] candidates = Arrays.copyOf(shortest.documents, shortest.size);
+            int candidateCount = shortest.size;
+            for (int i = 1; i < required.size() && candidateCount > 0; i++) {
+                candidateCount = intersect(candidates, candidateCount, required.get(i));
+            }
+
+            List<IntPostings> exactPostings = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                IntPostings postings = tokenPostings.get(term);
+                if (postings != null) {
+                    exactPostings.add(postings);
+                }
+            }
+
+            // Worst hit on top, so it is the one dropped once more than limit hits are found
+            Comparator<SearchHit> ranking = Comparator.comparingInt(SearchHit::exactMatches).reversed()
+                    .thenComparingInt(SearchHit::tokenCount)
+                    .thenComparing(Comparator.comparingInt(SearchHit::document).reversed());
+            PriorityQueue<SearchHit> best = new PriorityQueue<>(limit + 1, ranking.reversed());
+            for (int i = 0; i < candidateCount; i++) {
+                int document = candidates[i];
+                if (deleted.get(document) || (quizBankId != null && quizBankIds[document] != quizBankId)) {
+                    continue;
+                }
+                int exactMatches = 0;
+                for (IntPostings postings : exactPostings) {
+                    if (postings.contains(document)) {
+                        exactMatches++;
+                    }
+                }
+                best.add(new SearchHit(document, exactMatches, tokenCounts[document]));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>(best);
+            hits.sort(ranking);
+            List<Long> questionIdsFound = new ArrayList<>(hits.size());
+            for (SearchHit hit : hits) {
+                questionIdsFound.add(questionIds[hit.document()]);
+            }
+            return questionIdsFound;
+        }
+
+        List<SimilarQuestion> findSimilar(String questionText, Long excludeQuestionId, double minSimilarity, int limit) {
+            List<String> tokens = tokenize(questionText);
+            if (tokens.isEmpty() || limit <= 0) {
+                return List.of();
+            }
+
+            int[] minHashes = minHashes(tokens);
+            Set<Integer> compared = new HashSet<>();
+            List<SimilarQuestion> similar = new ArrayList<>();
+            for (int band = 0; band < BANDS; band++) {
+                int hash = bandHash(minHashes, band);
+                int document = bandHeads[band * (bandMask + 1) + (hash & bandMask)];
+                for (; document >= 0; document = bandNext[document * BANDS + band]) {
+                    // Chains can hold other band values sharing the slot
+                    if (bandHashes[document * BANDS + band] != hash || deleted.get(document) || !compared.add(document)) {
+                        continue;
+                    }
+                    if (excludeQuestionId != null && questionIds[document] == excludeQuestionId) {
+                        continue;
+                    }
+                    double similarity = estimateSimilarity(minHashes, document);
+                    if (similarity >= minSimilarity) {
+                        similar.add(new SimilarQuestion(questionIds[document], similarity));
+                    }
+                }
+            }
+            similar.sort(Comparator.comparingDouble(SimilarQuestion::similarity).reversed());
+            return similar.size() > limit ? new ArrayList<>(similar.subList(0, limit)) : similar;
+        }
+
+        /**
+         * Share of equal 8-bit signature slots, corrected for the 1 in 256 chance of unequal hashes colliding.
+         */
+        private double estimateSimilarity(int[] minHashes, int document) {
+            int equal = 0;
+            for (int i = 0; i < HASHES; i++) {
+                if ((byte) minHashes[i] == signatures[document * HASHES + i]) {
+                    equal++;
+                }
+            }
+            double collision = 1.0 / 256;
+            double similarity = ((double) equal / HASHES - collision) / (1 - collision);
+            return Math.max(0, Math.min(1, similarity));
+        }
+
+        /**
+         * Galloping intersection of {@code candidates} with {@code postings}, written back into {@code candidates}.
+         */
+        private static int intersect(int[] candidates, int candidateCount, IntPostings postings) {
+            int[] documents = postings.documents;
+            int size = postings.size;
+            int kept = 0;
+            int position = 0;
+            for (int i = 0; i < candidateCount && position < size; i++) {
+                int document = candidates[i];
+                int step = 1;
+                int bound = position;
+                while (bound < size && documents[bound] < document) {
+                    position = bound + 1;
+                    bound += step;
+                    step <<= 1;
+                }
+                int found = Arrays.binarySearch(documents, position, Math.min(bound + 1, size), document);
+                if (found >= 0) {
+                    candidates[kept++] = document;
+                    position = found + 1;
+                } else {
+                    position = -found - 1;
+                }
+            }
+            return kept;
+        }
+
+        private void link(int document, int band) {
+            int head = band * (bandMask + 1) + (bandHashes[document * BANDS + band] & bandMask);
+            bandNext[document * BANDS + band] = bandHeads[head];
+            bandHeads[head] = document;
+        }
+
+        private void resizeBands(int slots) {
+            bandMask = slots - 1;
+            bandHeads = new int[BANDS * slots];
+            Arrays.fill(bandHeads, -1);
+            for (int document = 0; document < documentCount; document++) {
+                if (!deleted.get(document)) {
+                    for (int band = 0; band < BANDS; band++) {
+                        link(document, band);
+                    }
+                }
+            }
+        }
+
+        private void compact() {
+            compact(tokenPostings);
+            compact(ngramPostings);
+            resizeBands(bandMask + 1);
+            deletedAtLastCompaction = deletedCount;
+        }
+
+        private void compact(Map<String, IntPostings> postingsByTerm) {
+            Iterator<IntPostings> iterator = postingsByTerm.values().iterator();
+            while (iterator.hasNext()) {
+                IntPostings postings = iterator.next();
+                postings.removeAll(deleted);
+                if (postings.size == 0) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= questionIds.length) {
+                return;
+            }
+            int newCapacity = Math.max(capacity, questionIds.length * 2);
+            questionIds = Arrays.copyOf(questionIds, newCapacity);
+            quizBankIds = Arrays.copyOf(quizBankIds, newCapacity);
+            tokenCounts = Arrays.copyOf(tokenCounts, newCapacity);
+            signatures = Arrays.copyOf(signatures, newCapacity * HASHES);
+            bandHashes = Arrays.copyOf(bandHashes, newCapacity * BANDS);
+            bandNext = Arrays.copyOf(bandNext, newCapacity * BANDS);
+        }
+    }
+
+    private record SearchHit(int document, int exactMatches, int tokenCount) {
+    }
+
+    /**
+     * Ascending document numbers in a growable int array.
+     */
+    private static final class IntPostings {
+
+        private int[] documents = new int[4];
+        private int size;
+
+        void add(int document) {
+            // A token repeated within the same question
+            if (size > 0 && documents[size - 1] == document) {
+                return;
+            }
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+
+        boolean contains(int document) {
+            return Arrays.binarySearch(documents, 0, size, document) >= 0;
+        }
+
+        void removeAll(BitSet removed) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!removed.get(documents[i])) {
+                    documents[kept++] = documents[i];
+                }
+            }
+            size = kept;
+            if (documents.length > 16 && size < documents.length / 4) {
+                documents = Arrays.copyOf(documents, Math.max(4, size * 2));
+            }
+        }
+    }
+}
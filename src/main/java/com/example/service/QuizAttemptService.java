@@ -1,20 +1,48 @@
 package com.example.service;
 
+import com.example.dto.BlueprintSectionDTO;
+import com.example.dto.LeaderboardDTO;
+import com.example.dto.PagedResponseDto;
+import com.example.dto.PaperPoolDTO;
 import com.example.dto.QuizAttemptDTO;
+import com.example.dto.QuizAttemptSummaryDTO;
+import com.example.dto.QuizMonitorEventDTO;
 import com.example.dto.StudentResponseDTO;
 import com.example.dto.QuizResultDTO;
+import com.example.dto.QuizResultHeaderDTO;
 import com.example.dto.QuestionDTO;
 import com.example.dto.QuizAttemptWithQuestionsDTO;
 import com.example.model.*;
 import com.example.repository.*;
+import com.example.service.AnswerKeyCache.AnswerKey;
+import com.example.service.ActiveAttemptRegistry.Reservation;
+import com.example.service.AnswerWriteBuffer.PendingAnswer;
+import com.example.service.ItemAnalyticsService.GradedAnswer;
+import com.example.service.QuizPaperPool.PreparedPaper;
+import com.example.service.grading.AnswerGrader;
+import com.example.service.grading.GradingEngine;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
 @Service
@@ -26,6 +54,12 @@ public class QuizAttemptService {
     @Autowired
     private StudentResponseRepository studentResponseRepository;
     
+    @Autowired
+    private StudentResponseJdbcRepository studentResponseJdbcRepository;
+    
+    @Autowired
+    private QuizResultSnapshotRepository quizResultSnapshotRepository;
+    
     @Autowired
     private UserRepository userRepository;
     
@@ -40,6 +74,39 @@ public class QuizAttemptService {
     
     @Autowired
     private ObjectMapper objectMapper;
+    
+    @Autowired
+    private AnswerKeyCache answerKeyCache;
+    
+    @Autowired
+    private AnswerWriteBuffer answerWriteBuffer;
+    
+    @Autowired
+    private QuizPaperPool quizPaperPool;
+    
+    @Autowired
+    private QuizDeadlineWheel quizDeadlineWheel;
+    
+    @Autowired
+    private ActiveAttemptRegistry activeAttemptRegistry;
+    
+    @Autowired
+    private ItemAnalyticsService itemAnalyticsService;
+    
+    @Autowired
+    private QuizLeaderboard quizLeaderboard;
+
+    @Autowired
+    private QuizMonitorBroadcaster quizMonitorBroadcaster;
+    
+    @Autowired
+    private QuizBlueprintService quizBlueprintService;
+    
+    @Autowired
+    private GradingEngine gradingEngine;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Transactional
     public QuizAttemptDTO startQuizAttempt(Long studentId, Long learningItemId) {
@@ -58,22 +125,24 @@ public class QuizAttemptService {
             throw new IllegalArgumentException("No quiz bank associated with this learning item");
         }
         
-        // Check if there's an in-progress attempt
-        quizAttemptRepository.findByStudentAndLearningItemAndStatus(student, learningItem, QuizAttemptStatus.IN_PROGRESS)
-                .ifPresent(existingAttempt -> {
-                    throw new IllegalArgumentException("There is already an in-progress quiz attempt");
-                });
+        // Claim the (student, learning item) pair; there can only be one in-progress attempt
+        Reservation reservation = reserveActiveAttempt(studentId, learningItemId);
         
         // Create new attempt
+        LocalDateTime startTime = LocalDateTime.now();
         QuizAttempt quizAttempt = QuizAttempt.builder()
                 .student(student)
                 .quizBank(quizBank)
                 .learningItem(learningItem)
-                .startTime(LocalDateTime.now())
+                .startTime(startTime)
+                .deadline(deadlineOf(learningItem, startTime))
                 .status(QuizAttemptStatus.IN_PROGRESS)
                 .build();
         
-        QuizAttempt savedAttempt = quizAttemptRepository.save(quizAttempt);
+        QuizAttempt savedAttempt = saveNewAttempt(quizAttempt);
+        reservation.bind(savedAttempt.getId());
+        scheduleDeadline(savedAttempt);
+        publishMonitorEvent(QuizMonitorEventDTO.ATTEMPT_STARTED, savedAttempt, null, null);
         
         return mapToDTO(savedAttempt);
     }
@@ -87,29 +156,54 @@ public class QuizAttemptService {
             throw new IllegalArgumentException("This quiz attempt is already completed");
         }
         
-        Question question = questionRepository.findById(questionId)
-                .orElseThrow(() -> new IllegalArgumentException("Question not found"));
+        if (isPastDeadline(quizAttempt)) {
+            throw new IllegalArgumentException("The time limit of this quiz attempt has expired");
+        }
         
-        // Verify the question belongs to the quiz bank
-        QuizBank questionQuizBank = question.getQuizBank();
-        if (questionQuizBank == null) {
-            throw new IllegalArgumentException("Question does not have an associated quiz bank");
+        // Grade from the cached answer key so a warm bank needs no question reads
+        Long quizBankId = quizAttempt.getQuizBank().getId();
+        AnswerKey answerKey = answerKeyCache.get(quizBankId);
+        int keyIndex = answerKey.indexOf(questionId);
+        
+        Question question;
+        String questionText;
+        String correctAnswer;
+        AnswerGrader grader;
+        if (keyIndex >= 0) {
+            question = questionRepository.getReferenceById(questionId);
+            questionText = answerKey.questionTextAt(keyIndex);
+            correctAnswer = answerKey.correctAnswerAt(keyIndex);
+            grader = answerKey.graderAt(keyIndex);
+        } else {
+            // Not part of the bank's answer key: load the question to report the precise error
+            question = questionRepository.findById(questionId)
+                    .orElseThrow(() -> new IllegalArgumentException("Question not found"));
+            
+            // Verify the question belongs to the quiz bank
+            QuizBank questionQuizBank = question.getQuizBank();
+            if (questionQuizBank == null) {
+                throw new IllegalArgumentException("Question does not have an associated quiz bank");
+            }
+            
+            if (!questionQuizBank.getId().equals(quizBankId)) {
+                throw new IllegalArgumentException("Question does not belong to this quiz");
+            }
+            questionText = question.getQuestionText();
+            correctAnswer = question.getCorrectAnswer();
+            grader = gradingEngine.compileStored(question.getQuestionType(), correctAnswer, question.getOptions());
         }
         
-        if (!questionQuizBank.getId().equals(quizAttempt.getQuizBank().getId())) {
-            throw new IllegalArgumentException("Question does not belong to this quiz");
+        if (!wasServed(quizAttempt, questionId)) {
+            throw new IllegalArgumentException("Question was not served in this quiz attempt");
         }
         
-        // Check if question already answered
-        List<StudentResponse> existingResponses = studentResponseRepository.findByQuizAttempt(quizAttempt);
-        for (StudentResponse existingResponse : existingResponses) {
-            if (existingResponse.getQuestion().getId().equals(questionId)) {
-                throw new IllegalArgumentException("Question already answered");
-            }
+        // Check if question already answered; without write-behind the unique index detects it on insert
+        if (answerWriteBuffer.isEnabled() && answerWriteBuffer.answeredQuestionIds(quizAttemptId).contains(questionId)) {
+            throw new IllegalArgumentException("Question already answered");
         }
         
-        // Grade the answer - each correct answer is worth 1 point
-        boolean isCorrect = question.getCorrectAnswer().equals(selectedAnswer);
+        // Grade the answer with the question's compiled grader - each correct answer is worth 1 point
+        boolean isCorrect = grader.isCorrect(selectedAnswer);
         int pointsEarned = isCorrect ? 1 : 0;
         
         // Save response
@@ -120,10 +214,24 @@ public class QuizAttemptService {
                 .isCorrect(isCorrect)
                 .pointsEarned(pointsEarned)
                 .build();
+        itemAnalyticsService.recordResponses(quizBankId, quizAttemptId, List.of(new GradedAnswer(questionId, selectedAnswer, isCorrect)));
+        publishMonitorEvent(QuizMonitorEventDTO.ANSWER_SUBMITTED, quizAttempt, questionId, isCorrect);
         
-        StudentResponse savedResponse = studentResponseRepository.save(response);
+        if (answerWriteBuffer.isEnabled()) {
+            // Written later by the flusher, so the returned response has no ID yet
+            answerWriteBuffer.submit(quizAttemptId, List.of(toPendingAnswer(response)));
+            return mapToResponseDTO(response, questionText, correctAnswer);
+        }
+        
+        // A single upsert-style insert, so a concurrent double submit cannot create a second row
+        Long responseId = studentResponseJdbcRepository.insertIgnoringAnswered(quizAttemptId, List.of(response)).get(questionId);
+        if (responseId == null) {
+            throw new IllegalArgumentException("Question already answered");
+        }
+        response.setId(responseId);
+        quizAttemptRepository.incrementCounters(quizAttemptId, 1, isCorrect ? 1 : 0, pointsEarned);
         
-        return mapToResponseDTO(savedResponse);
+        return mapToResponseDTO(response, questionText, correctAnswer);
     }
 
     @Transactional
@@ -135,56 +243,129 @@ public class QuizAttemptService {
             throw new IllegalArgumentException("This quiz attempt is already completed");
         }
         
-        List<StudentResponse> existingResponses = studentResponseRepository.findByQuizAttempt(quizAttempt);
+        if (isPastDeadline(quizAttempt)) {
+            throw new IllegalArgumentException("The time limit of this quiz attempt has expired");
+        }
         
-        List<StudentResponseDTO> responseList = answers.stream()
-                .map(answer -> {
-                    Long questionId = ((Number) answer.get("questionId")).longValue();
-                    String selectedAnswer = (String) answer.get("selectedAnswer");
-                    
-                    if (questionId == null || selectedAnswer == null) {
-                        throw new IllegalArgumentException("Question ID and selected answer must be provided for all answers");
-                    }
-                    
-                    // Check if question already answered
-                    for (StudentResponse existingResponse : existingResponses) {
-                        if (existingResponse.getQuestion().getId().equals(questionId)) {
-                            throw new IllegalArgumentException("Question " + questionId + " already answered");
-                        }
-                    }
-                    
-                    Question question = questionRepository.findById(questionId)
-                            .orElseThrow(() -> new IllegalArgumentException("Question not found: " + questionId));
-                    
-                    // Verify the question belongs to the quiz bank
-                    QuizBank questionQuizBank = question.getQuizBank();
-                    if (questionQuizBank == null) {
-                        throw new IllegalArgumentException("Question " + questionId + " does not have an associated quiz bank");
-                    }
-                    
-                    if (!questionQuizBank.getId().equals(quizAttempt.getQuizBank().getId())) {
-                        throw new IllegalArgumentException("Question " + questionId + " does not belong to this quiz");
-                    }
-                    
-                    // Grade the answer - each correct answer is worth 1 point
-                    boolean isCorrect = question.getCorrectAnswer().equals(selectedAnswer);
-                    int pointsEarned = isCorrect ? 1 : 0;
-                    
-                    // Save response
-                    StudentResponse response = StudentResponse.builder()
-                            .quizAttempt(quizAttempt)
-                            .question(question)
-                            .selectedAnswer(selectedAnswer)
-                            .isCorrect(isCorrect)
-                            .pointsEarned(pointsEarned)
-                            .build();
-                    
-                    StudentResponse savedResponse = studentResponseRepository.save(response);
-                    return mapToResponseDTO(savedResponse);
-                })
-                .collect(Collectors.toList());
+        // Buffered answers are checked up front; otherwise the unique index detects answered questions on insert
+        Set<Long> answeredQuestionIds = answerWriteBuffer.isEnabled()
+                ? answerWriteBuffer.answeredQuestionIds(quizAttemptId)
+                : Collections.emptySet();
+        
+        Long attemptQuizBankId = quizAttempt.getQuizBank().getId();
+        AnswerKey answerKey = answerKeyCache.get(attemptQuizBankId);
+        
+        // Questions missing from the answer key are loaded with a single IN query, only to report why they cannot be graded
+        Set<Long> unknownQuestionIds = new HashSet<>();
+        for (Map<String, Object> answer : answers) {
+            if (answer.get("questionId") instanceof Number number && answerKey.indexOf(number.longValue()) < 0) {
+                unknownQuestionIds.add(number.longValue());
+            }
+        }
+        Map<Long, Question> unknownQuestions = new HashMap<>();
+        if (!unknownQuestionIds.isEmpty()) {
+            for (Question question : questionRepository.findAllById(unknownQuestionIds)) {
+                unknownQuestions.put(question.getId(), question);
+            }
+        }
+        
+        List<GradedResponse> gradedResponses = new ArrayList<>(answers.size());
+        for (Map<String, Object> answer : answers) {
+            Long questionId = ((Number) answer.get("questionId")).longValue();
+            String selectedAnswer = (String) answer.get("selectedAnswer");
+            
+            if (questionId == null || selectedAnswer == null) {
+                throw new IllegalArgumentException("Question ID and selected answer must be provided for all answers");
+            }
+            
+            // Check if question already answered
+            if (answeredQuestionIds.contains(questionId)) {
+                throw new IllegalArgumentException("Question " + questionId + " already answered");
+            }
+            
+            int keyIndex = answerKey.indexOf(questionId);
+            Question question;
+            String questionText;
+            String correctAnswer;
+            AnswerGrader grader;
+            if (keyIndex >= 0) {
+                question = questionRepository.getReferenceById(questionId);
+                questionText = answerKey.questionTextAt(keyIndex);
+                correctAnswer = answerKey.correctAnswerAt(keyIndex);
+                grader = answerKey.graderAt(keyIndex);
+            } else {
+                question = unknownQuestions.get(questionId);
+                if (question == null) {
+                    throw new IllegalArgumentException("Question not found: " + questionId);
+                }
+                
+                // Verify the question belongs to the quiz bank
+                QuizBank questionQuizBank = question.getQuizBank();
+                if (questionQuizBank == null) {
+                    throw new IllegalArgumentException("Question " + questionId + " does not have an associated quiz bank");
+                }
+                
+                if (!questionQuizBank.getId().equals(attemptQuizBankId)) {
+                    throw new IllegalArgumentException("Question " + questionId + " does not belong to this quiz");
+                }
+                questionText = question.getQuestionText();
+                correctAnswer = question.getCorrectAnswer();
+                grader = gradingEngine.compileStored(question.getQuestionType(), correctAnswer, question.getOptions());
+            }
+            
+            if (!wasServed(quizAttempt, questionId)) {
+                throw new IllegalArgumentException("Question " + questionId + " was not served in this quiz attempt");
+            }
+            
+            // Grade the answer with the question's compiled grader - each correct answer is worth 1 point
+            boolean isCorrect = grader.isCorrect(selectedAnswer);
+            int pointsEarned = isCorrect ? 1 : 0;
+            
+            StudentResponse response = StudentResponse.builder()
+                    .quizAttempt(quizAttempt)
+                    .question(question)
+                    .selectedAnswer(selectedAnswer)
+                    .isCorrect(isCorrect)
+                    .pointsEarned(pointsEarned)
+                    .build();
+            gradedResponses.add(new GradedResponse(response, questionText, correctAnswer));
+        }
         
-        return responseList;
+        if (answerWriteBuffer.isEnabled()) {
+            // Written later by the flusher, so the returned responses have no IDs yet
+            answerWriteBuffer.submit(quizAttemptId, gradedResponses.stream()
+                    .map(graded -> toPendingAnswer(graded.response()))
+                    .collect(Collectors.toList()));
+        } else {
+            // Persist all responses with one upsert-style statement; answered questions are skipped by the unique index
+            List<StudentResponse> responses = gradedResponses.stream()
+                    .map(GradedResponse::response)
+                    .collect(Collectors.toList());
+            Map<Long, Long> insertedIds = studentResponseJdbcRepository.insertIgnoringAnswered(quizAttemptId, responses);
+            Set<Long> submittedQuestionIds = new HashSet<>();
+            for (StudentResponse response : responses) {
+                Long questionId = response.getQuestion().getId();
+                Long responseId = insertedIds.get(questionId);
+                if (responseId == null || !submittedQuestionIds.add(questionId)) {
+                    // Rolls back the rows inserted for the other answers
+                    throw new IllegalArgumentException("Question " + questionId + " already answered");
+                }
+                response.setId(responseId);
+            }
+            incrementCounters(quizAttemptId, responses);
+        }
+        itemAnalyticsService.recordResponses(attemptQuizBankId, quizAttemptId, gradedResponses.stream()
+                .map(graded -> new GradedAnswer(graded.response().getQuestion().getId(),
+                        graded.response().getSelectedAnswer(), graded.response().getIsCorrect()))
+                .collect(Collectors.toList()));
+        for (GradedResponse graded : gradedResponses) {
+            publishMonitorEvent(QuizMonitorEventDTO.ANSWER_SUBMITTED, quizAttempt,
+                    graded.response().getQuestion().getId(), graded.response().getIsCorrect());
+        }
+        
+        return gradedResponses.stream()
+                .map(graded -> mapToResponseDTO(graded.response(), graded.questionText(), graded.correctAnswer()))
+                .collect(Collectors.toList());
     }
 
     @Transactional
@@ -196,86 +377,283 @@ public class QuizAttemptService {
             throw new IllegalArgumentException("This quiz attempt is already completed");
         }
         
-        // Get all responses
-        List<StudentResponse> responses = studentResponseRepository.findByQuizAttempt(quizAttempt);
+        // Buffered answers must be written before the score is computed
+        if (answerWriteBuffer.isEnabled()) {
+            answerWriteBuffer.complete(quizAttemptId);
+            // The flush bumped the counters in its own transaction
+            entityManager.refresh(quizAttempt);
+        }
         
-        // Calculate total score (1 point per correct answer)
-        int totalScore = 0;
-        for (StudentResponse response : responses) {
-            totalScore += response.getPointsEarned();
+        finish(quizAttempt, LocalDateTime.now());
+        
+        QuizAttempt completedAttempt = quizAttemptRepository.save(quizAttempt);
+        quizDeadlineWheel.cancel(quizAttemptId);
+        releaseActiveAttempt(completedAttempt);
+        
+        // Return quiz results, stored with the completion so later reads never write
+        return storeResultSnapshots(List.of(completedAttempt)).get(0);
+    }
+
+    /**
+     * Completes the attempts among {@code quizAttemptIds} that are still in progress past their
+     * deadline, ending them at the deadline. Called in batches by the deadline wheel.
+     *
+     * @return the number of attempts completed
+     */
+    @Transactional
+    public int completeExpiredAttempts(List<Long> quizAttemptIds) {
+        if (answerWriteBuffer.isEnabled()) {
+            for (Long quizAttemptId : quizAttemptIds) {
+                answerWriteBuffer.complete(quizAttemptId);
+            }
+        }
+        
+        List<QuizAttempt> expiredAttempts = new ArrayList<>(quizAttemptIds.size());
+        for (QuizAttempt quizAttempt : quizAttemptRepository.findAllById(quizAttemptIds)) {
+            if (quizAttempt.getStatus() == QuizAttemptStatus.IN_PROGRESS && isPastDeadline(quizAttempt)) {
+                finish(quizAttempt, quizAttempt.getDeadline());
+                releaseActiveAttempt(quizAttempt);
+                expiredAttempts.add(quizAttempt);
+            }
+        }
+        quizAttemptRepository.saveAll(expiredAttempts);
+        storeResultSnapshots(expiredAttempts);
+        
+        return expiredAttempts.size();
+    }
+    
+    /**
+     * Scores an in-progress attempt and marks it completed.
+     */
+    private void finish(QuizAttempt quizAttempt, LocalDateTime endTime) {
+        int totalScore;
+        int maxPossibleScore;
+        if (quizAttempt.getAnsweredCount() != null && quizAttempt.getEarnedPoints() != null) {
+            // Running counters make completion O(1)
+            totalScore = quizAttempt.getEarnedPoints();
+            maxPossibleScore = quizAttempt.getAnsweredCount();
+        } else {
+            // Attempts started before the counters existed are scored from their responses
+            List<StudentResponse> responses = studentResponseRepository.findByQuizAttempt(quizAttempt);
+            
+            // Calculate total score (1 point per correct answer)
+            totalScore = 0;
+            int correctCount = 0;
+            for (StudentResponse response : responses) {
+                totalScore += response.getPointsEarned();
+                if (Boolean.TRUE.equals(response.getIsCorrect())) {
+                    correctCount++;
+                }
+            }
+            
+            // Max possible score is equal to the number of questions answered
+            maxPossibleScore = responses.size();
+            
+            quizAttempt.setAnsweredCount(responses.size());
+            quizAttempt.setCorrectCount(correctCount);
+            quizAttempt.setEarnedPoints(totalScore);
         }
         
-        // Max possible score is equal to the number of questions answered
-        int maxPossibleScore = responses.size();
+        // Unanswered questions of the served paper count towards the maximum
+        if (quizAttempt.getServedQuestionIds() != null) {
+            maxPossibleScore = quizAttempt.getServedQuestionIds().length;
+        }
         
         // Update quiz attempt
-        quizAttempt.setEndTime(LocalDateTime.now());
+        quizAttempt.setEndTime(endTime);
         quizAttempt.setTotalScore(totalScore);
         quizAttempt.setMaxPossibleScore(maxPossibleScore);
         quizAttempt.setStatus(QuizAttemptStatus.COMPLETED);
         
-        QuizAttempt completedAttempt = quizAttemptRepository.save(quizAttempt);
-        
-        // Return quiz results
-        return getQuizResults(completedAttempt.getId());
+        itemAnalyticsService.recordCompletion(quizAttempt.getQuizBank().getId(), quizAttempt.getId(), totalScore, maxPossibleScore);
+        quizLeaderboard.recordCompletion(quizAttempt);
+        publishMonitorEvent(QuizMonitorEventDTO.ATTEMPT_COMPLETED, quizAttempt, null, null);
     }
 
     @Transactional(readOnly = true)
     public List<QuizAttemptDTO> getQuizAttemptsByStudentId(Long studentId) {
-        User student = userRepository.findById(studentId)
-                .orElseThrow(() -> new IllegalArgumentException("Student not found"));
+        // One projection query joins the student, quiz bank and learning item of every attempt
+        List<QuizAttemptDTO> attempts = quizAttemptRepository.findDTOsByStudentId(studentId);
         
-        List<QuizAttempt> attempts = quizAttemptRepository.findByStudent(student);
+        // The student only needs to be looked up to tell "no attempts" from "no such student"
+        if (attempts.isEmpty() && !userRepository.existsById(studentId)) {
+            throw new IllegalArgumentException("Student not found");
+        }
         
-        return attempts.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        return attempts;
     }
 
     @Transactional(readOnly = true)
     public QuizAttemptDTO getQuizAttemptById(Long id) {
-        QuizAttempt quizAttempt = quizAttemptRepository.findById(id)
+        return quizAttemptRepository.findDTOById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Quiz attempt not found"));
-        
-        return mapToDTO(quizAttempt);
     }
 
+    /**
+     * Results of a completed attempt are served from the snapshot stored when it completed.
+     * Attempts without one, such as those in progress or regraded since, are built from their
+     * responses on every read.
+     */
     @Transactional(readOnly = true)
     public QuizResultDTO getQuizResults(Long quizAttemptId) {
-        QuizAttempt quizAttempt = quizAttemptRepository.findById(quizAttemptId)
-                .orElseThrow(() -> new IllegalArgumentException("Quiz attempt not found"));
+        Optional<QuizResultDTO> snapshot = quizResultSnapshotRepository.findById(quizAttemptId);
+        if (snapshot.isPresent()) {
+            return snapshot.get();
+        }
         
-        List<StudentResponse> responses = studentResponseRepository.findByQuizAttempt(quizAttempt);
+        QuizResultHeaderDTO header = quizAttemptRepository.findResultHeaderById(quizAttemptId)
+                .orElseThrow(() -> new IllegalArgumentException("Quiz attempt not found"));
         
-        List<StudentResponseDTO> responseDTOs = responses.stream()
-                .map(this::mapToResponseDTO)
-                .collect(Collectors.toList());
+        List<StudentResponseDTO> responseDTOs = studentResponseRepository.findResponseDTOsByQuizAttemptId(quizAttemptId);
         
         double percentageScore = 0;
-        if (quizAttempt.getMaxPossibleScore() > 0) {
-            percentageScore = (double) quizAttempt.getTotalScore() / quizAttempt.getMaxPossibleScore() * 100;
+        if (header.maxPossibleScore() != null && header.maxPossibleScore() > 0) {
+            percentageScore = (double) header.totalScore() / header.maxPossibleScore() * 100;
         }
         
-        return new QuizResultDTO(
-                quizAttempt.getId(),
-                quizAttempt.getQuizBank().getTitle(),
-                quizAttempt.getStartTime(),
-                quizAttempt.getEndTime(),
-                quizAttempt.getTotalScore(),
-                quizAttempt.getMaxPossibleScore(),
+        QuizResultDTO result = new QuizResultDTO(
+                header.quizAttemptId(),
+                header.quizTitle(),
+                header.startTime(),
+                header.endTime(),
+                header.totalScore(),
+                header.maxPossibleScore(),
                 percentageScore,
                 responseDTOs
         );
+        
+        return result;
+    }
+    
+    /**
+     * Stores the results of attempts completed in the current transaction, reading the responses of
+     * all of them with one query.
+     */
+    private List<QuizResultDTO> storeResultSnapshots(List<QuizAttempt> completedAttempts) {
+        if (completedAttempts.isEmpty()) {
+            return List.of();
+        }
+        List<Long> attemptIds = completedAttempts.stream()
+                .map(QuizAttempt::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<StudentResponseDTO>> responsesByAttempt = new HashMap<>();
+        for (StudentResponseDTO response : studentResponseRepository.findResponseDTOsByQuizAttemptIds(attemptIds)) {
+            responsesByAttempt.computeIfAbsent(response.quizAttemptId(), id -> new ArrayList<>()).add(response);
+        }
+        
+        List<QuizResultDTO> results = new ArrayList<>(completedAttempts.size());
+        for (QuizAttempt quizAttempt : completedAttempts) {
+            double percentageScore = 0;
+            if (quizAttempt.getMaxPossibleScore() != null && quizAttempt.getMaxPossibleScore() > 0) {
+                percentageScore = (double) quizAttempt.getTotalScore() / quizAttempt.getMaxPossibleScore() * 100;
+            }
+            results.add(new QuizResultDTO(
+                    quizAttempt.getId(),
+                    quizAttempt.getQuizBank().getTitle(),
+                    quizAttempt.getStartTime(),
+                    quizAttempt.getEndTime(),
+                    quizAttempt.getTotalScore(),
+                    quizAttempt.getMaxPossibleScore(),
+                    percentageScore,
+                    responsesByAttempt.getOrDefault(quizAttempt.getId(), new ArrayList<>())
+            ));
+        }
+        quizResultSnapshotRepository.insertAllIfAbsent(results);
+        return results;
+    }
+
+    /**
+     * Score summary of an attempt, served from its running counters without reading its responses.
+     */
+    @Transactional(readOnly = true)
+    public QuizAttemptSummaryDTO getQuizAttemptSummary(Long quizAttemptId) {
+        QuizAttempt quizAttempt = quizAttemptRepository.findById(quizAttemptId)
+                .orElseThrow(() -> new IllegalArgumentException("Quiz attempt not found"));
+        
+        Integer answeredCount = quizAttempt.getAnsweredCount();
+        Integer correctCount = quizAttempt.getCorrectCount();
+        Integer earnedPoints = quizAttempt.getEarnedPoints();
+        if (answeredCount == null || correctCount == null || earnedPoints == null) {
+            // Attempts started before the counters existed are summarised from their responses
+            List<StudentResponse> responses = studentResponseRepository.findByQuizAttempt(quizAttempt);
+            answeredCount = responses.size();
+            correctCount = (int) responses.stream().filter(response -> Boolean.TRUE.equals(response.getIsCorrect())).count();
+            earnedPoints = responses.stream().mapToInt(StudentResponse::getPointsEarned).sum();
+        }
+        
+        // In-progress attempts are measured against their served paper
+        Integer maxPossibleScore = quizAttempt.getMaxPossibleScore();
+        if (maxPossibleScore == null && quizAttempt.getServedQuestionIds() != null) {
+            maxPossibleScore = quizAttempt.getServedQuestionIds().length;
+        }
+        
+        return new QuizAttemptSummaryDTO(
+                quizAttempt.getId(),
+                quizAttempt.getStatus(),
+                answeredCount,
+                correctCount,
+                earnedPoints,
+                maxPossibleScore,
+                null
+        );
     }
 
+    /**
+     * Completed results of a student for one quiz, newest first. A page is read with two projection
+     * queries: one for the attempts and one for the responses of all attempts on the page.
+     */
     @Transactional(readOnly = true)
-    public List<QuizResultDTO> getStudentQuizHistory(Long studentId, Long learningItemId) {
-        List<QuizAttempt> attempts = quizAttemptRepository.findByStudentIdAndLearningItemId(studentId, learningItemId);
+    public PagedResponseDto<QuizResultDTO> getStudentQuizHistory(Long studentId, Long learningItemId, int page, int size) {
+        Page<QuizResultHeaderDTO> headerPage = quizAttemptRepository.findCompletedResultHeaders(
+                studentId, learningItemId, PageRequest.of(page, size));
         
-        return attempts.stream()
-                .filter(attempt -> attempt.getStatus() == QuizAttemptStatus.COMPLETED)
-                .map(attempt -> getQuizResults(attempt.getId()))
+        // Stored snapshots first; responses are only read for attempts without one
+        List<Long> attemptIds = headerPage.getContent().stream()
+                .map(QuizResultHeaderDTO::quizAttemptId)
                 .collect(Collectors.toList());
+        Map<Long, QuizResultDTO> snapshots = quizResultSnapshotRepository.findAllById(attemptIds);
+        
+        Map<Long, List<StudentResponseDTO>> responsesByAttempt = new HashMap<>();
+        List<Long> unsnapshottedIds = attemptIds.stream()
+                .filter(id -> !snapshots.containsKey(id))
+                .collect(Collectors.toList());
+        if (!unsnapshottedIds.isEmpty()) {
+            for (StudentResponseDTO response : studentResponseRepository.findResponseDTOsByQuizAttemptIds(unsnapshottedIds)) {
+                responsesByAttempt.computeIfAbsent(response.quizAttemptId(), id -> new ArrayList<>()).add(response);
+            }
+        }
+        
+        List<QuizResultDTO> results = headerPage.getContent().stream()
+                .map(header -> {
+                    QuizResultDTO snapshot = snapshots.get(header.quizAttemptId());
+                    if (snapshot != null) {
+                        return snapshot;
+                    }
+                    double percentageScore = 0;
+                    if (header.maxPossibleScore() != null && header.maxPossibleScore() > 0) {
+                        percentageScore = (double) header.totalScore() / header.maxPossibleScore() * 100;
+                    }
+                    return new QuizResultDTO(
+                            header.quizAttemptId(),
+                            header.quizTitle(),
+                            header.startTime(),
+                            header.endTime(),
+                            header.totalScore(),
+                            header.maxPossibleScore(),
+                            percentageScore,
+                            responsesByAttempt.getOrDefault(header.quizAttemptId(), new ArrayList<>())
+                    );
+                })
+                .collect(Collectors.toList());
+        
+        return PagedResponseDto.<QuizResultDTO>builder()
+                .content(results)
+                .page(headerPage.getNumber())
+                .size(headerPage.getSize())
+                .totalElements(headerPage.getTotalElements())
+                .totalPages(headerPage.getTotalPages())
+                .last(headerPage.isLast())
+                .build();
     }
     
     @Transactional(readOnly = true)
@@ -295,14 +673,36 @@ public class QuizAttemptService {
         );
     }
     
-    private StudentResponseDTO mapToResponseDTO(StudentResponse response) {
+    private void incrementCounters(Long quizAttemptId, List<StudentResponse> responses) {
+        int correct = 0;
+        int points = 0;
+        for (StudentResponse response : responses) {
+            if (Boolean.TRUE.equals(response.getIsCorrect())) {
+                correct++;
+            }
+            points += response.getPointsEarned();
+        }
+        quizAttemptRepository.incrementCounters(quizAttemptId, responses.size(), correct, points);
+    }
+    
+    private PendingAnswer toPendingAnswer(StudentResponse response) {
+        return new PendingAnswer(
+                response.getQuizAttempt().getId(),
+                response.getQuestion().getId(),
+                response.getSelectedAnswer(),
+                response.getIsCorrect(),
+                response.getPointsEarned()
+        );
+    }
+    
+    private StudentResponseDTO mapToResponseDTO(StudentResponse response, String questionText, String correctAnswer) {
         return new StudentResponseDTO(
                 response.getId(),
                 response.getQuizAttempt().getId(),
                 response.getQuestion().getId(),
-                response.getQuestion().getQuestionText(),
+                questionText,
                 response.getSelectedAnswer(),
-                response.getQuestion().getCorrectAnswer(),
+                correctAnswer,
                 response.getIsCorrect(),
                 response.getPointsEarned()
         );
@@ -325,25 +725,52 @@ public class QuizAttemptService {
             throw new IllegalArgumentException("No quiz bank associated with this learning item");
         }
         
-        // Check if there's an in-progress attempt
-        quizAttemptRepository.findByStudentAndLearningItemAndStatus(student, learningItem, QuizAttemptStatus.IN_PROGRESS)
-                .ifPresent(existingAttempt -> {
-                    throw new IllegalArgumentException("There is already an in-progress quiz attempt");
-                });
+        // Claim the (student, learning item) pair; there can only be one in-progress attempt
+        Reservation reservation = reserveActiveAttempt(studentId, learningItemId);
         
-        // Create new attempt
+        // A blueprint decides the paper's size and composition instead of the requested count
+        Optional<List<BlueprintSectionDTO>> blueprint = quizBlueprintService.blueprintOf(learningItem);
+        if (blueprint.isPresent()) {
+            questionCount = QuizBlueprintService.questionCount(blueprint.get());
+        }
+        
+        // Create new attempt, taking a pre-generated paper when the learning item has a pool
+        Optional<PreparedPaper> pooledPaper = quizPaperPool.poll(learningItemId, quizBank.getId(), questionCount);
+        long paperSeed = pooledPaper.map(PreparedPaper::seed)
+                .orElseGet(() -> ThreadLocalRandom.current().nextLong());
+        
+        // Get random questions for this quiz
+        List<QuestionDTO> randomQuestions;
+        if (pooledPaper.isPresent()) {
+            randomQuestions = pooledPaper.get().questions();
+        } else if (blueprint.isPresent()) {
+            randomQuestions = questionService.getBlueprintQuestions(quizBank.getId(), blueprint.get(), paperSeed);
+        } else {
+            randomQuestions = questionService.getRandomQuestionsByQuizBankId(quizBank.getId(), questionCount, paperSeed);
+        }
+        
+        // The served paper is stored with the attempt so it can be resumed and fully scored
+        long[] servedQuestionIds = new long[randomQuestions.size()];
+        for (int i = 0; i < servedQuestionIds.length; i++) {
+            servedQuestionIds[i] = randomQuestions.get(i).id();
+        }
+        
+        LocalDateTime startTime = LocalDateTime.now();
         QuizAttempt quizAttempt = QuizAttempt.builder()
                 .student(student)
                 .quizBank(quizBank)
                 .learningItem(learningItem)
-                .startTime(LocalDateTime.now())
+                .startTime(startTime)
+                .deadline(deadlineOf(learningItem, startTime))
                 .status(QuizAttemptStatus.IN_PROGRESS)
+                .paperSeed(paperSeed)
+                .servedQuestionIds(servedQuestionIds)
                 .build();
         
-        QuizAttempt savedAttempt = quizAttemptRepository.save(quizAttempt);
-        
-        // Get random questions for this quiz
-        List<QuestionDTO> randomQuestions = questionService.getRandomQuestionsByQuizBankId(quizBank.getId(), questionCount);
+        QuizAttempt savedAttempt = saveNewAttempt(quizAttempt);
+        reservation.bind(savedAttempt.getId());
+        scheduleDeadline(savedAttempt);
+        publishMonitorEvent(QuizMonitorEventDTO.ATTEMPT_STARTED, savedAttempt, null, null);
         
         return new QuizAttemptWithQuestionsDTO(
                 savedAttempt.getId(),
@@ -360,4 +787,192 @@ public class QuizAttemptService {
                 randomQuestions
         );
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Returns the questions served when the attempt was started, in their original order, so an
+     * in-progress quiz can be resumed after a reload.
+     */
+    @Transactional(readOnly = true)
+    public QuizAttemptWithQuestionsDTO resumeQuizAttempt(Long quizAttemptId) {
+        QuizAttempt quizAttempt = quizAttemptRepository.findById(quizAttemptId)
+                .orElseThrow(() -> new IllegalArgumentException("Quiz attempt not found"));
+        
+        if (quizAttempt.getServedQuestionIds() == null) {
+            throw new IllegalArgumentException("This quiz attempt has no recorded questions");
+        }
+        
+        // Primary-key lookup of the served questions; the bank is not sampled again
+        List<QuestionDTO> questions = questionService.getQuestionsByIds(quizAttempt.getServedQuestionIds());
+        
+        return new QuizAttemptWithQuestionsDTO(
+                quizAttempt.getId(),
+                quizAttempt.getStudent().getId(),
+                quizAttempt.getStudent().getName(),
+                quizAttempt.getQuizBank().getId(),
+                quizAttempt.getQuizBank().getTitle(),
+                quizAttempt.getLearningItem().getId(),
+                quizAttempt.getStartTime(),
+                quizAttempt.getEndTime(),
+                quizAttempt.getTotalScore(),
+                quizAttempt.getMaxPossibleScore(),
+                quizAttempt.getStatus(),
+                questions
+        );
+    }
+    
+    /**
+     * Pre-generates {@code paperCount} randomized papers of {@code questionCount} questions for a quiz
+     * learning item, replacing any existing pool. When the learning item has a blueprint, papers follow
+     * it and {@code questionCount} is ignored.
+     */
+    @Transactional(readOnly = true)
+    public PaperPoolDTO generatePaperPool(Long learningItemId, Integer questionCount, Integer paperCount) {
+        if (paperCount == null) {
+            throw new IllegalArgumentException("Paper count must be specified");
+        }
+        QuizBank quizBank = getQuizBankOfLearningItem(learningItemId);
+        // Already loaded by the lookup above
+        LearningItem learningItem = learningItemRepository.getReferenceById(learningItemId);
+        List<BlueprintSectionDTO> blueprint = quizBlueprintService.blueprintOf(learningItem).orElse(null);
+        if (blueprint == null && questionCount == null) {
+            throw new IllegalArgumentException("Question count must be specified");
+        }
+        int paperQuestionCount = blueprint != null ? QuizBlueprintService.questionCount(blueprint) : questionCount;
+        
+        return quizPaperPool.generate(learningItemId, quizBank.getId(), paperQuestionCount, paperCount, blueprint);
+    }
+    
+    public LeaderboardDTO getLeaderboard(Long learningItemId) {
+        return quizLeaderboard.get(learningItemId);
+    }
+    
+    /**
+     * Opens a live event stream for proctors of a quiz learning item. The learning item is checked
+     * once here; events are then pushed from memory.
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter monitorLearningItem(Long learningItemId) {
+        getQuizBankOfLearningItem(learningItemId);
+        return quizMonitorBroadcaster.subscribe(learningItemId);
+    }
+    
+    public PaperPoolDTO getPaperPool(Long learningItemId) {
+        return quizPaperPool.status(learningItemId)
+                .orElseThrow(() -> new IllegalArgumentException("No paper pool for this learning item"));
+    }
+    
+    public void clearPaperPool(Long learningItemId) {
+        quizPaperPool.clear(learningItemId);
+    }
+    
+    private Reservation reserveActiveAttempt(Long studentId, Long learningItemId) {
+        Optional<Reservation> reservation = activeAttemptRegistry.reserve(studentId, learningItemId);
+        if (reservation.isEmpty()) {
+            Long activeAttemptId = activeAttemptRegistry.get(studentId, learningItemId);
+            if (activeAttemptId == null) {
+                // Released in the meantime
+                reservation = activeAttemptRegistry.reserve(studentId, learningItemId);
+            } else if (activeAttemptId != ActiveAttemptRegistry.STARTING
+                    && !quizAttemptRepository.existsByIdAndStatus(activeAttemptId, QuizAttemptStatus.IN_PROGRESS)) {
+                // Completed by another node since this node registered it
+                reservation = activeAttemptRegistry.reserveReplacing(studentId, learningItemId, activeAttemptId);
+            }
+        }
+        return reservation.orElseThrow(() -> new IllegalArgumentException("There is already an in-progress quiz attempt"));
+    }
+    
+    /**
+     * Inserts a new in-progress attempt right away, so the partial unique index reports an attempt
+     * already in progress on another node or from before a restart.
+     */
+    private QuizAttempt saveNewAttempt(QuizAttempt quizAttempt) {
+        try {
+            return quizAttemptRepository.saveAndFlush(quizAttempt);
+        } catch (DataIntegrityViolationException e) {
+            if (String.valueOf(e.getMostSpecificCause().getMessage()).contains("uk_quiz_attempts_in_progress")) {
+                throw new IllegalArgumentException("There is already an in-progress quiz attempt");
+            }
+            throw e;
+        }
+    }
+    
+    private void releaseActiveAttempt(QuizAttempt quizAttempt) {
+        if (quizAttempt.getStudent() != null && quizAttempt.getLearningItem() != null) {
+            activeAttemptRegistry.release(quizAttempt.getStudent().getId(), quizAttempt.getLearningItem().getId(), quizAttempt.getId());
+        }
+    }
+    
+    /**
+     * The learning item's duration is the time limit of each attempt; items without one are untimed.
+     */
+    private LocalDateTime deadlineOf(LearningItem learningItem, LocalDateTime startTime) {
+        Integer durationMinutes = learningItem.getDurationMinutes();
+        if (durationMinutes == null || durationMinutes <= 0) {
+            return null;
+        }
+        return startTime.plusMinutes(durationMinutes);
+    }
+    
+    private void scheduleDeadline(QuizAttempt quizAttempt) {
+        if (quizAttempt.getDeadline() != null) {
+            quizDeadlineWheel.schedule(quizAttempt.getId(), quizAttempt.getDeadline());
+        }
+    }
+    
+    private boolean isPastDeadline(QuizAttempt quizAttempt) {
+        return quizAttempt.getDeadline() != null && !LocalDateTime.now().isBefore(quizAttempt.getDeadline());
+    }
+    
+    /**
+     * Tells proctors watching the attempt's learning item what happened, once the transaction commits.
+     * Uses only state already loaded by the caller, so subscribers cost no queries.
+     */
+    private void publishMonitorEvent(String type, QuizAttempt quizAttempt, Long questionId, Boolean correct) {
+        if (quizAttempt.getLearningItem() == null) {
+            return;
+        }
+        User student = quizAttempt.getStudent();
+        // The name is only sent when the student was loaded, i.e. on start
+        String studentName = Hibernate.isInitialized(student) ? student.getName() : null;
+        quizMonitorBroadcaster.publishAfterCommit(new QuizMonitorEventDTO(type, quizAttempt.getLearningItem().getId(),
+                quizAttempt.getId(), student.getId(), studentName, questionId, correct,
+                quizAttempt.getTotalScore(), quizAttempt.getMaxPossibleScore(), null));
+    }
+    
+    /**
+     * Attempts started without a recorded paper accept any question of their bank.
+     */
+    private boolean wasServed(QuizAttempt quizAttempt, Long questionId) {
+        long[] servedQuestionIds = quizAttempt.getServedQuestionIds();
+        if (servedQuestionIds == null) {
+            return true;
+        }
+        for (long servedQuestionId : servedQuestionIds) {
+            if (servedQuestionId == questionId) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private QuizBank getQuizBankOfLearningItem(Long learningItemId) {
+        LearningItem learningItem = learningItemRepository.findById(learningItemId)
+                .orElseThrow(() -> new IllegalArgumentException("Learning item not found"));
+        
+        if (learningItem.getType() != LearningItemType.QUIZ) {
+            throw new IllegalArgumentException("Learning item is not a quiz");
+        }
+        
+        QuizBank quizBank = learningItem.getQuizBank();
+        if (quizBank == null) {
+            throw new IllegalArgumentException("No quiz bank associated with this learning item");
+        }
+        return quizBank;
+    }
+    
+    /**
+     * A graded response together with the answer key data needed to describe it.
+     */
+    private record GradedResponse(StudentResponse response, String questionText, String correctAnswer) {
+    }
+}
\ No newline at end of file
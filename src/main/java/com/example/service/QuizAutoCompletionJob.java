@@ -0,0 +1,70 @@
+package com.example.service;
+
+import com.example.repository.QuizAttemptRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Auto-completes time-limited quiz attempts when their deadline passes.
+ * <p>
+ * On startup the deadlines of all in-progress attempts are reloaded into the {@link QuizDeadlineWheel}
+ * with one scan of the partial deadline index; from then on the wheel is fed by attempt starts, and
+ * expired attempts are completed in batches. Every node reloads all deadlines, and completion skips
+ * attempts that another node or the student already completed.
+ */
+@Component
+public class QuizAutoCompletionJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizAutoCompletionJob.class);
+
+    private static final long RETRY_DELAY_SECONDS = 30;
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizAttemptService quizAttemptService;
+    private final QuizDeadlineWheel quizDeadlineWheel;
+    private final int batchSize;
+
+    public QuizAutoCompletionJob(QuizAttemptRepository quizAttemptRepository,
+                                 QuizAttemptService quizAttemptService,
+                                 QuizDeadlineWheel quizDeadlineWheel,
+                                 @Value("${quiz.deadline-wheel.batch-size:200}") int batchSize) {
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.quizAttemptService = quizAttemptService;
+        this.quizDeadlineWheel = quizDeadlineWheel;
+        this.batchSize = batchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<Object[]> deadlines = quizAttemptRepository.findPendingDeadlines();
+        for (Object[] row : deadlines) {
+            quizDeadlineWheel.schedule((Long) row[0], (LocalDateTime) row[1]);
+        }
+        logger.info("Restored {} quiz attempt deadlines", deadlines.size());
+
+        quizDeadlineWheel.start(this::completeExpired);
+    }
+
+    private void completeExpired(List<Long> quizAttemptIds) {
+        for (int from = 0; from < quizAttemptIds.size(); from += batchSize) {
+            List<Long> batch = quizAttemptIds.subList(from, Math.min(from + batchSize, quizAttemptIds.size()));
+            try {
+                int completed = quizAttemptService.completeExpiredAttempts(batch);
+                logger.info("Auto-completed {} expired quiz attempts", completed);
+            } catch (RuntimeException e) {
+                logger.error("Failed to auto-complete {} expired quiz attempts, retrying in {}s", batch.size(), RETRY_DELAY_SECONDS, e);
+                LocalDateTime retryAt = LocalDateTime.now().plusSeconds(RETRY_DELAY_SECONDS);
+                for (Long quizAttemptId : batch) {
+                    quizDeadlineWheel.schedule(quizAttemptId, retryAt);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.service;
+
+import com.example.dto.BlueprintSectionDTO;
+import com.example.model.LearningItem;
+import com.example.model.LearningItemType;
+import com.example.repository.LearningItemRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Exam blueprints of quiz learning items, e.g. "5 easy, 10 medium and 5 hard questions on topics A
+ * or B". A blueprint is stored as JSON on the learning item and replaces the uniform draw of
+ * questions when an attempt starts.
+ */
+@Service
+public class QuizBlueprintService {
+
+    private static final TypeReference<List<BlueprintSectionDTO>> BLUEPRINT_TYPE = new TypeReference<>() {};
+
+    private final LearningItemRepository learningItemRepository;
+    private final QuestionSampler questionSampler;
+    private final QuizPaperPool quizPaperPool;
+    private final ObjectMapper objectMapper;
+
+    public QuizBlueprintService(LearningItemRepository learningItemRepository,
+                                QuestionSampler questionSampler,
+                                QuizPaperPool quizPaperPool,
+                                ObjectMapper objectMapper) {
+        this.learningItemRepository = learningItemRepository;
+        this.questionSampler = questionSampler;
+        this.quizPaperPool = quizPaperPool;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(readOnly = true)
+    public List<BlueprintSectionDTO> getBlueprint(Long learningItemId) {
+        return blueprintOf(getQuizLearningItem(learningItemId))
+                .orElseThrow(() -> new IllegalArgumentException("No blueprint for this learning item"));
+    }
+
+    /**
+     * Replaces the learning item's blueprint after checking that its quiz bank currently has enough
+     * questions for every section. Any pre-generated papers are discarded.
+     */
+    @Transactional
+    public List<BlueprintSectionDTO> setBlueprint(Long learningItemId, List<BlueprintSectionDTO> sections) {
+        LearningItem learningItem = getQuizLearningItem(learningItemId);
+        if (sections == null || sections.isEmpty()) {
+            throw new IllegalArgumentException("Blueprint must have at least one section");
+        }
+
+        List<BlueprintSectionDTO> normalized = new ArrayList<>(sections.size());
+        for (BlueprintSectionDTO section : sections) {
+            normalized.add(new BlueprintSectionDTO(section.difficulty(), QuestionTags.normalize(section.tags()), section.count()));
+        }
+        int[] available = questionSampler.available(learningItem.getQuizBank().getId(), normalized);
+        for (int i = 0; i < available.length; i++) {
+            if (available[i] < normalized.get(i).count()) {
+                throw new IllegalArgumentException("Section " + (i + 1) + " needs " + normalized.get(i).count()
+                        + " questions but the quiz bank has only " + available[i] + " matching");
+            }
+        }
+
+        try {
+            learningItem.setBlueprint(objectMapper.writeValueAsString(normalized));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Error writing blueprint: " + e.getMessage());
+        }
+        learningItemRepository.save(learningItem);
+        quizPaperPool.clear(learningItemId);
+        return normalized;
+    }
+
+    @Transactional
+    public void clearBlueprint(Long learningItemId) {
+        LearningItem learningItem = getQuizLearningItem(learningItemId);
+        learningItem.setBlueprint(null);
+        learningItemRepository.save(learningItem);
+        quizPaperPool.clear(learningItemId);
+    }
+
+    public Optional<List<BlueprintSectionDTO>> blueprintOf(LearningItem learningItem) {
+        if (learningItem.getBlueprint() == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(learningItem.getBlueprint(), BLUEPRINT_TYPE));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Invalid blueprint stored for learning item " + learningItem.getId(), e);
+        }
+    }
+
+    public static int questionCount(List<BlueprintSectionDTO> blueprint) {
+        return blueprint.stream().mapToInt(BlueprintSectionDTO::count).sum();
+    }
+
+    private LearningItem getQuizLearningItem(Long learningItemId) {
+        LearningItem learningItem = learningItemRepository.findById(learningItemId)
+                .orElseThrow(() -> new IllegalArgumentException("Learning item not found"));
+
+        if (learningItem.getType() != LearningItemType.QUIZ) {
+            throw new IllegalArgumentException("Learning item is not a quiz");
+        }
+        if (learningItem.getQuizBank() == null) {
+            throw new IllegalArgumentException("No quiz bank associated with this learning item");
+        }
+        return learningItem;
+    }
+}
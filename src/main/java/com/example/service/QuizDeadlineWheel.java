@@ -0,0 +1,143 @@
+package com.example.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timer wheel holding the deadlines of in-progress quiz attempts.
+ * <p>
+ * A single ticker thread advances one slot per tick and hands the attempts whose deadline passed to
+ * the expiry handler in one batch; scheduling and cancelling are O(1) and never touch the database.
+ * New deadlines are queued and placed into slots by the ticker itself, so the slots need no locking
+ * and a deadline can never land in a slot that has just been passed. Deadlines further away than
+ * one rotation stay in their slot until the rotation that reaches them.
+ */
+@Component
+public class QuizDeadlineWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizDeadlineWheel.class);
+
+    private final long tickMillis;
+    private final List<List<Timeout>> slots;
+    private final int mask;
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    // Tick each pending attempt is due at; a timeout only fires while it is still the registered one
+    private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "quiz-deadline-wheel");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile Consumer<List<Long>> expiryHandler;
+    private long currentTick;
+
+    public QuizDeadlineWheel(@Value("${quiz.deadline-wheel.tick-ms:1000}") long tickMillis,
+                             @Value("${quiz.deadline-wheel.slots:512}") int slotCount) {
+        this.tickMillis = tickMillis;
+        int size = Integer.highestOneBit(Math.max(slotCount, 2) - 1) << 1;
+        this.slots = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            slots.add(new ArrayList<>());
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Starts ticking. Deadlines scheduled before this call are kept and fire on the first tick if overdue.
+     */
+    public synchronized void start(Consumer<List<Long>> expiryHandler) {
+        if (this.expiryHandler != null) {
+            throw new IllegalStateException("Deadline wheel already started");
+        }
+        this.expiryHandler = expiryHandler;
+        currentTick = tickOf(System.currentTimeMillis());
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registers or replaces the deadline of an attempt.
+     */
+    public void schedule(Long quizAttemptId, LocalDateTime deadline) {
+        long deadlineMillis = deadline.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // Round up so an attempt never expires before its deadline
+        long tick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        pending.put(quizAttemptId, tick);
+        incoming.add(new Timeout(quizAttemptId, tick));
+    }
+
+    public void cancel(Long quizAttemptId) {
+        pending.remove(quizAttemptId);
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private void tick() {
+        List<Long> expired = new ArrayList<>();
+        try {
+            long targetTick = tickOf(System.currentTimeMillis());
+            Timeout timeout;
+            while ((timeout = incoming.poll()) != null) {
+                if (timeout.tick() <= currentTick) {
+                    fire(timeout, expired);
+                } else {
+                    slots.get((int) (timeout.tick() & mask)).add(timeout);
+                }
+            }
+            // Catch up on ticks missed during a pause, one slot at a time
+            while (currentTick < targetTick) {
+                currentTick++;
+                Iterator<Timeout> iterator = slots.get((int) (currentTick & mask)).iterator();
+                while (iterator.hasNext()) {
+                    timeout = iterator.next();
+                    if (timeout.tick() <= currentTick) {
+                        iterator.remove();
+                        fire(timeout, expired);
+                    }
+                }
+            }
+            if (!expired.isEmpty()) {
+                expiryHandler.accept(expired);
+            }
+        } catch (RuntimeException e) {
+            // An escaping exception would cancel the ticker for good
+            logger.error("Failed to process {} expired quiz attempts", expired.size(), e);
+        }
+    }
+
+    private void fire(Timeout timeout, List<Long> expired) {
+        if (pending.remove(timeout.quizAttemptId(), timeout.tick())) {
+            expired.add(timeout.quizAttemptId());
+        }
+    }
+
+    private long tickOf(long millis) {
+        return Math.floorDiv(millis, tickMillis);
+    }
+
+    private record Timeout(long quizAttemptId, long tick) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.service;
+
+import com.example.dto.LeaderboardDTO;
+import com.example.dto.LeaderboardEntryDTO;
+import com.example.model.QuizAttempt;
+import com.example.repository.QuizAttemptRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Top-K best scores per quiz learning item, at most one entry per student.
+ * <p>
+ * A leaderboard is loaded from the database on first request and then kept current by completed
+ * attempts, so views never sort QUIZ_ATTEMPTS. Each board holds at most {@code quiz.leaderboard.size}
+ * entries and at most {@code quiz.leaderboard.max-items} boards are kept, dropping the least recently
+ * viewed. Loads and updates of the same item are serialized by the map, so a completion committed
+ * while its board is loading is never lost.
+ */
+@Component
+public class QuizLeaderboard {
+
+    private static final Comparator<Entry> RANKING = Comparator.comparing(Entry::totalScore).reversed()
+            .thenComparing(Entry::completedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Entry::quizAttemptId);
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final int size;
+    private final int maxItems;
+    private final Map<Long, Board> boards = new ConcurrentHashMap<>();
+
+    public QuizLeaderboard(QuizAttemptRepository quizAttemptRepository,
+                           @Value("${quiz.leaderboard.size:10}") int size,
+                           @Value("${quiz.leaderboard.max-items:1000}") int maxItems) {
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.size = size;
+        this.maxItems = maxItems;
+    }
+
+    public LeaderboardDTO get(Long learningItemId) {
+        Board board = boards.computeIfAbsent(learningItemId, this::load);
+        if (boards.size() > maxItems) {
+            evictLeastRecentlyViewed();
+        }
+        return new LeaderboardDTO(learningItemId, board.toDTOs());
+    }
+
+    /**
+     * Offers a completed attempt to its learning item's board, if that board is loaded, once the
+     * completing transaction commits.
+     */
+    public void recordCompletion(QuizAttempt quizAttempt) {
+        if (quizAttempt.getLearningItem() == null || quizAttempt.getTotalScore() == null) {
+            return;
+        }
+        Long learningItemId = quizAttempt.getLearningItem().getId();
+        // Checked after commit: a board loaded before then may not see this attempt. Boards that are
+        // still not loaded will read it from the database when first viewed.
+        Entry entry = new Entry(quizAttempt.getId(), quizAttempt.getStudent().getId(), quizAttempt.getStudent().getName(),
+                quizAttempt.getTotalScore(), quizAttempt.getMaxPossibleScore(), quizAttempt.getEndTime());
+        Runnable offer = () -> boards.computeIfPresent(learningItemId, (id, board) -> {
+            board.offer(entry);
+            return board;
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer.run();
+                }
+            });
+        } else {
+            offer.run();
+        }
+    }
+
+    /**
+     * Drops every board, e.g. after scores were changed by a regrade.
+     */
+    public void invalidateAll() {
+        boards.clear();
+    }
+
+    private Board load(Long learningItemId) {
+        Board board = new Board(size);
+        for (Object[] row : quizAttemptRepository.findLeaderboardRows(learningItemId, PageRequest.of(0, size))) {
+            board.offer(new Entry((Long) row[0], (Long) row[1], (String) row[2], (Integer) row[3], (Integer) row[4],
+                    (LocalDateTime) row[5]));
+        }
+        return board;
+    }
+
+    private void evictLeastRecentlyViewed() {
+        boards.entrySet().stream()
+                .min(Comparator.comparingLong(entry -> entry.getValue().lastViewed))
+                .ifPresent(eldest -> boards.remove(eldest.getKey(), eldest.getValue()));
+    }
+
+    private record Entry(Long quizAttemptId, Long studentId, String studentName, Integer totalScore,
+                         Integer maxPossibleScore, LocalDateTime completedAt) {
+    }
+
+    /**
+     * Entries sorted best first; at most one per student.
+     */
+    private static final class Board {
+
+        private final int capacity;
+        private final List<Entry> entries;
+        private volatile long lastViewed = System.nanoTime();
+
+        Board(int capacity) {
+            this.capacity = capacity;
+            this.entries = new ArrayList<>(capacity + 1);
+        }
+
+        synchronized void offer(Entry entry) {
+            for (int i = 0; i < entries.size(); i++) {
+                Entry existing = entries.get(i);
+                if (existing.studentId().equals(entry.studentId())) {
+                    if (RANKING.compare(entry, existing) >= 0) {
+                        return;
+                    }
+                    entries.remove(i);
+                    break;
+                }
+            }
+            int position = 0;
+            while (position < entries.size() && RANKING.compare(entries.get(position), entry) <= 0) {
+                position++;
+            }
+            if (position >= capacity) {
+                return;
+            }
+            entries.add(position, entry);
+            if (entries.size() > capacity) {
+                entries.remove(entries.size() - 1);
+            }
+        }
+
+        synchronized List<LeaderboardEntryDTO> toDTOs() {
+            lastViewed = System.nanoTime();
+            List<LeaderboardEntryDTO> dtos = new ArrayList<>(entries.size());
+            for (int i = 0; i < entries.size(); i++) {
+                Entry entry = entries.get(i);
+                dtos.add(new LeaderboardEntryDTO(i + 1, entry.studentId(), entry.studentName(), entry.quizAttemptId(),
+                        entry.totalScore(), entry.maxPossibleScore(), entry.completedAt()));
+            }
+            return dtos;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.service;
+
+import com.example.dto.QuizMonitorEventDTO;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans quiz events out to proctors' Server-Sent Event streams, one topic per quiz learning item.
+ * <p>
+ * Request threads only enqueue events; a single dispatcher thread copies each event into the bounded
+ * buffer of every subscriber of its learning item, and a small sender pool drains each buffer into
+ * its stream. A subscriber whose buffer fills up is too slow to keep up and is disconnected, so one
+ * stalled tab cannot hold back the others or grow memory. Events are only kept in memory: a
+ * reconnecting proctor sees new events from then on.
+ */
+@Component
+public class QuizMonitorBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizMonitorBroadcaster.class);
+
+    private final int bufferSize;
+    private final long streamTimeoutMillis;
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final BlockingQueue<QuizMonitorEventDTO> inbound;
+    private final Thread dispatcher;
+    private final ExecutorService senders;
+
+    public QuizMonitorBroadcaster(@Value("${quiz.monitor.buffer-size:256}") int bufferSize,
+                                  @Value("${quiz.monitor.inbound-capacity:10000}") int inboundCapacity,
+                                  @Value("${quiz.monitor.sender-threads:4}") int senderThreads,
+                                  @Value("${quiz.monitor.stream-timeout-ms:1800000}") long streamTimeoutMillis) {
+        this.bufferSize = bufferSize;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+        this.inbound = new LinkedBlockingQueue<>(inboundCapacity);
+        AtomicInteger senderNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "quiz-monitor-sender-" + senderNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "quiz-monitor-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    public SseEmitter subscribe(Long learningItemId) {
+        return subscribe(learningItemId, new SseEmitter(streamTimeoutMillis));
+    }
+
+    SseEmitter subscribe(Long learningItemId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(learningItemId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        subscribers.compute(learningItemId, (id, itemSubscribers) -> {
+            Set<Subscriber> updated = itemSubscribers != null ? itemSubscribers : ConcurrentHashMap.newKeySet();
+            updated.add(subscriber);
+            return updated;
+        });
+        return emitter;
+    }
+
+    /**
+     * Publishes an event once the surrounding transaction commits, so proctors never see
+     * a start or answer that was rolled back.
+     */
+    public void publishAfterCommit(QuizMonitorEventDTO event) {
+        if (!subscribers.containsKey(event.learningItemId())) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(event);
+                }
+            });
+        } else {
+            publish(event);
+        }
+    }
+
+    public void publish(QuizMonitorEventDTO event) {
+        if (event.learningItemId() != null && !subscribers.containsKey(event.learningItemId())) {
+            return;
+        }
+        if (!inbound.offer(event)) {
+            logger.warn("Dropped quiz monitor event {}: dispatcher queue is full", event.type());
+        }
+    }
+
+    /**
+     * Keeps idle streams open through proxies and detects proctors that went away.
+     */
+    @Scheduled(fixedRateString = "${quiz.monitor.heartbeat-ms:15000}")
+    public void heartbeat() {
+        if (!subscribers.isEmpty()) {
+            publish(new QuizMonitorEventDTO(QuizMonitorEventDTO.HEARTBEAT, null, null, null, null, null, null, null, null, null));
+        }
+    }
+
+    public int subscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.interrupt();
+        senders.shutdownNow();
+        subscribers.values().forEach(itemSubscribers -> itemSubscribers.forEach(subscriber -> subscriber.emitter().complete()));
+        subscribers.clear();
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            QuizMonitorEventDTO event;
+            try {
+                event = inbound.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (event.learningItemId() == null) {
+                subscribers.values().forEach(itemSubscribers -> itemSubscribers.forEach(subscriber -> deliver(subscriber, event)));
+            } else {
+                Set<Subscriber> itemSubscribers = subscribers.get(event.learningItemId());
+                if (itemSubscribers != null) {
+                    itemSubscribers.forEach(subscriber -> deliver(subscriber, event));
+                }
+            }
+        }
+    }
+
+    private void deliver(Subscriber subscriber, QuizMonitorEventDTO event) {
+        if (!subscriber.buffer().offer(event)) {
+            logger.info("Disconnecting slow quiz monitor subscriber of learning item {}", subscriber.learningItemId());
+            evict(subscriber);
+            return;
+        }
+        scheduleSend(subscriber);
+    }
+
+    private void scheduleSend(Subscriber subscriber) {
+        if (subscriber.sending().compareAndSet(false, true)) {
+            senders.execute(() -> send(subscriber));
+        }
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            QuizMonitorEventDTO event;
+            while ((event = subscriber.buffer().poll()) != null) {
+                subscriber.emitter().send(SseEmitter.event().name(event.type()).data(event));
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The proctor disconnected or the stream timed out
+            evict(subscriber);
+        } finally {
+            subscriber.sending().set(false);
+        }
+        // An event may have arrived after the last poll but before the flag was cleared
+        if (!subscriber.buffer().isEmpty() && isSubscribed(subscriber)) {
+            scheduleSend(subscriber);
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (remove(subscriber)) {
+            subscriber.buffer().clear();
+            subscriber.emitter().complete();
+        }
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        AtomicBoolean removed = new AtomicBoolean();
+        subscribers.computeIfPresent(subscriber.learningItemId(), (id, itemSubscribers) -> {
+            removed.set(itemSubscribers.remove(subscriber));
+            return itemSubscribers.isEmpty() ? null : itemSubscribers;
+        });
+        return removed.get();
+    }
+
+    private boolean isSubscribed(Subscriber subscriber) {
+        Set<Subscriber> itemSubscribers = subscribers.get(subscriber.learningItemId());
+        return itemSubscribers != null && itemSubscribers.contains(subscriber);
+    }
+
+    private record Subscriber(Long learningItemId, SseEmitter emitter, BlockingQueue<QuizMonitorEventDTO> buffer,
+                              AtomicBoolean sending) {
+
+        Subscriber(Long learningItemId, SseEmitter emitter, BlockingQueue<QuizMonitorEventDTO> buffer) {
+            this(learningItemId, emitter, buffer, new AtomicBoolean());
+        }
+
+        // Identity semantics: two proctor tabs of the same item are distinct subscribers
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
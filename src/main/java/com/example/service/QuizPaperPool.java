@@ -0,0 +1,143 @@
+package com.example.service;
+
+import com.example.dto.BlueprintSectionDTO;
+import com.example.dto.PaperPoolDTO;
+import com.example.dto.QuestionDTO;
+import com.example.service.AnswerKeyCache.AnswerKey;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Randomized quiz papers generated ahead of a scheduled exam, one pool per quiz learning item.
+ * <p>
+ * Each paper is the finished, immutable question list a student receives, so handing one out is
+ * a single poll of a lock-free queue with no sampling, query or JSON parsing. A pool is dropped as
+ * soon as its quiz bank changes, and callers fall back to sampling on demand when a pool is
+ * missing, stale, drained or was generated for a different question count.
+ */
+@Component
+public class QuizPaperPool {
+
+    private final QuestionService questionService;
+    private final AnswerKeyCache answerKeyCache;
+    private final int maxPapers;
+    private final Map<Long, Pool> pools = new ConcurrentHashMap<>();
+
+    public QuizPaperPool(QuestionService questionService,
+                         AnswerKeyCache answerKeyCache,
+                         @Value("${quiz.paper-pool.max-papers:5000}") int maxPapers) {
+        this.questionService = questionService;
+        this.answerKeyCache = answerKeyCache;
+        this.maxPapers = maxPapers;
+    }
+
+    /**
+     * Replaces the learning item's pool with {@code paperCount} freshly sampled papers, drawn by
+     * {@code blueprint} when it is not null.
+     */
+    public PaperPoolDTO generate(Long learningItemId, Long quizBankId, int questionCount, int paperCount,
+                                 List<BlueprintSectionDTO> blueprint) {
+        if (paperCount <= 0 || paperCount > maxPapers) {
+            throw new IllegalArgumentException("Paper count must be between 1 and " + maxPapers);
+        }
+        if (questionCount <= 0) {
+            throw new IllegalArgumentException("Question count must be positive");
+        }
+
+        // Read the version first: a change made while generating makes the pool stale, never current
+        long bankVersion = answerKeyCache.version(quizBankId);
+        Map<Long, QuestionDTO> questionsById = new HashMap<>();
+        for (QuestionDTO question : questionService.getQuestionsByQuizBankId(quizBankId)) {
+            questionsById.put(question.id(), question);
+        }
+        AnswerKey answerKey = answerKeyCache.get(quizBankId);
+
+        ConcurrentLinkedQueue<PreparedPaper> papers = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < paperCount; i++) {
+            long seed = ThreadLocalRandom.current().nextLong();
+            long[] questionIds = blueprint != null
+                    ? QuestionSampler.sample(answerKey, blueprint, seed)
+                    : QuestionSampler.sample(answerKey, questionCount, seed);
+            List<QuestionDTO> questions = new ArrayList<>(questionIds.length);
+            for (long questionId : questionIds) {
+                QuestionDTO question = questionsById.get(questionId);
+                if (question != null) {
+                    questions.add(question);
+                }
+            }
+            papers.add(new PreparedPaper(seed, List.copyOf(questions)));
+        }
+
+        Pool pool = new Pool(quizBankId, questionCount, bankVersion, paperCount, LocalDateTime.now(), papers);
+        pools.put(learningItemId, pool);
+        return pool.toDTO(learningItemId);
+    }
+
+    /**
+     * Takes the next paper of the learning item's pool, if a current one matches the request. When
+     * called inside a transaction the paper goes back to its pool if the transaction rolls back, so
+     * a failed start does not use up a paper.
+     */
+    public Optional<PreparedPaper> poll(Long learningItemId, Long quizBankId, Integer questionCount) {
+        Pool pool = pools.get(learningItemId);
+        if (pool == null || questionCount == null
+                || pool.questionCount() != questionCount || !pool.quizBankId().equals(quizBankId)) {
+            return Optional.empty();
+        }
+        if (pool.bankVersion() != answerKeyCache.version(quizBankId)) {
+            pools.remove(learningItemId, pool);
+            return Optional.empty();
+        }
+        PreparedPaper paper = pool.papers().poll();
+        if (paper != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        pool.papers().add(paper);
+                    }
+                }
+            });
+        }
+        return Optional.ofNullable(paper);
+    }
+
+    public Optional<PaperPoolDTO> status(Long learningItemId) {
+        Pool pool = pools.get(learningItemId);
+        if (pool == null || pool.bankVersion() != answerKeyCache.version(pool.quizBankId())) {
+            return Optional.empty();
+        }
+        return Optional.of(pool.toDTO(learningItemId));
+    }
+
+    public void clear(Long learningItemId) {
+        pools.remove(learningItemId);
+    }
+
+    /**
+     * A paper ready to hand out, with the seed it was sampled with.
+     */
+    public record PreparedPaper(long seed, List<QuestionDTO> questions) {
+    }
+
+    private record Pool(Long quizBankId, int questionCount, long bankVersion, int generatedPapers,
+                        LocalDateTime generatedAt, ConcurrentLinkedQueue<PreparedPaper> papers) {
+
+        PaperPoolDTO toDTO(Long learningItemId) {
+            return new PaperPoolDTO(learningItemId, quizBankId, questionCount, generatedPapers,
+                    papers.size(), generatedAt);
+        }
+    }
+}
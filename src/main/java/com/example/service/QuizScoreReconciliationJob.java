@@ -0,0 +1,72 @@
+package com.example.service;
+
+import com.example.repository.QuizAttemptRepository;
+import com.example.repository.QuizResultSnapshotRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Periodically verifies the running counters of completed quiz attempts against their
+ * STUDENT_RESPONSES rows and repairs any attempt that drifted.
+ * In-progress attempts are skipped: their counters are still moving.
+ * <p>
+ * The check is one full-table aggregate, so it runs on its own thread: on the shared scheduler it
+ * would hold back the write-behind flush and the other fixed-delay tasks for its whole runtime.
+ */
+@Component
+public class QuizScoreReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuizScoreReconciliationJob.class);
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final QuizResultSnapshotRepository quizResultSnapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService reconciliationRunner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "quiz-score-reconciliation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public QuizScoreReconciliationJob(QuizAttemptRepository quizAttemptRepository,
+                                      QuizResultSnapshotRepository quizResultSnapshotRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.quizAttemptRepository = quizAttemptRepository;
+        this.quizResultSnapshotRepository = quizResultSnapshotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${quiz.reconciliation.cron:0 30 3 * * *}")
+    public void scheduleReconciliation() {
+        reconciliationRunner.execute(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> reconcile());
+            } catch (RuntimeException e) {
+                logger.error("Quiz attempt score reconciliation failed", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reconciliationRunner.shutdownNow();
+    }
+
+    private void reconcile() {
+        int repaired = quizAttemptRepository.reconcileCompletedCounters();
+        if (repaired > 0) {
+            logger.warn("Repaired score counters of {} completed quiz attempts", repaired);
+            // Their stored results show the old score
+            quizResultSnapshotRepository.deleteStale();
+        } else {
+            logger.info("Quiz attempt score counters match their responses");
+        }
+    }
+}
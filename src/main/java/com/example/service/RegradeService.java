@@ -0,0 +1,309 @@
+package com.example.service;
+
+import com.example.dto.RegradeJobDTO;
+import com.example.model.QuestionType;
+import com.example.repository.QuestionRepository;
+import com.example.repository.QuizResultSnapshotRepository;
+import com.example.service.grading.AnswerGrader;
+import com.example.service.grading.GradingEngine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Regrades every stored response to a question after its answer key changed.
+ * <p>
+ * Jobs run one at a time on a background thread, so a job always grades against the answer that
+ * was current when it started and later edits queue a fresh job. Responses are streamed in chunks
+ * ordered by id (keyset pagination, never an OFFSET), regraded in parallel on a bounded fork-join
+ * pool, and written back per chunk in one transaction: a batched UPDATE of the changed responses
+ * and a batched UPDATE of the affected attempts' counters and totals, dropping their result
+ * snapshots. Memory stays at one chunk whatever the number of historical responses.
+ * <p>
+ * Answers still held by the {@link AnswerWriteBuffer} were graded against the old key, so a job
+ * flushes the buffer before its first chunk; otherwise they would be written behind the scan.
+ */
+@Service
+public class RegradeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegradeService.class);
+
+    private static final String SELECT_CHUNK =
+            "SELECT id, quiz_attempt_id, selected_answer, is_correct, points_earned FROM student_responses " +
+            "WHERE question_id = ? AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String UPDATE_RESPONSE =
+            "UPDATE student_responses SET is_correct = ?, points_earned = ? WHERE id = ?";
+
+    // Completed attempts also carry their final score; legacy NULL counters stay NULL
+    private static final String UPDATE_ATTEMPT =
+            "UPDATE quiz_attempts SET correct_count = correct_count + ?, earned_points = earned_points + ?, " +
+            "total_score = CASE WHEN status = 'COMPLETED' THEN total_score + ? ELSE total_score END WHERE id = ?";
+
+    private static final int MAX_RETAINED_JOBS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final QuestionRepository questionRepository;
+    private final ItemAnalyticsService itemAnalyticsService;
+    private final QuizLeaderboard quizLeaderboard;
+    private final QuizResultSnapshotRepository quizResultSnapshotRepository;
+    private final AnswerWriteBuffer answerWriteBuffer;
+    private final GradingEngine gradingEngine;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ForkJoinPool gradingPool;
+    private final ExecutorService jobRunner = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "regrade-job-runner");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong jobIds = new AtomicLong();
+    private final Map<Long, RegradeJob> jobs = new ConcurrentHashMap<>();
+
+    public RegradeService(JdbcTemplate jdbcTemplate,
+                          QuestionRepository questionRepository,
+                          ItemAnalyticsService itemAnalyticsService,
+                          QuizLeaderboard quizLeaderboard,
+                          QuizResultSnapshotRepository quizResultSnapshotRepository,
+                          AnswerWriteBuffer answerWriteBuffer,
+                          GradingEngine gradingEngine,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${quiz.regrade.chunk-size:1000}") int chunkSize,
+                          @Value("${quiz.regrade.parallelism:4}") int parallelism) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.questionRepository = questionRepository;
+        this.itemAnalyticsService = itemAnalyticsService;
+        this.quizLeaderboard = quizLeaderboard;
+        this.quizResultSnapshotRepository = quizResultSnapshotRepository;
+        this.answerWriteBuffer = answerWriteBuffer;
+        this.gradingEngine = gradingEngine;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.gradingPool = new ForkJoinPool(parallelism);
+    }
+
+    /**
+     * Queues a regrade of the question. Inside a transaction the job is only queued once it commits,
+     * so the job reads the new answer key.
+     */
+    public RegradeJobDTO startRegrade(Long questionId) {
+        if (!questionRepository.existsById(questionId)) {
+            throw new IllegalArgumentException("Question not found");
+        }
+        RegradeJob job = new RegradeJob(jobIds.incrementAndGet(), questionId);
+        jobs.put(job.id, job);
+        pruneFinishedJobs();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    jobRunner.execute(() -> run(job));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        job.status = "CANCELLED";
+                        job.finishedAt = LocalDateTime.now();
+                    }
+                }
+            });
+        } else {
+            jobRunner.execute(() -> run(job));
+        }
+        return job.toDTO();
+    }
+
+    public RegradeJobDTO getJob(Long jobId) {
+        RegradeJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new IllegalArgumentException("Regrade job not found");
+        }
+        return job.toDTO();
+    }
+
+    public RegradeJobDTO getLatestJobForQuestion(Long questionId) {
+        return jobs.values().stream()
+                .filter(job -> job.questionId.equals(questionId))
+                .max((a, b) -> Long.compare(a.id, b.id))
+                .map(RegradeJob::toDTO)
+                .orElseThrow(() -> new IllegalArgumentException("No regrade job found for this question"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobRunner.shutdownNow();
+        gradingPool.shutdownNow();
+    }
+
+    private void run(RegradeJob job) {
+        job.status = "RUNNING";
+        job.startedAt = LocalDateTime.now();
+        try {
+            // The job starts after the new key committed, so everything graded with the old one is then stored
+            answerWriteBuffer.flushAll();
+            Map<String, Object> question = jdbcTemplate.queryForMap(
+                    "SELECT correct_answer, question_type, options, quiz_bank_id FROM questions WHERE id = ?", job.questionId);
+            String questionType = (String) question.get("question_type");
+            // Compiled once for the whole job and shared by the grading threads
+            AnswerGrader grader = gradingEngine.compileStored(questionType != null ? QuestionType.valueOf(questionType) : null,
+                    (String) question.get("correct_answer"), (String) question.get("options"));
+
+            long lastId = 0;
+            while (true) {
+                List<ResponseRow> chunk = jdbcTemplate.query(SELECT_CHUNK,
+                        (resultSet, rowNum) -> new ResponseRow(
+                                resultSet.getLong("id"),
+                                resultSet.getLong("quiz_attempt_id"),
+                                resultSet.getString("selected_answer"),
+                                resultSet.getBoolean("is_correct"),
+                                resultSet.getInt("points_earned")),
+                        job.questionId, lastId, chunkSize);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                lastId = chunk.get(chunk.size() - 1).id();
+
+                List<Regraded> changed = gradingPool.submit(() -> chunk.parallelStream()
+                        .map(row -> regrade(row, grader))
+                        .filter(Regraded::changed)
+                        .collect(Collectors.toList())).get();
+                transactionTemplate.executeWithoutResult(status -> writeChunk(chunk, changed));
+
+                job.processed.addAndGet(chunk.size());
+                job.changed.addAndGet(changed.size());
+            }
+            job.status = "COMPLETED";
+            if (job.changed.get() > 0) {
+                // Scores changed, and item statistics counted the old grades
+                quizLeaderboard.invalidateAll();
+                if (question.get("quiz_bank_id") != null) {
+                    itemAnalyticsService.startBackfill(((Number) question.get("quiz_bank_id")).longValue());
+                }
+            }
+            logger.info("Regraded {} responses to question {}, {} changed", job.processed.get(), job.questionId, job.changed.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail(e);
+        } catch (ExecutionException | RuntimeException e) {
+            logger.error("Regrade of question {} failed after {} responses", job.questionId, job.processed.get(), e);
+            job.fail(e);
+        } finally {
+            job.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private Regraded regrade(ResponseRow row, AnswerGrader grader) {
+        // Same rule as QuizAttemptService: each correct answer is worth 1 point
+        boolean isCorrect = grader.isCorrect(row.selectedAnswer());
+        int pointsEarned = isCorrect ? 1 : 0;
+        return new Regraded(row, isCorrect, pointsEarned);
+    }
+
+    private void writeChunk(List<ResponseRow> chunk, List<Regraded> changed) {
+        // Every stored result showing this question is out of date, regraded or not; rebuilt on next read
+        Set<Long> attemptIds = new HashSet<>();
+        for (ResponseRow row : chunk) {
+            attemptIds.add(row.quizAttemptId());
+        }
+        quizResultSnapshotRepository.deleteByQuizAttemptIds(attemptIds);
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(UPDATE_RESPONSE, changed, changed.size(), (statement, regraded) -> {
+            statement.setBoolean(1, regraded.isCorrect());
+            statement.setInt(2, regraded.pointsEarned());
+            statement.setLong(3, regraded.row().id());
+        });
+
+        Map<Long, int[]> deltasByAttempt = new HashMap<>();
+        for (Regraded regraded : changed) {
+            int[] deltas = deltasByAttempt.computeIfAbsent(regraded.row().quizAttemptId(), id -> new int[2]);
+            deltas[0] += (regraded.isCorrect() ? 1 : 0) - (regraded.row().correct() ? 1 : 0);
+            deltas[1] += regraded.pointsEarned() - regraded.row().pointsEarned();
+        }
+        List<Map.Entry<Long, int[]>> attemptDeltas = new ArrayList<>(deltasByAttempt.entrySet());
+        jdbcTemplate.batchUpdate(UPDATE_ATTEMPT, attemptDeltas, attemptDeltas.size(), (statement, entry) -> {
+            statement.setInt(1, entry.getValue()[0]);
+            statement.setInt(2, entry.getValue()[1]);
+            statement.setInt(3, entry.getValue()[1]);
+            statement.setLong(4, entry.getKey());
+        });
+    }
+
+    private void pruneFinishedJobs() {
+        if (jobs.size() <= MAX_RETAINED_JOBS) {
+            return;
+        }
+        Iterator<RegradeJob> iterator = jobs.values().stream()
+                .filter(job -> job.finishedAt != null)
+                .sorted((a, b) -> Long.compare(a.id, b.id))
+                .iterator();
+        while (jobs.size() > MAX_RETAINED_JOBS && iterator.hasNext()) {
+            jobs.remove(iterator.next().id);
+        }
+    }
+
+    private record ResponseRow(long id, long quizAttemptId, String selectedAnswer, boolean correct, int pointsEarned) {
+    }
+
+    private record Regraded(ResponseRow row, boolean isCorrect, int pointsEarned) {
+
+        boolean changed() {
+            return isCorrect != row.correct() || pointsEarned != row.pointsEarned();
+        }
+    }
+
+    private static final class RegradeJob {
+
+        private final long id;
+        private final Long questionId;
+        private final LocalDateTime queuedAt = LocalDateTime.now();
+        private final AtomicLong processed = new AtomicLong();
+        private final AtomicLong changed = new AtomicLong();
+        private volatile String status = "QUEUED";
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private RegradeJob(long id, Long questionId) {
+            this.id = id;
+            this.questionId = questionId;
+        }
+
+        private void fail(Exception e) {
+            status = "FAILED";
+            error = e.getMessage();
+        }
+
+        private RegradeJobDTO toDTO() {
+            return new RegradeJobDTO(id, questionId, status, processed.get(), changed.get(),
+                    queuedAt, startedAt, finishedAt, error);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.service.grading;
+
+/**
+ * Decides whether a submitted answer to one question is correct.
+ * <p>
+ * A grader is compiled once from the question's correct answer, with everything that can be
+ * prepared in advance already done, and is immutable, so one instance is shared by every request
+ * grading that question.
+ */
+@FunctionalInterface
+public interface AnswerGrader {
+
+    /**
+     * @param selectedAnswer the answer as submitted; null is never correct
+     */
+    boolean isCorrect(String selectedAnswer);
+}
@@ -0,0 +1,37 @@
+package com.example.service.grading;
+
+/**
+ * Allocation-free helpers for reading submitted answers in place, by index ranges instead of substrings.
+ */
+final class AnswerText {
+
+    private AnswerText() {
+    }
+
+    /**
+     * @return the first index of {@code text} in {@code [start, end)} that is not whitespace, or {@code end}
+     */
+    static int skipWhitespace(String text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * @return the index after the last character of {@code text} in {@code [start, end)} that is not whitespace, or {@code start}
+     */
+    static int trimEnd(String text, int start, int end) {
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Whether {@code text[start, end)} is exactly {@code expected}.
+     */
+    static boolean regionEquals(String text, int start, int end, String expected, boolean ignoreCase) {
+        return end - start == expected.length() && text.regionMatches(ignoreCase, start, expected, 0, expected.length());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.service.grading;
+
+import com.example.model.QuestionType;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Multiple choice: the selected option must be exactly the correct one.
+ */
+@Component
+public class ExactMatchGraderFactory implements GraderFactory {
+
+    @Override
+    public QuestionType questionType() {
+        return QuestionType.MULTIPLE_CHOICE;
+    }
+
+    @Override
+    public AnswerGrader compile(String correctAnswer, List<String> options) {
+        return exactMatch(correctAnswer);
+    }
+
+    static AnswerGrader exactMatch(String correctAnswer) {
+        return new ExactMatchGrader(correctAnswer);
+    }
+
+    private record ExactMatchGrader(String correctAnswer) implements AnswerGrader {
+
+        @Override
+        public boolean isCorrect(String selectedAnswer) {
+            return correctAnswer != null && correctAnswer.equals(selectedAnswer);
+        }
+    }
+}
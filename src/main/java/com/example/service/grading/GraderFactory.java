@@ -0,0 +1,20 @@
+package com.example.service.grading;
+
+import com.example.model.QuestionType;
+
+import java.util.List;
+
+/**
+ * Compiles the graders of one {@link QuestionType}. Every Spring bean implementing this interface is
+ * picked up by {@link GradingEngine}, so a new question type only needs a new factory.
+ */
+public interface GraderFactory {
+
+    QuestionType questionType();
+
+    /**
+     * @param options the question's options, empty when the type does not use them
+     * @throws IllegalArgumentException if the correct answer is not valid for this question type
+     */
+    AnswerGrader compile(String correctAnswer, List<String> options);
+}
@@ -0,0 +1,97 @@
+package com.example.service.grading;
+
+import com.example.model.QuestionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles questions into {@link AnswerGrader}s using the {@link GraderFactory} registered for their type.
+ * <p>
+ * New and edited questions are compiled strictly, so an answer that cannot be graded is rejected
+ * when it is saved. Stored questions are compiled leniently: a question that no longer compiles,
+ * or has no type, falls back to exact matching as it was graded before question types existed.
+ */
+@Component
+public class GradingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(GradingEngine.class);
+
+    private static final TypeReference<List<String>> OPTIONS_TYPE = new TypeReference<>() {};
+
+    private final Map<QuestionType, GraderFactory> factories = new EnumMap<>(QuestionType.class);
+    private final ObjectMapper objectMapper;
+
+    public GradingEngine(List<GraderFactory> graderFactories, ObjectMapper objectMapper) {
+        for (GraderFactory factory : graderFactories) {
+            GraderFactory previous = factories.put(factory.questionType(), factory);
+            if (previous != null) {
+                throw new IllegalStateException("Two grader factories for " + factory.questionType() + ": "
+                        + previous.getClass().getName() + " and " + factory.getClass().getName());
+            }
+        }
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the question type has no grader or the correct answer is invalid for it
+     */
+    public AnswerGrader compile(QuestionType questionType, String correctAnswer, List<String> options) {
+        if (questionType == null) {
+            throw new IllegalArgumentException("Question type must be specified");
+        }
+        GraderFactory factory = factories.get(questionType);
+        if (factory == null) {
+            throw new IllegalArgumentException("No grader for question type " + questionType);
+        }
+        if (correctAnswer == null || correctAnswer.isBlank()) {
+            throw new IllegalArgumentException("Correct answer must be specified");
+        }
+        return factory.compile(correctAnswer, options != null ? options : List.of());
+    }
+
+    /**
+     * Compiles a question read from the database, never failing.
+     */
+    public AnswerGrader compileStored(QuestionType questionType, String correctAnswer, List<String> options) {
+        if (questionType != null && correctAnswer != null) {
+            try {
+                return compile(questionType, correctAnswer, options);
+            } catch (IllegalArgumentException e) {
+                logger.warn("Grading {} answer '{}' by exact match: {}", questionType, correctAnswer, e.getMessage());
+            }
+        }
+        return ExactMatchGraderFactory.exactMatch(correctAnswer);
+    }
+
+    /**
+     * Same as {@link #compileStored(QuestionType, String, List)} with the options as stored JSON;
+     * the JSON is only parsed for types that use options.
+     */
+    public AnswerGrader compileStored(QuestionType questionType, String correctAnswer, String optionsJson) {
+        return compileStored(questionType, correctAnswer, parseStoredOptions(questionType, optionsJson));
+    }
+
+    /**
+     * Reads the options stored as JSON, never failing; empty for types that do not use options.
+     */
+    public List<String> parseStoredOptions(QuestionType questionType, String optionsJson) {
+        if (questionType == null || !questionType.usesOptions() || optionsJson == null) {
+            return List.of();
+        }
+        try {
+            List<String> parsed = objectMapper.readValue(optionsJson, OPTIONS_TYPE);
+            return parsed != null ? parsed : List.of();
+        } catch (JsonProcessingException e) {
+            logger.warn("Unreadable options of a {} question: {}", questionType, e.getOriginalMessage());
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.service.grading;
+
+import com.example.model.QuestionType;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Multi-select: the answer is a {@code |}-separated set of options, in any order, and must select
+ * exactly the correct options. Sets are compared as bitmasks over option positions, so a question
+ * can have at most 63 options.
+ */
+@Component
+public class MultiSelectGraderFactory implements GraderFactory {
+
+    static final char SEPARATOR = '|';
+
+    // The sign bit is never an option, so this cannot be a real selection
+    private static final int MAX_OPTIONS = Long.SIZE - 1;
+    private static final long UNKNOWN_OPTION = -1L;
+
+    @Override
+    public QuestionType questionType() {
+        return QuestionType.MULTI_SELECT;
+    }
+
+    @Override
+    public AnswerGrader compile(String correctAnswer, List<String> options) {
+        if (options.isEmpty()) {
+            throw new IllegalArgumentException("Multi-select question must have options");
+        }
+        if (options.size() > MAX_OPTIONS) {
+            throw new IllegalArgumentException("Multi-select question can have at most " + MAX_OPTIONS + " options");
+        }
+        String[] trimmedOptions = new String[options.size()];
+        for (int i = 0; i < trimmedOptions.length; i++) {
+            trimmedOptions[i] = options.get(i).trim();
+        }
+
+        long expectedMask = mask(correctAnswer, trimmedOptions);
+        if (expectedMask == UNKNOWN_OPTION) {
+            throw new IllegalArgumentException("Correct answer of a multi-select question must list options separated by "
+                    + SEPARATOR);
+        }
+        if (expectedMask == 0) {
+            throw new IllegalArgumentException("Correct answer of a multi-select question must select at least one option");
+        }
+        return new MultiSelectGrader(trimmedOptions, expectedMask);
+    }
+
+    /**
+     * @return the bitmask of the selected option positions, or {@link #UNKNOWN_OPTION} if a part is not an option
+     */
+    private static long mask(String answer, String[] options) {
+        long mask = 0;
+        int length = answer.length();
+        int start = 0;
+        while (start <= length) {
+            int end = answer.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = length;
+            }
+            int partStart = AnswerText.skipWhitespace(answer, start, end);
+            int partEnd = AnswerText.trimEnd(answer, partStart, end);
+            if (partStart < partEnd) {
+                int option = indexOf(answer, partStart, partEnd, options);
+                if (option < 0) {
+                    return UNKNOWN_OPTION;
+                }
+                mask |= 1L << option;
+            }
+            start = end + 1;
+        }
+        return mask;
+    }
+
+    private static int indexOf(String answer, int start, int end, String[] options) {
+        for (int i = 0; i < options.length; i++) {
+            if (AnswerText.regionEquals(answer, start, end, options[i], false)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record MultiSelectGrader(String[] options, long expectedMask) implements AnswerGrader {
+
+        @Override
+        public boolean isCorrect(String selectedAnswer) {
+            return selectedAnswer != null && mask(selectedAnswer, options) == expectedMask;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.service.grading;
+
+import com.example.model.QuestionType;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Numeric: the answer must be a number within the tolerance of the correct value. The correct answer
+ * is a number optionally followed by {@code ±} or {@code +-} and an absolute tolerance, or a
+ * percentage of the value, e.g. {@code 9.81±0.05} or {@code 1500+-2%}. Without a tolerance only
+ * rounding differences are accepted. Numbers are plain decimals, optionally with an exponent; the
+ * other forms {@link Double#parseDouble} reads, such as {@code 0x1p3} or {@code 1.5f}, are rejected.
+ */
+@Component
+public class NumericGraderFactory implements GraderFactory {
+
+    private static final double ROUNDING_TOLERANCE = 1e-9;
+
+    @Override
+    public QuestionType questionType() {
+        return QuestionType.NUMERIC;
+    }
+
+    @Override
+    public AnswerGrader compile(String correctAnswer, List<String> options) {
+        String[] parts = correctAnswer.split("±|\\+-", 2);
+        double value = parseNumber(parts[0]);
+        double tolerance;
+        if (parts.length == 1) {
+            tolerance = Math.max(1, Math.abs(value)) * ROUNDING_TOLERANCE;
+        } else {
+            String toleranceText = parts[1].trim();
+            tolerance = toleranceText.endsWith("%")
+                    ? Math.abs(value) * parseNumber(toleranceText.substring(0, toleranceText.length() - 1)) / 100
+                    : parseNumber(toleranceText);
+            if (tolerance < 0) {
+                throw new IllegalArgumentException("Tolerance of a numeric question cannot be negative");
+            }
+        }
+        return new NumericGrader(value - tolerance, value + tolerance);
+    }
+
+    private static double parseNumber(String text) {
+        int start = AnswerText.skipWhitespace(text, 0, text.length());
+        int end = AnswerText.trimEnd(text, start, text.length());
+        if (isDecimal(text, start, end)) {
+            double number = Double.parseDouble(text.substring(start, end));
+            if (Double.isFinite(number)) {
+                return number;
+            }
+        }
+        throw new IllegalArgumentException("Correct answer of a numeric question must be a number, optionally with ± and a tolerance");
+    }
+
+    private record NumericGrader(double lowerBound, double upperBound) implements AnswerGrader {
+
+        @Override
+        public boolean isCorrect(String selectedAnswer) {
+            if (selectedAnswer == null) {
+                return false;
+            }
+            int start = AnswerText.skipWhitespace(selectedAnswer, 0, selectedAnswer.length());
+            int end = AnswerText.trimEnd(selectedAnswer, start, selectedAnswer.length());
+            // Checked first, so parsing cannot throw
+            if (!isDecimal(selectedAnswer, start, end)) {
+                return false;
+            }
+            double number = Double.parseDouble(start == 0 && end == selectedAnswer.length()
+                    ? selectedAnswer : selectedAnswer.substring(start, end));
+            return number >= lowerBound && number <= upperBound;
+        }
+    }
+
+    /**
+     * Whether {@code text[start, end)} is an optional sign, digits with an optional decimal point,
+     * and an optional exponent.
+     */
+    static boolean isDecimal(String text, int start, int end) {
+        int i = start;
+        if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+            i++;
+        }
+        int digits = 0;
+        while (i < end && isDigit(text.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < end && text.charAt(i) == '.') {
+            i++;
+            while (i < end && isDigit(text.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+                i++;
+            }
+            int exponentStart = i;
+            while (i < end && isDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i == exponentStart) {
+                return false;
+            }
+        }
+        return i == end;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.service.grading;
+
+import com.example.model.QuestionType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Short answer: the correct answer lists the accepted answers separated by {@code |}. An accepted
+ * answer matches regardless of case and of leading, trailing or repeated whitespace; one written as
+ * {@code /regex/} is a case-insensitive pattern that must match the whole trimmed answer, and so
+ * cannot itself contain {@code |}.
+ * <p>
+ * Patterns are matched by backtracking, so a group that repeats and itself repeats or alternates,
+ * like {@code (a+)+} or {@code (a|ab)*}, is rejected: it can take exponential time on a crafted
+ * answer. Answers longer than {@value #MAX_PATTERN_INPUT_LENGTH} characters never match a pattern.
+ */
+@Component
+public class ShortAnswerGraderFactory implements GraderFactory {
+
+    static final int MAX_PATTERN_INPUT_LENGTH = 500;
+
+    @Override
+    public QuestionType questionType() {
+        return QuestionType.SHORT_ANSWER;
+    }
+
+    @Override
+    public AnswerGrader compile(String correctAnswer, List<String> options) {
+        List<String> normalizedAnswers = new ArrayList<>();
+        List<Pattern> patterns = new ArrayList<>();
+        for (String accepted : correctAnswer.split("\\|")) {
+            String trimmed = accepted.trim();
+            if (trimmed.length() > 2 && trimmed.startsWith("/") && trimmed.endsWith("/")) {
+                String regex = trimmed.substring(1, trimmed.length() - 1);
+                if (hasNestedRepetition(regex)) {
+                    throw new IllegalArgumentException("Answer pattern " + trimmed + " repeats a group that repeats or alternates");
+                }
+                try {
+                    patterns.add(Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+                } catch (PatternSyntaxException e) {
+                    throw new IllegalArgumentException("Invalid answer pattern " + trimmed + ": " + e.getDescription());
+                }
+            } else if (!trimmed.isEmpty()) {
+                normalizedAnswers.add(normalize(trimmed));
+            }
+        }
+        if (normalizedAnswers.isEmpty() && patterns.isEmpty()) {
+            throw new IllegalArgumentException("Correct answer of a short answer question must list at least one accepted answer");
+        }
+        return new ShortAnswerGrader(normalizedAnswers.toArray(new String[0]), patterns.toArray(new Pattern[0]));
+    }
+
+    /**
+     * Whether the regex applies {@code *}, {@code +} or {@code {n,m}} to a group containing a quantifier
+     * or an alternation, directly or through a nested group. Escapes and character classes are skipped.
+     */
+    static boolean hasNestedRepetition(String regex) {
+        // One entry per open group: whether it contains a quantifier or an alternation so far
+        Deque<boolean[]> groups = new ArrayDeque<>();
+        boolean inClass = false;
+        for (int i = 0; i < regex.length(); i++) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (inClass) {
+                inClass = c != ']';
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == '(') {
+                groups.push(new boolean[1]);
+            } else if (c == ')') {
+                if (groups.isEmpty()) {
+                    continue;
+                }
+                boolean variable = groups.pop()[0];
+                if (variable && i + 1 < regex.length() && repeats(regex.charAt(i + 1))) {
+                    return true;
+                }
+                if (variable && !groups.isEmpty()) {
+                    groups.peek()[0] = true;
+                }
+            } else if (c == '|' || repeats(c) || (c == '?' && i > 0 && regex.charAt(i - 1) != '(')) {
+                if (!groups.isEmpty()) {
+                    groups.peek()[0] = true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean repeats(char quantifier) {
+        return quantifier == '*' || quantifier == '+' || quantifier == '{';
+    }
+
+    /**
+     * Lower-cases each character and collapses whitespace runs into one space, matching {@link #matchesNormalized}.
+     */
+    static String normalize(String text) {
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                normalized.append(' ');
+                pendingSpace = false;
+            }
+            normalized.append(Character.toLowerCase(c));
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Whether {@code text} normalizes to {@code normalized}, compared in place without building the normalized text.
+     */
+    static boolean matchesNormalized(String normalized, String text) {
+        int length = text.length();
+        int i = AnswerText.skipWhitespace(text, 0, length);
+        int n = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i = AnswerText.skipWhitespace(text, i, length);
+                if (i == length) {
+                    break;
+                }
+                c = ' ';
+            } else {
+                c = Character.toLowerCase(c);
+                i++;
+            }
+            if (n == normalized.length() || normalized.charAt(n) != c) {
+                return false;
+            }
+            n++;
+        }
+        return n == normalized.length();
+    }
+
+    private record ShortAnswerGrader(String[] normalizedAnswers, Pattern[] patterns) implements AnswerGrader {
+
+        @Override
+        public boolean isCorrect(String selectedAnswer) {
+            if (selectedAnswer == null) {
+                return false;
+            }
+            for (String normalizedAnswer : normalizedAnswers) {
+                if (matchesNormalized(normalizedAnswer, selectedAnswer)) {
+                    return true;
+                }
+            }
+            if (patterns.length > 0 && selectedAnswer.length() <= MAX_PATTERN_INPUT_LENGTH) {
+                // Matching a pattern needs a Matcher; plain answers are checked first for that reason
+                String trimmed = selectedAnswer.trim();
+                for (Pattern pattern : patterns) {
+                    if (pattern.matcher(trimmed).matches()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.service.grading;
+
+import com.example.model.QuestionType;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * True/false: the answer is read as a boolean, accepting common spellings in any case.
+ */
+@Component
+public class TrueFalseGraderFactory implements GraderFactory {
+
+    private static final String[] TRUE_WORDS = {"true", "t", "yes", "y", "1", "đúng"};
+    private static final String[] FALSE_WORDS = {"false", "f", "no", "n", "0", "sai"};
+
+    private static final AnswerGrader TRUE = new TrueFalseGrader(true);
+    private static final AnswerGrader FALSE = new TrueFalseGrader(false);
+
+    @Override
+    public QuestionType questionType() {
+        return QuestionType.TRUE_FALSE;
+    }
+
+    @Override
+    public AnswerGrader compile(String correctAnswer, List<String> options) {
+        int value = parse(correctAnswer);
+        if (value < 0) {
+            throw new IllegalArgumentException("Correct answer of a true/false question must be true or false");
+        }
+        return value == 1 ? TRUE : FALSE;
+    }
+
+    /**
+     * @return 1 for true, 0 for false, -1 if the text is neither
+     */
+    static int parse(String text) {
+        int start = AnswerText.skipWhitespace(text, 0, text.length());
+        int end = AnswerText.trimEnd(text, start, text.length());
+        for (String word : TRUE_WORDS) {
+            if (AnswerText.regionEquals(text, start, end, word, true)) {
+                return 1;
+            }
+        }
+        for (String word : FALSE_WORDS) {
+            if (AnswerText.regionEquals(text, start, end, word, true)) {
+                return 0;
+            }
+        }
+        return -1;
+    }
+
+    private record TrueFalseGrader(boolean expected) implements AnswerGrader {
+
+        @Override
+        public boolean isCorrect(String selectedAnswer) {
+            return selectedAnswer != null && parse(selectedAnswer) == (expected ? 1 : 0);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+-- Persisted item statistics per question, maintained by ItemAnalyticsService.
+-- Nodes write increments, so counts from several nodes add up instead of overwriting each other.
+
+CREATE TABLE IF NOT EXISTS question_statistics (
+    question_id          BIGINT PRIMARY KEY,
+    quiz_bank_id         BIGINT NOT NULL,
+    response_count       BIGINT NOT NULL DEFAULT 0,
+    correct_count        BIGINT NOT NULL DEFAULT 0,
+    scored_count         BIGINT NOT NULL DEFAULT 0,
+    scored_correct_count BIGINT NOT NULL DEFAULT 0,
+    sum_score            DOUBLE PRECISION NOT NULL DEFAULT 0,
+    sum_score_squared    DOUBLE PRECISION NOT NULL DEFAULT 0,
+    sum_correct_score    DOUBLE PRECISION NOT NULL DEFAULT 0,
+    answer_counts        JSONB NOT NULL DEFAULT '{}',
+    updated_at           TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_question_statistics_quiz_bank_id
+    ON question_statistics (quiz_bank_id);
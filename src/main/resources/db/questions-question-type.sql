@@ -0,0 +1,5 @@
+-- Hibernate created a check constraint listing the question types that existed when QUESTIONS was
+-- first created, and schema update never widens it. Dropped so newer types can be stored; the
+-- column is only ever written from the QuestionType enum.
+
+ALTER TABLE questions DROP CONSTRAINT IF EXISTS questions_question_type_check;
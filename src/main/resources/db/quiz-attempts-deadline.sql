@@ -0,0 +1,5 @@
+-- Lets QuizAutoCompletionJob reload the deadlines of in-progress attempts with one range scan.
+
+CREATE INDEX IF NOT EXISTS idx_quiz_attempts_in_progress_deadline
+    ON quiz_attempts (deadline)
+    WHERE status = 'IN_PROGRESS' AND deadline IS NOT NULL;
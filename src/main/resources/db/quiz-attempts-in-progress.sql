@@ -0,0 +1,22 @@
+-- At most one in-progress attempt per student and learning item, across all nodes (see ActiveAttemptRegistry).
+--
+-- Older duplicates would block the index, so all but the latest in-progress attempt of each pair are
+-- completed first with their running totals; QuizScoreReconciliationJob repairs any legacy totals.
+-- Both statements are no-ops once the index exists.
+
+UPDATE quiz_attempts a
+SET status = 'COMPLETED',
+    end_time = LOCALTIMESTAMP,
+    total_score = COALESCE(a.earned_points, 0),
+    max_possible_score = COALESCE(a.answered_count, 0)
+FROM quiz_attempts newer
+WHERE a.student_id = newer.student_id
+  AND a.learning_item_id = newer.learning_item_id
+  AND a.status = 'IN_PROGRESS'
+  AND newer.status = 'IN_PROGRESS'
+  AND a.id < newer.id
+  AND to_regclass('uk_quiz_attempts_in_progress') IS NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_quiz_attempts_in_progress
+    ON quiz_attempts (student_id, learning_item_id)
+    WHERE status = 'IN_PROGRESS';
@@ -0,0 +1,9 @@
+-- Serialized results of completed attempts, written once by QuizAttemptService.getQuizResults.
+-- total_score is the attempt's score when the snapshot was taken, so stale snapshots can be found.
+
+CREATE TABLE IF NOT EXISTS quiz_result_snapshots (
+    quiz_attempt_id BIGINT PRIMARY KEY,
+    total_score     INTEGER,
+    payload         BYTEA NOT NULL,
+    created_at      TIMESTAMP NOT NULL
+);
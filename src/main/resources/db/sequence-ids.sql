@@ -0,0 +1,28 @@
+-- Migration from IDENTITY to sequence-backed ids (pooled optimizer, allocationSize = 50).
+--
+-- Hibernate creates each <table>_seq when ddl-auto runs, starting at 1. Tables that were filled
+-- while ids came from IDENTITY columns already contain those values, so every sequence is moved
+-- past the current MAX(id). GREATEST keeps the script idempotent: re-running it on startup never
+-- moves a sequence backwards, so id blocks already handed out to other nodes stay unique.
+-- The existing IDENTITY columns are "GENERATED BY DEFAULT", so explicit ids from the sequences
+-- are accepted without altering the tables.
+
+CREATE SEQUENCE IF NOT EXISTS courses_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS documents_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS learning_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS questions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS quiz_attempts_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS quiz_banks_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS student_responses_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS weeks_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('courses_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM courses), (SELECT last_value FROM courses_seq)));
+SELECT setval('documents_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM documents), (SELECT last_value FROM documents_seq)));
+SELECT setval('learning_items_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM learning_items), (SELECT last_value FROM learning_items_seq)));
+SELECT setval('questions_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM questions), (SELECT last_value FROM questions_seq)));
+SELECT setval('quiz_attempts_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM quiz_attempts), (SELECT last_value FROM quiz_attempts_seq)));
+SELECT setval('quiz_banks_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM quiz_banks), (SELECT last_value FROM quiz_banks_seq)));
+SELECT setval('student_responses_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM student_responses), (SELECT last_value FROM student_responses_seq)));
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM users), (SELECT last_value FROM users_seq)));
+SELECT setval('weeks_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM weeks), (SELECT last_value FROM weeks_seq)));
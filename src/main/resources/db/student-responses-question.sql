@@ -0,0 +1,4 @@
+-- Lets RegradeService page through the responses to one question in id order.
+
+CREATE INDEX IF NOT EXISTS idx_student_responses_question_id
+    ON student_responses (question_id, id);
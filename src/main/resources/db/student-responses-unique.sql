@@ -0,0 +1,15 @@
+-- One response per question and attempt, enforced by a unique index (see StudentResponseJdbcRepository).
+--
+-- Older double submissions would block the index, so they are removed first, keeping the earliest
+-- row of each pair; the attempts' score counters are then repaired by QuizScoreReconciliationJob.
+-- Both statements are no-ops once the index exists.
+
+DELETE FROM student_responses r
+USING student_responses earlier
+WHERE r.quiz_attempt_id = earlier.quiz_attempt_id
+  AND r.question_id = earlier.question_id
+  AND r.id > earlier.id
+  AND to_regclass('uk_student_responses_attempt_question') IS NULL;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_student_responses_attempt_question
+    ON student_responses (quiz_attempt_id, question_id);
@@ -0,0 +1,39 @@
+package com.example.controller;
+
+import com.example.configuration.CorsConfig;
+import com.example.configuration.SecurityConfiguration;
+import com.example.exceptions.GlobalExceptionHandler;
+import com.example.security.jwt.JwtAuthenticationEntryPoint;
+import com.example.security.jwt.JwtAuthenticationFilter;
+import com.example.security.jwt.JwtTokenManager;
+import com.example.security.service.UserDetailsServiceImpl;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * The application's real security filter chain and method security, without the JPA context a
+ * {@code @WebMvcTest} would pull in through the application class. Tests add the controller under
+ * test and mock its services.
+ */
+@Configuration
+@EnableWebMvc
+@EnableWebSecurity
+@Import({SecurityConfiguration.class, CorsConfig.class, GlobalExceptionHandler.class,
+        JwtAuthenticationFilter.class, JwtAuthenticationEntryPoint.class})
+class ControllerSecurityTestConfiguration {
+
+    @Bean
+    JwtTokenManager jwtTokenManager() {
+        return mock(JwtTokenManager.class);
+    }
+
+    @Bean
+    UserDetailsServiceImpl userDetailsService() {
+        return mock(UserDetailsServiceImpl.class);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.controller;
+
+import com.example.dto.LiveSessionDTO;
+import com.example.model.LiveSessionStatus;
+import com.example.model.User;
+import com.example.repository.UserRepository;
+import com.example.service.LiveSessionCoordinator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig({ControllerSecurityTestConfiguration.class, LiveSessionController.class})
+class LiveSessionControllerSecurityTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @MockitoBean
+    private LiveSessionCoordinator liveSessionCoordinator;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    static Stream<Arguments> teacherEndpoints() {
+        return Stream.of(
+                Arguments.of("start", post("/api/live-sessions")
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"quizBankId\": 1}")),
+                Arguments.of("next", post("/api/live-sessions/1/next")),
+                Arguments.of("close", post("/api/live-sessions/1/close")),
+                Arguments.of("tally", get("/api/live-sessions/1/questions/0/tally")),
+                Arguments.of("end", post("/api/live-sessions/1/end")));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("teacherEndpoints")
+    void studentIsForbidden(String name, MockHttpServletRequestBuilder request) throws Exception {
+        mockMvc.perform(request.with(user("student").roles("STUDENT")))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(liveSessionCoordinator);
+    }
+
+    @Test
+    void teacherCanStartSession() throws Exception {
+        when(userRepository.findByUsername("teacher")).thenReturn(User.builder().id(7L).username("teacher").build());
+        when(liveSessionCoordinator.createSession(anyLong(), anyLong(), any())).thenReturn(
+                new LiveSessionDTO(1L, 1L, "Bank", LiveSessionStatus.WAITING, null, 3, 0, 0, LocalDateTime.now()));
+
+        mockMvc.perform(post("/api/live-sessions").with(user("teacher").roles("TEACHER"))
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"quizBankId\": 1}"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void studentCanReadSessionState() throws Exception {
+        when(liveSessionCoordinator.getSession(1L)).thenReturn(
+                new LiveSessionDTO(1L, 1L, "Bank", LiveSessionStatus.WAITING, null, 3, 0, 0, LocalDateTime.now()));
+
+        mockMvc.perform(get("/api/live-sessions/1").with(user("student").roles("STUDENT")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void anonymousRequestIsRejected() throws Exception {
+        mockMvc.perform(post("/api/live-sessions/1/next"))
+                .andExpect(status().isUnauthorized());
+        verifyNoInteractions(liveSessionCoordinator);
+    }
+}
@@ -0,0 +1,324 @@
+package com.example.controller;
+
+import com.example.dto.LiveSessionDTO;
+import com.example.dto.LiveSessionEventDTO;
+import com.example.dto.QuestionDTO;
+import com.example.model.QuestionType;
+import com.example.model.QuizAttempt;
+import com.example.model.QuizBank;
+import com.example.model.StudentResponse;
+import com.example.model.User;
+import com.example.repository.QuestionRepository;
+import com.example.repository.QuizAttemptRepository;
+import com.example.repository.QuizBankRepository;
+import com.example.repository.StudentResponseJdbcRepository;
+import com.example.repository.UserRepository;
+import com.example.service.ItemAnalyticsService;
+import com.example.service.LiveSessionCoordinator;
+import com.example.service.QuestionService;
+import com.example.service.grading.ExactMatchGraderFactory;
+import com.example.service.grading.GradingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.websocket.servlet.WebSocketServletAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs a live session against many real WebSocket clients connected to an embedded server. Each
+ * client answers every question as it arrives; the teacher closes each question once all answers
+ * are accepted and then ends the session.
+ * <p>
+ * Only the live session handler and coordinator are real: the repositories are mocks, and a
+ * handshake handler takes the student from the URL in place of the JWT filter. Set
+ * {@code -Dlive-session.harness.clients=5000} to run with more clients.
+ */
+@SpringBootTest(classes = LiveSessionMultiClientHarnessTest.HarnessConfiguration.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class LiveSessionMultiClientHarnessTest {
+
+    private static final Long TEACHER_ID = 1L;
+    private static final Long QUIZ_BANK_ID = 10L;
+    private static final List<String> OPTIONS = List.of("A", "B", "C");
+    private static final int CLIENTS = Integer.getInteger("live-session.harness.clients", 300);
+    private static final long TIMEOUT_SECONDS = 30;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private LiveSessionCoordinator liveSessionCoordinator;
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Autowired
+    private StudentResponseJdbcRepository studentResponseJdbcRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Client> clients = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        reset(quizAttemptRepository, studentResponseJdbcRepository);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (Client client : clients) {
+            if (client.webSocketSession != null && client.webSocketSession.isOpen()) {
+                client.webSocketSession.close();
+            }
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void everyClientReceivesEveryQuestionAndItsScore() throws Exception {
+        Long sessionId = liveSessionCoordinator.createSession(TEACHER_ID, QUIZ_BANK_ID, null).id();
+        int questionCount = 2;
+        CountDownLatch[] accepted = {new CountDownLatch(CLIENTS), new CountDownLatch(CLIENTS)};
+        CountDownLatch ended = new CountDownLatch(CLIENTS);
+
+        StandardWebSocketClient webSocketClient = new StandardWebSocketClient();
+        List<CompletableFuture<WebSocketSession>> handshakes = new ArrayList<>();
+        for (int i = 0; i < CLIENTS; i++) {
+            Client client = new Client(1000L + i, accepted, ended);
+            clients.add(client);
+            handshakes.add(webSocketClient.execute(client,
+                    "ws://localhost:" + port + "/ws/live-sessions?sessionId=" + sessionId + "&student=" + client.studentId));
+        }
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.get(i).webSocketSession = handshakes.get(i).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+        awaitConnections(sessionId, CLIENTS);
+
+        for (int questionIndex = 0; questionIndex < questionCount; questionIndex++) {
+            liveSessionCoordinator.nextQuestion(sessionId, TEACHER_ID);
+            assertThat(accepted[questionIndex].await(TIMEOUT_SECONDS, TimeUnit.SECONDS))
+                    .as("answers accepted for question %d", questionIndex).isTrue();
+
+            Map<String, Long> answerCounts = liveSessionCoordinator.closeQuestion(sessionId, TEACHER_ID).answerCounts();
+            for (int option = 0; option < OPTIONS.size(); option++) {
+                assertThat(answerCounts).containsEntry(OPTIONS.get(option), (long) chosenBy(option));
+            }
+        }
+        liveSessionCoordinator.endSession(sessionId, TEACHER_ID);
+        assertThat(ended.await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+
+        for (Client client : clients) {
+            assertThat(client.received).extracting(LiveSessionEventDTO::type).containsExactly(
+                    LiveSessionEventDTO.QUESTION, LiveSessionEventDTO.ANSWER_ACCEPTED, LiveSessionEventDTO.QUESTION_CLOSED,
+                    LiveSessionEventDTO.QUESTION, LiveSessionEventDTO.ANSWER_ACCEPTED, LiveSessionEventDTO.QUESTION_CLOSED,
+                    LiveSessionEventDTO.SESSION_ENDED);
+            LiveSessionEventDTO result = client.received.get(6);
+            assertThat(result.score()).as("score of student %d", client.studentId).isEqualTo(client.expectedScore());
+            assertThat(result.maxPossibleScore()).isEqualTo(questionCount);
+        }
+
+        ArgumentCaptor<List<StudentResponse>> responses = ArgumentCaptor.forClass(List.class);
+        verify(studentResponseJdbcRepository).insertBatch(responses.capture());
+        assertThat(responses.getValue()).hasSize(CLIENTS * questionCount);
+        ArgumentCaptor<Iterable<QuizAttempt>> attempts = ArgumentCaptor.forClass(Iterable.class);
+        verify(quizAttemptRepository).saveAll(attempts.capture());
+        assertThat(attempts.getValue()).hasSize(CLIENTS);
+    }
+
+    @Test
+    void lateClientIsSentTheOpenQuestionAndSecondAnswersAreRefused() throws Exception {
+        Long sessionId = liveSessionCoordinator.createSession(TEACHER_ID, QUIZ_BANK_ID, null).id();
+        liveSessionCoordinator.nextQuestion(sessionId, TEACHER_ID);
+        CountDownLatch[] accepted = {new CountDownLatch(1), new CountDownLatch(1)};
+        Client client = new Client(1000L, accepted, new CountDownLatch(1));
+        clients.add(client);
+
+        client.webSocketSession = new StandardWebSocketClient().execute(client,
+                "ws://localhost:" + port + "/ws/live-sessions?sessionId=" + sessionId + "&student=" + client.studentId)
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertThat(accepted[0].await(TIMEOUT_SECONDS, TimeUnit.SECONDS)).isTrue();
+        client.send(100L, "B");
+        client.awaitMessages(3);
+
+        assertThat(client.received).extracting(LiveSessionEventDTO::type).containsExactly(
+                LiveSessionEventDTO.QUESTION, LiveSessionEventDTO.ANSWER_ACCEPTED, LiveSessionEventDTO.ERROR);
+        assertThat(client.received.get(2).message()).isEqualTo("Question already answered");
+    }
+
+    private void awaitConnections(Long sessionId, int count) throws InterruptedException {
+        // The client handshake can complete before the server has registered the connection
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+        LiveSessionDTO session = liveSessionCoordinator.getSession(sessionId);
+        while (session.connectionCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            session = liveSessionCoordinator.getSession(sessionId);
+        }
+        assertThat(session.connectionCount()).isEqualTo(count);
+    }
+
+    /**
+     * Clients choose option {@code studentId % 3}, so each option is chosen by about a third of them.
+     */
+    private static int chosenBy(int option) {
+        int chosen = 0;
+        for (int i = 0; i < CLIENTS; i++) {
+            if ((1000 + i) % OPTIONS.size() == option) {
+                chosen++;
+            }
+        }
+        return chosen;
+    }
+
+    /**
+     * A student that answers each question as soon as it is received.
+     */
+    private class Client extends TextWebSocketHandler {
+
+        final Long studentId;
+        final CountDownLatch[] accepted;
+        final CountDownLatch ended;
+        final List<LiveSessionEventDTO> received = new CopyOnWriteArrayList<>();
+        volatile WebSocketSession webSocketSession;
+
+        Client(Long studentId, CountDownLatch[] accepted, CountDownLatch ended) {
+            this.studentId = studentId;
+            this.accepted = accepted;
+            this.ended = ended;
+        }
+
+        @Override
+        protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+            LiveSessionEventDTO event = objectMapper.readValue(message.getPayload(), LiveSessionEventDTO.class);
+            received.add(event);
+            switch (event.type()) {
+                case LiveSessionEventDTO.QUESTION -> {
+                    webSocketSession = session;
+                    send(event.questionId(), event.options().get((int) (studentId % event.options().size())));
+                }
+                case LiveSessionEventDTO.ANSWER_ACCEPTED -> accepted[event.questionId() == 100L ? 0 : 1].countDown();
+                case LiveSessionEventDTO.SESSION_ENDED -> ended.countDown();
+                default -> {
+                }
+            }
+        }
+
+        void send(Long questionId, String selectedAnswer) throws Exception {
+            Map<String, Object> answer = Map.of("type", "ANSWER", "questionId", questionId, "selectedAnswer", selectedAnswer);
+            synchronized (this) {
+                webSocketSession.sendMessage(new TextMessage(objectMapper.writeValueAsString(answer)));
+            }
+        }
+
+        void awaitMessages(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (received.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+        }
+
+        /**
+         * Question 100 is answered A and question 101 B.
+         */
+        int expectedScore() {
+            int option = (int) (studentId % OPTIONS.size());
+            return (option == 0 ? 1 : 0) + (option == 1 ? 1 : 0);
+        }
+    }
+
+    @Configuration
+    @EnableWebSocket
+    @ImportAutoConfiguration({ServletWebServerFactoryAutoConfiguration.class, DispatcherServletAutoConfiguration.class,
+            WebSocketServletAutoConfiguration.class})
+    static class HarnessConfiguration {
+
+        @Bean
+        UserRepository userRepository() {
+            UserRepository userRepository = mock(UserRepository.class);
+            when(userRepository.findByUsername(anyString())).thenAnswer(invocation ->
+                    User.builder().id(Long.valueOf(invocation.<String>getArgument(0))).build());
+            return userRepository;
+        }
+
+        @Bean
+        QuizAttemptRepository quizAttemptRepository() {
+            return mock(QuizAttemptRepository.class);
+        }
+
+        @Bean
+        StudentResponseJdbcRepository studentResponseJdbcRepository() {
+            return mock(StudentResponseJdbcRepository.class);
+        }
+
+        @Bean
+        LiveSessionCoordinator liveSessionCoordinator(QuizAttemptRepository quizAttemptRepository,
+                                                      StudentResponseJdbcRepository studentResponseJdbcRepository,
+                                                      UserRepository userRepository) {
+            QuizBankRepository quizBankRepository = mock(QuizBankRepository.class);
+            when(quizBankRepository.findById(QUIZ_BANK_ID))
+                    .thenReturn(Optional.of(QuizBank.builder().id(QUIZ_BANK_ID).title("Bank").build()));
+            QuestionService questionService = mock(QuestionService.class);
+            when(questionService.getQuestionsByQuizBankId(QUIZ_BANK_ID)).thenReturn(List.of(
+                    new QuestionDTO(100L, QUIZ_BANK_ID, "Question 100", QuestionType.MULTIPLE_CHOICE, OPTIONS, "A", null, List.of()),
+                    new QuestionDTO(101L, QUIZ_BANK_ID, "Question 101", QuestionType.MULTIPLE_CHOICE, OPTIONS, "B", null, List.of())));
+            return new LiveSessionCoordinator(quizBankRepository, quizAttemptRepository, mock(QuestionRepository.class),
+                    userRepository, studentResponseJdbcRepository, questionService, mock(ItemAnalyticsService.class),
+                    new GradingEngine(List.of(new ExactMatchGraderFactory()), new ObjectMapper()), new ObjectMapper(),
+                    10, 8, 5000, 65536);
+        }
+
+        @Bean
+        LiveSessionSocketHandler liveSessionSocketHandler(LiveSessionCoordinator liveSessionCoordinator,
+                                                          UserRepository userRepository) {
+            return new LiveSessionSocketHandler(liveSessionCoordinator, userRepository, new ObjectMapper());
+        }
+
+        @Bean
+        WebSocketConfigurer harnessWebSocketConfigurer(LiveSessionSocketHandler liveSessionSocketHandler) {
+            return registry -> registry.addHandler(liveSessionSocketHandler, "/ws/live-sessions")
+                    .setHandshakeHandler(new DefaultHandshakeHandler() {
+                        @Override
+                        protected Principal determineUser(ServerHttpRequest request, WebSocketHandler wsHandler,
+                                                          Map<String, Object> attributes) {
+                            String student = UriComponentsBuilder.fromUri(request.getURI()).build()
+                                    .getQueryParams().getFirst("student");
+                            return () -> student;
+                        }
+                    });
+        }
+    }
+}
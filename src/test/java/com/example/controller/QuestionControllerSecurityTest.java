@@ -0,0 +1,67 @@
+package com.example.controller;
+
+import com.example.dto.RegradeJobDTO;
+import com.example.service.QuestionImportService;
+import com.example.service.QuestionService;
+import com.example.service.RegradeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig({ControllerSecurityTestConfiguration.class, QuestionController.class})
+class QuestionControllerSecurityTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @MockitoBean
+    private QuestionService questionService;
+
+    @MockitoBean
+    private RegradeService regradeService;
+
+    @MockitoBean
+    private QuestionImportService questionImportService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    void studentCannotStartOrFollowARegrade() throws Exception {
+        mockMvc.perform(post("/api/questions/1/regrade").with(user("student").roles("STUDENT")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/questions/1/regrade").with(user("student").roles("STUDENT")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/questions/regrade-jobs/1").with(user("student").roles("STUDENT")))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(regradeService);
+    }
+
+    @Test
+    void teacherCanStartARegrade() throws Exception {
+        when(regradeService.startRegrade(1L)).thenReturn(
+                new RegradeJobDTO(1L, 1L, "QUEUED", 0L, 0L, null, null, null, null));
+
+        mockMvc.perform(post("/api/questions/1/regrade").with(user("teacher").roles("TEACHER")))
+                .andExpect(status().isAccepted());
+        verify(regradeService).startRegrade(1L);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.controller;
+
+import com.example.service.ItemAnalyticsService;
+import com.example.service.QuestionExportService;
+import com.example.service.QuizBankService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig({ControllerSecurityTestConfiguration.class, QuizBankController.class})
+class QuizBankControllerSecurityTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @MockitoBean
+    private QuizBankService quizBankService;
+
+    @MockitoBean
+    private ItemAnalyticsService itemAnalyticsService;
+
+    @MockitoBean
+    private QuestionExportService questionExportService;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    @Test
+    void studentCannotStartAnalyticsBackfill() throws Exception {
+        mockMvc.perform(post("/api/quiz-banks/1/analytics/backfill").with(user("student").roles("STUDENT")))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(itemAnalyticsService);
+    }
+
+    @Test
+    void teacherCanStartAnalyticsBackfill() throws Exception {
+        mockMvc.perform(post("/api/quiz-banks/1/analytics/backfill").with(user("teacher").roles("TEACHER")))
+                .andExpect(status().isAccepted());
+        verify(itemAnalyticsService).startBackfill(1L);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.controller;
+
+import com.example.dto.BlueprintSectionDTO;
+import com.example.dto.PaperPoolDTO;
+import com.example.model.QuestionDifficulty;
+import com.example.repository.UserRepository;
+import com.example.service.QuizAttemptService;
+import com.example.service.QuizBlueprintService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig({ControllerSecurityTestConfiguration.class, QuizController.class})
+class QuizControllerSecurityTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @MockitoBean
+    private QuizAttemptService quizAttemptService;
+
+    @MockitoBean
+    private QuizBlueprintService quizBlueprintService;
+
+    @MockitoBean
+    private UserRepository userRepository;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).apply(springSecurity()).build();
+    }
+
+    static Stream<Arguments> teacherEndpoints() {
+        return Stream.of(
+                Arguments.of("monitor stream", get("/api/quizzes/learning-item/1/monitor")
+                        .accept(MediaType.TEXT_EVENT_STREAM)),
+                Arguments.of("generate paper pool", post("/api/quizzes/learning-item/1/paper-pool")),
+                Arguments.of("get paper pool", get("/api/quizzes/learning-item/1/paper-pool")),
+                Arguments.of("clear paper pool", delete("/api/quizzes/learning-item/1/paper-pool")),
+                Arguments.of("set blueprint", put("/api/quizzes/learning-item/1/blueprint")
+                        .contentType(MediaType.APPLICATION_JSON).content("[{\"difficulty\": \"EASY\", \"count\": 5}]")),
+                Arguments.of("clear blueprint", delete("/api/quizzes/learning-item/1/blueprint")));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("teacherEndpoints")
+    void studentIsForbidden(String name, MockHttpServletRequestBuilder request) throws Exception {
+        mockMvc.perform(request.with(user("student").roles("STUDENT")))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(quizAttemptService, quizBlueprintService);
+    }
+
+    @Test
+    void teacherCanOpenMonitorStream() throws Exception {
+        when(quizAttemptService.monitorLearningItem(1L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/quizzes/learning-item/1/monitor").with(user("teacher").roles("TEACHER"))
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isOk());
+        verify(quizAttemptService).monitorLearningItem(1L);
+    }
+
+    @Test
+    void teacherCanGeneratePaperPool() throws Exception {
+        when(quizAttemptService.generatePaperPool(1L, 10, 500))
+                .thenReturn(new PaperPoolDTO(1L, 2L, 10, 500, 500, LocalDateTime.now()));
+
+        mockMvc.perform(post("/api/quizzes/learning-item/1/paper-pool").with(user("teacher").roles("TEACHER")))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void teacherCanSetBlueprint() throws Exception {
+        List<BlueprintSectionDTO> blueprint = List.of(new BlueprintSectionDTO(QuestionDifficulty.EASY, List.of(), 5));
+        when(quizBlueprintService.setBlueprint(1L, blueprint)).thenReturn(blueprint);
+
+        mockMvc.perform(put("/api/quizzes/learning-item/1/blueprint").with(user("teacher").roles("TEACHER"))
+                        .contentType(MediaType.APPLICATION_JSON).content("[{\"difficulty\": \"EASY\", \"count\": 5}]"))
+                .andExpect(status().isOk());
+        verify(quizBlueprintService).setBlueprint(1L, blueprint);
+    }
+
+    @Test
+    void studentCanReadBlueprint() throws Exception {
+        when(quizBlueprintService.getBlueprint(1L)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/quizzes/learning-item/1/blueprint").with(user("student").roles("STUDENT")))
+                .andExpect(status().isOk());
+    }
+}
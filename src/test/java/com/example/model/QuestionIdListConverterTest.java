@@ -0,0 +1,41 @@
+package com.example.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuestionIdListConverterTest {
+
+    private final QuestionIdListConverter converter = new QuestionIdListConverter();
+
+    @Test
+    void idsRoundTripInTheirOriginalOrder() {
+        long[] questionIds = {500L, 3L, 501L, 499L, 1_000_000_000_000L, 1L, Long.MAX_VALUE, 0L, Long.MIN_VALUE, -7L};
+
+        assertThat(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(questionIds)))
+                .containsExactly(questionIds);
+    }
+
+    @Test
+    void nearbyIdsTakeOneByteEach() {
+        long[] questionIds = new long[100];
+        for (int i = 0; i < questionIds.length; i++) {
+            // Shuffled within blocks of 20, as a sampled paper of one bank would be
+            questionIds[i] = 1_000_000L + i / 20 * 20 + i * 7 % 20;
+        }
+
+        byte[] encoded = converter.convertToDatabaseColumn(questionIds);
+
+        // The first id is a delta from zero; the others are within 63 of the previous one
+        assertThat(encoded).hasSize(3 + 99);
+        assertThat(converter.convertToEntityAttribute(encoded)).containsExactly(questionIds);
+    }
+
+    @Test
+    void emptyAndNullListsAreKept() {
+        assertThat(converter.convertToDatabaseColumn(new long[0])).isEmpty();
+        assertThat(converter.convertToEntityAttribute(new byte[0])).isEmpty();
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+}
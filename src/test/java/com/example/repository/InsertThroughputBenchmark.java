@@ -0,0 +1,139 @@
+package com.example.repository;
+
+import com.example.model.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures insert throughput (rows per second) of the write paths the application uses: quiz
+ * attempts and learning items persisted through JPA batches with pooled sequence ids, and student
+ * responses through {@link StudentResponseJdbcRepository#insertBatch}.
+ * <p>
+ * Needs a disposable PostgreSQL database, so it is not part of the regular test run. Point
+ * SUPABASE_DB_URL, SUPABASE_DB_USER and SUPABASE_DB_PASSWORD at one and run
+ * {@code mvn test -Dtest=InsertThroughputBenchmark}. Every run is rolled back.
+ */
+@SpringBootTest
+@Transactional
+class InsertThroughputBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(InsertThroughputBenchmark.class);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Autowired
+    private StudentResponseJdbcRepository studentResponseJdbcRepository;
+
+    @Value("${benchmark.insert.rows:10000}")
+    private int rows;
+
+    @Test
+    void quizAttemptsAndResponses() {
+        User student = User.builder()
+                .name("Benchmark")
+                .username("benchmark-" + System.nanoTime())
+                .userRole(UserRole.STUDENT)
+                .build();
+        entityManager.persist(student);
+
+        QuizBank quizBank = QuizBank.builder()
+                .title("Benchmark bank")
+                .createdBy(student)
+                .creationDate(LocalDateTime.now())
+                .active(true)
+                .build();
+        entityManager.persist(quizBank);
+
+        // An attempt answers each question at most once, so rows are spread over attempts x questions
+        int questionCount = (int) Math.ceil(Math.sqrt(rows));
+        List<Question> questions = new ArrayList<>(questionCount);
+        for (int i = 0; i < questionCount; i++) {
+            Question question = Question.builder()
+                    .quizBank(quizBank)
+                    .questionText("Benchmark question " + i)
+                    .questionType(QuestionType.MULTIPLE_CHOICE)
+                    .options("[\"A\",\"B\"]")
+                    .correctAnswer("A")
+                    .build();
+            entityManager.persist(question);
+            questions.add(question);
+        }
+        entityManager.flush();
+
+        int attemptCount = (rows + questionCount - 1) / questionCount;
+        List<QuizAttempt> attempts = new ArrayList<>(attemptCount);
+        for (int i = 0; i < attemptCount; i++) {
+            attempts.add(QuizAttempt.builder()
+                    .student(student)
+                    .quizBank(quizBank)
+                    .startTime(LocalDateTime.now())
+                    .endTime(LocalDateTime.now())
+                    .status(QuizAttemptStatus.COMPLETED)
+                    .build());
+        }
+        long start = System.nanoTime();
+        quizAttemptRepository.saveAll(attempts);
+        quizAttemptRepository.flush();
+        report("QuizAttempt (JPA)", attempts.size(), start);
+
+        List<StudentResponse> responses = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            responses.add(StudentResponse.builder()
+                    .quizAttempt(attempts.get(i / questionCount))
+                    .question(questions.get(i % questionCount))
+                    .selectedAnswer(i % 2 == 0 ? "A" : "B")
+                    .isCorrect(i % 2 == 0)
+                    .pointsEarned(i % 2 == 0 ? 1 : 0)
+                    .build());
+        }
+        start = System.nanoTime();
+        int inserted = studentResponseJdbcRepository.insertBatch(responses);
+        report("StudentResponse (JDBC unnest)", inserted, start);
+    }
+
+    @Test
+    void learningItems() {
+        Week week = new Week();
+        week.setTitle("Benchmark week");
+        week.setWeekNumber(1);
+        entityManager.persist(week);
+        entityManager.flush();
+
+        List<LearningItem> learningItems = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            learningItems.add(LearningItem.builder()
+                    .title("Benchmark item " + i)
+                    .type(LearningItemType.DOCUMENT)
+                    .orderIndex(i)
+                    .week(week)
+                    .build());
+        }
+        long start = System.nanoTime();
+        for (LearningItem learningItem : learningItems) {
+            entityManager.persist(learningItem);
+        }
+        entityManager.flush();
+        report("LearningItem (JPA)", learningItems.size(), start);
+    }
+
+    private void report(String writePath, int rowCount, long start) {
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        entityManager.clear();
+        logger.info("{}: inserted {} rows in {} ms ({} rows/s)",
+                writePath, rowCount, Math.round(seconds * 1000), Math.round(rowCount / seconds));
+    }
+}
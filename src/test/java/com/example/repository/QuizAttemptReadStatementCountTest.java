@@ -0,0 +1,124 @@
+package com.example.repository;
+
+import com.example.dto.QuizAttemptDTO;
+import com.example.dto.StudentResponseDTO;
+import com.example.model.LearningItem;
+import com.example.model.LearningItemType;
+import com.example.model.Question;
+import com.example.model.QuestionType;
+import com.example.model.QuizAttempt;
+import com.example.model.QuizAttemptStatus;
+import com.example.model.QuizBank;
+import com.example.model.StudentResponse;
+import com.example.model.User;
+import com.example.model.UserRole;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements behind the quiz attempt read endpoints on an in-memory database: each
+ * must stay constant however many attempts or responses it returns.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.sql.init.mode=never"
+})
+class QuizAttemptReadStatementCountTest {
+
+    private static final int ATTEMPTS = 500;
+    private static final int RESPONSES = 50;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private QuizAttemptRepository quizAttemptRepository;
+
+    @Autowired
+    private StudentResponseRepository studentResponseRepository;
+
+    private Long studentId;
+    private Long answeredAttemptId;
+
+    @BeforeEach
+    void setUp() {
+        User student = User.builder().name("Student").username("student").userRole(UserRole.STUDENT).build();
+        QuizBank quizBank = QuizBank.builder().title("Bank").active(true).build();
+        LearningItem learningItem = LearningItem.builder().title("Quiz").type(LearningItemType.QUIZ).quizBank(quizBank).build();
+        entityManager.persist(student);
+        entityManager.persist(quizBank);
+        entityManager.persist(learningItem);
+
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        QuizAttempt answered = null;
+        for (int i = 0; i < ATTEMPTS; i++) {
+            QuizAttempt quizAttempt = QuizAttempt.builder()
+                    .student(student)
+                    .quizBank(quizBank)
+                    .learningItem(learningItem)
+                    .startTime(start.plusMinutes(i))
+                    .endTime(start.plusMinutes(i + 30))
+                    .totalScore(i % 10)
+                    .maxPossibleScore(10)
+                    .status(QuizAttemptStatus.COMPLETED)
+                    .build();
+            entityManager.persist(quizAttempt);
+            answered = quizAttempt;
+        }
+        for (int i = 0; i < RESPONSES; i++) {
+            Question question = Question.builder().quizBank(quizBank).questionText("Question " + i)
+                    .questionType(QuestionType.MULTIPLE_CHOICE).correctAnswer("A").build();
+            entityManager.persist(question);
+            entityManager.persist(StudentResponse.builder().quizAttempt(answered).question(question)
+                    .selectedAnswer("A").isCorrect(true).pointsEarned(1).build());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        studentId = student.getId();
+        answeredAttemptId = answered.getId();
+        statistics().clear();
+    }
+
+    @Test
+    void attemptsOfAStudentAreReadWithOneStatement() {
+        List<QuizAttemptDTO> attempts = quizAttemptRepository.findDTOsByStudentId(studentId);
+
+        assertThat(attempts).hasSize(ATTEMPTS);
+        assertThat(attempts.get(0).quizBankTitle()).isEqualTo("Bank");
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void attemptDetailsAreReadWithOneStatement() {
+        assertThat(quizAttemptRepository.findDTOById(answeredAttemptId)).isPresent();
+
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void resultsAreReadWithTwoStatements() {
+        assertThat(quizAttemptRepository.findResultHeaderById(answeredAttemptId)).isPresent();
+        List<StudentResponseDTO> responses = studentResponseRepository.findResponseDTOsByQuizAttemptId(answeredAttemptId);
+
+        assertThat(responses).hasSize(RESPONSES);
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private Statistics statistics() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+}
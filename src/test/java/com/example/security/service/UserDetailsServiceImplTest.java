@@ -0,0 +1,29 @@
+package com.example.security.service;
+
+import com.example.model.UserRole;
+import com.example.security.dto.AuthenticatedUserDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserDetailsServiceImplTest {
+
+    @Test
+    void grantsRoleAsPrefixedAuthority() {
+        AuthenticatedUserDto teacher = new AuthenticatedUserDto();
+        teacher.setUsername("teacher");
+        teacher.setPassword("secret");
+        teacher.setUserRole(UserRole.TEACHER);
+        teacher.setEmailVerified(true);
+        UserService userService = mock(UserService.class);
+        when(userService.findAuthenticatedUserByUsername("teacher")).thenReturn(teacher);
+
+        UserDetails user = new UserDetailsServiceImpl(userService).loadUserByUsername("teacher");
+
+        assertThat(user.getAuthorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_TEACHER");
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActiveAttemptRegistryTest {
+
+    private final ActiveAttemptRegistry activeAttemptRegistry = new ActiveAttemptRegistry();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void claimBecomesTheAttemptWhenTheStartCommits() {
+        TransactionSynchronizationManager.initSynchronization();
+        activeAttemptRegistry.reserve(1L, 2L).orElseThrow().bind(10L);
+
+        assertThat(activeAttemptRegistry.get(1L, 2L)).isEqualTo(ActiveAttemptRegistry.STARTING);
+        assertThat(activeAttemptRegistry.reserve(1L, 2L)).isEmpty();
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(activeAttemptRegistry.get(1L, 2L)).isEqualTo(10L);
+        assertThat(activeAttemptRegistry.reserve(1L, 2L)).isEmpty();
+    }
+
+    @Test
+    void claimIsDroppedWhenTheStartRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        activeAttemptRegistry.reserve(1L, 2L).orElseThrow().bind(10L);
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(activeAttemptRegistry.get(1L, 2L)).isNull();
+        assertThat(activeAttemptRegistry.reserve(1L, 2L)).isPresent();
+    }
+
+    @Test
+    void pairIsFreedOnlyWhenTheCompletionCommits() {
+        activeAttemptRegistry.reserve(1L, 2L).orElseThrow().bind(10L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        activeAttemptRegistry.release(1L, 2L, 10L);
+        assertThat(activeAttemptRegistry.get(1L, 2L)).isEqualTo(10L);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertThat(activeAttemptRegistry.get(1L, 2L)).isEqualTo(10L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        activeAttemptRegistry.release(1L, 2L, 10L);
+        commit();
+        assertThat(activeAttemptRegistry.get(1L, 2L)).isNull();
+    }
+
+    @Test
+    void onlyTheStaleAttemptCanBeReplaced() {
+        activeAttemptRegistry.reserve(1L, 2L).orElseThrow().bind(10L);
+
+        assertThat(activeAttemptRegistry.reserveReplacing(1L, 2L, 9L)).isEmpty();
+        assertThat(activeAttemptRegistry.reserveReplacing(1L, 2L, 10L)).isPresent();
+        assertThat(activeAttemptRegistry.reserveReplacing(1L, 2L, 10L)).isEmpty();
+        assertThat(activeAttemptRegistry.get(1L, 2L)).isEqualTo(ActiveAttemptRegistry.STARTING);
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
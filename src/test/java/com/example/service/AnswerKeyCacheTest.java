@@ -0,0 +1,129 @@
+package com.example.service;
+
+import com.example.model.QuestionType;
+import com.example.repository.QuestionRepository;
+import com.example.service.AnswerKeyCache.AnswerKey;
+import com.example.service.grading.ExactMatchGraderFactory;
+import com.example.service.grading.GradingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnswerKeyCacheTest {
+
+    private QuestionRepository questionRepository;
+    private AnswerKeyCache answerKeyCache;
+
+    @BeforeEach
+    void setUp() {
+        questionRepository = mock(QuestionRepository.class);
+        when(questionRepository.findAnswerKeyRowsByQuizBankId(anyLong())).thenAnswer(invocation -> rows());
+        answerKeyCache = new AnswerKeyCache(questionRepository,
+                new GradingEngine(List.of(new ExactMatchGraderFactory()), new ObjectMapper()),
+                new SimpleMeterRegistry(), 2);
+    }
+
+    @Test
+    void concurrentMissesLoadTheBankOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(questionRepository.findAnswerKeyRowsByQuizBankId(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return rows();
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AnswerKey>> lookups = new ArrayList<>();
+            lookups.add(executor.submit(() -> answerKeyCache.get(1L)));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 7; i++) {
+                lookups.add(executor.submit(() -> answerKeyCache.get(1L)));
+            }
+            release.countDown();
+
+            AnswerKey first = lookups.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<AnswerKey> lookup : lookups) {
+                assertThat(lookup.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(questionRepository, times(1)).findAnswerKeyRowsByQuizBankId(1L);
+    }
+
+    @Test
+    void invalidationDuringLoadOnlyAffectsItsBank() {
+        when(questionRepository.findAnswerKeyRowsByQuizBankId(1L)).thenAnswer(invocation -> {
+            // Another bank is invalidated while this one loads, then this one itself
+            answerKeyCache.invalidate(2L);
+            answerKeyCache.get(3L);
+            answerKeyCache.invalidate(1L);
+            return rows();
+        }).thenAnswer(invocation -> rows());
+
+        answerKeyCache.get(1L);
+        answerKeyCache.get(1L);
+        answerKeyCache.get(1L);
+        answerKeyCache.get(3L);
+
+        verify(questionRepository, times(2)).findAnswerKeyRowsByQuizBankId(1L);
+        verify(questionRepository, times(1)).findAnswerKeyRowsByQuizBankId(3L);
+        assertThat(answerKeyCache.version(1L)).isEqualTo(1);
+        assertThat(answerKeyCache.version(2L)).isEqualTo(1);
+        assertThat(answerKeyCache.version(3L)).isZero();
+    }
+
+    @Test
+    void failedLoadIsRetried() {
+        when(questionRepository.findAnswerKeyRowsByQuizBankId(1L))
+                .thenThrow(new IllegalStateException("connection lost"))
+                .thenAnswer(invocation -> rows());
+
+        assertThatThrownBy(() -> answerKeyCache.get(1L))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(answerKeyCache.get(1L).size()).isEqualTo(2);
+    }
+
+    @Test
+    void leastRecentlyUsedBankIsEvicted() throws InterruptedException {
+        answerKeyCache.get(1L);
+        Thread.sleep(1);
+        answerKeyCache.get(2L);
+        Thread.sleep(1);
+        answerKeyCache.get(1L);
+        Thread.sleep(1);
+        answerKeyCache.get(3L);
+
+        assertThat(answerKeyCache.size()).isEqualTo(2);
+        answerKeyCache.get(1L);
+        answerKeyCache.get(2L);
+        verify(questionRepository, times(1)).findAnswerKeyRowsByQuizBankId(1L);
+        verify(questionRepository, times(2)).findAnswerKeyRowsByQuizBankId(2L);
+    }
+
+    private static List<Object[]> rows() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{10L, "A", "First", null, null, QuestionType.MULTIPLE_CHOICE, "[\"A\",\"B\"]"});
+        rows.add(new Object[]{11L, "B", "Second", null, null, QuestionType.MULTIPLE_CHOICE, "[\"A\",\"B\"]"});
+        return rows;
+    }
+}
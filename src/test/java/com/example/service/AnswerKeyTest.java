@@ -0,0 +1,70 @@
+package com.example.service;
+
+import com.example.model.QuestionDifficulty;
+import com.example.model.QuestionType;
+import com.example.service.AnswerKeyCache.AnswerKey;
+import com.example.service.grading.ExactMatchGraderFactory;
+import com.example.service.grading.GradingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnswerKeyTest {
+
+    private final AnswerKey answerKey = AnswerKey.of(List.of(
+            row(10L, QuestionDifficulty.EASY, "algebra"),
+            row(20L, QuestionDifficulty.HARD, "algebra,geometry"),
+            row(30L, null, "geometry"),
+            row(40L, QuestionDifficulty.HARD, null),
+            row(50L, QuestionDifficulty.EASY, "geometry,statistics"),
+            row(60L, null, null)
+    ), new GradingEngine(List.of(new ExactMatchGraderFactory()), new ObjectMapper()));
+
+    @Test
+    void questionsAreFoundBySlot() {
+        assertThat(answerKey.size()).isEqualTo(6);
+        assertThat(answerKey.indexOf(40L)).isEqualTo(3);
+        assertThat(answerKey.questionIdAt(3)).isEqualTo(40L);
+        assertThat(answerKey.indexOf(45L)).isEqualTo(-1);
+    }
+
+    @Test
+    void emptySectionMatchesTheWholeBank() {
+        assertThat(questionIds(answerKey.slotsMatching(null, List.of()))).containsExactly(10L, 20L, 30L, 40L, 50L, 60L);
+    }
+
+    @Test
+    void difficultyAndTagStrataAreSorted() {
+        assertThat(questionIds(answerKey.slotsMatching(QuestionDifficulty.HARD, List.of()))).containsExactly(20L, 40L);
+        assertThat(questionIds(answerKey.slotsMatching(null, List.of("geometry")))).containsExactly(20L, 30L, 50L);
+        assertThat(questionIds(answerKey.slotsMatching(QuestionDifficulty.EASY, List.of("geometry")))).containsExactly(50L);
+        assertThat(answerKey.slotsMatching(QuestionDifficulty.MEDIUM, List.of())).isEmpty();
+        assertThat(answerKey.slotsMatching(null, List.of("calculus"))).isEmpty();
+    }
+
+    @Test
+    void severalTagsMatchTheUnionOfTheirStrataOnce() {
+        assertThat(questionIds(answerKey.slotsMatching(null, List.of("statistics", "algebra", "calculus"))))
+                .containsExactly(10L, 20L, 50L);
+        assertThat(questionIds(answerKey.slotsMatching(QuestionDifficulty.HARD, List.of("algebra", "geometry"))))
+                .containsExactly(20L);
+        assertThat(questionIds(answerKey.slotsMatching(QuestionDifficulty.EASY, List.of("geometry", "algebra"))))
+                .containsExactly(10L, 50L);
+    }
+
+    private List<Long> questionIds(int[] slots) {
+        List<Long> questionIds = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            questionIds.add(answerKey.questionIdAt(slot));
+        }
+        return questionIds;
+    }
+
+    private static Object[] row(long id, QuestionDifficulty difficulty, String tagsCsv) {
+        return new Object[]{id, "A", "Question " + id, difficulty, tagsCsv, QuestionType.MULTIPLE_CHOICE, "[\"A\",\"B\"]"};
+    }
+}
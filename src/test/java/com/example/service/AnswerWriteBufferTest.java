@@ -0,0 +1,165 @@
+package com.example.service;
+
+import com.example.model.Question;
+import com.example.model.QuizAttempt;
+import com.example.model.StudentResponse;
+import com.example.repository.QuestionRepository;
+import com.example.repository.QuizAttemptRepository;
+import com.example.repository.StudentResponseJdbcRepository;
+import com.example.repository.StudentResponseRepository;
+import com.example.service.AnswerWriteBuffer.PendingAnswer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnswerWriteBufferTest {
+
+    private static final Long QUIZ_ATTEMPT_ID = 7L;
+
+    private StudentResponseRepository studentResponseRepository;
+    private StudentResponseJdbcRepository studentResponseJdbcRepository;
+    private QuizAttemptRepository quizAttemptRepository;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        studentResponseRepository = mock(StudentResponseRepository.class);
+        studentResponseJdbcRepository = mock(StudentResponseJdbcRepository.class);
+        quizAttemptRepository = mock(QuizAttemptRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        when(quizAttemptRepository.getReferenceById(anyLong()))
+                .thenAnswer(invocation -> QuizAttempt.builder().id(invocation.getArgument(0)).build());
+        when(studentResponseJdbcRepository.insertIgnoringAnswered(anyLong(), anyList())).thenAnswer(invocation -> {
+            Map<Long, Long> insertedIds = new HashMap<>();
+            for (StudentResponse response : invocation.<List<StudentResponse>>getArgument(1)) {
+                insertedIds.put(response.getQuestion().getId(), 1000 + response.getQuestion().getId());
+            }
+            return insertedIds;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void restartRebuildsAnsweredQuestionsFromFlushedRows() {
+        AnswerWriteBuffer beforeCrash = buffer(10);
+        beforeCrash.submit(QUIZ_ATTEMPT_ID, List.of(answer(1L)));
+        beforeCrash.flushAll();
+        beforeCrash.submit(QUIZ_ATTEMPT_ID, List.of(answer(2L)));
+
+        // The node dies before question 2 is flushed; only question 1 was written
+        when(studentResponseRepository.findAnsweredQuestionIdsByQuizAttemptId(QUIZ_ATTEMPT_ID)).thenReturn(Set.of(1L));
+        AnswerWriteBuffer afterRestart = buffer(10);
+
+        assertThat(afterRestart.answeredQuestionIds(QUIZ_ATTEMPT_ID)).containsExactly(1L);
+        assertThatThrownBy(() -> afterRestart.submit(QUIZ_ATTEMPT_ID, List.of(answer(1L))))
+                .isInstanceOf(IllegalArgumentException.class);
+        afterRestart.submit(QUIZ_ATTEMPT_ID, List.of(answer(2L)));
+        assertThat(afterRestart.answeredQuestionIds(QUIZ_ATTEMPT_ID)).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void failedFlushReleasesItsQuestionsForResubmission() {
+        AnswerWriteBuffer answerWriteBuffer = buffer(10);
+        answerWriteBuffer.submit(QUIZ_ATTEMPT_ID, List.of(answer(1L), answer(2L)));
+        when(studentResponseJdbcRepository.insertIgnoringAnswered(anyLong(), anyList()))
+                .thenThrow(new IllegalStateException("connection lost"));
+
+        answerWriteBuffer.flushAll();
+
+        assertThat(answerWriteBuffer.answeredQuestionIds(QUIZ_ATTEMPT_ID)).isEmpty();
+    }
+
+    @Test
+    void inlineFlushRunsInItsOwnTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        AnswerWriteBuffer answerWriteBuffer = buffer(2);
+
+        answerWriteBuffer.submit(QUIZ_ATTEMPT_ID, List.of(answer(1L), answer(2L)));
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().getPropagationBehavior()).isEqualTo(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        verify(quizAttemptRepository).incrementCounters(QUIZ_ATTEMPT_ID, 2, 2, 2);
+
+        // The flushed answers were committed, so a rollback of the request keeps them answered
+        rollBack();
+        assertThat(answerWriteBuffer.answeredQuestionIds(QUIZ_ATTEMPT_ID)).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rolledBackRequestWithdrawsItsPendingAnswers() {
+        AnswerWriteBuffer answerWriteBuffer = buffer(10);
+        answerWriteBuffer.submit(QUIZ_ATTEMPT_ID, List.of(answer(1L)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        answerWriteBuffer.submit(QUIZ_ATTEMPT_ID, List.of(answer(2L)));
+        rollBack();
+        answerWriteBuffer.flushAll();
+
+        assertThat(answerWriteBuffer.answeredQuestionIds(QUIZ_ATTEMPT_ID)).containsExactly(1L);
+        ArgumentCaptor<List<StudentResponse>> written = ArgumentCaptor.forClass(List.class);
+        verify(studentResponseJdbcRepository).insertIgnoringAnswered(eq(QUIZ_ATTEMPT_ID), written.capture());
+        assertThat(written.getValue()).extracting(response -> response.getQuestion().getId()).containsExactly(1L);
+    }
+
+    @Test
+    void questionRepeatedWithinOneSubmissionIsRejected() {
+        AnswerWriteBuffer answerWriteBuffer = buffer(10);
+
+        assertThatThrownBy(() -> answerWriteBuffer.submit(QUIZ_ATTEMPT_ID, List.of(answer(1L), answer(1L))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Question 1 already answered");
+        answerWriteBuffer.flushAll();
+
+        assertThat(answerWriteBuffer.answeredQuestionIds(QUIZ_ATTEMPT_ID)).isEmpty();
+        verify(studentResponseJdbcRepository, never()).insertIgnoringAnswered(anyLong(), anyList());
+    }
+
+    private AnswerWriteBuffer buffer(int maxPendingPerAttempt) {
+        QuestionRepository questionRepository = mock(QuestionRepository.class);
+        when(questionRepository.getReferenceById(anyLong()))
+                .thenAnswer(invocation -> Question.builder().id(invocation.getArgument(0)).build());
+        return new AnswerWriteBuffer(studentResponseRepository, studentResponseJdbcRepository, quizAttemptRepository,
+                questionRepository, transactionManager, true, maxPendingPerAttempt, 600_000);
+    }
+
+    private static PendingAnswer answer(Long questionId) {
+        return new PendingAnswer(QUIZ_ATTEMPT_ID, questionId, "A", true, 1);
+    }
+
+    private static void rollBack() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.service;
+
+import com.example.dto.QuestionAnalyticsDTO;
+import com.example.model.QuestionType;
+import com.example.repository.QuestionRepository;
+import com.example.repository.QuizBankRepository;
+import com.example.service.ItemAnalyticsService.CompletedAttempt;
+import com.example.service.ItemAnalyticsService.GradedAnswer;
+import com.example.service.grading.ExactMatchGraderFactory;
+import com.example.service.grading.GradingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class ItemAnalyticsServiceTest {
+
+    private static final Long QUIZ_BANK_ID = 1L;
+
+    private JdbcTemplate jdbcTemplate;
+    private ItemAnalyticsService itemAnalyticsService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.getDataSource()).thenReturn(mock(DataSource.class));
+        QuizBankRepository quizBankRepository = mock(QuizBankRepository.class);
+        when(quizBankRepository.existsById(QUIZ_BANK_ID)).thenReturn(true);
+        QuestionRepository questionRepository = mock(QuestionRepository.class);
+        when(questionRepository.findAnswerKeyRowsByQuizBankId(QUIZ_BANK_ID)).thenReturn(List.of(
+                new Object[]{10L, "A", "First", null, null, QuestionType.MULTIPLE_CHOICE, "[\"A\",\"B\"]"},
+                new Object[]{11L, "B", "Second", null, null, QuestionType.MULTIPLE_CHOICE, "[\"A\",\"B\"]"},
+                new Object[]{12L, "A|C", "Third", null, null, QuestionType.MULTI_SELECT, "[\"A\",\"B\",\"C\"]"},
+                new Object[]{13L, "Paris", "Fourth", null, null, QuestionType.SHORT_ANSWER, null}));
+        AnswerKeyCache answerKeyCache = new AnswerKeyCache(questionRepository,
+                new GradingEngine(List.of(new ExactMatchGraderFactory()), new ObjectMapper()),
+                new SimpleMeterRegistry(), 16);
+
+        itemAnalyticsService = new ItemAnalyticsService(jdbcTemplate, quizBankRepository, answerKeyCache,
+                new ObjectMapper(), mock(PlatformTransactionManager.class), 2);
+    }
+
+    @Test
+    void completionUsesOutcomesRecordedWhileAnswering() {
+        itemAnalyticsService.recordResponses(QUIZ_BANK_ID, 100L, List.of(new GradedAnswer(10L, "A", true)));
+        itemAnalyticsService.recordResponses(QUIZ_BANK_ID, 100L, List.of(new GradedAnswer(11L, "B", true)));
+        itemAnalyticsService.recordResponses(QUIZ_BANK_ID, 101L, List.of(new GradedAnswer(10L, "B", false),
+                new GradedAnswer(11L, "A", false)));
+        itemAnalyticsService.recordCompletion(QUIZ_BANK_ID, 100L, 2, 2);
+        itemAnalyticsService.recordCompletion(QUIZ_BANK_ID, 101L, 0, 2);
+
+        QuestionAnalyticsDTO first = itemAnalyticsService.getAnalytics(QUIZ_BANK_ID).questions().get(0);
+        assertThat(first.responseCount()).isEqualTo(2);
+        assertThat(first.difficulty()).isEqualTo(0.5);
+        assertThat(first.scoredAttemptCount()).isEqualTo(2);
+        assertThat(first.discrimination()).isEqualTo(1.0);
+
+        // Only the bank's persisted statistics are read, never the attempts' responses
+        verify(jdbcTemplate).getDataSource();
+        verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(QUIZ_BANK_ID));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void completionIsCountedOnce() {
+        itemAnalyticsService.recordResponses(QUIZ_BANK_ID, 100L, List.of(new GradedAnswer(10L, "A", true)));
+        itemAnalyticsService.recordCompletion(QUIZ_BANK_ID, 100L, 1, 1);
+        itemAnalyticsService.recordCompletion(QUIZ_BANK_ID, 100L, 1, 1);
+
+        assertThat(itemAnalyticsService.getAnalytics(QUIZ_BANK_ID).questions().get(0).scoredAttemptCount()).isEqualTo(1);
+    }
+
+    @Test
+    void oldestOpenAttemptIsDroppedOverTheLimit() {
+        itemAnalyticsService.recordResponses(QUIZ_BANK_ID, 100L, List.of(new GradedAnswer(10L, "A", true)));
+        itemAnalyticsService.recordResponses(QUIZ_BANK_ID, 101L, List.of(new GradedAnswer(10L, "A", true)));
+        itemAnalyticsService.recordResponses(QUIZ_BANK_ID, 102L, List.of(new GradedAnswer(10L, "B", false)));
+        itemAnalyticsService.recordCompletion(QUIZ_BANK_ID, 100L, 1, 1);
+        itemAnalyticsService.recordCompletion(QUIZ_BANK_ID, 101L, 1, 1);
+        itemAnalyticsService.recordCompletion(QUIZ_BANK_ID, 102L, 0, 1);
+
+        QuestionAnalyticsDTO first = itemAnalyticsService.getAnalytics(QUIZ_BANK_ID).questions().get(0);
+        assertThat(first.responseCount()).isEqualTo(3);
+        assertThat(first.scoredAttemptCount()).isEqualTo(2);
+    }
+
+    @Test
+    void completedAttemptsAreCountedDirectly() {
+        itemAnalyticsService.recordCompletedAttempts(QUIZ_BANK_ID, List.of(
+                new CompletedAttempt(List.of(new GradedAnswer(10L, "A", true), new GradedAnswer(11L, "B", true)), 2, 2),
+                new CompletedAttempt(List.of(new GradedAnswer(10L, "B", false)), 0, 2)));
+
+        List<QuestionAnalyticsDTO> questions = itemAnalyticsService.getAnalytics(QUIZ_BANK_ID).questions();
+        assertThat(questions.get(0).scoredAttemptCount()).isEqualTo(2);
+        assertThat(questions.get(0).answerFrequencies()).containsEntry("A", 1L).containsEntry("B", 1L);
+        assertThat(questions.get(1).scoredAttemptCount()).isEqualTo(1);
+    }
+
+    @Test
+    void optionAnswersOutsideTheOptionsAreCountedAsOther() {
+        itemAnalyticsService.recordCompletedAttempts(QUIZ_BANK_ID, List.of(new CompletedAttempt(List.of(
+                new GradedAnswer(10L, " A ", true),
+                new GradedAnswer(10L, "Z", false),
+                new GradedAnswer(12L, "C | A", true),
+                new GradedAnswer(12L, "A|Y|X", false),
+                new GradedAnswer(99L, "A", false)), 2, 5)));
+
+        List<QuestionAnalyticsDTO> questions = itemAnalyticsService.getAnalytics(QUIZ_BANK_ID).questions();
+        assertThat(questions.get(0).answerFrequencies()).isEqualTo(Map.of("A", 1L, "OTHER", 1L));
+        assertThat(questions.get(2).answerFrequencies()).isEqualTo(Map.of("A", 2L, "C", 1L, "OTHER", 1L));
+    }
+
+    @Test
+    void freeTextAnswersAreCappedPerQuestion() {
+        List<GradedAnswer> answers = new ArrayList<>();
+        for (int i = 0; i < ItemAnalyticsService.MAX_FREE_TEXT_ANSWERS * 3; i++) {
+            answers.add(new GradedAnswer(13L, "answer " + i, false));
+        }
+        answers.add(new GradedAnswer(13L, "answer 0", false));
+        itemAnalyticsService.recordCompletedAttempts(QUIZ_BANK_ID, List.of(new CompletedAttempt(answers, 0, 1)));
+
+        Map<String, Long> frequencies = itemAnalyticsService.getAnalytics(QUIZ_BANK_ID).questions().get(3)
+                .answerFrequencies();
+        assertThat(frequencies).hasSize(ItemAnalyticsService.MAX_FREE_TEXT_ANSWERS + 1).containsKey("OTHER");
+        assertThat(frequencies).containsEntry("answer 0", 2L);
+        assertThat(frequencies.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(answers.size());
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.service;
+
+import com.example.dto.LiveQuestionTallyDTO;
+import com.example.dto.LiveSessionDTO;
+import com.example.dto.QuestionDTO;
+import com.example.model.QuestionType;
+import com.example.model.QuizBank;
+import com.example.repository.QuestionRepository;
+import com.example.repository.QuizAttemptRepository;
+import com.example.repository.QuizBankRepository;
+import com.example.repository.StudentResponseJdbcRepository;
+import com.example.repository.UserRepository;
+import com.example.service.grading.ExactMatchGraderFactory;
+import com.example.service.grading.GradingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LiveSessionCoordinatorTest {
+
+    private static final Long TEACHER_ID = 1L;
+    private static final Long QUIZ_BANK_ID = 10L;
+
+    private LiveSessionCoordinator coordinator;
+    private Long sessionId;
+
+    @BeforeEach
+    void setUp() {
+        QuizBankRepository quizBankRepository = mock(QuizBankRepository.class);
+        QuestionService questionService = mock(QuestionService.class);
+        when(quizBankRepository.findById(QUIZ_BANK_ID))
+                .thenReturn(Optional.of(QuizBank.builder().id(QUIZ_BANK_ID).title("Bank").build()));
+        when(questionService.getQuestionsByQuizBankId(QUIZ_BANK_ID)).thenReturn(List.of(
+                question(100L, "A"),
+                question(101L, "B")));
+
+        coordinator = new LiveSessionCoordinator(quizBankRepository, mock(QuizAttemptRepository.class),
+                mock(QuestionRepository.class), mock(UserRepository.class), mock(StudentResponseJdbcRepository.class),
+                questionService, mock(ItemAnalyticsService.class),
+                new GradingEngine(List.of(new ExactMatchGraderFactory()), new ObjectMapper()), new ObjectMapper(),
+                10, 1, 5000, 65536);
+        LiveSessionDTO session = coordinator.createSession(TEACHER_ID, QUIZ_BANK_ID, null);
+        sessionId = session.id();
+    }
+
+    @AfterEach
+    void tearDown() {
+        coordinator.shutdown();
+    }
+
+    @Test
+    void tallyOfOpenQuestionIsRefused() {
+        coordinator.nextQuestion(sessionId, TEACHER_ID);
+        coordinator.answer(sessionId, 1000L, 100L, "A");
+
+        assertThatThrownBy(() -> coordinator.getTally(sessionId, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("still open");
+    }
+
+    @Test
+    void tallyOfClosedQuestionIncludesCorrectAnswer() {
+        coordinator.nextQuestion(sessionId, TEACHER_ID);
+        coordinator.answer(sessionId, 1000L, 100L, "A");
+        coordinator.answer(sessionId, 1001L, 100L, "B");
+        coordinator.closeQuestion(sessionId, TEACHER_ID);
+
+        LiveQuestionTallyDTO tally = coordinator.getTally(sessionId, 0);
+
+        assertThat(tally.correctAnswer()).isEqualTo("A");
+        assertThat(tally.answerCounts()).containsEntry("A", 1L).containsEntry("B", 1L);
+        assertThat(tally.correctCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void previousQuestionTallyIsAvailableWhileNextIsOpen() {
+        coordinator.nextQuestion(sessionId, TEACHER_ID);
+        coordinator.answer(sessionId, 1000L, 100L, "A");
+        coordinator.nextQuestion(sessionId, TEACHER_ID);
+
+        assertThat(coordinator.getTally(sessionId, 0).answeredCount()).isEqualTo(1L);
+        assertThatThrownBy(() -> coordinator.getTally(sessionId, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void tallyOfQuestionNotAskedIsRefused() {
+        assertThatThrownBy(() -> coordinator.getTally(sessionId, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not been asked");
+    }
+
+    private static QuestionDTO question(Long id, String correctAnswer) {
+        return new QuestionDTO(id, QUIZ_BANK_ID, "Question " + id, QuestionType.MULTIPLE_CHOICE,
+                List.of("A", "B", "C"), correctAnswer, null, List.of());
+    }
+}
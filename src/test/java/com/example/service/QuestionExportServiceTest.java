@@ -0,0 +1,144 @@
+package com.example.service;
+
+import com.example.dto.QuestionImportResultDTO;
+import com.example.model.Question;
+import com.example.model.QuestionDifficulty;
+import com.example.model.QuestionType;
+import com.example.repository.QuestionJdbcRepository;
+import com.example.repository.QuestionRepository;
+import com.example.repository.QuizBankRepository;
+import com.example.service.grading.ExactMatchGraderFactory;
+import com.example.service.grading.GradingEngine;
+import com.example.service.grading.MultiSelectGraderFactory;
+import com.example.service.grading.NumericGraderFactory;
+import com.example.service.grading.ShortAnswerGraderFactory;
+import com.example.service.grading.TrueFalseGraderFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuestionExportServiceTest {
+
+    private static final Long QUIZ_BANK_ID = 3L;
+
+    private final List<Question> questions = List.of(
+            question(1L, "Which pipe is a logical OR?", QuestionType.MULTIPLE_CHOICE, "[\"a|b\",\"a&b\"]", "a|b",
+                    QuestionDifficulty.HARD, "logic,week-1"),
+            question(2L, "What is 2+2?", QuestionType.MULTIPLE_CHOICE, "[\"3\",\"4\",\"5\"]", "4", null, null),
+            question(3L, "\"Paris\" is the capital of France, true?", QuestionType.TRUE_FALSE, "[]", "true",
+                    QuestionDifficulty.EASY, "geography"),
+            question(4L, "g in m/s²", QuestionType.NUMERIC, "[]", "9.81±0.05", null, "physics"),
+            question(5L, "Pick the primes", QuestionType.MULTI_SELECT, "[\"2\",\"3\",\"4\"]", "2|3",
+                    QuestionDifficulty.MEDIUM, "arithmetic,primes"));
+
+    private EntityManager entityManager;
+    private QuestionExportService questionExportService;
+
+    @BeforeEach
+    void setUp() {
+        QuestionRepository questionRepository = mock(QuestionRepository.class);
+        when(questionRepository.streamByQuizBankId(QUIZ_BANK_ID)).thenAnswer(invocation -> questions.stream());
+        entityManager = mock(EntityManager.class);
+        questionExportService = new QuestionExportService(mock(QuizBankRepository.class), questionRepository, new ObjectMapper());
+        ReflectionTestUtils.setField(questionExportService, "entityManager", entityManager);
+    }
+
+    @ParameterizedTest
+    @EnumSource(QuestionFileFormat.class)
+    void exportedFileImportsBackUnchanged(QuestionFileFormat format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertThat(questionExportService.export(QUIZ_BANK_ID, format, false, out)).isEqualTo(questions.size());
+
+        List<Question> imported = new ArrayList<>();
+        QuestionImportResultDTO result = importService(imported)
+                .importQuestions(QUIZ_BANK_ID, new ByteArrayInputStream(out.toByteArray()), format);
+        assertThat(result.failedCount()).isZero();
+        assertThat(imported).usingRecursiveFieldByFieldElementComparatorIgnoringFields("id", "quizBank")
+                .containsExactlyElementsOf(questions);
+        // Each question is detached once written, so the persistence context stays empty
+        verify(entityManager, times(questions.size())).detach(any());
+    }
+
+    @Test
+    void csvKeepsOptionsContainingThePipeAsAJsonArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        questionExportService.export(QUIZ_BANK_ID, QuestionFileFormat.CSV, false, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines.get(0)).isEqualTo("id,questionText,questionType,options,correctAnswer,difficulty,tags");
+        assertThat(lines.get(1)).isEqualTo(
+                "1,\"Which pipe is a logical OR?\",MULTIPLE_CHOICE,\"[\"\"a|b\"\",\"\"a&b\"\"]\",a|b,HARD,logic|week-1");
+        assertThat(lines.get(2)).isEqualTo("2,\"What is 2+2?\",MULTIPLE_CHOICE,3|4|5,4,,");
+    }
+
+    @ParameterizedTest
+    @EnumSource(QuestionFileFormat.class)
+    void gzipOutputDecompressesToThePlainExport(QuestionFileFormat format) throws IOException {
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        questionExportService.export(QUIZ_BANK_ID, format, false, plain);
+        assertThat(questionExportService.export(QUIZ_BANK_ID, format, true, compressed)).isEqualTo(questions.size());
+
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain.toByteArray());
+        }
+    }
+
+    /**
+     * Import service that collects the questions it would insert.
+     */
+    private static QuestionImportService importService(List<Question> imported) {
+        QuizBankRepository quizBankRepository = mock(QuizBankRepository.class);
+        when(quizBankRepository.existsById(QUIZ_BANK_ID)).thenReturn(true);
+        QuestionJdbcRepository questionJdbcRepository = mock(QuestionJdbcRepository.class);
+        AtomicLong ids = new AtomicLong();
+        when(questionJdbcRepository.insertAll(eq(QUIZ_BANK_ID), anyList())).thenAnswer(invocation -> {
+            List<Question> chunk = invocation.getArgument(1);
+            imported.addAll(chunk);
+            Map<Long, String> inserted = new LinkedHashMap<>();
+            chunk.forEach(question -> inserted.put(ids.incrementAndGet(), question.getQuestionText()));
+            return inserted;
+        });
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        GradingEngine gradingEngine = new GradingEngine(List.of(new ExactMatchGraderFactory(), new TrueFalseGraderFactory(),
+                new MultiSelectGraderFactory(), new NumericGraderFactory(), new ShortAnswerGraderFactory()), new ObjectMapper());
+        return new QuestionImportService(quizBankRepository, questionJdbcRepository, mock(AnswerKeyCache.class),
+                mock(QuestionTextIndex.class), gradingEngine, new ObjectMapper(), transactionManager, 2, 10);
+    }
+
+    private static Question question(Long id, String text, QuestionType questionType, String options, String correctAnswer,
+                                     QuestionDifficulty difficulty, String tags) {
+        return Question.builder().id(id).questionText(text).questionType(questionType).options(options)
+                .correctAnswer(correctAnswer).difficulty(difficulty).tags(tags).build();
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.service;
+
+import com.example.dto.QuestionImportResultDTO;
+import com.example.model.Question;
+import com.example.model.QuestionDifficulty;
+import com.example.repository.QuestionJdbcRepository;
+import com.example.repository.QuizBankRepository;
+import com.example.service.grading.ExactMatchGraderFactory;
+import com.example.service.grading.GradingEngine;
+import com.example.service.grading.MultiSelectGraderFactory;
+import com.example.service.grading.NumericGraderFactory;
+import com.example.service.grading.ShortAnswerGraderFactory;
+import com.example.service.grading.TrueFalseGraderFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuestionImportServiceTest {
+
+    private static final Long QUIZ_BANK_ID = 3L;
+    private static final String CSV_HEADER = "questionText,questionType,options,correctAnswer,difficulty,tags\n";
+
+    private QuestionJdbcRepository questionJdbcRepository;
+    private AnswerKeyCache answerKeyCache;
+    private QuestionTextIndex questionTextIndex;
+    private List<List<Question>> insertedChunks;
+
+    @BeforeEach
+    void setUp() {
+        questionJdbcRepository = mock(QuestionJdbcRepository.class);
+        answerKeyCache = mock(AnswerKeyCache.class);
+        questionTextIndex = mock(QuestionTextIndex.class);
+        insertedChunks = new ArrayList<>();
+        AtomicLong ids = new AtomicLong();
+        when(questionJdbcRepository.insertAll(eq(QUIZ_BANK_ID), anyList())).thenAnswer(invocation -> {
+            List<Question> chunk = invocation.getArgument(1);
+            insertedChunks.add(List.copyOf(chunk));
+            Map<Long, String> inserted = new LinkedHashMap<>();
+            chunk.forEach(question -> inserted.put(ids.incrementAndGet(), question.getQuestionText()));
+            return inserted;
+        });
+    }
+
+    @Test
+    void csvRowsAreInsertedInChunks() throws IOException {
+        String csv = CSV_HEADER
+                + "What is 2+2?,MULTIPLE_CHOICE,3|4|5,4,easy,arithmetic|week-1\n"
+                + "\"Capital of France, the country?\",MULTIPLE_CHOICE,\"[\"\"Paris\"\",\"\"Lyon\"\"]\",Paris,,\n"
+                + "The earth is flat,TRUE_FALSE,,false,,\n"
+                + "g in m/s²,NUMERIC,,9.81±0.05,HARD,\n"
+                + "Pick the primes,MULTI_SELECT,2|3|4,2|3,,\n";
+
+        QuestionImportResultDTO result = service(2, 100).importQuestions(QUIZ_BANK_ID, stream(csv), QuestionFileFormat.CSV);
+
+        assertThat(result.importedCount()).isEqualTo(5);
+        assertThat(result.failedCount()).isZero();
+        assertThat(insertedChunks).extracting(List::size).containsExactly(2, 2, 1);
+        Question first = insertedChunks.get(0).get(0);
+        assertThat(first.getOptions()).isEqualTo("[\"3\",\"4\",\"5\"]");
+        assertThat(first.getDifficulty()).isEqualTo(QuestionDifficulty.EASY);
+        assertThat(first.getTags()).isEqualTo("arithmetic,week-1");
+        assertThat(insertedChunks.get(0).get(1).getQuestionText()).isEqualTo("Capital of France, the country?");
+        assertThat(insertedChunks.get(0).get(1).getOptions()).isEqualTo("[\"Paris\",\"Lyon\"]");
+        verify(questionTextIndex, times(5)).index(anyLong(), eq(QUIZ_BANK_ID), any());
+        verify(answerKeyCache).invalidate(QUIZ_BANK_ID);
+    }
+
+    @Test
+    void invalidRowsAreSkippedAndReportedByRowNumber() throws IOException {
+        String jsonLines = """
+                {"questionText": "Valid", "questionType": "TRUE_FALSE", "correctAnswer": "true"}
+                {"questionText": "Unknown type", "questionType": "ESSAY", "correctAnswer": "x"}
+
+                not json
+                {"questionText": "Options", "questionType": "MULTIPLE_CHOICE", "options": "A|B", "correctAnswer": "A"}
+                {"questionText": "Bad number", "questionType": "NUMERIC", "correctAnswer": "0x10"}
+                {"questionText": "Also valid", "questionType": "SHORT_ANSWER", "correctAnswer": "Hanoi", "tags": ["geo"]}
+                """;
+
+        QuestionImportResultDTO result = service(10, 3).importQuestions(QUIZ_BANK_ID, stream(jsonLines), QuestionFileFormat.JSONL);
+
+        assertThat(result.importedCount()).isEqualTo(2);
+        assertThat(result.failedCount()).isEqualTo(4);
+        // Blank lines count as rows, so the numbers match the file's line numbers
+        assertThat(result.errors()).extracting(error -> error.row()).containsExactly(2L, 4L, 5L);
+        assertThat(result.errors().get(0).message()).isEqualTo("Unknown question type: ESSAY");
+        assertThat(result.errors().get(1).message()).startsWith("Malformed JSON");
+        assertThat(result.errors().get(2).message()).isEqualTo("Options must be a JSON array");
+        assertThat(insertedChunks).singleElement().satisfies(chunk -> assertThat(chunk)
+                .extracting(Question::getQuestionText).containsExactly("Valid", "Also valid"));
+    }
+
+    @Test
+    void unreadableFileStopsTheImportAndKeepsCommittedChunks() {
+        String csv = CSV_HEADER
+                + "First,TRUE_FALSE,,true,,\n"
+                + "Second,TRUE_FALSE,,true,,\n"
+                + "Third,TRUE_FALSE,,true,,\n"
+                + "Fourth,TRUE_FALSE,,true,,,,extra,columns\n";
+
+        assertThatThrownBy(() -> service(2, 100).importQuestions(QUIZ_BANK_ID, stream(csv), QuestionFileFormat.CSV))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Unreadable file after row 3 (2 questions already imported)");
+
+        assertThat(insertedChunks).extracting(List::size).containsExactly(2);
+        verify(answerKeyCache).invalidate(QUIZ_BANK_ID);
+    }
+
+    @Test
+    void largeUploadIsStreamedOneChunkAtATime() throws IOException {
+        int rows = 50_000;
+        Enumeration<InputStream> lines = new Enumeration<>() {
+            private int row = -1;
+
+            @Override
+            public boolean hasMoreElements() {
+                return row < rows;
+            }
+
+            @Override
+            public InputStream nextElement() {
+                row++;
+                return stream(row == 0 ? CSV_HEADER : "Question " + row + ",MULTIPLE_CHOICE,A|B|C|D,A,,\n");
+            }
+        };
+
+        QuestionImportResultDTO result = service(1000, 100)
+                .importQuestions(QUIZ_BANK_ID, new SequenceInputStream(lines), QuestionFileFormat.CSV);
+
+        assertThat(result.importedCount()).isEqualTo(rows);
+        assertThat(insertedChunks).hasSize(rows / 1000).allSatisfy(chunk -> assertThat(chunk).hasSize(1000));
+    }
+
+    @Test
+    void unknownQuizBankIsRejectedBeforeReading() {
+        QuizBankRepository quizBankRepository = mock(QuizBankRepository.class);
+        QuestionImportService questionImportService = new QuestionImportService(quizBankRepository, questionJdbcRepository,
+                answerKeyCache, questionTextIndex, gradingEngine(), new ObjectMapper(), transactionManager(), 10, 10);
+
+        assertThatThrownBy(() -> questionImportService.importQuestions(QUIZ_BANK_ID, stream(CSV_HEADER), QuestionFileFormat.CSV))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Quiz bank not found");
+        verify(answerKeyCache, never()).invalidate(any());
+    }
+
+    private QuestionImportService service(int chunkSize, int maxReportedErrors) {
+        QuizBankRepository quizBankRepository = mock(QuizBankRepository.class);
+        when(quizBankRepository.existsById(QUIZ_BANK_ID)).thenReturn(true);
+        return new QuestionImportService(quizBankRepository, questionJdbcRepository, answerKeyCache, questionTextIndex,
+                gradingEngine(), new ObjectMapper(), transactionManager(), chunkSize, maxReportedErrors);
+    }
+
+    private static GradingEngine gradingEngine() {
+        return new GradingEngine(List.of(new ExactMatchGraderFactory(), new TrueFalseGraderFactory(),
+                new MultiSelectGraderFactory(), new NumericGraderFactory(), new ShortAnswerGraderFactory()),
+                new ObjectMapper());
+    }
+
+    private static PlatformTransactionManager transactionManager() {
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        return transactionManager;
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.service;
+
+import com.example.dto.QuestionDTO;
+import com.example.model.Question;
+import com.example.model.QuestionType;
+import com.example.model.QuizBank;
+import com.example.repository.QuestionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Measures mapping a quiz bank of {@value #QUESTIONS} questions to DTOs through
+ * {@link QuestionService#getQuestionsByQuizBankId}, with the options cache disabled (every question's
+ * options JSON is parsed, as before the cache) and enabled. Not part of the regular test run: run
+ * {@code mvn test -Dtest=QuestionMappingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuestionMappingBenchmark {
+
+    private static final Long QUIZ_BANK_ID = 1L;
+    private static final int QUESTIONS = 200;
+
+    /**
+     * 0 evicts every entry as soon as it is added, so each mapping parses the JSON.
+     */
+    @Param({"0", "50000"})
+    public int optionsCacheEntries;
+
+    private QuestionService questionService;
+
+    @Setup
+    public void setUp() {
+        QuizBank quizBank = QuizBank.builder().id(QUIZ_BANK_ID).title("Bank").build();
+        List<Question> questions = new ArrayList<>(QUESTIONS);
+        for (long id = 1; id <= QUESTIONS; id++) {
+            questions.add(Question.builder()
+                    .id(id)
+                    .quizBank(quizBank)
+                    .questionText("Question " + id)
+                    .questionType(QuestionType.MULTIPLE_CHOICE)
+                    .options("[\"Option A of " + id + "\",\"Option B of " + id + "\",\"Option C of " + id
+                            + "\",\"Option D of " + id + "\"]")
+                    .correctAnswer("Option A of " + id)
+                    .tags("algebra,week-" + id % 12)
+                    .build());
+        }
+        // Stub-only, so invocations are not recorded over millions of calls
+        QuestionRepository questionRepository = mock(QuestionRepository.class, withSettings().stubOnly());
+        when(questionRepository.findByQuizBankId(QUIZ_BANK_ID)).thenReturn(questions);
+
+        questionService = new QuestionService();
+        ReflectionTestUtils.setField(questionService, "questionRepository", questionRepository);
+        ReflectionTestUtils.setField(questionService, "questionOptionsCache",
+                new QuestionOptionsCache(new ObjectMapper(), optionsCacheEntries));
+    }
+
+    @Benchmark
+    public List<QuestionDTO> mapQuizBank() {
+        return questionService.getQuestionsByQuizBankId(QUIZ_BANK_ID);
+    }
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder().include(QuestionMappingBenchmark.class.getName()).build()).run();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new QuestionMappingBenchmark().run();
+    }
+}
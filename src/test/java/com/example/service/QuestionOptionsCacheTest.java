@@ -0,0 +1,60 @@
+package com.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QuestionOptionsCacheTest {
+
+    private static final String OPTIONS = "[\"A\",\"B\",\"C\"]";
+
+    private final QuestionOptionsCache questionOptionsCache = new QuestionOptionsCache(new ObjectMapper(), 2);
+
+    @Test
+    void unchangedOptionsAreParsedOnce() {
+        List<String> options = questionOptionsCache.get(1L, OPTIONS);
+
+        assertThat(options).containsExactly("A", "B", "C");
+        assertThat(questionOptionsCache.get(1L, new String(OPTIONS))).isSameAs(options);
+        assertThatThrownBy(() -> options.add("D")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void editedOptionsAreParsedAgain() {
+        List<String> options = questionOptionsCache.get(1L, OPTIONS);
+
+        assertThat(questionOptionsCache.get(1L, "[\"A\",\"D\"]")).containsExactly("A", "D");
+        assertThat(questionOptionsCache.get(1L, OPTIONS)).isNotSameAs(options).isEqualTo(options);
+    }
+
+    @Test
+    void invalidatedQuestionIsParsedAgain() {
+        List<String> options = questionOptionsCache.get(1L, OPTIONS);
+
+        questionOptionsCache.invalidate(1L);
+
+        assertThat(questionOptionsCache.get(1L, OPTIONS)).isNotSameAs(options);
+    }
+
+    @Test
+    void leastRecentlyUsedQuestionIsEvicted() {
+        List<String> first = questionOptionsCache.get(1L, OPTIONS);
+        List<String> second = questionOptionsCache.get(2L, OPTIONS);
+        questionOptionsCache.get(1L, OPTIONS);
+        questionOptionsCache.get(3L, OPTIONS);
+
+        assertThat(questionOptionsCache.get(1L, OPTIONS)).isSameAs(first);
+        assertThat(questionOptionsCache.get(2L, OPTIONS)).isNotSameAs(second);
+    }
+
+    @Test
+    void missingOrInvalidOptionsAreEmpty() {
+        assertThat(questionOptionsCache.get(1L, null)).isEmpty();
+        assertThat(questionOptionsCache.get(2L, "not json")).isEmpty();
+        assertThat(questionOptionsCache.get(null, OPTIONS)).containsExactly("A", "B", "C");
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.service;
+
+import com.example.dto.BlueprintSectionDTO;
+import com.example.model.QuestionDifficulty;
+import com.example.model.QuestionType;
+import com.example.service.AnswerKeyCache.AnswerKey;
+import com.example.service.grading.ExactMatchGraderFactory;
+import com.example.service.grading.GradingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuestionSamplerTest {
+
+    private static final int BANK_SIZE = 100;
+
+    private final AnswerKey answerKey = bank();
+
+    @Test
+    void sameSeedDrawsTheSamePaper() {
+        long[] first = QuestionSampler.sample(answerKey, 20, 42L);
+        long[] second = QuestionSampler.sample(answerKey, 20, 42L);
+
+        assertThat(second).containsExactly(first);
+        assertThat(QuestionSampler.sample(answerKey, 20, 43L)).isNotEqualTo(first);
+    }
+
+    @Test
+    void paperHasDistinctQuestionsOfTheBank() {
+        long[] sampled = QuestionSampler.sample(answerKey, 30, 7L);
+
+        assertThat(sampled).hasSize(30).doesNotHaveDuplicates();
+        assertThat(ids(sampled)).allSatisfy(id -> assertThat(id).isBetween(1L, (long) BANK_SIZE));
+    }
+
+    @Test
+    void countIsBoundedByTheBank() {
+        assertThat(QuestionSampler.sample(answerKey, BANK_SIZE + 5, 1L)).hasSize(BANK_SIZE).doesNotHaveDuplicates();
+        assertThat(QuestionSampler.sample(answerKey, 0, 1L)).isEmpty();
+        assertThat(QuestionSampler.sample(answerKey, -3, 1L)).isEmpty();
+    }
+
+    @Test
+    void blueprintSectionsDrawFromTheirStrataWithoutRepeats() {
+        List<BlueprintSectionDTO> blueprint = List.of(
+                new BlueprintSectionDTO(QuestionDifficulty.HARD, List.of(), 5),
+                new BlueprintSectionDTO(null, List.of("Algebra"), 10));
+
+        long[] sampled = QuestionSampler.sample(answerKey, blueprint, 99L);
+
+        assertThat(sampled).hasSize(15).doesNotHaveDuplicates();
+        assertThat(ids(sampled).subList(0, 5)).allSatisfy(id -> assertThat(id % 3).isEqualTo(2));
+        assertThat(ids(sampled).subList(5, 15)).allSatisfy(id -> assertThat(id % 2).isZero());
+        assertThat(QuestionSampler.sample(answerKey, blueprint, 99L)).containsExactly(sampled);
+    }
+
+    @Test
+    void sectionThatRunsOutIsServedShort() {
+        // Only 50 algebra questions exist, and the first section may already use some of them
+        List<BlueprintSectionDTO> blueprint = List.of(
+                new BlueprintSectionDTO(QuestionDifficulty.EASY, List.of("algebra"), 10),
+                new BlueprintSectionDTO(null, List.of("algebra"), 60));
+
+        long[] sampled = QuestionSampler.sample(answerKey, blueprint, 5L);
+
+        assertThat(sampled).hasSize(50).doesNotHaveDuplicates();
+    }
+
+    private static List<Long> ids(long[] questionIds) {
+        return Arrays.stream(questionIds).boxed().toList();
+    }
+
+    /**
+     * Questions 1..100: difficulty cycles EASY, MEDIUM, HARD by id % 3 = 0, 1, 2 and even ids are tagged algebra.
+     */
+    private static AnswerKey bank() {
+        List<Object[]> rows = new ArrayList<>();
+        QuestionDifficulty[] difficulties = {QuestionDifficulty.EASY, QuestionDifficulty.MEDIUM, QuestionDifficulty.HARD};
+        for (long id = 1; id <= BANK_SIZE; id++) {
+            rows.add(new Object[]{id, "A", "Question " + id, difficulties[(int) (id % 3)], id % 2 == 0 ? "algebra" : null,
+                    QuestionType.MULTIPLE_CHOICE, "[\"A\",\"B\"]"});
+        }
+        return AnswerKey.of(rows, new GradingEngine(List.of(new ExactMatchGraderFactory()), new ObjectMapper()));
+    }
+}
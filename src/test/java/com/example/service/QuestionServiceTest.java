@@ -0,0 +1,27 @@
+package com.example.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class QuestionServiceTest {
+
+    @Mock
+    private QuestionSampler questionSampler;
+    @InjectMocks
+    private QuestionService questionService;
+
+    @Test
+    void randomQuestionsRequireACount() {
+        assertThatThrownBy(() -> questionService.getRandomQuestionsByQuizBankId(1L, null, 42L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Question count must be specified");
+        verifyNoInteractions(questionSampler);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.service;
+
+import com.example.service.QuestionTextIndex.SimilarQuestion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuestionTextIndexTest {
+
+    private final DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:question-index;DB_CLOSE_DELAY=-1");
+    private final QuestionTextIndex questionTextIndex =
+            new QuestionTextIndex(new JdbcTemplate(dataSource), new DataSourceTransactionManager(dataSource));
+
+    @AfterEach
+    void tearDown() {
+        questionTextIndex.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        new JdbcTemplate(dataSource).execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void searchMatchesEveryWordIgnoringCaseAndDiacritics() {
+        questionTextIndex.index(1L, 10L, "Thủ đô của Việt Nam là gì?");
+        questionTextIndex.index(2L, 10L, "What drives photosynthesis in plants?");
+        questionTextIndex.index(3L, 10L, "Which plants grow in the desert?");
+
+        assertThat(questionTextIndex.search("THU DO viet", null, 10)).containsExactly(1L);
+        assertThat(questionTextIndex.search("synth plants", null, 10)).containsExactly(2L);
+        assertThat(questionTextIndex.search("plants", null, 10)).containsExactlyInAnyOrder(2L, 3L);
+        // Words shorter than a trigram only match whole words
+        assertThat(questionTextIndex.search("la", null, 10)).containsExactly(1L);
+        assertThat(questionTextIndex.search("in", null, 10)).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(questionTextIndex.search("plants ocean", null, 10)).isEmpty();
+        assertThat(questionTextIndex.search("  ?! ", null, 10)).isEmpty();
+    }
+
+    @Test
+    void exactWordsRankFirstThenShorterQuestions() {
+        questionTextIndex.index(1L, 10L, "Describe the cellular process that converts light into chemical energy");
+        questionTextIndex.index(2L, 10L, "Define energy");
+        questionTextIndex.index(3L, 10L, "Which energetic particles reach the earth?");
+        questionTextIndex.index(4L, 10L, "Kinetic energy of a falling body");
+
+        assertThat(questionTextIndex.search("energ", null, 10)).containsExactly(2L, 4L, 3L, 1L);
+        assertThat(questionTextIndex.search("energy", null, 10)).containsExactly(2L, 4L, 1L);
+        assertThat(questionTextIndex.search("energy", null, 2)).containsExactly(2L, 4L);
+    }
+
+    @Test
+    void searchCanBeRestrictedToOneBank() {
+        questionTextIndex.index(1L, 10L, "Newton's second law");
+        questionTextIndex.index(2L, 20L, "Newton's third law");
+        questionTextIndex.index(3L, null, "Newton's first law");
+
+        assertThat(questionTextIndex.search("newton law", 20L, 10)).containsExactly(2L);
+        assertThat(questionTextIndex.search("newton law", null, 10)).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    void editedAndRemovedQuestionsAreNoLongerFound() {
+        questionTextIndex.index(1L, 10L, "Boiling point of water");
+        questionTextIndex.index(1L, 10L, "Freezing point of water");
+        questionTextIndex.index(2L, 10L, "Boiling point of ethanol");
+        questionTextIndex.remove(2L);
+
+        assertThat(questionTextIndex.search("boiling", null, 10)).isEmpty();
+        assertThat(questionTextIndex.search("freezing water", null, 10)).containsExactly(1L);
+        assertThat(questionTextIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void resultsSurviveCompactionOfDeletedDocuments() {
+        for (long id = 1; id <= 3000; id++) {
+            questionTextIndex.index(id, 10L, "Question number " + id + " about " + (id % 2 == 0 ? "algebra" : "geometry"));
+        }
+        // More than 1024 deletions trigger a compaction of the postings
+        for (long id = 1; id <= 2000; id++) {
+            questionTextIndex.remove(id);
+        }
+
+        assertThat(questionTextIndex.size()).isEqualTo(1000);
+        assertThat(questionTextIndex.search("algebra", null, 1000)).hasSize(500).allSatisfy(id -> assertThat(id).isGreaterThan(2000L));
+        assertThat(questionTextIndex.search("number 2999", null, 10)).containsExactly(2999L);
+        assertThat(questionTextIndex.findSimilar("Question number 2500 about algebra", null, 0.9, 10))
+                .extracting(SimilarQuestion::questionId).contains(2500L);
+    }
+
+    @Test
+    void nearDuplicatesAreFoundAndTheComparedQuestionExcluded() {
+        questionTextIndex.index(1L, 10L, "Which gas do plants absorb from the atmosphere during photosynthesis?");
+        questionTextIndex.index(2L, 10L, "Name the longest river on the African continent.");
+
+        List<SimilarQuestion> similar = questionTextIndex.findSimilar(
+                "Which gas do plants absorb from the atmosphere in photosynthesis?", null, 0.5, 10);
+
+        assertThat(similar).singleElement().satisfies(match -> {
+            assertThat(match.questionId()).isEqualTo(1L);
+            assertThat(match.similarity()).isBetween(0.5, 1.0);
+        });
+        assertThat(questionTextIndex.findSimilar("Which gas do plants absorb from the atmosphere during photosynthesis?",
+                1L, 0.5, 10)).isEmpty();
+        assertThat(questionTextIndex.findSimilar("Name the longest river on the African continent.", null, 0.99, 10))
+                .extracting(SimilarQuestion::questionId).containsExactly(2L);
+    }
+
+    @Test
+    void changesWaitForTheirTransactionToCommit() {
+        questionTextIndex.index(1L, 10L, "Original question text");
+
+        TransactionSynchronizationManager.initSynchronization();
+        questionTextIndex.indexAfterCommit(2L, 10L, "Another question text");
+        questionTextIndex.removeAfterCommit(1L);
+        assertThat(questionTextIndex.search("question", null, 10)).containsExactly(1L);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(questionTextIndex.search("question", null, 10)).containsExactly(2L);
+    }
+
+    @Test
+    void rebuildReplacesTheIndexWithTheQuestionsTable() throws InterruptedException {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE questions (id BIGINT PRIMARY KEY, quiz_bank_id BIGINT, question_text VARCHAR(255))");
+        jdbcTemplate.update("INSERT INTO questions VALUES (1, 10, 'Stored question about algebra'), "
+                + "(2, NULL, 'Stored question about geometry')");
+        questionTextIndex.index(99L, 10L, "Question missed by the index");
+
+        questionTextIndex.scheduleRebuild();
+        for (int i = 0; i < 500 && questionTextIndex.size() != 2; i++) {
+            Thread.sleep(10);
+        }
+
+        assertThat(questionTextIndex.size()).isEqualTo(2);
+        assertThat(questionTextIndex.search("stored question", null, 10)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(questionTextIndex.search("missed", null, 10)).isEmpty();
+    }
+}
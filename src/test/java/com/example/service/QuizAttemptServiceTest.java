@@ -0,0 +1,195 @@
+package com.example.service;
+
+import com.example.dto.QuizAttemptDTO;
+import com.example.dto.QuizResultDTO;
+import com.example.dto.StudentResponseDTO;
+import com.example.model.LearningItem;
+import com.example.model.LearningItemType;
+import com.example.model.QuizAttempt;
+import com.example.model.QuizAttemptStatus;
+import com.example.model.QuizBank;
+import com.example.model.User;
+import com.example.repository.LearningItemRepository;
+import com.example.repository.QuizAttemptRepository;
+import com.example.repository.QuizResultSnapshotRepository;
+import com.example.repository.StudentResponseRepository;
+import com.example.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QuizAttemptServiceTest {
+
+    private static final Long STUDENT_ID = 5L;
+    private static final int THREADS = 16;
+
+    @Mock
+    private QuizAttemptRepository quizAttemptRepository;
+    @Mock
+    private StudentResponseRepository studentResponseRepository;
+    @Mock
+    private QuizResultSnapshotRepository quizResultSnapshotRepository;
+    @Mock
+    private AnswerWriteBuffer answerWriteBuffer;
+    @Mock
+    private ItemAnalyticsService itemAnalyticsService;
+    @Mock
+    private QuizLeaderboard quizLeaderboard;
+    @Mock
+    private QuizMonitorBroadcaster quizMonitorBroadcaster;
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private LearningItemRepository learningItemRepository;
+    @Spy
+    private ActiveAttemptRegistry activeAttemptRegistry = new ActiveAttemptRegistry();
+    @InjectMocks
+    private QuizAttemptService quizAttemptService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void expiredAttemptsStoreTheirResultsWhenCompleted() {
+        QuizAttempt expired = attempt(1L, LocalDateTime.now().minusMinutes(1));
+        QuizAttempt running = attempt(2L, LocalDateTime.now().plusMinutes(5));
+        when(quizAttemptRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(expired, running));
+        when(studentResponseRepository.findResponseDTOsByQuizAttemptIds(List.of(1L))).thenReturn(List.of(
+                new StudentResponseDTO(10L, 1L, 100L, "Question", "A", "A", true, 1)));
+
+        assertThat(quizAttemptService.completeExpiredAttempts(List.of(1L, 2L))).isEqualTo(1);
+
+        ArgumentCaptor<List<QuizResultDTO>> stored = ArgumentCaptor.forClass(List.class);
+        verify(quizResultSnapshotRepository).insertAllIfAbsent(stored.capture());
+        assertThat(stored.getValue()).singleElement().satisfies(result -> {
+            assertThat(result.quizAttemptId()).isEqualTo(1L);
+            assertThat(result.quizTitle()).isEqualTo("Bank");
+            assertThat(result.endTime()).isEqualTo(expired.getDeadline());
+            assertThat(result.totalScore()).isEqualTo(1);
+            assertThat(result.maxPossibleScore()).isEqualTo(2);
+            assertThat(result.percentageScore()).isEqualTo(50.0);
+            assertThat(result.responses()).hasSize(1);
+        });
+        assertThat(running.getStatus()).isEqualTo(QuizAttemptStatus.IN_PROGRESS);
+    }
+
+    @Test
+    void storedResultsAreReadWithoutWriting() {
+        QuizResultDTO snapshot = new QuizResultDTO(1L, "Bank", null, LocalDateTime.now(), 1, 2, 50.0, List.of());
+        when(quizResultSnapshotRepository.findById(1L)).thenReturn(Optional.of(snapshot));
+
+        assertThat(quizAttemptService.getQuizResults(1L)).isSameAs(snapshot);
+        verify(quizResultSnapshotRepository, never()).insertAllIfAbsent(any());
+    }
+
+    @Test
+    void concurrentStartsOfOnePairCreateOneAttempt() throws Exception {
+        QuizBank quizBank = QuizBank.builder().id(3L).title("Bank").build();
+        when(userRepository.findById(STUDENT_ID)).thenReturn(Optional.of(User.builder().id(STUDENT_ID).name("Student").build()));
+        when(learningItemRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(LearningItem.builder()
+                .id(invocation.getArgument(0)).type(LearningItemType.QUIZ).quizBank(quizBank).build()));
+        AtomicLong ids = new AtomicLong();
+        when(quizAttemptRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            // Hold the insert open so the other starts arrive while it is in flight
+            Thread.sleep(2);
+            QuizAttempt quizAttempt = invocation.getArgument(0);
+            quizAttempt.setId(ids.incrementAndGet());
+            return quizAttempt;
+        });
+        // Starts arriving after the winner registered its attempt find it still in progress
+        when(quizAttemptRepository.existsByIdAndStatus(anyLong(), any())).thenReturn(true);
+
+        int rounds = 50;
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (long learningItemId = 1; learningItemId <= rounds; learningItemId++) {
+                long round = learningItemId;
+                CountDownLatch go = new CountDownLatch(1);
+                List<Future<QuizAttemptDTO>> starts = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    starts.add(executor.submit(() -> {
+                        go.await();
+                        return quizAttemptService.startQuizAttempt(STUDENT_ID, round);
+                    }));
+                }
+                go.countDown();
+
+                int started = 0;
+                for (Future<QuizAttemptDTO> start : starts) {
+                    try {
+                        QuizAttemptDTO quizAttempt = start.get(5, TimeUnit.SECONDS);
+                        assertThat(activeAttemptRegistry.get(STUDENT_ID, round)).isEqualTo(quizAttempt.id());
+                        started++;
+                    } catch (ExecutionException e) {
+                        assertThat(e.getCause()).isInstanceOf(IllegalArgumentException.class)
+                                .hasMessage("There is already an in-progress quiz attempt");
+                    }
+                }
+                assertThat(started).as("attempts started for learning item %d", round).isEqualTo(1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(quizAttemptRepository, times(rounds)).saveAndFlush(any());
+        assertThat(activeAttemptRegistry.size()).isEqualTo(rounds);
+    }
+
+    @Test
+    void attemptCompletedOnAnotherNodeIsReplaced() {
+        QuizBank quizBank = QuizBank.builder().id(3L).title("Bank").build();
+        when(userRepository.findById(STUDENT_ID)).thenReturn(Optional.of(User.builder().id(STUDENT_ID).name("Student").build()));
+        when(learningItemRepository.findById(4L)).thenReturn(Optional.of(LearningItem.builder()
+                .id(4L).type(LearningItemType.QUIZ).quizBank(quizBank).build()));
+        when(quizAttemptRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            QuizAttempt quizAttempt = invocation.getArgument(0);
+            quizAttempt.setId(21L);
+            return quizAttempt;
+        });
+        activeAttemptRegistry.reserve(STUDENT_ID, 4L).orElseThrow().bind(20L);
+        when(quizAttemptRepository.existsByIdAndStatus(20L, QuizAttemptStatus.IN_PROGRESS)).thenReturn(true, false);
+
+        assertThatThrownBy(() -> quizAttemptService.startQuizAttempt(STUDENT_ID, 4L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("There is already an in-progress quiz attempt");
+        assertThat(quizAttemptService.startQuizAttempt(STUDENT_ID, 4L).id()).isEqualTo(21L);
+        assertThat(activeAttemptRegistry.get(STUDENT_ID, 4L)).isEqualTo(21L);
+    }
+
+    private static QuizAttempt attempt(Long id, LocalDateTime deadline) {
+        return QuizAttempt.builder()
+                .id(id)
+                .quizBank(QuizBank.builder().id(3L).title("Bank").build())
+                .startTime(deadline.minusMinutes(30))
+                .deadline(deadline)
+                .status(QuizAttemptStatus.IN_PROGRESS)
+                .answeredCount(1)
+                .correctCount(1)
+                .earnedPoints(1)
+                .servedQuestionIds(new long[]{100L, 101L})
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QuizDeadlineWheelTest {
+
+    private static final long TICK_MILLIS = 10;
+
+    // 8 slots of 10 ms, so a rotation takes 80 ms
+    private final QuizDeadlineWheel quizDeadlineWheel = new QuizDeadlineWheel(TICK_MILLIS, 8);
+    private final BlockingQueue<Expiry> expiries = new LinkedBlockingQueue<>();
+
+    @AfterEach
+    void tearDown() {
+        quizDeadlineWheel.shutdown();
+    }
+
+    @Test
+    void overdueAttemptsScheduledBeforeStartExpireTogetherOnTheFirstTick() throws InterruptedException {
+        quizDeadlineWheel.schedule(1L, LocalDateTime.now().minusMinutes(1));
+        quizDeadlineWheel.schedule(2L, LocalDateTime.now().minusSeconds(1));
+
+        start();
+
+        assertThat(nextExpiry().quizAttemptIds()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(quizDeadlineWheel.pendingCount()).isZero();
+    }
+
+    @Test
+    void attemptNeverExpiresBeforeItsDeadline() throws InterruptedException {
+        start();
+        LocalDateTime deadline = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(55));
+        quizDeadlineWheel.schedule(1L, deadline);
+
+        Expiry expiry = nextExpiry();
+
+        assertThat(expiry.quizAttemptIds()).containsExactly(1L);
+        assertThat(expiry.firedAt()).isAfterOrEqualTo(deadline);
+    }
+
+    @Test
+    void deadlineBeyondOneRotationWaitsForItsRotation() throws InterruptedException {
+        start();
+        LocalDateTime deadline = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(250));
+        quizDeadlineWheel.schedule(1L, deadline);
+
+        Expiry expiry = nextExpiry();
+
+        assertThat(expiry.quizAttemptIds()).containsExactly(1L);
+        assertThat(expiry.firedAt()).isAfterOrEqualTo(deadline);
+    }
+
+    @Test
+    void cancelledAndRescheduledDeadlinesDoNotFireEarly() throws InterruptedException {
+        start();
+        LocalDateTime soon = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(30));
+        quizDeadlineWheel.schedule(1L, soon);
+        quizDeadlineWheel.schedule(2L, soon);
+        quizDeadlineWheel.cancel(1L);
+        // Attempt 2 is given more time; its first timeout must be ignored
+        LocalDateTime extended = LocalDateTime.now().plusNanos(TimeUnit.MILLISECONDS.toNanos(150));
+        quizDeadlineWheel.schedule(2L, extended);
+
+        Expiry expiry = nextExpiry();
+
+        assertThat(expiry.quizAttemptIds()).containsExactly(2L);
+        assertThat(expiry.firedAt()).isAfterOrEqualTo(extended);
+        assertThat(expiries.poll(100, TimeUnit.MILLISECONDS)).isNull();
+    }
+
+    @Test
+    void failingHandlerDoesNotStopTheWheel() throws InterruptedException {
+        List<Long> failed = new ArrayList<>();
+        quizDeadlineWheel.start(quizAttemptIds -> {
+            if (failed.isEmpty()) {
+                failed.addAll(quizAttemptIds);
+                throw new IllegalStateException("database unavailable");
+            }
+            expiries.add(new Expiry(quizAttemptIds, LocalDateTime.now()));
+        });
+        quizDeadlineWheel.schedule(1L, LocalDateTime.now());
+        Thread.sleep(5 * TICK_MILLIS);
+        quizDeadlineWheel.schedule(2L, LocalDateTime.now());
+
+        assertThat(nextExpiry().quizAttemptIds()).containsExactly(2L);
+        assertThat(failed).containsExactly(1L);
+    }
+
+    @Test
+    void wheelCanOnlyBeStartedOnce() {
+        start();
+
+        assertThatThrownBy(this::start).isInstanceOf(IllegalStateException.class);
+    }
+
+    private void start() {
+        quizDeadlineWheel.start(quizAttemptIds -> expiries.add(new Expiry(quizAttemptIds, LocalDateTime.now())));
+    }
+
+    private Expiry nextExpiry() throws InterruptedException {
+        Expiry expiry = expiries.poll(5, TimeUnit.SECONDS);
+        assertThat(expiry).as("expired attempts").isNotNull();
+        return expiry;
+    }
+
+    private record Expiry(List<Long> quizAttemptIds, LocalDateTime firedAt) {
+    }
+}
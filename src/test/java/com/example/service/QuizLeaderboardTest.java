@@ -0,0 +1,87 @@
+package com.example.service;
+
+import com.example.dto.LeaderboardEntryDTO;
+import com.example.model.LearningItem;
+import com.example.model.QuizAttempt;
+import com.example.model.User;
+import com.example.repository.QuizAttemptRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QuizLeaderboardTest {
+
+    private static final Long LEARNING_ITEM_ID = 5L;
+
+    private QuizAttemptRepository quizAttemptRepository;
+    private QuizLeaderboard quizLeaderboard;
+
+    @BeforeEach
+    void setUp() {
+        quizAttemptRepository = mock(QuizAttemptRepository.class);
+        when(quizAttemptRepository.findLeaderboardRows(eq(LEARNING_ITEM_ID), any())).thenReturn(List.of());
+        quizLeaderboard = new QuizLeaderboard(quizAttemptRepository, 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void completionIsOfferedToABoardLoadedBeforeItsCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        quizLeaderboard.recordCompletion(attempt(100L, 1L, 7));
+
+        // Viewed while the completion is uncommitted, so the load cannot see it
+        assertThat(quizLeaderboard.get(LEARNING_ITEM_ID).entries()).isEmpty();
+
+        commit();
+        assertThat(quizLeaderboard.get(LEARNING_ITEM_ID).entries())
+                .extracting(LeaderboardEntryDTO::quizAttemptId)
+                .containsExactly(100L);
+    }
+
+    @Test
+    void boardKeepsTheBestScorePerStudent() {
+        quizLeaderboard.get(LEARNING_ITEM_ID);
+        quizLeaderboard.recordCompletion(attempt(100L, 1L, 5));
+        quizLeaderboard.recordCompletion(attempt(101L, 2L, 6));
+        quizLeaderboard.recordCompletion(attempt(102L, 1L, 9));
+        quizLeaderboard.recordCompletion(attempt(103L, 3L, 1));
+
+        assertThat(quizLeaderboard.get(LEARNING_ITEM_ID).entries())
+                .extracting(LeaderboardEntryDTO::quizAttemptId)
+                .containsExactly(102L, 101L);
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static QuizAttempt attempt(Long id, Long studentId, int totalScore) {
+        return QuizAttempt.builder()
+                .id(id)
+                .student(User.builder().id(studentId).name("student " + studentId).build())
+                .learningItem(LearningItem.builder().id(LEARNING_ITEM_ID).build())
+                .totalScore(totalScore)
+                .maxPossibleScore(10)
+                .endTime(LocalDateTime.of(2024, 1, 1, 12, 0))
+                .build();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.service;
+
+import com.example.dto.QuizMonitorEventDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuizMonitorBroadcasterTest {
+
+    private static final Long LEARNING_ITEM_ID = 4L;
+    private static final int BUFFER_SIZE = 4;
+
+    private final QuizMonitorBroadcaster broadcaster = new QuizMonitorBroadcaster(BUFFER_SIZE, 1000, 2, 60_000);
+    private final CountDownLatch unblock = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        broadcaster.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void slowSubscriberIsDisconnectedWithoutHoldingBackTheOthers() throws InterruptedException {
+        RecordingEmitter fast = new RecordingEmitter(null);
+        RecordingEmitter slow = new RecordingEmitter(unblock);
+        broadcaster.subscribe(LEARNING_ITEM_ID, fast);
+        broadcaster.subscribe(LEARNING_ITEM_ID, slow);
+
+        int events = 20;
+        for (long questionId = 1; questionId <= events; questionId++) {
+            broadcaster.publish(answer(questionId));
+            int received = (int) questionId;
+            await(() -> fast.questionIds().size() == received);
+        }
+
+        // Stuck sending the first event, then a full buffer; the next event disconnects it
+        await(slow::isCompleted);
+        assertThat(slow.questionIds()).containsExactly(1L);
+        assertThat(fast.isCompleted()).isFalse();
+        assertThat(fast.questionIds()).hasSize(events).isSorted();
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void eventsOfRolledBackTransactionsAreDropped() throws InterruptedException {
+        RecordingEmitter proctor = new RecordingEmitter(null);
+        broadcaster.subscribe(LEARNING_ITEM_ID, proctor);
+
+        TransactionSynchronizationManager.initSynchronization();
+        broadcaster.publishAfterCommit(answer(1L));
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        TransactionSynchronizationManager.initSynchronization();
+        broadcaster.publishAfterCommit(answer(2L));
+        assertThat(proctor.questionIds()).isEmpty();
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        await(() -> !proctor.questionIds().isEmpty());
+        Thread.sleep(50);
+        assertThat(proctor.questionIds()).containsExactly(2L);
+    }
+
+    private static QuizMonitorEventDTO answer(Long questionId) {
+        return new QuizMonitorEventDTO(QuizMonitorEventDTO.ANSWER_SUBMITTED, LEARNING_ITEM_ID, 7L, 5L, null,
+                questionId, true, null, null, null);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    /**
+     * Emitter recording the question of every event sent to it, optionally blocking each send until released.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch release;
+        private final List<Long> questionIds = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            builder.build().stream()
+                    .filter(data -> data.getData() instanceof QuizMonitorEventDTO)
+                    .forEach(data -> questionIds.add(((QuizMonitorEventDTO) data.getData()).questionId()));
+            if (release != null) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+
+        List<Long> questionIds() {
+            return questionIds;
+        }
+
+        boolean isCompleted() {
+            return completed;
+        }
+    }
+}
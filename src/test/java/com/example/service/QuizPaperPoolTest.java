@@ -0,0 +1,204 @@
+package com.example.service;
+
+import com.example.dto.QuestionDTO;
+import com.example.dto.QuizAttemptWithQuestionsDTO;
+import com.example.model.LearningItem;
+import com.example.model.LearningItemType;
+import com.example.model.QuestionType;
+import com.example.model.QuizAttempt;
+import com.example.model.QuizBank;
+import com.example.model.User;
+import com.example.repository.LearningItemRepository;
+import com.example.repository.QuestionRepository;
+import com.example.repository.QuizAttemptRepository;
+import com.example.repository.UserRepository;
+import com.example.service.QuizPaperPool.PreparedPaper;
+import com.example.service.grading.ExactMatchGraderFactory;
+import com.example.service.grading.GradingEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class QuizPaperPoolTest {
+
+    private static final Long LEARNING_ITEM_ID = 4L;
+    private static final Long QUIZ_BANK_ID = 1L;
+    private static final int STARTS = 1000;
+
+    private List<QuestionDTO> questions;
+    private AnswerKeyCache answerKeyCache;
+    private QuestionService questionService;
+    private QuizPaperPool quizPaperPool;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+        questions = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            rows.add(new Object[]{id, "A", "Question " + id, null, null, QuestionType.MULTIPLE_CHOICE, "[\"A\",\"B\"]"});
+            questions.add(new QuestionDTO(id, QUIZ_BANK_ID, "Question " + id, QuestionType.MULTIPLE_CHOICE,
+                    List.of("A", "B"), "A", null, List.of()));
+        }
+        QuestionRepository questionRepository = mock(QuestionRepository.class);
+        when(questionRepository.findAnswerKeyRowsByQuizBankId(QUIZ_BANK_ID)).thenReturn(rows);
+        answerKeyCache = new AnswerKeyCache(questionRepository,
+                new GradingEngine(List.of(new ExactMatchGraderFactory()), new ObjectMapper()),
+                new SimpleMeterRegistry(), 16);
+        questionService = mock(QuestionService.class);
+        when(questionService.getQuestionsByQuizBankId(QUIZ_BANK_ID)).thenReturn(questions);
+
+        quizPaperPool = new QuizPaperPool(questionService, answerKeyCache, 2000);
+        quizPaperPool.generate(LEARNING_ITEM_ID, QUIZ_BANK_ID, 3, 2, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void paperOfARolledBackStartGoesBackToThePool() {
+        TransactionSynchronizationManager.initSynchronization();
+        Optional<PreparedPaper> paper = quizPaperPool.poll(LEARNING_ITEM_ID, QUIZ_BANK_ID, 3);
+        assertThat(paper).isPresent();
+        assertThat(remainingPapers()).isEqualTo(1);
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(remainingPapers()).isEqualTo(2);
+    }
+
+    @Test
+    void paperOfACommittedStartIsUsedUp() {
+        TransactionSynchronizationManager.initSynchronization();
+        quizPaperPool.poll(LEARNING_ITEM_ID, QUIZ_BANK_ID, 3);
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(remainingPapers()).isEqualTo(1);
+    }
+
+    @Test
+    void papersAreOnlyHandedOutForTheirQuestionCountAndCurrentBank() {
+        assertThat(quizPaperPool.poll(LEARNING_ITEM_ID, QUIZ_BANK_ID, 4)).isEmpty();
+        assertThat(quizPaperPool.poll(LEARNING_ITEM_ID, QUIZ_BANK_ID, null)).isEmpty();
+        assertThat(quizPaperPool.poll(LEARNING_ITEM_ID, QUIZ_BANK_ID, 3).orElseThrow().questions()).hasSize(3);
+
+        answerKeyCache.invalidate(QUIZ_BANK_ID);
+
+        assertThat(quizPaperPool.poll(LEARNING_ITEM_ID, QUIZ_BANK_ID, 3)).isEmpty();
+        assertThat(quizPaperPool.status(LEARNING_ITEM_ID)).isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {300, 1500})
+    void concurrentStartsTakeEachPaperOnceAndFallBackWhenDrained(int paperCount) throws Exception {
+        quizPaperPool.generate(LEARNING_ITEM_ID, QUIZ_BANK_ID, 3, paperCount, null);
+        List<Long> savedSeeds = Collections.synchronizedList(new ArrayList<>());
+        QuizAttemptService quizAttemptService = quizAttemptService(savedSeeds);
+        Set<Long> sampledSeeds = ConcurrentHashMap.newKeySet();
+        when(questionService.getRandomQuestionsByQuizBankId(eq(QUIZ_BANK_ID), eq(3), anyLong())).thenAnswer(invocation -> {
+            sampledSeeds.add(invocation.getArgument(2));
+            return questions.subList(0, 3);
+        });
+
+        List<QuizAttemptWithQuestionsDTO> started = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(STARTS);
+        try {
+            CountDownLatch go = new CountDownLatch(1);
+            List<Future<QuizAttemptWithQuestionsDTO>> starts = new ArrayList<>();
+            for (long studentId = 1; studentId <= STARTS; studentId++) {
+                long student = studentId;
+                starts.add(executor.submit(() -> {
+                    go.await();
+                    return quizAttemptService.startQuizAttemptWithQuestions(student, LEARNING_ITEM_ID, 3);
+                }));
+            }
+            go.countDown();
+            for (Future<QuizAttemptWithQuestionsDTO> start : starts) {
+                started.add(start.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(started).hasSize(STARTS).allSatisfy(quizAttempt -> assertThat(quizAttempt.questions()).hasSize(3));
+        int pooled = Math.min(paperCount, STARTS);
+        // Every attempt records the seed of its paper, so a paper handed out twice shows up as a repeated seed
+        assertThat(savedSeeds).hasSize(STARTS).doesNotHaveDuplicates();
+        assertThat(savedSeeds.stream().filter(seed -> !sampledSeeds.contains(seed))).hasSize(pooled);
+        assertThat(sampledSeeds).hasSize(STARTS - pooled);
+        assertThat(remainingPapers()).isEqualTo(paperCount - pooled);
+    }
+
+    /**
+     * Service wired to this test's pool and a real registry, recording the paper seed of every saved attempt.
+     */
+    private QuizAttemptService quizAttemptService(List<Long> savedSeeds) {
+        QuizBank quizBank = QuizBank.builder().id(QUIZ_BANK_ID).title("Bank").build();
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findById(anyLong())).thenAnswer(invocation -> Optional.of(
+                User.builder().id(invocation.getArgument(0)).name("Student").build()));
+        LearningItemRepository learningItemRepository = mock(LearningItemRepository.class);
+        when(learningItemRepository.findById(LEARNING_ITEM_ID)).thenReturn(Optional.of(LearningItem.builder()
+                .id(LEARNING_ITEM_ID).type(LearningItemType.QUIZ).quizBank(quizBank).build()));
+        QuizAttemptRepository quizAttemptRepository = mock(QuizAttemptRepository.class);
+        AtomicLong ids = new AtomicLong();
+        when(quizAttemptRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+            QuizAttempt quizAttempt = invocation.getArgument(0);
+            quizAttempt.setId(ids.incrementAndGet());
+            savedSeeds.add(quizAttempt.getPaperSeed());
+            return quizAttempt;
+        });
+
+        QuizAttemptService quizAttemptService = new QuizAttemptService();
+        ReflectionTestUtils.setField(quizAttemptService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(quizAttemptService, "learningItemRepository", learningItemRepository);
+        ReflectionTestUtils.setField(quizAttemptService, "quizAttemptRepository", quizAttemptRepository);
+        ReflectionTestUtils.setField(quizAttemptService, "questionService", questionService);
+        ReflectionTestUtils.setField(quizAttemptService, "quizPaperPool", quizPaperPool);
+        ReflectionTestUtils.setField(quizAttemptService, "activeAttemptRegistry", new ActiveAttemptRegistry());
+        ReflectionTestUtils.setField(quizAttemptService, "quizBlueprintService", mock(QuizBlueprintService.class));
+        ReflectionTestUtils.setField(quizAttemptService, "quizMonitorBroadcaster", mock(QuizMonitorBroadcaster.class));
+        return quizAttemptService;
+    }
+
+    private int remainingPapers() {
+        return quizPaperPool.status(LEARNING_ITEM_ID).orElseThrow().remainingPapers();
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
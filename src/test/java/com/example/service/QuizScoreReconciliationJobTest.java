@@ -0,0 +1,54 @@
+package com.example.service;
+
+import com.example.repository.QuizAttemptRepository;
+import com.example.repository.QuizResultSnapshotRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QuizScoreReconciliationJobTest {
+
+    private final QuizAttemptRepository quizAttemptRepository = mock(QuizAttemptRepository.class);
+    private final QuizResultSnapshotRepository quizResultSnapshotRepository = mock(QuizResultSnapshotRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final QuizScoreReconciliationJob reconciliationJob =
+            new QuizScoreReconciliationJob(quizAttemptRepository, quizResultSnapshotRepository, transactionManager);
+
+    @AfterEach
+    void tearDown() {
+        reconciliationJob.shutdown();
+    }
+
+    @Test
+    void reconciliationDoesNotHoldTheSchedulerThread() throws InterruptedException {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(quizAttemptRepository.reconcileCompletedCounters()).thenAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 3;
+        });
+
+        // Returns while the aggregate is still running
+        reconciliationJob.scheduleReconciliation();
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        verify(quizResultSnapshotRepository, never()).deleteStale();
+
+        release.countDown();
+        verify(quizResultSnapshotRepository, timeout(5000)).deleteStale();
+        verify(transactionManager, timeout(5000)).commit(any());
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.service;
+
+import com.example.dto.RegradeJobDTO;
+import com.example.repository.QuestionRepository;
+import com.example.repository.QuizResultSnapshotRepository;
+import com.example.service.grading.ExactMatchGraderFactory;
+import com.example.service.grading.GradingEngine;
+import com.example.service.grading.MultiSelectGraderFactory;
+import com.example.service.grading.NumericGraderFactory;
+import com.example.service.grading.ShortAnswerGraderFactory;
+import com.example.service.grading.TrueFalseGraderFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs regrade jobs against an in-memory database holding the columns the job reads and writes,
+ * with a chunk size small enough that every job spans several chunks.
+ */
+class RegradeServiceTest {
+
+    private static final int CHUNK_SIZE = 3;
+
+    private final DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:regrade;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final QuestionRepository questionRepository = mock(QuestionRepository.class);
+    private final ItemAnalyticsService itemAnalyticsService = mock(ItemAnalyticsService.class);
+    private final QuizLeaderboard quizLeaderboard = mock(QuizLeaderboard.class);
+    private final QuizResultSnapshotRepository quizResultSnapshotRepository = mock(QuizResultSnapshotRepository.class);
+    private final AnswerWriteBuffer answerWriteBuffer = mock(AnswerWriteBuffer.class);
+    private RegradeService regradeService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE TABLE questions (id BIGINT PRIMARY KEY, quiz_bank_id BIGINT, "
+                + "correct_answer VARCHAR(255), question_type VARCHAR(32), options VARCHAR(255))");
+        jdbcTemplate.execute("CREATE TABLE quiz_attempts (id BIGINT PRIMARY KEY, status VARCHAR(32), "
+                + "correct_count INT, earned_points INT, total_score INT)");
+        jdbcTemplate.execute("CREATE TABLE student_responses (id BIGINT PRIMARY KEY, quiz_attempt_id BIGINT, "
+                + "question_id BIGINT, selected_answer VARCHAR(255), is_correct BOOLEAN, points_earned INT)");
+
+        // The key of question 1 was changed from A to B; question 2 is untouched
+        jdbcTemplate.update("INSERT INTO questions VALUES (1, 9, 'B', 'MULTIPLE_CHOICE', '[\"A\",\"B\",\"C\"]'), "
+                + "(2, 9, 'A', 'MULTIPLE_CHOICE', '[\"A\",\"B\",\"C\"]')");
+        String[] answers = {"A", "B", "A", "C", "B", "A", "B"};
+        for (int i = 0; i < answers.length; i++) {
+            long attemptId = i + 1;
+            boolean correct = answers[i].equals("A");
+            // Every attempt also answered question 2 correctly
+            int score = correct ? 2 : 1;
+            if (attemptId == 6) {
+                // Legacy attempt without counters
+                jdbcTemplate.update("INSERT INTO quiz_attempts VALUES (?, 'COMPLETED', NULL, NULL, ?)", attemptId, score);
+            } else if (attemptId == 7) {
+                jdbcTemplate.update("INSERT INTO quiz_attempts VALUES (?, 'IN_PROGRESS', ?, ?, NULL)", attemptId, score, score);
+            } else {
+                jdbcTemplate.update("INSERT INTO quiz_attempts VALUES (?, 'COMPLETED', ?, ?, ?)", attemptId, score, score, score);
+            }
+            jdbcTemplate.update("INSERT INTO student_responses VALUES (?, ?, 1, ?, ?, ?)",
+                    attemptId * 10, attemptId, answers[i], correct, correct ? 1 : 0);
+            jdbcTemplate.update("INSERT INTO student_responses VALUES (?, ?, 2, 'A', TRUE, 1)", attemptId * 10 + 1, attemptId);
+        }
+
+        when(questionRepository.existsById(anyLong())).thenReturn(true);
+        GradingEngine gradingEngine = new GradingEngine(List.of(new ExactMatchGraderFactory(), new TrueFalseGraderFactory(),
+                new MultiSelectGraderFactory(), new NumericGraderFactory(), new ShortAnswerGraderFactory()), new ObjectMapper());
+        regradeService = new RegradeService(jdbcTemplate, questionRepository, itemAnalyticsService, quizLeaderboard,
+                quizResultSnapshotRepository, answerWriteBuffer, gradingEngine, new DataSourceTransactionManager(dataSource),
+                CHUNK_SIZE, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        regradeService.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void responsesAndAttemptScoresAreRegradedChunkByChunk() throws InterruptedException {
+        RegradeJobDTO job = awaitFinished(regradeService.startRegrade(1L).jobId());
+
+        assertThat(job.status()).isEqualTo("COMPLETED");
+        assertThat(job.processedResponses()).isEqualTo(7);
+        // Answer C was wrong under both keys
+        assertThat(job.changedResponses()).isEqualTo(6);
+        assertThat(jdbcTemplate.queryForList("SELECT is_correct FROM student_responses WHERE question_id = 1 ORDER BY id", Boolean.class))
+                .containsExactly(false, true, false, false, true, false, true);
+        assertThat(jdbcTemplate.queryForList("SELECT points_earned FROM student_responses WHERE question_id = 2", Integer.class))
+                .containsOnly(1);
+
+        assertThat(attempt(1)).containsExactly(1, 1, 1);
+        assertThat(attempt(2)).containsExactly(2, 2, 2);
+        assertThat(attempt(4)).containsExactly(1, 1, 1);
+        assertThat(attempt(6)).containsExactly(null, null, 1);
+        // Only a completed attempt carries a final score
+        assertThat(attempt(7)).containsExactly(2, 2, null);
+
+        verify(quizLeaderboard).invalidateAll();
+        verify(itemAnalyticsService).startBackfill(9L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void snapshotsOfEveryAttemptShowingTheQuestionAreDropped() throws InterruptedException {
+        awaitFinished(regradeService.startRegrade(1L).jobId());
+
+        ArgumentCaptor<Collection<Long>> deleted = ArgumentCaptor.forClass(Collection.class);
+        verify(quizResultSnapshotRepository, atLeastOnce()).deleteByQuizAttemptIds(deleted.capture());
+        assertThat(deleted.getAllValues()).hasSize(3);
+        Set<Long> attemptIds = new HashSet<>();
+        deleted.getAllValues().forEach(attemptIds::addAll);
+        assertThat(attemptIds).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+    }
+
+    @Test
+    void bufferedAnswersAreWrittenBeforeTheScan() throws InterruptedException {
+        doAnswer(invocation -> {
+            // A buffered answer graded against the old key, written with the highest id
+            jdbcTemplate.update("INSERT INTO quiz_attempts VALUES (8, 'IN_PROGRESS', 0, 0, NULL)");
+            jdbcTemplate.update("INSERT INTO student_responses VALUES (80, 8, 1, 'B', FALSE, 0)");
+            return null;
+        }).when(answerWriteBuffer).flushAll();
+
+        RegradeJobDTO job = awaitFinished(regradeService.startRegrade(1L).jobId());
+
+        assertThat(job.processedResponses()).isEqualTo(8);
+        assertThat(jdbcTemplate.queryForObject("SELECT is_correct FROM student_responses WHERE id = 80", Boolean.class)).isTrue();
+        assertThat(attempt(8)).containsExactly(1, 1, null);
+    }
+
+    @Test
+    void jobOfARolledBackChangeIsCancelled() throws InterruptedException {
+        TransactionSynchronizationManager.initSynchronization();
+        RegradeJobDTO queued = regradeService.startRegrade(1L);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(queued.status()).isEqualTo("QUEUED");
+        assertThat(awaitFinished(queued.jobId()).status()).isEqualTo("CANCELLED");
+        verify(answerWriteBuffer, never()).flushAll();
+        assertThat(attempt(1)).containsExactly(2, 2, 2);
+    }
+
+    private RegradeJobDTO awaitFinished(Long jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            RegradeJobDTO job = regradeService.getJob(jobId);
+            if (job.finishedAt() != null) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Regrade job " + jobId + " did not finish");
+    }
+
+    /**
+     * @return correct count, earned points and total score of the attempt
+     */
+    private List<Integer> attempt(long quizAttemptId) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT correct_count, earned_points, total_score FROM quiz_attempts WHERE id = ?", quizAttemptId);
+        return Arrays.asList((Integer) row.get("correct_count"), (Integer) row.get("earned_points"),
+                (Integer) row.get("total_score"));
+    }
+}
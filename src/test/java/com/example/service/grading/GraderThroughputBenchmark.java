@@ -0,0 +1,81 @@
+package com.example.service.grading;
+
+import com.example.model.QuestionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time each question type's compiled grader takes to grade one answer, alternating
+ * between a correct and a wrong answer. No database is needed, but it takes a few minutes, so it is
+ * not part of the regular test run: run {@code mvn test -Dtest=GraderThroughputBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraderThroughputBenchmark {
+
+    @Param({"MULTIPLE_CHOICE", "TRUE_FALSE", "MULTI_SELECT", "NUMERIC", "SHORT_ANSWER"})
+    public QuestionType questionType;
+
+    private AnswerGrader grader;
+    private String[] answers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        GradingEngine gradingEngine = new GradingEngine(List.of(new ExactMatchGraderFactory(),
+                new TrueFalseGraderFactory(), new MultiSelectGraderFactory(), new NumericGraderFactory(),
+                new ShortAnswerGraderFactory()), new ObjectMapper());
+        switch (questionType) {
+            case TRUE_FALSE -> setUp(gradingEngine, "true", List.of(), " True ", "no");
+            case MULTI_SELECT -> setUp(gradingEngine, "Red|Blue", List.of("Red", "Green", "Blue", "Yellow"),
+                    "Blue | Red", "Red|Green");
+            case NUMERIC -> setUp(gradingEngine, "9.81±0.05", List.of(), "9.8", "10.2");
+            case SHORT_ANSWER -> setUp(gradingEngine, "Photosynthesis|/photo ?synthesis/", List.of(),
+                    "  photosynthesis ", "respiration");
+            default -> setUp(gradingEngine, "Paris", List.of("Paris", "London", "Berlin", "Madrid"), "Paris", "London");
+        }
+    }
+
+    private void setUp(GradingEngine gradingEngine, String correctAnswer, List<String> options,
+                       String correctSample, String wrongSample) {
+        grader = gradingEngine.compile(questionType, correctAnswer, options);
+        // Built here rather than interned literals, as submitted answers would be
+        answers = new String[]{new String(correctSample), new String(wrongSample)};
+    }
+
+    @Benchmark
+    public boolean grade() {
+        next ^= 1;
+        return grader.isCorrect(answers[next]);
+    }
+
+    @Test
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder().include(GraderThroughputBenchmark.class.getName()).build()).run();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new GraderThroughputBenchmark().run();
+    }
+}
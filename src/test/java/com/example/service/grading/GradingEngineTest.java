@@ -0,0 +1,41 @@
+package com.example.service.grading;
+
+import com.example.model.QuestionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GradingEngineTest {
+
+    private final GradingEngine gradingEngine = new GradingEngine(List.of(new ExactMatchGraderFactory(),
+            new TrueFalseGraderFactory(), new MultiSelectGraderFactory(), new NumericGraderFactory(),
+            new ShortAnswerGraderFactory()), new ObjectMapper());
+
+    @Test
+    void compileRejectsInvalidCorrectAnswers() {
+        assertThatThrownBy(() -> gradingEngine.compile(QuestionType.NUMERIC, "ten", List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void storedQuestionsThatNoLongerCompileAreGradedByExactMatch() {
+        AnswerGrader grader = gradingEngine.compileStored(QuestionType.SHORT_ANSWER, "/(a+)+/", List.of());
+
+        assertThat(grader.isCorrect("/(a+)+/")).isTrue();
+        assertThat(grader.isCorrect("aaa")).isFalse();
+    }
+
+    @Test
+    void storedOptionsAreOnlyReadForOptionTypes() {
+        assertThat(gradingEngine.parseStoredOptions(QuestionType.MULTI_SELECT, "[\"A\",\"B\"]")).containsExactly("A", "B");
+        assertThat(gradingEngine.parseStoredOptions(QuestionType.NUMERIC, "[\"A\",\"B\"]")).isEmpty();
+        assertThat(gradingEngine.parseStoredOptions(QuestionType.MULTI_SELECT, "not json")).isEmpty();
+
+        AnswerGrader grader = gradingEngine.compileStored(QuestionType.MULTI_SELECT, "A|B", "[\"A\",\"B\",\"C\"]");
+        assertThat(grader.isCorrect("B|A")).isTrue();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.service.grading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MultiSelectGraderFactoryTest {
+
+    private static final List<String> OPTIONS = List.of("Red", "Green", "Blue", "Yellow");
+
+    private final MultiSelectGraderFactory factory = new MultiSelectGraderFactory();
+
+    @Test
+    void exactlyTheCorrectOptionsInAnyOrderAreAccepted() {
+        AnswerGrader grader = factory.compile("Red|Blue", OPTIONS);
+
+        assertThat(grader.isCorrect("Blue | Red")).isTrue();
+        assertThat(grader.isCorrect("Red|Blue|Red")).isTrue();
+        assertThat(grader.isCorrect("Red")).isFalse();
+        assertThat(grader.isCorrect("Red|Blue|Green")).isFalse();
+        assertThat(grader.isCorrect("Red|Purple")).isFalse();
+        assertThat(grader.isCorrect("red|blue")).isFalse();
+        assertThat(grader.isCorrect(null)).isFalse();
+    }
+
+    @Test
+    void correctAnswerMustSelectKnownOptions() {
+        assertThatThrownBy(() -> factory.compile("Red|Purple", OPTIONS)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> factory.compile(" | ", OPTIONS)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> factory.compile("Red", List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> factory.compile("Red", Collections.nCopies(64, "Red")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.service.grading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NumericGraderFactoryTest {
+
+    private final NumericGraderFactory factory = new NumericGraderFactory();
+
+    @Test
+    void acceptsAnswersWithinTheAbsoluteTolerance() {
+        AnswerGrader grader = factory.compile("9.81±0.05", List.of());
+
+        assertThat(grader.isCorrect("9.8")).isTrue();
+        assertThat(grader.isCorrect(" 9.86 ")).isTrue();
+        assertThat(grader.isCorrect("+9.76")).isTrue();
+        assertThat(grader.isCorrect("9.87")).isFalse();
+        assertThat(grader.isCorrect("98.1e-1")).isTrue();
+    }
+
+    @Test
+    void acceptsAnswersWithinThePercentageTolerance() {
+        AnswerGrader grader = factory.compile("1500+-2%", List.of());
+
+        assertThat(grader.isCorrect("1530")).isTrue();
+        assertThat(grader.isCorrect("1469")).isFalse();
+    }
+
+    @Test
+    void withoutToleranceOnlyRoundingDifferencesAreAccepted() {
+        AnswerGrader grader = factory.compile("0.3", List.of());
+
+        assertThat(grader.isCorrect(String.valueOf(0.1 + 0.2))).isTrue();
+        assertThat(grader.isCorrect(".3")).isTrue();
+        assertThat(grader.isCorrect("0.31")).isFalse();
+    }
+
+    @Test
+    void rejectsNonDecimalNumbersThatJavaCouldParse() {
+        AnswerGrader grader = factory.compile("8", List.of());
+
+        assertThat(grader.isCorrect("8")).isTrue();
+        assertThat(grader.isCorrect("0x1p3")).isFalse();
+        assertThat(grader.isCorrect("8f")).isFalse();
+        assertThat(grader.isCorrect("8d")).isFalse();
+        assertThat(grader.isCorrect("Infinity")).isFalse();
+        assertThat(grader.isCorrect("NaN")).isFalse();
+        assertThat(grader.isCorrect("8e")).isFalse();
+        assertThat(grader.isCorrect(".")).isFalse();
+        assertThat(grader.isCorrect("")).isFalse();
+        assertThat(grader.isCorrect(null)).isFalse();
+    }
+
+    @Test
+    void correctAnswerMustBeADecimalWithANonNegativeTolerance() {
+        assertThatThrownBy(() -> factory.compile("0x10", List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> factory.compile("1.5f", List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> factory.compile("1e999", List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> factory.compile("5±-1", List.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.service.grading;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShortAnswerGraderFactoryTest {
+
+    private final ShortAnswerGraderFactory factory = new ShortAnswerGraderFactory();
+
+    @Test
+    void plainAnswersIgnoreCaseAndWhitespace() {
+        AnswerGrader grader = factory.compile("Ho Chi Minh City|Saigon", List.of());
+
+        assertThat(grader.isCorrect("  ho   chi minh\tcity ")).isTrue();
+        assertThat(grader.isCorrect("SAIGON")).isTrue();
+        assertThat(grader.isCorrect("Hanoi")).isFalse();
+        assertThat(grader.isCorrect("Ho Chi Minh")).isFalse();
+    }
+
+    @Test
+    void patternsMustMatchTheWholeTrimmedAnswer() {
+        AnswerGrader grader = factory.compile("/photo ?synthesis/", List.of());
+
+        assertThat(grader.isCorrect(" Photosynthesis ")).isTrue();
+        assertThat(grader.isCorrect("photo synthesis")).isTrue();
+        assertThat(grader.isCorrect("photosynthesis process")).isFalse();
+    }
+
+    @Test
+    void nestedRepetitionIsRejected() {
+        assertThatThrownBy(() -> factory.compile("/(a+)+b/", List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> factory.compile("/((ab)+c)*/", List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> factory.compile("/(x\\d+){2,}/", List.of())).isInstanceOf(IllegalArgumentException.class);
+        // Answers are split on | before patterns are read, so alternation is only reachable through the check itself
+        assertThat(ShortAnswerGraderFactory.hasNestedRepetition("(a|ab)*c")).isTrue();
+        assertThat(ShortAnswerGraderFactory.hasNestedRepetition("(?:a?b)+")).isTrue();
+    }
+
+    @Test
+    void safePatternsAreAccepted() {
+        assertThat(ShortAnswerGraderFactory.hasNestedRepetition("(photo|foto)?synthesis")).isFalse();
+        assertThat(ShortAnswerGraderFactory.hasNestedRepetition("(?:ab)+c")).isFalse();
+        assertThat(ShortAnswerGraderFactory.hasNestedRepetition("[(a+)]+")).isFalse();
+        assertThat(ShortAnswerGraderFactory.hasNestedRepetition("\\(a+\\)+")).isFalse();
+        assertThat(ShortAnswerGraderFactory.hasNestedRepetition("colou?r(s)?")).isFalse();
+    }
+
+    @Test
+    @Timeout(5)
+    void longAnswersAreNotMatchedAgainstPatterns() {
+        AnswerGrader grader = factory.compile("/a*b*a*b*a*b*c/", List.of());
+
+        assertThat(grader.isCorrect("ab".repeat(ShortAnswerGraderFactory.MAX_PATTERN_INPUT_LENGTH))).isFalse();
+        assertThat(grader.isCorrect("aabbc")).isTrue();
+    }
+
+    @Test
+    void atLeastOneAcceptedAnswerIsRequired() {
+        assertThatThrownBy(() -> factory.compile(" | ", List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> factory.compile("/[/", List.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.service.grading;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TrueFalseGraderFactoryTest {
+
+    private final TrueFalseGraderFactory factory = new TrueFalseGraderFactory();
+
+    @Test
+    void commonSpellingsAreAcceptedInAnyCase() {
+        AnswerGrader grader = factory.compile("True", List.of());
+
+        assertThat(grader.isCorrect(" yes ")).isTrue();
+        assertThat(grader.isCorrect("T")).isTrue();
+        assertThat(grader.isCorrect("Đúng")).isTrue();
+        assertThat(grader.isCorrect("false")).isFalse();
+        assertThat(grader.isCorrect("maybe")).isFalse();
+        assertThat(factory.compile("sai", List.of()).isCorrect("NO")).isTrue();
+    }
+
+    @Test
+    void correctAnswerMustBeTrueOrFalse() {
+        assertThatThrownBy(() -> factory.compile("maybe", List.of())).isInstanceOf(IllegalArgumentException.class);
+    }
+}